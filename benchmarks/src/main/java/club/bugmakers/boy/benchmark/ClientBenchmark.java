@@ -0,0 +1,150 @@
+package club.bugmakers.boy.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import club.bugmakers.boy.core.BoyClientHttpRequestFactory;
+import club.bugmakers.boy.core.BoyHttpClient;
+import club.bugmakers.boy.core.BoyRestTemplate;
+import club.bugmakers.boy.core.HttpStatusException;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BoyHttpClient 与 BoyRestTemplate 的端到端基准
+ * 请求发往本机的桩服务，测量的是客户端自身的开销：负载均衡、连接池租用、请求构建、响应读取、指标和请求日志；
+ * 重试路径对固定返回 503 的接口发起请求，每个请求经过 3 次尝试后失败，退避时间为 0，只测量重试引擎的派发开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class ClientBenchmark {
+
+    private static final String POST_BODY = "{\"id\":1,\"name\":\"boy\"}";
+
+    /**
+     * 组件日志级别，默认关闭以排除控制台输出的影响；设为 INFO 可测量逐次尝试日志的开销
+     */
+    @Param({"OFF"})
+    public String logLevel;
+
+    private LocalServer server;
+    private EndpointRegistry registry;
+    private BoyHttpClient httpClient;
+    private BoyRestTemplate restTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ((Logger) LoggerFactory.getLogger("club.bugmakers.boy")).setLevel(ch.qos.logback.classic.Level.toLevel(logLevel));
+        server = new LocalServer(16);
+        registry = new EndpointRegistry(properties(server.baseUrl()));
+        httpClient = new BoyHttpClient(registry);
+        restTemplate = new BoyRestTemplate(registry, new BoyClientHttpRequestFactory());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        restTemplate.close();
+        httpClient.close();
+        registry.close();
+        server.close();
+    }
+
+    @Benchmark
+    public String httpClientGet() throws IOException {
+        return httpClient.get("local", "/get");
+    }
+
+    @Benchmark
+    public String httpClientPost() throws IOException {
+        return httpClient.post("local", "/post", POST_BODY);
+    }
+
+    @Benchmark
+    public String restTemplateGet() {
+        return restTemplate.getForObject("local", "/get", String.class);
+    }
+
+    @Benchmark
+    public String restTemplatePost() {
+        return restTemplate.postForObject("local", "/post", POST_BODY, String.class);
+    }
+
+    @Benchmark
+    public Object httpClientRetry() throws IOException {
+        try {
+            return httpClient.get("retry", "/unavailable");
+        } catch (HttpStatusException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object restTemplateRetry() {
+        try {
+            return restTemplate.getForObject("retry", "/unavailable", String.class);
+        } catch (HttpServerErrorException e) {
+            return e;
+        }
+    }
+
+    /**
+     * 两个服务端点指向同一个桩服务：local 使用默认配置；retry 最多尝试 3 次、不退避、
+     * 关闭重试预算和被动健康检查，使每个请求都完整经过重试路径
+     * @param baseUrl 桩服务地址
+     * @return 配置属性
+     */
+    private static BoyHttpClientProperties properties(String baseUrl) {
+        BoyHttpClientProperties.PoolConfig pool = new BoyHttpClientProperties.PoolConfig();
+        pool.setMaxTotal(64);
+        pool.setMaxPerRoute(64);
+
+        BoyHttpClientProperties.ServiceEndpoint local = new BoyHttpClientProperties.ServiceEndpoint();
+        local.setId("local");
+        local.setHosts(Collections.singletonList(baseUrl));
+        local.setPool(pool);
+
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(3);
+        retryPolicy.setBackoffMs(0);
+        BoyHttpClientProperties.RetryBudgetConfig retryBudget = new BoyHttpClientProperties.RetryBudgetConfig();
+        retryBudget.setEnabled(false);
+        BoyHttpClientProperties.OutlierDetectionConfig outlierDetection = new BoyHttpClientProperties.OutlierDetectionConfig();
+        outlierDetection.setEnabled(false);
+
+        BoyHttpClientProperties.ServiceEndpoint retry = new BoyHttpClientProperties.ServiceEndpoint();
+        retry.setId("retry");
+        retry.setHosts(Collections.singletonList(baseUrl));
+        retry.setPool(pool);
+        retry.setRetryPolicy(retryPolicy);
+        retry.setRetryBudget(retryBudget);
+        retry.setOutlierDetection(outlierDetection);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Arrays.asList(local, retry));
+        return properties;
+    }
+}
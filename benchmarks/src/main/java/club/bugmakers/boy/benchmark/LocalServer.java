@@ -0,0 +1,80 @@
+package club.bugmakers.boy.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 基准测试使用的本地桩服务
+ * 基于 JDK 自带的 HttpServer，在平台线程池上立即返回固定响应，尽量不让服务端成为瓶颈：
+ * /get 返回一段小 JSON，/post 读完请求体后返回同样的 JSON，/unavailable 固定返回 503
+ */
+final class LocalServer implements Closeable {
+
+    static {
+        // JDK 自带 HttpServer 默认最多保留 200 个空闲连接，多线程压测时需要更多才能复用长连接
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "1000");
+        // 响应头和响应体分两次写出，不关闭 Nagle 算法时会与客户端的延迟确认叠加出约 40ms 的等待
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private static final byte[] BODY = "{\"id\":1,\"name\":\"boy\",\"tags\":[\"a\",\"b\",\"c\"]}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * 在随机端口上启动服务
+     * @param threads 服务端线程数
+     * @throws IOException 端口绑定失败
+     */
+    LocalServer(int threads) throws IOException {
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/get", exchange -> respond(exchange, 200));
+        server.createContext("/post", exchange -> {
+            drain(exchange.getRequestBody());
+            respond(exchange, 200);
+        });
+        server.createContext("/unavailable", exchange -> respond(exchange, 503));
+        server.start();
+    }
+
+    /**
+     * 获取服务的基础URL
+     * @return 基础URL，例如 http://localhost:12345
+     */
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, BODY.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(BODY);
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        while (in.read(buffer) >= 0) {
+            // 丢弃请求体
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
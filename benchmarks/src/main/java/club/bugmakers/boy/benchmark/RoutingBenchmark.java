@@ -0,0 +1,157 @@
+package club.bugmakers.boy.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import club.bugmakers.boy.balancer.HostSelection;
+import club.bugmakers.boy.core.BoyClientHttpRequestFactory;
+import club.bugmakers.boy.pool.BoyConnectionPool;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointPlan;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import club.bugmakers.boy.registry.ProxyAddress;
+import club.bugmakers.boy.registry.RetrySettings;
+import club.bugmakers.boy.retry.RetryClassifier;
+import org.apache.http.client.config.RequestConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不经过网络的请求路由基准
+ * 分别测量每个请求都会经过的几个步骤：按ID查找服务端点、负载均衡选择主机并反馈结果、选择代理并构建请求配置，
+ * 以及重试引擎在一次失败后由定时器交回下一次尝试的开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RoutingBenchmark {
+
+    private static final int ENDPOINTS = 64;
+    private static final URI TARGET = URI.create("http://service-0-host-0:8080/get");
+
+    /**
+     * 重试路径的失败分类：IO 异常都可重试
+     */
+    private static final RetryClassifier RETRY_IO = error -> error instanceof IOException;
+
+    private EndpointRegistry registry;
+    private String[] endpointIds;
+    private EndpointPlan plan;
+    private BoyConnectionPool pool;
+    private BoyClientHttpRequestFactory legacyFactory;
+    private RetrySettings noBackoff;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger("club.bugmakers.boy")).setLevel(ch.qos.logback.classic.Level.OFF);
+        List<BoyHttpClientProperties.ServiceEndpoint> endpoints = new ArrayList<>();
+        endpointIds = new String[ENDPOINTS];
+        for (int i = 0; i < ENDPOINTS; i++) {
+            BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+            endpoint.setId("service-" + i);
+            endpoint.setHosts(Arrays.asList("http://service-" + i + "-host-0:8080", "http://service-" + i + "-host-1:8080", "http://service-" + i + "-host-2:8080"));
+            endpoint.setProxies(Arrays.asList("proxy-0:3128", "proxy-1:3128", "proxy-2:3128"));
+            endpoints.add(endpoint);
+            endpointIds[i] = endpoint.getId();
+        }
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(endpoints);
+        registry = new EndpointRegistry(properties);
+        plan = registry.require("service-0");
+        pool = new BoyConnectionPool("service-0", new BoyHttpClientProperties.PoolConfig(), registry.getDnsResolver());
+        legacyFactory = new BoyClientHttpRequestFactory(properties.getEndpoints().get(0).getProxies());
+
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(2);
+        retryPolicy.setBackoffMs(0);
+        noBackoff = new RetrySettings(retryPolicy);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.close();
+        registry.close();
+    }
+
+    /**
+     * 按ID查找服务端点
+     * @return 运行时计划
+     */
+    @Benchmark
+    public EndpointPlan endpointLookup() {
+        return registry.require(endpointIds[ThreadLocalRandom.current().nextInt(ENDPOINTS)]);
+    }
+
+    /**
+     * 一次请求的主机选择：创建选择状态、按负载均衡策略选择主机、登记开始并反馈结果
+     * @return 主机下标
+     */
+    @Benchmark
+    public int hostSelection() {
+        HostSelection selection = plan.newHostSelection();
+        int host = selection.select();
+        selection.onStart(host);
+        selection.onComplete(host, 1_000_000, true);
+        return host;
+    }
+
+    /**
+     * BoyHttpClient 与 BoyRestTemplate 的代理选择：随机选择预解析的代理并构建请求配置
+     * @return 请求配置
+     */
+    @Benchmark
+    public RequestConfig proxySelection() {
+        List<ProxyAddress> proxies = plan.getProxies();
+        ProxyAddress proxy = proxies.get(ThreadLocalRandom.current().nextInt(proxies.size()));
+        return pool.requestConfig(proxy.getHttpHost());
+    }
+
+    /**
+     * BoyClientHttpRequestFactory 的代理选择：用于普通 URL 请求，每次创建 HttpURLConnection（不建立连接）
+     * @return 请求
+     * @throws IOException 创建连接失败
+     */
+    @Benchmark
+    public ClientHttpRequest legacyFactoryProxySelection() throws IOException {
+        return legacyFactory.createRequest(TARGET, HttpMethod.GET);
+    }
+
+    /**
+     * 重试路径：第一次尝试失败，不退避，由重试引擎的定时器交回第二次尝试后成功
+     * @return 调用结果
+     * @throws Exception 重试失败
+     */
+    @Benchmark
+    public Integer retryHandoff() throws Exception {
+        return registry.getRetryEngine().execute("service-0", noBackoff, null, (attempt, future) -> {
+            if (attempt == 1) {
+                throw new IOException("simulated failure");
+            }
+            return attempt;
+        }, RETRY_IO);
+    }
+}
@@ -0,0 +1,120 @@
+package club.bugmakers.boy.benchmark.load;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 注入到桩主机或桩代理上的故障
+ * 不可变对象，运行中通过整体替换切换故障；格式为逗号分隔的 key=value，例如 latency=200,error=0.1,reset=0.05,slowBody=500：
+ * latency 为每个请求额外等待的毫秒数，jitter 为在 latency 之上再随机增加的最大毫秒数，
+ * error 为返回 503 的比例，reset 为读完请求后直接以 RST 断开连接的比例，slowBody 为响应体分段写完所用的毫秒数
+ */
+final class Fault {
+
+    /**
+     * 无故障
+     */
+    static final Fault NONE = new Fault(0, 0, 0, 0, 0);
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+    private final double resetRate;
+    private final long slowBodyMs;
+
+    Fault(long latencyMs, long jitterMs, double errorRate, double resetRate, long slowBodyMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+        this.resetRate = resetRate;
+        this.slowBodyMs = slowBodyMs;
+    }
+
+    /**
+     * 解析故障描述
+     * @param spec 故障描述，为空或 none 时表示无故障
+     * @return 故障
+     */
+    static Fault parse(String spec) {
+        if (spec == null || spec.trim().isEmpty() || "none".equalsIgnoreCase(spec.trim())) {
+            return NONE;
+        }
+        long latencyMs = 0;
+        long jitterMs = 0;
+        double errorRate = 0;
+        double resetRate = 0;
+        long slowBodyMs = 0;
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid fault: " + part);
+            }
+            String value = kv[1].trim();
+            switch (kv[0].trim().toLowerCase(Locale.ROOT)) {
+                case "latency":
+                    latencyMs = Long.parseLong(value);
+                    break;
+                case "jitter":
+                    jitterMs = Long.parseLong(value);
+                    break;
+                case "error":
+                    errorRate = rate(value);
+                    break;
+                case "reset":
+                    resetRate = rate(value);
+                    break;
+                case "slowbody":
+                    slowBodyMs = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown fault: " + kv[0]);
+            }
+        }
+        return new Fault(latencyMs, jitterMs, errorRate, resetRate, slowBodyMs);
+    }
+
+    private static double rate(String value) {
+        double rate = Double.parseDouble(value);
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Fault rate must be between 0 and 1: " + value);
+        }
+        return rate;
+    }
+
+    /**
+     * 本次请求额外等待的毫秒数
+     * @return 毫秒数
+     */
+    long nextDelayMs() {
+        return jitterMs > 0 ? latencyMs + ThreadLocalRandom.current().nextLong(jitterMs + 1) : latencyMs;
+    }
+
+    /**
+     * 本次请求是否返回 503
+     * @return 是否返回 503
+     */
+    boolean nextError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    /**
+     * 本次请求是否直接断开连接
+     * @return 是否断开连接
+     */
+    boolean nextReset() {
+        return resetRate > 0 && ThreadLocalRandom.current().nextDouble() < resetRate;
+    }
+
+    long getSlowBodyMs() {
+        return slowBodyMs;
+    }
+
+    @Override
+    public String toString() {
+        if (this == NONE) {
+            return "none";
+        }
+        return "latency=" + latencyMs + ",jitter=" + jitterMs + ",error=" + errorRate
+                + ",reset=" + resetRate + ",slowBody=" + slowBodyMs;
+    }
+}
@@ -0,0 +1,288 @@
+package club.bugmakers.boy.benchmark.load;
+
+import ch.qos.logback.classic.Logger;
+import club.bugmakers.boy.core.BoyClientHttpRequestFactory;
+import club.bugmakers.boy.core.BoyHttpClient;
+import club.bugmakers.boy.core.BoyRestTemplate;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟分位数压测与故障注入入口
+ * 在本机启动若干桩主机和桩代理，用开环负载驱动 BoyHttpClient 和 BoyRestTemplate，在指定时刻向某些主机或代理注入故障，
+ * 观察负载均衡、重试退避、被动健康检查在部分主机劣化时的表现；全部在一个进程内完成，不依赖外部服务。
+ * <p>
+ * 参数均为 --key=value 形式：
+ * <ul>
+ *     <li>client：httpclient、resttemplate 或 both，默认 both</li>
+ *     <li>rate：每秒请求数，默认 200；duration：测量时长秒数，默认 30；warmup：预热秒数，默认 5</li>
+ *     <li>hosts：桩主机数，默认 3；proxies：桩代理数，默认 0</li>
+ *     <li>fault：主机故障，格式为 下标:故障，多个以分号分隔，例如 0:latency=200,error=0.2;1:reset=0.05</li>
+ *     <li>proxyFault：代理故障，格式同上；faultAt：测量开始后第几秒注入故障，默认 0</li>
+ *     <li>maxAttempts、backoffMs、strategy、outlierDetection、pool：透传给服务端点配置</li>
+ *     <li>maxInFlight：同时在途的请求上限，默认 1000；out：结果目录，默认 target/load；logLevel：组件日志级别，默认 OFF</li>
+ * </ul>
+ * 每个客户端输出两个文件：{client}.hlog 为每秒一个区间的 HdrHistogram 日志，成功和失败分别带 success、failure 标签，数值单位为纳秒；
+ * {client}.hgrm 为整轮的延迟分位数分布，单位为毫秒
+ */
+public final class LoadHarness {
+
+    private static final String HTTP_CLIENT = "httpclient";
+    private static final String REST_TEMPLATE = "resttemplate";
+    private static final String ENDPOINT_ID = "load";
+    private static final String PATH = "/get";
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        List<String> clients = "both".equals(options.getOrDefault("client", "both"))
+                ? Arrays.asList(HTTP_CLIENT, REST_TEMPLATE)
+                : Arrays.asList(options.get("client").split(","));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        long durationMs = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("duration", "30")));
+        long warmupMs = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("warmup", "5")));
+        long faultAtMs = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("faultAt", "0")));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("maxInFlight", "1000"));
+        File out = new File(options.getOrDefault("out", "target/load"));
+        if (!out.isDirectory() && !out.mkdirs()) {
+            throw new IllegalStateException("Cannot create output directory: " + out);
+        }
+        ((Logger) LoggerFactory.getLogger("club.bugmakers.boy"))
+                .setLevel(ch.qos.logback.classic.Level.toLevel(options.getOrDefault("logLevel", "OFF")));
+
+        List<StubHost> hosts = new ArrayList<>();
+        List<StubProxy> proxies = new ArrayList<>();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "load-fault");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            int hostCount = Integer.parseInt(options.getOrDefault("hosts", "3"));
+            for (int i = 0; i < hostCount; i++) {
+                hosts.add(new StubHost("host" + i));
+            }
+            int proxyCount = Integer.parseInt(options.getOrDefault("proxies", "0"));
+            for (int i = 0; i < proxyCount; i++) {
+                proxies.add(new StubProxy("proxy" + i));
+            }
+            Map<StubServer, Fault> faults = new HashMap<>();
+            faults.putAll(faults(options.get("fault"), hosts));
+            faults.putAll(faults(options.get("proxyFault"), proxies));
+            BoyHttpClientProperties properties = properties(options, hosts, proxies);
+            OpenLoopDriver driver = new OpenLoopDriver(rate, maxInFlight);
+
+            System.out.printf(Locale.ROOT, "rate=%.0f/s duration=%ds warmup=%ds hosts=%d proxies=%d faultAt=%ds faults=%s%n",
+                    rate, durationMs / 1000, warmupMs / 1000, hosts.size(), proxies.size(), faultAtMs / 1000, describe(faults));
+            for (String client : clients) {
+                run(client, properties, driver, durationMs, warmupMs, faultAtMs, faults, hosts, proxies, scheduler, out);
+            }
+        } finally {
+            scheduler.shutdownNow();
+            hosts.forEach(StubServer::close);
+            proxies.forEach(StubServer::close);
+        }
+    }
+
+    private static void run(String client, BoyHttpClientProperties properties, OpenLoopDriver driver,
+                            long durationMs, long warmupMs, long faultAtMs, Map<StubServer, Fault> faults,
+                            List<StubHost> hosts, List<StubProxy> proxies, ScheduledExecutorService scheduler,
+                            File out) throws Exception {
+        List<StubServer> servers = new ArrayList<>(hosts);
+        servers.addAll(proxies);
+        servers.forEach(server -> server.setFault(Fault.NONE));
+
+        // 每个客户端使用新的注册表，避免上一轮的健康状态和重试预算影响本轮
+        try (EndpointRegistry registry = new EndpointRegistry(properties);
+             BoyHttpClient httpClient = new BoyHttpClient(registry);
+             BoyRestTemplate restTemplate = new BoyRestTemplate(registry, new BoyClientHttpRequestFactory())) {
+            OpenLoopDriver.Call call;
+            if (HTTP_CLIENT.equals(client)) {
+                call = () -> httpClient.get(ENDPOINT_ID, PATH);
+            } else if (REST_TEMPLATE.equals(client)) {
+                call = () -> restTemplate.getForObject(ENDPOINT_ID, PATH, String.class);
+            } else {
+                throw new IllegalArgumentException("Unknown client: " + client);
+            }
+
+            if (warmupMs > 0) {
+                driver.run(call, warmupMs, null);
+            }
+            servers.forEach(StubServer::resetCounters);
+
+            ScheduledFuture<?> injection = scheduler.schedule(
+                    () -> faults.forEach(StubServer::setFault), faultAtMs, TimeUnit.MILLISECONDS);
+            OpenLoopDriver.Result result;
+            try (PrintStream hlog = new PrintStream(new File(out, client + ".hlog"), "UTF-8")) {
+                HistogramLogWriter log = new HistogramLogWriter(hlog);
+                long now = System.currentTimeMillis();
+                log.outputComment("boy-httpclient load harness, client=" + client + ", values in nanoseconds");
+                log.outputLogFormatVersion();
+                log.outputStartTime(now);
+                log.setBaseTime(now);
+                log.outputLegend();
+                result = driver.run(call, durationMs, log);
+            } finally {
+                injection.cancel(false);
+                servers.forEach(server -> server.setFault(Fault.NONE));
+            }
+
+            writeDistribution(new File(out, client + ".hgrm"), result.all());
+            report(client, result, hosts, proxies, faults);
+        }
+    }
+
+    private static void writeDistribution(File file, Histogram histogram) throws FileNotFoundException {
+        try (PrintStream stream = new PrintStream(file)) {
+            histogram.outputPercentileDistribution(stream, NANOS_PER_MS);
+        }
+    }
+
+    private static void report(String client, OpenLoopDriver.Result result, List<StubHost> hosts, List<StubProxy> proxies,
+                               Map<StubServer, Fault> faults) {
+        long success = result.success.getTotalCount();
+        long failed = result.failure.getTotalCount();
+        long completed = success + failed;
+        System.out.printf(Locale.ROOT, "%n== %s%n", client);
+        System.out.printf(Locale.ROOT, "sent %d, success %d, failed %d, dropped %d, throughput %.1f/s%n",
+                result.sent.sum(), success, failed, result.dropped.sum(),
+                completed * 1e9 / Math.max(1, result.elapsedNanos));
+        System.out.printf(Locale.ROOT, "%-8s %10s %10s %10s %10s %10s %10s%n", "ms", "p50", "p90", "p99", "p99.9", "max", "count");
+        line("all", result.all());
+        line("success", result.success);
+        line("failure", result.failure);
+        result.failureCounts().forEach((type, count) -> System.out.printf(Locale.ROOT, "failure  %s: %d%n", type, count));
+
+        long attempts = 0;
+        for (StubHost host : hosts) {
+            attempts += host.getRequests();
+            server(host, faults);
+        }
+        for (StubProxy proxy : proxies) {
+            server(proxy, faults);
+        }
+        System.out.printf(Locale.ROOT, "attempts per request %.3f%n", completed == 0 ? 0.0 : (double) attempts / completed);
+    }
+
+    private static void line(String name, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            System.out.printf(Locale.ROOT, "%-8s %10s %10s %10s %10s %10s %10d%n", name, "-", "-", "-", "-", "-", 0);
+            return;
+        }
+        System.out.printf(Locale.ROOT, "%-8s %10.2f %10.2f %10.2f %10.2f %10.2f %10d%n", name,
+                histogram.getValueAtPercentile(50) / NANOS_PER_MS,
+                histogram.getValueAtPercentile(90) / NANOS_PER_MS,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MS,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MS,
+                histogram.getMaxValue() / NANOS_PER_MS,
+                histogram.getTotalCount());
+    }
+
+    private static void server(StubServer server, Map<StubServer, Fault> faults) {
+        System.out.printf(Locale.ROOT, "%-8s requests %d, injected errors %d, resets %d, fault %s%n",
+                server.getName(), server.getRequests(), server.getErrors(), server.getResets(),
+                faults.getOrDefault(server, Fault.NONE));
+    }
+
+    /**
+     * 构建只有一个服务端点的配置，指向全部桩主机和桩代理
+     */
+    private static BoyHttpClientProperties properties(Map<String, String> options, List<StubHost> hosts, List<StubProxy> proxies) {
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId(ENDPOINT_ID);
+        List<String> hostUrls = new ArrayList<>();
+        hosts.forEach(host -> hostUrls.add(host.baseUrl()));
+        endpoint.setHosts(hostUrls);
+        if (!proxies.isEmpty()) {
+            List<String> proxyAddresses = new ArrayList<>();
+            proxies.forEach(proxy -> proxyAddresses.add(proxy.address()));
+            endpoint.setProxies(proxyAddresses);
+        }
+
+        BoyHttpClientProperties.PoolConfig pool = new BoyHttpClientProperties.PoolConfig();
+        int poolSize = Integer.parseInt(options.getOrDefault("pool", "200"));
+        pool.setMaxTotal(poolSize);
+        pool.setMaxPerRoute(poolSize);
+        endpoint.setPool(pool);
+
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(Integer.parseInt(options.getOrDefault("maxAttempts", String.valueOf(retryPolicy.getMaxAttempts()))));
+        retryPolicy.setBackoffMs(Long.parseLong(options.getOrDefault("backoffMs", String.valueOf(retryPolicy.getBackoffMs()))));
+        endpoint.setRetryPolicy(retryPolicy);
+
+        BoyHttpClientProperties.LoadBalancerConfig loadBalancer = new BoyHttpClientProperties.LoadBalancerConfig();
+        if (options.containsKey("strategy")) {
+            loadBalancer.setStrategy(BoyHttpClientProperties.LoadBalancerStrategy.valueOf(options.get("strategy").toUpperCase(Locale.ROOT)));
+        }
+        endpoint.setLoadBalancer(loadBalancer);
+
+        BoyHttpClientProperties.OutlierDetectionConfig outlierDetection = new BoyHttpClientProperties.OutlierDetectionConfig();
+        outlierDetection.setEnabled(Boolean.parseBoolean(options.getOrDefault("outlierDetection", String.valueOf(outlierDetection.isEnabled()))));
+        endpoint.setOutlierDetection(outlierDetection);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Arrays.asList(endpoint));
+        return properties;
+    }
+
+    private static <T extends StubServer> Map<StubServer, Fault> faults(String spec, List<T> servers) {
+        Map<StubServer, Fault> faults = new HashMap<>();
+        if (spec == null || spec.trim().isEmpty()) {
+            return faults;
+        }
+        for (String entry : spec.split(";")) {
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Invalid fault, expected index:spec: " + entry);
+            }
+            int index = Integer.parseInt(entry.substring(0, colon).trim());
+            if (index < 0 || index >= servers.size()) {
+                throw new IllegalArgumentException("Fault index out of range: " + entry);
+            }
+            faults.put(servers.get(index), Fault.parse(entry.substring(colon + 1)));
+        }
+        return faults;
+    }
+
+    private static String describe(Map<StubServer, Fault> faults) {
+        if (faults.isEmpty()) {
+            return "none";
+        }
+        StringBuilder description = new StringBuilder();
+        faults.forEach((server, fault) -> description.append(description.length() > 0 ? "; " : "")
+                .append(server.getName()).append(' ').append(fault));
+        return description.toString();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,207 @@
+package club.bugmakers.boy.benchmark.load;
+
+import club.bugmakers.boy.core.HttpStatusException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开环负载驱动
+ * 按固定速率预先排定每个请求的计划发出时间，发送线程只负责到点把请求交给工作线程，不等待上一个请求完成，
+ * 延迟从计划发出时间开始计算，客户端变慢时排队时间也计入结果，避免协调遗漏（coordinated omission）；
+ * 同时在途的请求超过上限时丢弃并计数，而不是让发送节奏退化为闭环
+ */
+final class OpenLoopDriver {
+
+    /**
+     * 被驱动的一次调用
+     */
+    @FunctionalInterface
+    interface Call {
+        void run() throws Exception;
+    }
+
+    private static final long REPORT_INTERVAL_MS = 1000;
+    private static final long DRAIN_TIMEOUT_MS = 60000;
+
+    private final double rate;
+    private final int maxInFlight;
+
+    /**
+     * @param rate 每秒发出的请求数
+     * @param maxInFlight 同时在途的请求上限
+     */
+    OpenLoopDriver(double rate, int maxInFlight) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + rate);
+        }
+        this.rate = rate;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * 驱动一轮负载
+     * @param call 被驱动的调用
+     * @param durationMs 发送时长，毫秒
+     * @param log 区间直方图日志，每秒写出一次成功和失败两个带标签的区间直方图，为 null 时不写
+     * @return 本轮结果，等待在途请求完成后返回
+     * @throws InterruptedException 等待被中断
+     */
+    Result run(Call call, long durationMs, HistogramLogWriter log) throws InterruptedException {
+        Recorder successRecorder = new Recorder(3);
+        Recorder failureRecorder = new Recorder(3);
+        Result result = new Result();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger workerCounter = new AtomicInteger();
+        ExecutorService workers = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "load-worker-" + workerCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "load-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Interval interval = new Interval(successRecorder, failureRecorder, result, log);
+        reporter.scheduleAtFixedRate(interval, REPORT_INTERVAL_MS, REPORT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMs);
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended - start >= durationNanos) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            result.sent.increment();
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                result.dropped.increment();
+                continue;
+            }
+            workers.execute(() -> {
+                try {
+                    call.run();
+                    successRecorder.recordValue(System.nanoTime() - intended);
+                } catch (Throwable t) {
+                    failureRecorder.recordValue(System.nanoTime() - intended);
+                    result.failures.computeIfAbsent(describe(t), key -> new LongAdder()).increment();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            System.err.println("In-flight requests did not finish within " + DRAIN_TIMEOUT_MS + "ms: " + inFlight.get());
+            workers.shutdownNow();
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        reporter.shutdown();
+        reporter.awaitTermination(DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        // 调度已停止，在当前线程写出最后一个区间
+        interval.run();
+        return result;
+    }
+
+    /**
+     * 失败分类：异常类名，带状态码的异常附上状态码
+     * @param t 异常
+     * @return 分类
+     */
+    private static String describe(Throwable t) {
+        String name = t.getClass().getSimpleName();
+        if (t instanceof HttpStatusException) {
+            return name + " " + ((HttpStatusException) t).getStatusCode();
+        }
+        if (t instanceof RestClientResponseException) {
+            return name + " " + ((RestClientResponseException) t).getRawStatusCode();
+        }
+        if (t.getCause() != null && t.getCause() != t) {
+            return name + " (" + t.getCause().getClass().getSimpleName() + ")";
+        }
+        return name;
+    }
+
+    /**
+     * 每秒把两个 Recorder 的区间直方图写入日志并累加到总直方图，只在报告线程或发送结束后的当前线程上执行
+     */
+    private static final class Interval implements Runnable {
+        private final Recorder successRecorder;
+        private final Recorder failureRecorder;
+        private final Result result;
+        private final HistogramLogWriter log;
+        private Histogram successInterval;
+        private Histogram failureInterval;
+
+        Interval(Recorder successRecorder, Recorder failureRecorder, Result result, HistogramLogWriter log) {
+            this.successRecorder = successRecorder;
+            this.failureRecorder = failureRecorder;
+            this.result = result;
+            this.log = log;
+        }
+
+        @Override
+        public synchronized void run() {
+            successInterval = successRecorder.getIntervalHistogram(successInterval);
+            failureInterval = failureRecorder.getIntervalHistogram(failureInterval);
+            result.success.add(successInterval);
+            result.failure.add(failureInterval);
+            if (log != null) {
+                successInterval.setTag("success");
+                failureInterval.setTag("failure");
+                log.outputIntervalHistogram(successInterval);
+                log.outputIntervalHistogram(failureInterval);
+            }
+        }
+    }
+
+    /**
+     * 一轮负载的结果，延迟单位为纳秒
+     */
+    static final class Result {
+        final Histogram success = new Histogram(3);
+        final Histogram failure = new Histogram(3);
+        final LongAdder sent = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        long elapsedNanos;
+
+        /**
+         * 成功和失败合并后的延迟分布
+         * @return 直方图
+         */
+        Histogram all() {
+            Histogram all = success.copy();
+            all.add(failure);
+            return all;
+        }
+
+        /**
+         * 按分类排序的失败计数
+         * @return 失败计数
+         */
+        Map<String, Long> failureCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            failures.forEach((key, count) -> counts.put(key, count.sum()));
+            return counts;
+        }
+    }
+}
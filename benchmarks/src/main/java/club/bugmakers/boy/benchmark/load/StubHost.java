@@ -0,0 +1,31 @@
+package club.bugmakers.boy.benchmark.load;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 桩主机，对任意路径返回一段带主机名的小 JSON
+ */
+final class StubHost extends StubServer {
+
+    private final byte[] body;
+
+    StubHost(String name) throws IOException {
+        super(name);
+        this.body = ("{\"host\":\"" + name + "\",\"tags\":[\"a\",\"b\",\"c\"],\"padding\":\""
+                + new String(new char[256]).replace('\0', 'x') + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 获取主机的基础URL
+     * @return 基础URL，例如 http://127.0.0.1:12345
+     */
+    String baseUrl() {
+        return "http://127.0.0.1:" + getPort();
+    }
+
+    @Override
+    Response handle(Request request) {
+        return new Response(200, "application/json", body);
+    }
+}
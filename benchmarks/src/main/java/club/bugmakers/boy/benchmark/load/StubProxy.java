@@ -0,0 +1,69 @@
+package club.bugmakers.boy.benchmark.load;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 桩 HTTP 正向代理
+ * 请求行中是绝对 URI，每个请求向目标主机新建一条 Connection: close 的连接转发，读到 EOF 后把响应交回客户端；
+ * 连不上目标或目标断开时返回 502，代理自身的故障与桩主机一样通过 {@link #setFault(Fault)} 注入
+ */
+final class StubProxy extends StubServer {
+
+    StubProxy(String name) throws IOException {
+        super(name);
+    }
+
+    /**
+     * 获取代理地址
+     * @return 代理地址，格式为 host:port
+     */
+    String address() {
+        return "127.0.0.1:" + getPort();
+    }
+
+    @Override
+    Response handle(Request request) {
+        URI target = URI.create(request.target);
+        if (target.getHost() == null) {
+            return Response.text(400, "absolute URI required");
+        }
+        int port = target.getPort() > 0 ? target.getPort() : 80;
+        try (Socket upstream = new Socket(target.getHost(), port)) {
+            upstream.setTcpNoDelay(true);
+            String path = target.getRawPath() + (target.getRawQuery() != null ? "?" + target.getRawQuery() : "");
+            StringBuilder head = new StringBuilder()
+                    .append(request.method).append(' ').append(path.isEmpty() ? "/" : path).append(" HTTP/1.1\r\n")
+                    .append("Host: ").append(target.getHost()).append(':').append(port).append("\r\n")
+                    .append("Connection: close\r\n")
+                    .append("Content-Length: ").append(request.body.length).append("\r\n");
+            String contentType = request.headers.get("content-type");
+            if (contentType != null) {
+                head.append("Content-Type: ").append(contentType).append("\r\n");
+            }
+            head.append("\r\n");
+            OutputStream out = upstream.getOutputStream();
+            out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+            out.write(request.body);
+            out.flush();
+
+            InputStream in = new BufferedInputStream(upstream.getInputStream());
+            String statusLine = readLine(in);
+            if (statusLine == null) {
+                return Response.text(502, "upstream closed");
+            }
+            int status = Integer.parseInt(statusLine.split(" ")[1]);
+            Map<String, String> headers = readHeaders(in);
+            byte[] body = readBody(in, headers);
+            return new Response(status, headers.getOrDefault("content-type", "application/octet-stream"), body);
+        } catch (IOException | RuntimeException e) {
+            return Response.text(502, "upstream failed: " + e.getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package club.bugmakers.boy.benchmark.load;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 可注入故障的本地 HTTP/1.1 桩服务
+ * 直接基于 ServerSocket 实现，每个连接一个线程并支持长连接，这样才能控制连接层面的故障：
+ * reset 故障在读完请求后设置 SO_LINGER=0 再关闭套接字，客户端收到 RST；slowBody 故障先写出响应头，再分段慢慢写出响应体
+ */
+abstract class StubServer implements Closeable {
+
+    private static final int SLOW_BODY_CHUNKS = 4;
+
+    private final String name;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private volatile Fault fault = Fault.NONE;
+    private volatile boolean running = true;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+
+    /**
+     * 在本机随机端口上启动服务
+     * @param name 服务名称，用于线程名和报告
+     * @throws IOException 端口绑定失败
+     */
+    StubServer(String name) throws IOException {
+        this.name = name;
+        this.serverSocket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        AtomicInteger counter = new AtomicInteger();
+        this.connections = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, name + "-conn-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread acceptor = new Thread(this::acceptLoop, name + "-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * 处理一个请求，故障已在调用前处理
+     * @param request 请求
+     * @return 响应
+     * @throws IOException 处理失败，连接将被关闭
+     */
+    abstract Response handle(Request request) throws IOException;
+
+    String getName() {
+        return name;
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 切换故障，对之后读到的请求生效
+     * @param fault 故障
+     */
+    void setFault(Fault fault) {
+        this.fault = fault;
+    }
+
+    Fault getFault() {
+        return fault;
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    long getResets() {
+        return resets.sum();
+    }
+
+    /**
+     * 清零计数器，每轮压测开始前调用
+     */
+    void resetCounters() {
+        requests.reset();
+        errors.reset();
+        resets.reset();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println(name + " accept failed: " + e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            while (running) {
+                Request request = Request.read(in);
+                if (request == null) {
+                    break;
+                }
+                requests.increment();
+                Fault current = fault;
+                if (current.nextReset()) {
+                    resets.increment();
+                    socket.setSoLinger(true, 0);
+                    break;
+                }
+                sleep(current.nextDelayMs());
+                Response response;
+                if (current.nextError()) {
+                    errors.increment();
+                    response = Response.text(503, "unavailable");
+                } else {
+                    response = handle(request);
+                }
+                response.write(out, request.keepAlive, current.getSlowBodyMs());
+                if (!request.keepAlive) {
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 客户端断开或上游故障，直接关闭连接
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 已断开
+            }
+        }
+    }
+
+    private static void sleep(long millis) throws IOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // 已关闭
+        }
+        connections.shutdownNow();
+    }
+
+    /**
+     * 解析后的请求，只支持 Content-Length 和 chunked 两种请求体
+     */
+    static final class Request {
+        final String method;
+        final String target;
+        final Map<String, String> headers;
+        final byte[] body;
+        final boolean keepAlive;
+
+        private Request(String method, String target, Map<String, String> headers, byte[] body, boolean keepAlive) {
+            this.method = method;
+            this.target = target;
+            this.headers = headers;
+            this.body = body;
+            this.keepAlive = keepAlive;
+        }
+
+        /**
+         * 从连接中读取一个请求
+         * @param in 输入流
+         * @return 请求，连接已关闭时返回 null
+         * @throws IOException 读取失败或格式错误
+         */
+        static Request read(InputStream in) throws IOException {
+            String requestLine = readLine(in);
+            while (requestLine != null && requestLine.isEmpty()) {
+                requestLine = readLine(in);
+            }
+            if (requestLine == null) {
+                return null;
+            }
+            String[] parts = requestLine.split(" ");
+            if (parts.length != 3) {
+                throw new IOException("Malformed request line: " + requestLine);
+            }
+            Map<String, String> headers = readHeaders(in);
+            byte[] body = readBody(in, headers);
+            String connection = headers.getOrDefault("connection", "");
+            boolean keepAlive = "HTTP/1.1".equals(parts[2])
+                    ? !"close".equalsIgnoreCase(connection)
+                    : "keep-alive".equalsIgnoreCase(connection);
+            return new Request(parts[0], parts[1], headers, body, keepAlive);
+        }
+    }
+
+    /**
+     * 待写出的响应
+     */
+    static final class Response {
+        final int status;
+        final String contentType;
+        final byte[] body;
+
+        Response(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        static Response text(int status, String text) {
+            return new Response(status, "text/plain", text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * 写出响应
+         * @param out 输出流
+         * @param keepAlive 是否保持连接
+         * @param slowBodyMs 响应体分段写完所用的毫秒数，0 表示一次写完
+         * @throws IOException 写出失败
+         */
+        void write(OutputStream out, boolean keepAlive, long slowBodyMs) throws IOException {
+            String head = "HTTP/1.1 " + status + " " + reason(status) + "\r\n"
+                    + "Content-Type: " + contentType + "\r\n"
+                    + "Content-Length: " + body.length + "\r\n"
+                    + "Connection: " + (keepAlive ? "keep-alive" : "close") + "\r\n\r\n";
+            out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+            if (slowBodyMs <= 0 || body.length < SLOW_BODY_CHUNKS) {
+                out.write(body);
+                out.flush();
+                return;
+            }
+            int chunk = (body.length + SLOW_BODY_CHUNKS - 1) / SLOW_BODY_CHUNKS;
+            for (int offset = 0; offset < body.length; offset += chunk) {
+                out.flush();
+                sleep(slowBodyMs / SLOW_BODY_CHUNKS);
+                out.write(body, offset, Math.min(chunk, body.length - offset));
+            }
+            out.flush();
+        }
+
+        private static String reason(int status) {
+            switch (status) {
+                case 200:
+                    return "OK";
+                case 400:
+                    return "Bad Request";
+                case 502:
+                    return "Bad Gateway";
+                case 503:
+                    return "Service Unavailable";
+                default:
+                    return "Status";
+            }
+        }
+    }
+
+    /**
+     * 读取响应头或请求头，名称统一转为小写
+     * @param in 输入流
+     * @return 头部
+     * @throws IOException 读取失败
+     */
+    static Map<String, String> readHeaders(InputStream in) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        if (line == null) {
+            throw new IOException("Unexpected end of stream in headers");
+        }
+        return headers;
+    }
+
+    /**
+     * 按 Content-Length 或 chunked 读取消息体
+     * @param in 输入流
+     * @param headers 头部
+     * @return 消息体，没有时返回空数组
+     * @throws IOException 读取失败
+     */
+    static byte[] readBody(InputStream in, Map<String, String> headers) throws IOException {
+        if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            int size;
+            while ((size = Integer.parseInt(readLine(in).split(";")[0].trim(), 16)) > 0) {
+                body.write(readFully(in, size));
+                readLine(in);
+            }
+            readHeaders(in);
+            return body.toByteArray();
+        }
+        String length = headers.get("content-length");
+        return length == null ? new byte[0] : readFully(in, Integer.parseInt(length));
+    }
+
+    static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] data = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int n = in.read(data, read, length - read);
+            if (n < 0) {
+                throw new IOException("Unexpected end of stream in body");
+            }
+            read += n;
+        }
+        return data;
+    }
+
+    static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) >= 0) {
+            if (c == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            line.append((char) c);
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+}
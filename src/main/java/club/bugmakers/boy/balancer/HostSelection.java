@@ -0,0 +1,284 @@
+package club.bugmakers.boy.balancer;
+
+import club.bugmakers.boy.breaker.CircuitBreaker;
+import club.bugmakers.boy.breaker.CircuitBreakerOpenException;
+import club.bugmakers.boy.health.HealthCheckState;
+import club.bugmakers.boy.limit.ConcurrencyLimitExceededException;
+import club.bugmakers.boy.limit.ConcurrencyLimiter;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 单个请求内的主机选择状态
+ * 每个请求创建一个实例，记录本次请求已尝试过的主机，重试时优先选择未尝试且可用的主机，
+ * 被被动健康检查摘除、主动健康检查判定为不健康或主机熔断器打开的主机视为不可用；
+ * 服务端点熔断器打开、所有主机的熔断器都拒绝许可或并发数达到上限时直接拒绝本次尝试。
+ * 结果同时反馈给负载均衡器、被动健康检查、熔断器和并发限制器。
+ * 对冲请求会让同一请求的两次尝试并发执行，因此所有方法在实例锁内执行，同一请求内不存在竞争
+ */
+public class HostSelection {
+
+    /**
+     * 负载均衡器选中不可用主机后重新选择的次数，超过后按顺序扫描
+     */
+    private static final int MAX_REDRAWS = 2;
+
+    private final LoadBalancer loadBalancer;
+    private final OutlierDetector outlierDetector;
+    private final HealthCheckState healthCheckState;
+    private final CircuitBreaker circuitBreaker;
+    private final List<CircuitBreaker> hostCircuitBreakers;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final int hostCount;
+    private BitSet tried;
+    private int[] hostPermits;
+    private int limiterPermits;
+
+    /**
+     * 构造方法
+     * @param loadBalancer 负载均衡器
+     * @param outlierDetector 被动健康检查，未启用时为 null
+     * @param hostCount 主机数量
+     */
+    public HostSelection(LoadBalancer loadBalancer, OutlierDetector outlierDetector, int hostCount) {
+        this(loadBalancer, outlierDetector, null, null, null, hostCount);
+    }
+
+    /**
+     * 构造方法
+     * @param loadBalancer 负载均衡器
+     * @param outlierDetector 被动健康检查，未启用时为 null
+     * @param healthCheckState 主动健康检查状态，未启用时为 null
+     * @param circuitBreaker 服务端点熔断器，未启用时为 null
+     * @param hostCircuitBreakers 与主机一一对应的熔断器，未启用时为 null
+     * @param hostCount 主机数量
+     */
+    public HostSelection(LoadBalancer loadBalancer, OutlierDetector outlierDetector, HealthCheckState healthCheckState,
+                         CircuitBreaker circuitBreaker, List<CircuitBreaker> hostCircuitBreakers, int hostCount) {
+        this(loadBalancer, outlierDetector, healthCheckState, circuitBreaker, hostCircuitBreakers, null, hostCount);
+    }
+
+    /**
+     * 构造方法
+     * @param loadBalancer 负载均衡器
+     * @param outlierDetector 被动健康检查，未启用时为 null
+     * @param healthCheckState 主动健康检查状态，未启用时为 null
+     * @param circuitBreaker 服务端点熔断器，未启用时为 null
+     * @param hostCircuitBreakers 与主机一一对应的熔断器，未启用时为 null
+     * @param concurrencyLimiter 服务端点并发限制器，未启用时为 null
+     * @param hostCount 主机数量
+     */
+    public HostSelection(LoadBalancer loadBalancer, OutlierDetector outlierDetector, HealthCheckState healthCheckState,
+                         CircuitBreaker circuitBreaker, List<CircuitBreaker> hostCircuitBreakers,
+                         ConcurrencyLimiter concurrencyLimiter, int hostCount) {
+        this.loadBalancer = loadBalancer;
+        this.outlierDetector = outlierDetector;
+        this.healthCheckState = healthCheckState;
+        this.circuitBreaker = circuitBreaker;
+        this.hostCircuitBreakers = hostCircuitBreakers;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.hostCount = hostCount;
+    }
+
+    /**
+     * 选择本次尝试使用的主机
+     * 优先级：未尝试且可用 > 可用 > 未尝试 > 负载均衡器的原始选择；
+     * 启用主机熔断器时在选择的同时获取该主机的许可，选中的主机拒绝时改选其他能给出许可的主机，
+     * 没有主机能给出许可时拒绝本次尝试，不会向熔断的主机发出不计入统计的请求
+     * @return 主机下标
+     * @throws ConcurrencyLimitExceededException 服务端点并发数达到上限
+     * @throws CircuitBreakerOpenException 服务端点熔断器打开，或所有主机的熔断器都拒绝许可
+     */
+    public synchronized int select() {
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.acquire();
+            limiterPermits++;
+        }
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            releaseLimiterPermit();
+            throw new CircuitBreakerOpenException(circuitBreaker.getName());
+        }
+        int host = loadBalancer.select();
+        if (hostCount > 1 && !isPreferred(host)) {
+            host = reselect(host);
+        }
+        if (hostCircuitBreakers != null) {
+            host = acquireHostPermit(host);
+        }
+        if (tried == null) {
+            tried = new BitSet(hostCount);
+        }
+        tried.set(host);
+        return host;
+    }
+
+    /**
+     * 放弃本次尝试，在选择主机后请求未能发出时调用，归还熔断器和并发限制器的许可
+     * @param host 选中的主机下标
+     */
+    public synchronized void abort(int host) {
+        if (circuitBreaker != null) {
+            circuitBreaker.releasePermission();
+        }
+        releaseHostPermit(host);
+        releaseLimiterPermit();
+    }
+
+    /**
+     * 请求开始
+     * @param host 主机下标
+     */
+    public synchronized void onStart(int host) {
+        loadBalancer.onStart(host);
+    }
+
+    /**
+     * 请求结束
+     * @param host 主机下标
+     * @param latencyNanos 请求耗时（纳秒）
+     * @param success 主机是否正常响应，客户端错误等与主机健康无关的失败应视为正常响应
+     */
+    public synchronized void onComplete(int host, long latencyNanos, boolean success) {
+        loadBalancer.onComplete(host, latencyNanos, success);
+        if (outlierDetector != null) {
+            outlierDetector.record(host, latencyNanos, success);
+        }
+        if (circuitBreaker != null) {
+            circuitBreaker.onResult(latencyNanos, success);
+        }
+        if (hostPermits != null && hostPermits[host] > 0) {
+            hostPermits[host]--;
+            hostCircuitBreakers.get(host).onResult(latencyNanos, success);
+        }
+        if (limiterPermits > 0) {
+            limiterPermits--;
+            concurrencyLimiter.onComplete(latencyNanos, !success);
+        }
+    }
+
+    /**
+     * 请求被主动中止，例如对冲请求中落败的一方
+     * 结果与主机健康无关，不计入被动健康检查、熔断器和并发限制算法，只归还熔断器和并发限制器的许可；
+     * 负载均衡器按已耗费的时间记为一次成功，以便减少未完成请求数
+     * @param host 主机下标
+     * @param latencyNanos 中止前已耗费的时间（纳秒）
+     */
+    public synchronized void onCancel(int host, long latencyNanos) {
+        loadBalancer.onComplete(host, latencyNanos, true);
+        if (circuitBreaker != null) {
+            circuitBreaker.releasePermission();
+        }
+        releaseHostPermit(host);
+        releaseLimiterPermit();
+    }
+
+    /**
+     * 获取主机熔断器的许可，选中的主机拒绝时依次尝试未尝试且可用、可用和其余的主机
+     * 主机可用性的预判与获取许可不是原子操作，半开状态的探测名额可能已被其他请求取走，因此以获取许可的结果为准
+     * @param selected 按优先级选出的主机
+     * @return 获得许可的主机下标
+     * @throws CircuitBreakerOpenException 所有主机的熔断器都拒绝许可
+     */
+    private int acquireHostPermit(int selected) {
+        if (tryAcquireHostPermit(selected)) {
+            return selected;
+        }
+        int offset = ThreadLocalRandom.current().nextInt(hostCount);
+        for (int pass = 0; pass < 3; pass++) {
+            for (int i = 0; i < hostCount; i++) {
+                int host = (offset + i) % hostCount;
+                if (host == selected || (pass == 0 && isTried(host)) || (pass < 2 && !isHealthy(host))) {
+                    continue;
+                }
+                if (tryAcquireHostPermit(host)) {
+                    return host;
+                }
+            }
+        }
+        if (circuitBreaker != null) {
+            circuitBreaker.releasePermission();
+        }
+        releaseLimiterPermit();
+        throw new CircuitBreakerOpenException(circuitBreaker != null ? circuitBreaker.getName() : hostCircuitBreakers.get(selected).getName());
+    }
+
+    private boolean tryAcquireHostPermit(int host) {
+        if (!hostCircuitBreakers.get(host).tryAcquirePermission()) {
+            return false;
+        }
+        if (hostPermits == null) {
+            hostPermits = new int[hostCount];
+        }
+        // 对冲请求可能与主请求落到同一主机，按次数记录许可
+        hostPermits[host]++;
+        return true;
+    }
+
+    private void releaseHostPermit(int host) {
+        if (hostPermits != null && hostPermits[host] > 0) {
+            hostPermits[host]--;
+            hostCircuitBreakers.get(host).releasePermission();
+        }
+    }
+
+    private void releaseLimiterPermit() {
+        if (limiterPermits > 0) {
+            limiterPermits--;
+            concurrencyLimiter.release();
+        }
+    }
+
+    /**
+     * 负载均衡器的选择不满足条件时重新选择
+     * @param first 负载均衡器的原始选择
+     * @return 主机下标
+     */
+    private int reselect(int first) {
+        for (int i = 0; i < MAX_REDRAWS; i++) {
+            int host = loadBalancer.select();
+            if (isPreferred(host)) {
+                return host;
+            }
+        }
+        int offset = ThreadLocalRandom.current().nextInt(hostCount);
+        int available = -1;
+        int untried = -1;
+        for (int i = 0; i < hostCount; i++) {
+            int host = (offset + i) % hostCount;
+            boolean isAvailable = isAvailable(host);
+            boolean isUntried = !isTried(host);
+            if (isAvailable && isUntried) {
+                return host;
+            }
+            if (isAvailable && available < 0) {
+                available = host;
+            }
+            if (isUntried && untried < 0) {
+                untried = host;
+            }
+        }
+        if (available >= 0) {
+            return available;
+        }
+        return untried >= 0 ? untried : first;
+    }
+
+    private boolean isPreferred(int host) {
+        return !isTried(host) && isAvailable(host);
+    }
+
+    private boolean isTried(int host) {
+        return tried != null && tried.get(host);
+    }
+
+    private boolean isAvailable(int host) {
+        return isHealthy(host) && (hostCircuitBreakers == null || hostCircuitBreakers.get(host).isCallPermitted());
+    }
+
+    private boolean isHealthy(int host) {
+        return (outlierDetector == null || !outlierDetector.isEjected(host))
+                && (healthCheckState == null || healthCheckState.isHealthy(host));
+    }
+}
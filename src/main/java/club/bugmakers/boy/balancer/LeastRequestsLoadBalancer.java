@@ -0,0 +1,57 @@
+package club.bugmakers.boy.balancer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 最少未完成请求负载均衡
+ * 选择当前未完成请求数最少的主机，数量相同时从随机位置开始扫描以打散请求
+ */
+public class LeastRequestsLoadBalancer implements LoadBalancer {
+
+    private final AtomicIntegerArray outstanding;
+
+    /**
+     * 构造方法
+     * @param hostCount 主机数量
+     */
+    public LeastRequestsLoadBalancer(int hostCount) {
+        this.outstanding = new AtomicIntegerArray(hostCount);
+    }
+
+    @Override
+    public int select() {
+        int hostCount = outstanding.length();
+        int offset = hostCount == 1 ? 0 : ThreadLocalRandom.current().nextInt(hostCount);
+        int best = offset;
+        int bestCount = outstanding.get(offset);
+        for (int i = 1; i < hostCount && bestCount > 0; i++) {
+            int host = (offset + i) % hostCount;
+            int count = outstanding.get(host);
+            if (count < bestCount) {
+                best = host;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void onStart(int host) {
+        outstanding.incrementAndGet(host);
+    }
+
+    @Override
+    public void onComplete(int host, long latencyNanos, boolean success) {
+        outstanding.decrementAndGet(host);
+    }
+
+    /**
+     * 获取主机当前未完成的请求数
+     * @param host 主机下标
+     * @return 未完成的请求数
+     */
+    public int getOutstanding(int host) {
+        return outstanding.get(host);
+    }
+}
@@ -0,0 +1,31 @@
+package club.bugmakers.boy.balancer;
+
+/**
+ * 负载均衡器
+ * 每个服务端点一个实例，在所有请求线程间共享，实现必须是线程安全且无锁的。
+ * 调用方在每次尝试前调用 {@link #select()}，并在发送前后分别调用 {@link #onStart(int)} 和 {@link #onComplete(int, long, boolean)}
+ */
+public interface LoadBalancer {
+
+    /**
+     * 选择本次尝试使用的主机
+     * @return 主机下标
+     */
+    int select();
+
+    /**
+     * 请求开始
+     * @param host 主机下标
+     */
+    default void onStart(int host) {
+    }
+
+    /**
+     * 请求结束
+     * @param host 主机下标
+     * @param latencyNanos 请求耗时（纳秒）
+     * @param success 是否成功
+     */
+    default void onComplete(int host, long latencyNanos, boolean success) {
+    }
+}
@@ -0,0 +1,57 @@
+package club.bugmakers.boy.balancer;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 负载均衡器工厂
+ */
+public final class LoadBalancers {
+
+    private LoadBalancers() {
+    }
+
+    /**
+     * 按配置创建负载均衡器
+     * @param config 负载均衡配置，为 null 时使用默认配置（随机）
+     * @param hostCount 主机数量
+     * @return 负载均衡器
+     */
+    public static LoadBalancer create(BoyHttpClientProperties.LoadBalancerConfig config, int hostCount) {
+        BoyHttpClientProperties.LoadBalancerConfig lbConfig = config != null ? config : new BoyHttpClientProperties.LoadBalancerConfig();
+        BoyHttpClientProperties.LoadBalancerStrategy strategy = lbConfig.getStrategy() != null
+                ? lbConfig.getStrategy() : BoyHttpClientProperties.LoadBalancerStrategy.RANDOM;
+        switch (strategy) {
+            case ROUND_ROBIN:
+                return new RoundRobinLoadBalancer(hostCount);
+            case WEIGHTED:
+                return new WeightedLoadBalancer(weights(lbConfig.getWeights(), hostCount));
+            case LEAST_REQUESTS:
+                return new LeastRequestsLoadBalancer(hostCount);
+            case P2C_EWMA:
+                return new PeakEwmaLoadBalancer(hostCount, lbConfig.getEwmaDecayMs());
+            case RANDOM:
+            default:
+                return new RandomLoadBalancer(hostCount);
+        }
+    }
+
+    /**
+     * 校验权重配置，未配置时所有主机权重为1
+     * @param weights 权重配置
+     * @param hostCount 主机数量
+     * @return 权重列表
+     */
+    private static List<Integer> weights(List<Integer> weights, int hostCount) {
+        if (weights == null || weights.isEmpty()) {
+            return Collections.nCopies(hostCount, 1);
+        }
+        if (weights.size() != hostCount) {
+            throw new IllegalArgumentException("Load balancer weights must match hosts: expected "
+                    + hostCount + " but got " + weights.size());
+        }
+        return weights;
+    }
+}
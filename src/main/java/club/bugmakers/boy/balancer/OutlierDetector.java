@@ -0,0 +1,248 @@
+package club.bugmakers.boy.balancer;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 被动健康检查
+ * 根据真实请求的结果为每个主机统计连续失败次数、窗口失败率和平滑延迟，任一指标异常时摘除主机。
+ * 摘除时长从 baseEjectionMs 开始按连续摘除次数指数增长，不超过 maxEjectionMs；
+ * 同时被摘除的主机数不超过 maxEjectionPercent，避免在整个服务异常时摘除所有主机。
+ * 每个服务端点一个实例，所有状态保存在原子变量中，窗口切换等边界上的竞争只会造成统计上的微小误差
+ */
+@Slf4j
+public class OutlierDetector {
+
+    /**
+     * 平滑延迟中新采样的权重
+     */
+    private static final double LATENCY_ALPHA = 0.3;
+
+    private final String endpointId;
+    private final BoyHttpClientProperties.OutlierDetectionConfig config;
+    private final LongSupplier clock;
+    private final HostState[] hosts;
+    private final int maxEjected;
+
+    /**
+     * 构造方法
+     * @param endpointId 服务端点ID，用于日志
+     * @param config 被动健康检查配置
+     * @param hostCount 主机数量
+     */
+    public OutlierDetector(String endpointId, BoyHttpClientProperties.OutlierDetectionConfig config, int hostCount) {
+        this(endpointId, config, hostCount, System::nanoTime);
+    }
+
+    /**
+     * 构造方法
+     * @param endpointId 服务端点ID，用于日志
+     * @param config 被动健康检查配置
+     * @param hostCount 主机数量
+     * @param clock 纳秒时钟
+     */
+    OutlierDetector(String endpointId, BoyHttpClientProperties.OutlierDetectionConfig config, int hostCount, LongSupplier clock) {
+        if (config.getBaseEjectionMs() <= 0 || config.getMaxEjectionMs() < config.getBaseEjectionMs()) {
+            throw new IllegalArgumentException("Invalid ejection time for endpoint " + endpointId
+                    + ": baseEjectionMs must be positive and not greater than maxEjectionMs");
+        }
+        this.endpointId = endpointId;
+        this.config = config;
+        this.clock = clock;
+        this.hosts = new HostState[hostCount];
+        long now = clock.getAsLong();
+        for (int i = 0; i < hostCount; i++) {
+            hosts[i] = new HostState(now);
+        }
+        this.maxEjected = hostCount * Math.max(0, Math.min(100, config.getMaxEjectionPercent())) / 100;
+    }
+
+    /**
+     * 判断主机当前是否被摘除
+     * @param host 主机下标
+     * @return 是否被摘除
+     */
+    public boolean isEjected(int host) {
+        return hosts[host].ejectedUntil - clock.getAsLong() > 0;
+    }
+
+    /**
+     * 记录一次请求结果
+     * @param host 主机下标
+     * @param latencyNanos 请求耗时（纳秒）
+     * @param success 主机是否正常响应
+     */
+    public void record(int host, long latencyNanos, boolean success) {
+        HostState state = hosts[host];
+        long now = clock.getAsLong();
+        int requests = state.rollWindow(now, TimeUnit.MILLISECONDS.toNanos(config.getIntervalMs()));
+
+        if (!success) {
+            int failures = state.windowFailures.incrementAndGet();
+            int consecutive = state.consecutiveFailures.incrementAndGet();
+            if (config.getConsecutiveFailures() > 0 && consecutive >= config.getConsecutiveFailures()) {
+                eject(host, now, consecutive + " consecutive failures");
+            } else if (config.getFailureRateThreshold() > 0 && requests >= config.getMinimumRequests()
+                    && failures * 100.0 >= config.getFailureRateThreshold() * requests) {
+                eject(host, now, "failure rate " + failures + "/" + requests);
+            }
+            return;
+        }
+
+        state.consecutiveFailures.set(0);
+        double latency = state.updateLatency(latencyNanos);
+        // 恢复后保持健康的时间超过上一次的摘除时长，则重新从 baseEjectionMs 开始计算摘除时长
+        int ejections = state.ejections.get();
+        if (ejections > 0 && now - state.ejectedUntil > ejectionNanos(ejections)) {
+            state.ejections.compareAndSet(ejections, 0);
+        }
+        if (config.getLatencyOutlierFactor() > 0 && hosts.length >= 3
+                && state.latencySamples.get() >= config.getMinimumRequests()) {
+            double others = averageLatencyOfOthers(host, now);
+            if (others > 0 && latency > others * config.getLatencyOutlierFactor()) {
+                eject(host, now, String.format("latency %.1fms vs %.1fms on other hosts", latency / 1e6, others / 1e6));
+            }
+        }
+    }
+
+    /**
+     * 摘除主机
+     * @param host 主机下标
+     * @param now 当前时间
+     * @param reason 摘除原因
+     */
+    private void eject(int host, long now, String reason) {
+        HostState state = hosts[host];
+        if (state.ejectedUntil - now > 0) {
+            return;
+        }
+        if (ejectedCount(now) >= maxEjected) {
+            log.warn("Host {} of endpoint {} is an outlier ({}) but max ejection percent reached", host, endpointId, reason);
+            return;
+        }
+        int ejections = state.ejections.incrementAndGet();
+        long duration = ejectionNanos(ejections);
+        state.ejectedUntil = now + duration;
+        state.reset(now);
+        log.warn("Ejected host {} of endpoint {} for {}ms: {}", host, endpointId, TimeUnit.NANOSECONDS.toMillis(duration), reason);
+    }
+
+    /**
+     * 计算第 n 次连续摘除的时长
+     * @param ejections 连续摘除次数
+     * @return 摘除时长（纳秒）
+     */
+    private long ejectionNanos(int ejections) {
+        long max = config.getMaxEjectionMs();
+        long duration = config.getBaseEjectionMs();
+        for (int i = 1; i < ejections && duration < max; i++) {
+            duration <<= 1;
+        }
+        return TimeUnit.MILLISECONDS.toNanos(Math.min(max, duration));
+    }
+
+    /**
+     * 统计当前被摘除的主机数
+     * @param now 当前时间
+     * @return 被摘除的主机数
+     */
+    private int ejectedCount(long now) {
+        int count = 0;
+        for (HostState state : hosts) {
+            if (state.ejectedUntil - now > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 计算其他未被摘除且有足够采样的主机的平均延迟
+     * @param host 排除的主机下标
+     * @param now 当前时间
+     * @return 平均延迟（纳秒），没有可比较的主机时为 0
+     */
+    private double averageLatencyOfOthers(int host, long now) {
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < hosts.length; i++) {
+            HostState state = hosts[i];
+            if (i != host && state.ejectedUntil - now <= 0 && state.latencySamples.get() >= config.getMinimumRequests()) {
+                sum += Double.longBitsToDouble(state.latencyBits.get());
+                count++;
+            }
+        }
+        // 至少与两个主机比较，避免两个主机互相比较时的偶然波动
+        return count >= 2 ? sum / count : 0;
+    }
+
+    /**
+     * 单个主机的统计状态
+     */
+    private static final class HostState {
+
+        final AtomicInteger consecutiveFailures = new AtomicInteger();
+        final AtomicInteger ejections = new AtomicInteger();
+        final AtomicLong windowStart;
+        final AtomicInteger windowRequests = new AtomicInteger();
+        final AtomicInteger windowFailures = new AtomicInteger();
+        final AtomicLong latencyBits = new AtomicLong();
+        final AtomicInteger latencySamples = new AtomicInteger();
+        volatile long ejectedUntil;
+
+        HostState(long now) {
+            this.windowStart = new AtomicLong(now);
+            this.ejectedUntil = now;
+        }
+
+        /**
+         * 计入一次请求，窗口到期时由一个线程负责清零
+         * @param now 当前时间
+         * @param intervalNanos 窗口长度
+         * @return 当前窗口内的请求数
+         */
+        int rollWindow(long now, long intervalNanos) {
+            long start = windowStart.get();
+            if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+                windowRequests.set(0);
+                windowFailures.set(0);
+            }
+            return windowRequests.incrementAndGet();
+        }
+
+        /**
+         * 更新平滑延迟
+         * @param latencyNanos 本次延迟
+         * @return 更新后的平滑延迟
+         */
+        double updateLatency(long latencyNanos) {
+            long currentBits;
+            double updated;
+            do {
+                currentBits = latencyBits.get();
+                double current = Double.longBitsToDouble(currentBits);
+                updated = latencySamples.get() == 0 ? latencyNanos : current + LATENCY_ALPHA * (latencyNanos - current);
+            } while (!latencyBits.compareAndSet(currentBits, Double.doubleToRawLongBits(updated)));
+            latencySamples.incrementAndGet();
+            return updated;
+        }
+
+        /**
+         * 摘除后清空统计，恢复时重新开始观察
+         * @param now 当前时间
+         */
+        void reset(long now) {
+            consecutiveFailures.set(0);
+            windowStart.set(now);
+            windowRequests.set(0);
+            windowFailures.set(0);
+            latencySamples.set(0);
+            latencyBits.set(0);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package club.bugmakers.boy.balancer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 基于 EWMA 延迟的 P2C（power of two choices）负载均衡
+ * 每次随机取两个不同的主机，选择代价较低的一个，代价 = EWMA 延迟 × (未完成请求数 + 1)。
+ * EWMA 按距上次采样的时间指数衰减，延迟高于当前值的采样直接生效（峰值敏感），使变慢的主机迅速被避开；
+ * 所有状态保存在原子数组中，通过 CAS 更新
+ */
+public class PeakEwmaLoadBalancer implements LoadBalancer {
+
+    private final double decayNanos;
+    private final LongSupplier clock;
+    private final AtomicIntegerArray outstanding;
+    private final AtomicLongArray ewmaBits;
+    private final AtomicLongArray lastSampleNanos;
+
+    /**
+     * 构造方法
+     * @param hostCount 主机数量
+     * @param decayMs EWMA 衰减时间常数（毫秒）
+     */
+    public PeakEwmaLoadBalancer(int hostCount, long decayMs) {
+        this(hostCount, decayMs, System::nanoTime);
+    }
+
+    /**
+     * 构造方法
+     * @param hostCount 主机数量
+     * @param decayMs EWMA 衰减时间常数（毫秒）
+     * @param clock 纳秒时钟
+     */
+    PeakEwmaLoadBalancer(int hostCount, long decayMs, LongSupplier clock) {
+        if (decayMs <= 0) {
+            throw new IllegalArgumentException("ewmaDecayMs must be positive");
+        }
+        this.decayNanos = decayMs * 1_000_000d;
+        this.clock = clock;
+        this.outstanding = new AtomicIntegerArray(hostCount);
+        this.ewmaBits = new AtomicLongArray(hostCount);
+        this.lastSampleNanos = new AtomicLongArray(hostCount);
+    }
+
+    @Override
+    public int select() {
+        int hostCount = outstanding.length();
+        if (hostCount == 1) {
+            return 0;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(hostCount);
+        int second = random.nextInt(hostCount - 1);
+        if (second >= first) {
+            second++;
+        }
+        return cost(first) <= cost(second) ? first : second;
+    }
+
+    @Override
+    public void onStart(int host) {
+        outstanding.incrementAndGet(host);
+    }
+
+    @Override
+    public void onComplete(int host, long latencyNanos, boolean success) {
+        outstanding.decrementAndGet(host);
+        long now = clock.getAsLong();
+        long last = lastSampleNanos.getAndSet(host, now);
+        double weight = last == 0 ? 0 : Math.exp(-Math.max(0, now - last) / decayNanos);
+
+        long currentBits;
+        long updatedBits;
+        do {
+            currentBits = ewmaBits.get(host);
+            double current = Double.longBitsToDouble(currentBits);
+            // 失败的请求至少按当前延迟的两倍计入，避免快速失败的主机因延迟低而吸引更多请求
+            double sample = success ? latencyNanos : Math.max(latencyNanos, current * 2);
+            double updated = sample > current ? sample : current * weight + sample * (1 - weight);
+            updatedBits = Double.doubleToRawLongBits(updated);
+        } while (!ewmaBits.compareAndSet(host, currentBits, updatedBits));
+    }
+
+    /**
+     * 计算主机的代价
+     * @param host 主机下标
+     * @return 代价
+     */
+    private double cost(int host) {
+        int pending = outstanding.get(host);
+        // 尚无延迟采样时 EWMA 为 0，此时按未完成请求数比较
+        return getEwmaNanos(host) * (pending + 1) + pending;
+    }
+
+    /**
+     * 获取主机的 EWMA 延迟
+     * @param host 主机下标
+     * @return EWMA 延迟（纳秒）
+     */
+    public double getEwmaNanos(int host) {
+        return Double.longBitsToDouble(ewmaBits.get(host));
+    }
+}
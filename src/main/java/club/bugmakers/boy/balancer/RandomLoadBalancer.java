@@ -0,0 +1,25 @@
+package club.bugmakers.boy.balancer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 随机负载均衡
+ * 使用 ThreadLocalRandom，各线程之间没有共享的随机数状态
+ */
+public class RandomLoadBalancer implements LoadBalancer {
+
+    private final int hostCount;
+
+    /**
+     * 构造方法
+     * @param hostCount 主机数量
+     */
+    public RandomLoadBalancer(int hostCount) {
+        this.hostCount = hostCount;
+    }
+
+    @Override
+    public int select() {
+        return hostCount == 1 ? 0 : ThreadLocalRandom.current().nextInt(hostCount);
+    }
+}
@@ -0,0 +1,27 @@
+package club.bugmakers.boy.balancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 轮询负载均衡
+ * 基于单个原子计数器，重试时自然切换到下一个主机
+ */
+public class RoundRobinLoadBalancer implements LoadBalancer {
+
+    private final int hostCount;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * 构造方法
+     * @param hostCount 主机数量
+     */
+    public RoundRobinLoadBalancer(int hostCount) {
+        this.hostCount = hostCount;
+    }
+
+    @Override
+    public int select() {
+        // 计数器溢出为负数后取模结果仍然有效
+        return Math.floorMod(counter.getAndIncrement(), hostCount);
+    }
+}
@@ -0,0 +1,51 @@
+package club.bugmakers.boy.balancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按权重随机的负载均衡
+ * 预先计算权重前缀和，选择时二分查找，不需要任何共享的可变状态
+ */
+public class WeightedLoadBalancer implements LoadBalancer {
+
+    private final long[] cumulativeWeights;
+    private final long totalWeight;
+
+    /**
+     * 构造方法
+     * @param weights 主机权重，与主机一一对应，权重为 0 的主机不会被选中
+     */
+    public WeightedLoadBalancer(List<Integer> weights) {
+        this.cumulativeWeights = new long[weights.size()];
+        long total = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            Integer weight = weights.get(i);
+            if (weight == null || weight < 0) {
+                throw new IllegalArgumentException("Invalid load balancer weight: " + weight);
+            }
+            total += weight;
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one load balancer weight must be positive");
+        }
+        this.totalWeight = total;
+    }
+
+    @Override
+    public int select() {
+        long point = ThreadLocalRandom.current().nextLong(totalWeight);
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] > point) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
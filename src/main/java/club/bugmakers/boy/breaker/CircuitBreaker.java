@@ -0,0 +1,251 @@
+package club.bugmakers.boy.breaker;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 熔断器
+ * 关闭状态下按最近 windowSize 次调用的失败率和慢调用率判断，任一达到阈值即打开；
+ * 打开状态下拒绝所有调用，openDurationMs 后进入半开状态，只放行 halfOpenCalls 次探测调用，
+ * 探测全部完成后按其失败率和慢调用率决定关闭还是重新打开。
+ * 关闭状态下获取许可不加锁，记录结果和状态切换在实例锁内完成，临界区只有几次数组和计数器操作
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /**
+         * 关闭，正常放行
+         */
+        CLOSED,
+        /**
+         * 打开，拒绝所有调用
+         */
+        OPEN,
+        /**
+         * 半开，放行有限次数的探测调用
+         */
+        HALF_OPEN
+    }
+
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+
+    private final byte[] window;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+    private int windowSlowCalls;
+
+    private int halfOpenPermits;
+    private int halfOpenResults;
+    private int halfOpenFailures;
+    private int halfOpenSlowCalls;
+
+    /**
+     * 构造方法
+     * @param name 名称，用于日志
+     * @param config 熔断器配置
+     */
+    public CircuitBreaker(String name, BoyHttpClientProperties.CircuitBreakerConfig config) {
+        this(name, config, System::nanoTime);
+    }
+
+    /**
+     * 构造方法
+     * @param name 名称，用于日志
+     * @param config 熔断器配置
+     * @param clock 纳秒时钟
+     */
+    CircuitBreaker(String name, BoyHttpClientProperties.CircuitBreakerConfig config, LongSupplier clock) {
+        if (config.getWindowSize() <= 0 || config.getHalfOpenCalls() <= 0) {
+            throw new IllegalArgumentException("Circuit breaker windowSize and halfOpenCalls must be positive: " + name);
+        }
+        this.name = name;
+        this.window = new byte[config.getWindowSize()];
+        this.minimumCalls = Math.max(1, Math.min(config.getMinimumCalls(), config.getWindowSize()));
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMs());
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(config.getOpenDurationMs());
+        this.halfOpenCalls = config.getHalfOpenCalls();
+        this.clock = clock;
+    }
+
+    /**
+     * 尝试获取调用许可
+     * 打开状态到期后由第一个调用者切换为半开状态；半开状态下每次获取消耗一个探测名额
+     * @return 是否允许调用，允许时必须随后调用 {@link #onResult(long, boolean)} 或 {@link #releasePermission()}
+     */
+    public boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (clock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits == 0) {
+                    return false;
+                }
+                halfOpenPermits--;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 判断当前是否允许调用，不消耗许可，用于主机选择时的预判
+     * @return 是否允许调用
+     */
+    public boolean isCallPermitted() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                return clock.getAsLong() - openedAt >= openNanos;
+            }
+            return state != State.HALF_OPEN || halfOpenPermits > 0;
+        }
+    }
+
+    /**
+     * 归还已获取但未使用的许可
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenPermits + halfOpenResults < halfOpenCalls) {
+            halfOpenPermits++;
+        }
+    }
+
+    /**
+     * 记录调用结果
+     * @param durationNanos 调用耗时（纳秒）
+     * @param success 是否成功
+     */
+    public void onResult(long durationNanos, boolean success) {
+        byte outcome = (byte) ((success ? 0 : FAILURE) | (durationNanos >= slowCallNanos ? SLOW : 0));
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                recordInWindow(outcome);
+                if (windowCalls >= minimumCalls && exceeded(windowFailures, windowSlowCalls, windowCalls)) {
+                    open(windowFailures, windowSlowCalls, windowCalls);
+                }
+            } else if (state == State.HALF_OPEN) {
+                halfOpenResults++;
+                halfOpenFailures += outcome & FAILURE;
+                halfOpenSlowCalls += (outcome & SLOW) >> 1;
+                if (halfOpenResults >= halfOpenCalls) {
+                    if (exceeded(halfOpenFailures, halfOpenSlowCalls, halfOpenResults)) {
+                        open(halfOpenFailures, halfOpenSlowCalls, halfOpenResults);
+                    } else {
+                        transitionTo(State.CLOSED);
+                    }
+                }
+            }
+            // 打开状态下到达的是打开前发出的调用结果，直接忽略
+        }
+    }
+
+    /**
+     * 获取当前状态
+     * @return 状态
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 获取名称
+     * @return 名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 将结果写入环形窗口，覆盖最早的结果
+     * @param outcome 调用结果
+     */
+    private void recordInWindow(byte outcome) {
+        if (windowCalls == window.length) {
+            byte evicted = window[windowIndex];
+            windowFailures -= evicted & FAILURE;
+            windowSlowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            windowCalls++;
+        }
+        window[windowIndex] = outcome;
+        windowFailures += outcome & FAILURE;
+        windowSlowCalls += (outcome & SLOW) >> 1;
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private boolean exceeded(int failures, int slowCalls, int calls) {
+        return failures * 100.0 >= failureRateThreshold * calls || slowCalls * 100.0 >= slowCallRateThreshold * calls;
+    }
+
+    /**
+     * 打开熔断器，调用方持有实例锁
+     * @param failures 失败次数
+     * @param slowCalls 慢调用次数
+     * @param calls 调用次数
+     */
+    private void open(int failures, int slowCalls, int calls) {
+        log.warn("Circuit breaker {} changed from {} to OPEN, failures {}/{}, slow calls {}/{}",
+                name, state, failures, calls, slowCalls, calls);
+        transitionTo(State.OPEN);
+    }
+
+    /**
+     * 切换状态，调用方持有实例锁
+     * @param target 目标状态
+     */
+    private void transitionTo(State target) {
+        State previous = state;
+        switch (target) {
+            case OPEN:
+                openedAt = clock.getAsLong();
+                break;
+            case HALF_OPEN:
+                halfOpenPermits = halfOpenCalls;
+                halfOpenResults = 0;
+                halfOpenFailures = 0;
+                halfOpenSlowCalls = 0;
+                log.info("Circuit breaker {} changed from OPEN to HALF_OPEN", name);
+                break;
+            case CLOSED:
+            default:
+                windowIndex = 0;
+                windowCalls = 0;
+                windowFailures = 0;
+                windowSlowCalls = 0;
+                log.info("Circuit breaker {} changed from {} to CLOSED", name, previous);
+                break;
+        }
+        state = target;
+    }
+}
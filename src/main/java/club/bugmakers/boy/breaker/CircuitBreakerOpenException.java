@@ -0,0 +1,27 @@
+package club.bugmakers.boy.breaker;
+
+/**
+ * 服务端点熔断器打开，或 circuitBreaker.perHost 下所有主机的熔断器都拒绝许可时抛出的异常
+ * 熔断器打开后持续 circuitBreaker.openDurationMs，之后按 halfOpenCalls 放行探测调用
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    private final String endpointId;
+
+    /**
+     * 构造方法
+     * @param endpointId 服务端点ID
+     */
+    public CircuitBreakerOpenException(String endpointId) {
+        super("Circuit breaker is open for endpoint: " + endpointId);
+        this.endpointId = endpointId;
+    }
+
+    /**
+     * 获取服务端点ID
+     * @return 服务端点ID
+     */
+    public String getEndpointId() {
+        return endpointId;
+    }
+}
@@ -0,0 +1,161 @@
+package club.bugmakers.boy.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP 缓存规则（RFC 9111 中私有缓存适用的部分）
+ * 新鲜期依次取 Cache-Control 的 max-age、Expires 与 Date 之差、Last-Modified 的启发式（距 Date 的 10%，最长一天），
+ * 再减去 Age；no-cache 的响应可以缓存，但每次使用前都要用 ETag/Last-Modified 发条件请求重新验证。
+ * 不缓存的响应：no-store、Vary: *、200/203 以外的状态码、既没有新鲜期也没有验证器的响应
+ */
+public final class CachePolicy {
+
+    /**
+     * 启发式新鲜期的上限
+     */
+    private static final long HEURISTIC_MAX_MS = TimeUnit.DAYS.toMillis(1);
+
+    private CachePolicy() {
+    }
+
+    /**
+     * 请求是否绕过缓存：请求头中带有缓存控制、条件请求或范围请求时由调用方自行处理，直接发往服务端
+     * @param headers 请求头，可为 null
+     * @return 是否绕过缓存
+     */
+    public static boolean bypass(Map<String, String> headers) {
+        if (headers == null || headers.isEmpty()) {
+            return false;
+        }
+        for (String name : headers.keySet()) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (lower.equals("cache-control") || lower.equals("pragma") || lower.startsWith("if-") || lower.equals("range")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 响应是否可以缓存
+     * @param statusCode 状态码
+     * @param headers 响应头
+     * @return 是否可以缓存
+     */
+    public static boolean isStorable(int statusCode, HttpHeaders headers) {
+        if (statusCode != 200 && statusCode != 203) {
+            return false;
+        }
+        if (directives(headers).containsKey("no-store")) {
+            return false;
+        }
+        for (String vary : headers.getVary()) {
+            if ("*".equals(vary.trim())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 计算响应的过期时间
+     * @param headers 响应头
+     * @param responseTimeMs 收到响应的时间（毫秒）
+     * @return 过期时间（毫秒），不新鲜时不大于 responseTimeMs
+     */
+    static long expiresAt(HttpHeaders headers, long responseTimeMs) {
+        Map<String, String> directives = directives(headers);
+        long ageMs = TimeUnit.SECONDS.toMillis(Math.max(0, parseSeconds(headers.getFirst(HttpHeaders.AGE))));
+        return responseTimeMs - ageMs + freshnessLifetimeMs(directives, headers, responseTimeMs);
+    }
+
+    private static long freshnessLifetimeMs(Map<String, String> directives, HttpHeaders headers, long responseTimeMs) {
+        if (directives.containsKey("no-cache")) {
+            return 0;
+        }
+        if (directives.containsKey("max-age")) {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, parseSeconds(directives.get("max-age"))));
+        }
+        long date = parseDate(headers.getFirst(HttpHeaders.DATE));
+        long base = date > 0 ? date : responseTimeMs;
+        String expires = headers.getFirst(HttpHeaders.EXPIRES);
+        if (expires != null) {
+            // 无法解析的 Expires（例如 0）表示已过期
+            return Math.max(0, parseDate(expires) - base);
+        }
+        long lastModified = parseDate(headers.getFirst(HttpHeaders.LAST_MODIFIED));
+        if (lastModified > 0 && lastModified < base) {
+            return Math.min(HEURISTIC_MAX_MS, (base - lastModified) / 10);
+        }
+        return 0;
+    }
+
+    /**
+     * 解析 Cache-Control 指令，名称转为小写，没有值的指令值为空字符串
+     * @param headers 响应头
+     * @return 指令
+     */
+    static Map<String, String> directives(HttpHeaders headers) {
+        List<String> values = headers.get(HttpHeaders.CACHE_CONTROL);
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> directives = new HashMap<>();
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String trimmed = directive.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                int eq = trimmed.indexOf('=');
+                if (eq < 0) {
+                    directives.put(trimmed.toLowerCase(Locale.ROOT), "");
+                } else {
+                    String argument = trimmed.substring(eq + 1).trim();
+                    if (argument.length() >= 2 && argument.startsWith("\"") && argument.endsWith("\"")) {
+                        argument = argument.substring(1, argument.length() - 1);
+                    }
+                    directives.put(trimmed.substring(0, eq).trim().toLowerCase(Locale.ROOT), argument);
+                }
+            }
+        }
+        return directives;
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 解析 HTTP 日期
+     * @param value 日期字符串，可为 null
+     * @return 毫秒时间戳，缺失或无法解析时为 -1
+     */
+    static long parseDate(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package club.bugmakers.boy.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 缓存的响应
+ * 不可变对象，保存原始的状态码、响应头和响应体字节，命中时重新交给消息转换器反序列化，调用方拿到的总是新对象；
+ * 收到 304 时用 {@link #refresh(HttpHeaders, long)} 合并新的响应头并重新计算新鲜期
+ */
+public final class CachedResponse {
+
+    /**
+     * 304 响应中不应覆盖缓存响应的头
+     */
+    private static final Set<String> UNMERGED_HEADERS = new HashSet<>(Arrays.asList(
+            "content-length", "content-encoding", "transfer-encoding", "content-range", "connection"));
+
+    private final int statusCode;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final long expiresAtMs;
+    private final int weight;
+
+    private CachedResponse(int statusCode, HttpHeaders headers, byte[] body, long responseTimeMs) {
+        this.statusCode = statusCode;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.expiresAtMs = CachePolicy.expiresAt(headers, responseTimeMs);
+        int headerBytes = 0;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (String value : header.getValue()) {
+                headerBytes += header.getKey().length() + value.length();
+            }
+        }
+        this.weight = body.length + headerBytes;
+    }
+
+    /**
+     * 为可缓存的响应创建缓存项
+     * @param statusCode 状态码
+     * @param headers 响应头，会被复制
+     * @param body 响应体
+     * @param responseTimeMs 收到响应的时间（毫秒）
+     * @return 缓存项，响应不可缓存或既不新鲜也无法重新验证时为 null
+     */
+    public static CachedResponse of(int statusCode, HttpHeaders headers, byte[] body, long responseTimeMs) {
+        if (!CachePolicy.isStorable(statusCode, headers)) {
+            return null;
+        }
+        CachedResponse response = new CachedResponse(statusCode, copy(headers), body, responseTimeMs);
+        return response.isFresh(responseTimeMs) || response.hasValidators() ? response : null;
+    }
+
+    /**
+     * 用 304 响应的头更新缓存项
+     * @param notModified 304 响应头
+     * @param responseTimeMs 收到 304 的时间（毫秒）
+     * @return 新的缓存项
+     */
+    public CachedResponse refresh(HttpHeaders notModified, long responseTimeMs) {
+        HttpHeaders merged = copy(headers);
+        for (Map.Entry<String, List<String>> header : notModified.entrySet()) {
+            if (!UNMERGED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                merged.put(header.getKey(), new ArrayList<>(header.getValue()));
+            }
+        }
+        return new CachedResponse(statusCode, merged, body, responseTimeMs);
+    }
+
+    /**
+     * 是否仍在新鲜期内，可直接使用
+     * @param nowMs 当前时间（毫秒）
+     * @return 是否新鲜
+     */
+    public boolean isFresh(long nowMs) {
+        return nowMs < expiresAtMs;
+    }
+
+    /**
+     * 是否带有 ETag 或 Last-Modified，过期后可发条件请求重新验证
+     * @return 是否可重新验证
+     */
+    public boolean hasValidators() {
+        return getETag() != null || getLastModified() != null;
+    }
+
+    /**
+     * 把验证器写入条件请求头：If-None-Match 和 If-Modified-Since
+     * @param requestHeaders 请求头
+     */
+    public void addConditionalHeaders(HttpHeaders requestHeaders) {
+        String etag = getETag();
+        if (etag != null) {
+            requestHeaders.set(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        String lastModified = getLastModified();
+        if (lastModified != null) {
+            requestHeaders.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 获取只读的响应头
+     * @return 响应头
+     */
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    /**
+     * 获取响应体，调用方不得修改
+     * @return 响应体
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getETag() {
+        return headers.getFirst(HttpHeaders.ETAG);
+    }
+
+    public String getLastModified() {
+        return headers.getFirst(HttpHeaders.LAST_MODIFIED);
+    }
+
+    public long getExpiresAtMs() {
+        return expiresAtMs;
+    }
+
+    /**
+     * 获取缓存项的权重：响应体字节数加上响应头字符数
+     * @return 权重
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    private static HttpHeaders copy(HttpHeaders source) {
+        HttpHeaders copy = new HttpHeaders();
+        for (Map.Entry<String, List<String>> header : source.entrySet()) {
+            copy.put(header.getKey(), new ArrayList<>(header.getValue()));
+        }
+        return copy;
+    }
+}
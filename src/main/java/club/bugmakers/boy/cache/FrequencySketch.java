@@ -0,0 +1,93 @@
+package club.bugmakers.boy.cache;
+
+/**
+ * 访问频率估计（Count-Min Sketch）
+ * 4 行计数器，每行按不同的种子散列到一个 4 位饱和计数器（上限15），估计值取 4 行中的最小值；
+ * 只增加当前等于最小值的计数器（保守更新），减少散列冲突带来的高估。
+ * 累计增加次数达到容量的 10 倍时所有计数器减半，使频率随时间衰减，过去的热点不会永远占住缓存。
+ * 非线程安全，由 ResponseCache 的锁保护
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0xb6c5d2d7, 0x8ebd0c51, 0xe3a4f1f3};
+
+    private final byte[] table;
+    private final int width;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * 构造方法
+     * @param maximumSize 缓存容量，每行宽度取不小于它的 2 的幂
+     */
+    FrequencySketch(int maximumSize) {
+        int size = 16;
+        while (size < maximumSize && size < (1 << 24)) {
+            size <<= 1;
+        }
+        this.width = size;
+        this.mask = size - 1;
+        this.table = new byte[DEPTH * size];
+        this.sampleSize = 10 * size;
+    }
+
+    /**
+     * 估计键的访问频率
+     * @param key 键
+     * @return 频率，0 到 15
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, table[index(hash, row)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * 记录一次访问
+     * @param key 键
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int[] indexes = new int[DEPTH];
+        int min = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            indexes[row] = index(hash, row);
+            min = Math.min(min, table[indexes[row]]);
+        }
+        if (min == MAX_COUNT) {
+            return;
+        }
+        for (int index : indexes) {
+            if (table[index] == min) {
+                table[index]++;
+            }
+        }
+        if (++additions >= sampleSize) {
+            age();
+        }
+    }
+
+    private void age() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>= 1;
+        }
+        additions >>= 1;
+    }
+
+    private int index(int hash, int row) {
+        int h = hash * SEEDS[row];
+        h ^= h >>> 16;
+        return row * width + (h & mask);
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 15);
+    }
+}
@@ -0,0 +1,276 @@
+package club.bugmakers.boy.cache;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 服务端点的 GET 响应缓存
+ * 按条数限制容量，可选再按字节数限制；淘汰采用 TinyLFU：每次查找都在 {@link FrequencySketch} 中记录一次访问，
+ * 缓存已满时，新响应只有在访问频率高于将被淘汰的最久未使用项时才会被接纳，否则直接丢弃新响应，
+ * 一次性扫描大量不同 URL 不会把常用的响应挤出缓存。
+ * 过期且没有验证器的响应在查找时移除，过期但有 ETag/Last-Modified 的响应保留，用于发条件请求。
+ * 所有操作在同一把锁内完成，锁内只有哈希表和计数器操作，不做任何 I/O
+ */
+public class ResponseCache {
+
+    private final String name;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * 构造方法
+     * @param name 名称，一般为服务端点ID
+     * @param config 响应缓存配置
+     */
+    public ResponseCache(String name, BoyHttpClientProperties.ResponseCacheConfig config) {
+        this(name, config, System::currentTimeMillis);
+    }
+
+    /**
+     * 构造方法
+     * @param name 名称，一般为服务端点ID
+     * @param config 响应缓存配置
+     * @param clock 毫秒时钟，HTTP 日期是墙上时间，因此不使用 nanoTime
+     */
+    ResponseCache(String name, BoyHttpClientProperties.ResponseCacheConfig config, LongSupplier clock) {
+        if (config.getMaxEntries() <= 0) {
+            throw new IllegalArgumentException("Response cache maxEntries must be positive for endpoint: " + name);
+        }
+        this.name = name;
+        this.maxEntries = config.getMaxEntries();
+        this.maxBytes = config.getMaxBytes();
+        this.maxEntryBytes = config.getMaxEntryBytes();
+        this.clock = clock;
+        this.sketch = new FrequencySketch(maxEntries);
+    }
+
+    /**
+     * 生成缓存键：展开后的相对路径，加上调用方显式传入的请求头，请求头不同的请求分别缓存
+     * @param path 展开 URI 变量后的请求路径
+     * @param headers 请求头，可为 null
+     * @return 缓存键
+     */
+    public static String key(String path, Map<String, String> headers) {
+        if (headers == null || headers.isEmpty()) {
+            return path;
+        }
+        return path + ' ' + new TreeMap<>(headers);
+    }
+
+    /**
+     * 查找缓存并记录一次访问；返回新鲜的响应时计为命中，否则计为未命中
+     * @param key 缓存键
+     * @return 缓存项，可能已过期但可重新验证，调用方用 {@link #isFresh(CachedResponse)} 判断；没有可用的缓存项时为 null
+     */
+    public CachedResponse get(String key) {
+        long now = clock.getAsLong();
+        CachedResponse response;
+        synchronized (this) {
+            sketch.increment(key);
+            response = entries.get(key);
+            if (response != null && !response.isFresh(now) && !response.hasValidators()) {
+                remove(key);
+                response = null;
+            }
+        }
+        if (response != null && response.isFresh(now)) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return response;
+    }
+
+    /**
+     * 缓存项当前是否新鲜
+     * @param response 缓存项
+     * @return 是否新鲜
+     */
+    public boolean isFresh(CachedResponse response) {
+        return response.isFresh(clock.getAsLong());
+    }
+
+    /**
+     * 为可缓存的响应创建缓存项并放入缓存
+     * @param key 缓存键
+     * @param statusCode 状态码
+     * @param headers 响应头
+     * @param body 响应体
+     * @return 是否放入缓存
+     */
+    public boolean put(String key, int statusCode, HttpHeaders headers, byte[] body) {
+        if (body.length > maxEntryBytes) {
+            return false;
+        }
+        CachedResponse response = CachedResponse.of(statusCode, headers, body, clock.getAsLong());
+        return response != null && put(key, response);
+    }
+
+    /**
+     * 收到 304 后更新缓存项，计为一次重新验证
+     * @param key 缓存键
+     * @param stale 发出条件请求时使用的缓存项
+     * @param notModified 304 响应头
+     * @return 更新后的缓存项
+     */
+    public CachedResponse revalidated(String key, CachedResponse stale, HttpHeaders notModified) {
+        revalidations.increment();
+        CachedResponse refreshed = stale.refresh(notModified, clock.getAsLong());
+        put(key, refreshed);
+        return refreshed;
+    }
+
+    /**
+     * 放入缓存项，已存在时直接替换；缓存已满时按访问频率决定淘汰旧项还是丢弃新项
+     * @param key 缓存键
+     * @param response 缓存项
+     * @return 是否放入缓存
+     */
+    synchronized boolean put(String key, CachedResponse response) {
+        CachedResponse existing = entries.remove(key);
+        if (existing != null) {
+            weight -= existing.getWeight();
+        } else {
+            List<String> victims = victims(response.getWeight());
+            if (victims == null) {
+                rejections.increment();
+                return false;
+            }
+            int candidateFrequency = sketch.frequency(key);
+            for (String victim : victims) {
+                if (sketch.frequency(victim) >= candidateFrequency) {
+                    rejections.increment();
+                    return false;
+                }
+            }
+            for (String victim : victims) {
+                remove(victim);
+                evictions.increment();
+            }
+        }
+        entries.put(key, response);
+        weight += response.getWeight();
+        return true;
+    }
+
+    /**
+     * 按最久未使用的顺序找出为放入新项需要淘汰的缓存项
+     * @param incomingWeight 新项的权重
+     * @return 需要淘汰的键，可能为空列表；新项本身超过字节数上限时为 null
+     */
+    private List<String> victims(int incomingWeight) {
+        if (maxBytes > 0 && incomingWeight > maxBytes) {
+            return null;
+        }
+        List<String> victims = new ArrayList<>();
+        int size = entries.size();
+        long remainingWeight = weight;
+        Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+        while ((size + 1 > maxEntries || (maxBytes > 0 && remainingWeight + incomingWeight > maxBytes)) && iterator.hasNext()) {
+            Map.Entry<String, CachedResponse> eldest = iterator.next();
+            victims.add(eldest.getKey());
+            size--;
+            remainingWeight -= eldest.getValue().getWeight();
+        }
+        return victims;
+    }
+
+    private void remove(String key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.getWeight();
+        }
+    }
+
+    /**
+     * 移除缓存项
+     * @param key 缓存键
+     */
+    public synchronized void invalidate(String key) {
+        remove(key);
+    }
+
+    /**
+     * 清空缓存，访问频率和统计计数保留
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取单个响应的字节数上限，响应头中的 Content-Length 超过它时调用方不必读入响应体
+     * @return 字节数上限
+     */
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取所有缓存项的总权重
+     * @return 总权重（字节）
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 获取收到 304 的次数，包含在未命中次数中
+     * @return 重新验证次数
+     */
+    public long getRevalidationCount() {
+        return revalidations.sum();
+    }
+
+    /**
+     * 获取因容量不足被淘汰的缓存项数
+     * @return 淘汰数
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 获取因访问频率不够或超过字节数上限而未被接纳的新响应数
+     * @return 拒绝数
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+}
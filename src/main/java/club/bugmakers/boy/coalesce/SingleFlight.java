@@ -0,0 +1,289 @@
+package club.bugmakers.boy.coalesce;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 相同请求合并（single-flight）
+ * 同一时刻键相同的请求只有第一个（领头请求）真正执行，包括它的重试和对冲，后到的请求等待并共享它的结果或异常，
+ * 热点缓存失效时成百上千个相同的 GET 请求只会变成一次下游调用。
+ * 领头请求结束时先移出表再发布结果，之后到达的请求重新执行，不会拿到已结束请求的旧结果。
+ * 异步请求各自拿到独立的 Future，取消只影响自己；所有等待者都取消后才取消共享的执行
+ */
+public class SingleFlight {
+
+    private final String name;
+    private final Set<String> keyHeaders;
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+
+    /**
+     * 构造方法
+     * @param name 名称，一般为服务端点ID
+     * @param config 请求合并配置
+     */
+    public SingleFlight(String name, BoyHttpClientProperties.SingleFlightConfig config) {
+        this.name = name;
+        List<String> headers = config.getKeyHeaders();
+        if (headers == null || headers.isEmpty()) {
+            this.keyHeaders = null;
+        } else {
+            this.keyHeaders = new HashSet<>();
+            for (String header : headers) {
+                this.keyHeaders.add(header.toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    /**
+     * 生成合并键：请求路径加上参与合并的请求头，未配置 keyHeaders 时所有请求头都参与
+     * @param path 请求路径
+     * @param headers 请求头，可为 null
+     * @return 合并键
+     */
+    public String key(String path, Map<String, String> headers) {
+        if (headers == null || headers.isEmpty()) {
+            return path;
+        }
+        TreeMap<String, String> selected = new TreeMap<>();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            String lower = header.getKey().toLowerCase(Locale.ROOT);
+            if (keyHeaders == null || keyHeaders.contains(lower)) {
+                selected.put(lower, header.getValue());
+            }
+        }
+        return selected.isEmpty() ? path : path + ' ' + selected;
+    }
+
+    /**
+     * 同步执行：没有相同请求在执行时由调用线程执行，否则等待正在执行的请求
+     * @param key 合并键
+     * @param call 请求
+     * @param <T> 结果类型，会被所有等待者共享，应为不可变对象
+     * @return 结果
+     * @throws IOException 请求失败时所有等待者收到同一个异常；等待中被中断时抛出 InterruptedIOException
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Call<T> call) throws IOException {
+        Flight created = new Flight();
+        Flight flight = join(key, created);
+        if (flight == created) {
+            T result;
+            try {
+                result = call.call();
+            } catch (IOException | RuntimeException | Error e) {
+                flights.remove(key, flight);
+                flight.result.completeExceptionally(e);
+                throw e;
+            }
+            flights.remove(key, flight);
+            flight.result.complete(result);
+            return result;
+        }
+        try {
+            return (T) flight.result.get();
+        } catch (InterruptedException e) {
+            flight.leave();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for coalesced request");
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (CancellationException e) {
+            throw new IOException("Coalesced request was cancelled", e);
+        }
+    }
+
+    /**
+     * 异步执行：没有相同请求在执行时发起请求，否则加入正在执行的请求
+     * @param key 合并键
+     * @param call 发起请求，返回的 Future 在所有等待者都取消后被取消
+     * @param <T> 结果类型，会被所有等待者共享，应为不可变对象
+     * @return 调用方独立的结果 Future，取消时只退出等待
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String key, Supplier<? extends CompletableFuture<T>> call) {
+        Flight created = new Flight();
+        Flight flight = join(key, created);
+        if (flight == created) {
+            CompletableFuture<T> execution;
+            try {
+                execution = call.get();
+            } catch (RuntimeException | Error e) {
+                flights.remove(key, flight);
+                flight.result.completeExceptionally(e);
+                throw e;
+            }
+            flight.bindExecution(execution);
+            execution.whenComplete((result, error) -> {
+                flights.remove(key, flight);
+                if (error != null) {
+                    flight.result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                } else {
+                    flight.result.complete(result);
+                }
+            });
+        }
+        Waiter<T> waiter = new Waiter<>(flight);
+        flight.result.whenComplete((result, error) -> {
+            if (error != null) {
+                waiter.completeExceptionally(error);
+            } else {
+                waiter.complete((T) result);
+            }
+        });
+        return waiter;
+    }
+
+    /**
+     * 加入或创建键对应的执行；所有等待者都已取消的执行不再接纳新的等待者，由新的执行替换
+     * @param key 合并键
+     * @param created 新建的执行
+     * @return 加入的执行，等于 created 时调用方为领头请求
+     */
+    private Flight join(String key, Flight created) {
+        while (true) {
+            Flight existing = flights.putIfAbsent(key, created);
+            if (existing == null) {
+                leaders.increment();
+                return created;
+            }
+            if (existing.tryJoin()) {
+                followers.increment();
+                return existing;
+            }
+            flights.remove(key, existing);
+        }
+    }
+
+    private static IOException rethrow(Throwable error) {
+        if (error instanceof IOException) {
+            return (IOException) error;
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        return new IOException(error);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取正在执行的不同请求数
+     * @return 正在执行的请求数
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    /**
+     * 获取真正执行的请求数
+     * @return 领头请求数
+     */
+    public long getLeaderCount() {
+        return leaders.sum();
+    }
+
+    /**
+     * 获取加入正在执行的请求、没有单独发出的请求数
+     * @return 被合并的请求数
+     */
+    public long getCoalescedCount() {
+        return followers.sum();
+    }
+
+    /**
+     * 可抛出 IO 异常的请求
+     * @param <T> 结果类型
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * 一次共享的执行
+     */
+    private static final class Flight {
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        /**
+         * 等待者数，包括领头请求；降为 0 后不再接纳新的等待者
+         */
+        private final AtomicInteger waiters = new AtomicInteger(1);
+        private volatile Future<?> execution;
+
+        private boolean tryJoin() {
+            while (true) {
+                int current = waiters.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (waiters.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void bindExecution(Future<?> execution) {
+            this.execution = execution;
+            if (waiters.get() == 0) {
+                execution.cancel(true);
+            }
+        }
+
+        private void leave() {
+            if (waiters.decrementAndGet() == 0) {
+                Future<?> task = execution;
+                if (task != null) {
+                    task.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * 调用方独立的结果 Future，取消时退出等待
+     * @param <T> 结果类型
+     */
+    private static final class Waiter<T> extends CompletableFuture<T> {
+
+        private final Flight flight;
+
+        private Waiter(Flight flight) {
+            this.flight = flight;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                flight.leave();
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package club.bugmakers.boy.concurrent;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 线程池工具类
+ * 统一创建 Boy HttpClient 内部使用的线程池和线程工厂
+ */
+@Slf4j
+public final class BoyExecutors {
+
+    /**
+     * 空闲线程的存活时间
+     */
+    private static final long KEEP_ALIVE_MS = 60000;
+
+    private BoyExecutors() {
+    }
+
+    /**
+     * 创建服务端点的异步请求线程池
+     * 线程数和队列均有上限，队列满时抛出 RejectedExecutionException；
+     * 启用虚拟线程且运行环境支持时，每个任务使用一个虚拟线程，同时提交的任务数上限为 threads + queueCapacity
+     * @param endpointId 服务端点ID
+     * @param config 线程池配置，为 null 时使用默认配置
+     * @param virtualThreadsByDefault 服务端点未配置时是否使用虚拟线程
+     * @return 线程池
+     */
+    public static ExecutorService newEndpointExecutor(String endpointId, BoyHttpClientProperties.ExecutorConfig config, boolean virtualThreadsByDefault) {
+        BoyHttpClientProperties.ExecutorConfig executorConfig = config != null ? config : new BoyHttpClientProperties.ExecutorConfig();
+        boolean virtualThreads = executorConfig.getVirtualThreads() != null ? executorConfig.getVirtualThreads() : virtualThreadsByDefault;
+        if (virtualThreads) {
+            if (VirtualThreads.isSupported()) {
+                return new BoundedExecutorService(VirtualThreads.newVirtualThreadPerTaskExecutor("boy-" + endpointId),
+                        executorConfig.getThreads() + Math.max(executorConfig.getQueueCapacity(), 1));
+            }
+            log.warn("Virtual threads are not supported by Java {}, endpoint {} falls back to platform threads",
+                    System.getProperty("java.version"), endpointId);
+        }
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                executorConfig.getThreads(), executorConfig.getThreads(),
+                KEEP_ALIVE_MS, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(executorConfig.getQueueCapacity(), 1)),
+                namedThreadFactory("boy-" + endpointId),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 创建带名称前缀的守护线程工厂
+     * @param prefix 线程名前缀
+     * @return 线程工厂
+     */
+    public static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
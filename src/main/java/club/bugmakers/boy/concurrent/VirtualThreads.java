@@ -0,0 +1,31 @@
+package club.bugmakers.boy.concurrent;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 虚拟线程支持
+ * 该实现用于 Java 21 以下的运行环境，始终返回不支持；
+ * Java 21 及以上由多版本 JAR 中 META-INF/versions/21 下的同名类替换
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程
+     * @return 是否支持
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器
+     * @param prefix 线程名前缀
+     * @return 执行器
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String prefix) {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+}
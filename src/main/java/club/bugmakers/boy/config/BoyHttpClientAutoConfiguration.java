@@ -3,20 +3,45 @@ package club.bugmakers.boy.config;
 import club.bugmakers.boy.core.BoyHttpClient;
 import club.bugmakers.boy.core.BoyClientHttpRequestFactory;
 import club.bugmakers.boy.core.BoyRestTemplate;
+import club.bugmakers.boy.core.BoyWebClient;
+import club.bugmakers.boy.health.BoyHttpClientHealthIndicator;
+import club.bugmakers.boy.journal.BoyRequestJournalEndpoint;
+import club.bugmakers.boy.journal.RequestEventExporter;
+import club.bugmakers.boy.metrics.BoyHttpClientMetrics;
 import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
 
 /**
  * Boy HttpClient 自动配置类
- * 用于自动装配 BoyHttpClient 和 BoyRestTemplate 实例
+ * 用于自动装配 BoyHttpClient、BoyRestTemplate 和 BoyWebClient 实例，以及可选的健康指示器、Micrometer 指标和请求日志端点
  */
 @Configuration
 @EnableConfigurationProperties(BoyHttpClientProperties.class)
 public class BoyHttpClientAutoConfiguration {
 
+    /**
+     * 创建 EndpointRegistry 实例
+     * @param properties 配置属性
+     * @param exporter 容器中的请求日志导出方式，不存在时抽样记录写入 INFO 日志
+     * @return EndpointRegistry 实例
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public EndpointRegistry boyEndpointRegistry(BoyHttpClientProperties properties, ObjectProvider<RequestEventExporter> exporter) {
+        EndpointRegistry registry = new EndpointRegistry(properties);
+        exporter.ifAvailable(registry.getJournal()::setExporter);
+        return registry;
+    }
+
     /**
      * 创建 BoyClientHttpRequestFactory 实例
      * @return BoyClientHttpRequestFactory 实例
@@ -29,24 +54,110 @@ public class BoyHttpClientAutoConfiguration {
 
     /**
      * 创建 BoyHttpClient 实例
-     * @param properties 配置属性
+     * @param registry 服务端点注册表
      * @return BoyHttpClient 实例
      */
     @Bean
     @ConditionalOnMissingBean
-    public BoyHttpClient boyHttpClient(BoyHttpClientProperties properties) {
-        return new BoyHttpClient(properties);
+    public BoyHttpClient boyHttpClient(EndpointRegistry registry) {
+        return new BoyHttpClient(registry);
     }
 
     /**
      * 创建 BoyRestTemplate 实例
-     * @param properties 配置属性
+     * @param registry 服务端点注册表
      * @param requestFactory 请求工厂
      * @return BoyRestTemplate 实例
      */
     @Bean
     @ConditionalOnMissingBean
-    public BoyRestTemplate boyRestTemplate(BoyHttpClientProperties properties, BoyClientHttpRequestFactory requestFactory) {
-        return new BoyRestTemplate(properties, requestFactory);
+    public BoyRestTemplate boyRestTemplate(EndpointRegistry registry, BoyClientHttpRequestFactory requestFactory) {
+        return new BoyRestTemplate(registry, requestFactory);
+    }
+
+    /**
+     * 健康指示器配置，仅在类路径中存在 Spring Boot Actuator 时生效，
+     * 可通过 management.health.boyHttpClient.enabled=false 关闭
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.health.HealthIndicator")
+    static class BoyHealthIndicatorConfiguration {
+
+        /**
+         * 创建 BoyHttpClientHealthIndicator 实例
+         * @param registry 服务端点注册表
+         * @param properties 配置属性
+         * @return BoyHttpClientHealthIndicator 实例
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnEnabledHealthIndicator("boyHttpClient")
+        public BoyHttpClientHealthIndicator boyHttpClientHealthIndicator(EndpointRegistry registry, BoyHttpClientProperties properties) {
+            return new BoyHttpClientHealthIndicator(registry, properties.getHealth() != null && properties.getHealth().isPropagateDown());
+        }
+    }
+
+    /**
+     * 请求日志端点配置，仅在类路径中存在 Spring Boot Actuator 且端点被暴露时生效，
+     * 需要在 management.endpoints.web.exposure.include 中加入 boyrequests
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class BoyRequestJournalEndpointConfiguration {
+
+        /**
+         * 创建 BoyRequestJournalEndpoint 实例
+         * @param registry 服务端点注册表
+         * @return BoyRequestJournalEndpoint 实例
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint(endpoint = BoyRequestJournalEndpoint.class)
+        public BoyRequestJournalEndpoint boyRequestJournalEndpoint(EndpointRegistry registry) {
+            return new BoyRequestJournalEndpoint(registry.getJournal());
+        }
+    }
+
+    /**
+     * 指标配置，仅在类路径中存在 Micrometer 时生效，Spring Boot 将 MeterBinder 绑定到容器中的 MeterRegistry；
+     * 可通过 boy.httpclient.metrics.enabled=false 关闭
+     */
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class BoyMetricsConfiguration {
+
+        /**
+         * 暴露注册表持有的 BoyHttpClientMetrics 实例
+         * @param registry 服务端点注册表
+         * @return BoyHttpClientMetrics 实例
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public BoyHttpClientMetrics boyHttpClientMetrics(EndpointRegistry registry) {
+            return registry.getMetrics();
+        }
+    }
+
+    /**
+     * 响应式客户端配置，仅在类路径中存在 Spring WebFlux 和 Reactor Netty 时生效
+     */
+    @Configuration
+    @ConditionalOnClass(name = {
+            "org.springframework.web.reactive.function.client.WebClient",
+            "reactor.netty.http.client.HttpClient"
+    })
+    static class BoyWebClientConfiguration {
+
+        /**
+         * 创建 BoyWebClient 实例
+         * @param registry 服务端点注册表
+         * @param webClientBuilder 容器中的 WebClient 构建器，不存在时使用默认构建器
+         * @return BoyWebClient 实例
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public BoyWebClient boyWebClient(EndpointRegistry registry, ObjectProvider<WebClient.Builder> webClientBuilder) {
+            return new BoyWebClient(registry, webClientBuilder.getIfAvailable(WebClient::builder));
+        }
     }
 }
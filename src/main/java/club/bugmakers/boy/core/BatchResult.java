@@ -0,0 +1,77 @@
+package club.bugmakers.boy.core;
+
+/**
+ * 批量请求中单个请求的结果
+ * 不可变对象，成功时持有响应结果，失败时持有该请求最终的异常，一个请求失败不影响批量中的其他请求
+ * @param <T> 响应类型
+ */
+public final class BatchResult<T> {
+
+    private final int index;
+    private final String path;
+    private final T value;
+    private final RuntimeException error;
+
+    private BatchResult(int index, String path, T value, RuntimeException error) {
+        this.index = index;
+        this.path = path;
+        this.value = value;
+        this.error = error;
+    }
+
+    static <T> BatchResult<T> success(int index, String path, T value) {
+        return new BatchResult<>(index, path, value, null);
+    }
+
+    static <T> BatchResult<T> failure(int index, String path, RuntimeException error) {
+        return new BatchResult<>(index, path, null, error);
+    }
+
+    /**
+     * 获取请求在批量中的下标，与传入的路径列表一致
+     * @return 下标
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * 获取响应结果
+     * @return 响应结果，失败时为 null
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * 获取失败原因
+     * @return 异常，成功时为 null
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+    /**
+     * 获取响应结果，失败时抛出该请求的异常
+     * @return 响应结果
+     */
+    public T getOrThrow() {
+        if (error != null) {
+            throw error;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{index=" + index + ", path=" + path + (error == null ? ", success" : ", error=" + error) + "}";
+    }
+}
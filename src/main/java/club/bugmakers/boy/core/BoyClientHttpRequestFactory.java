@@ -1,10 +1,14 @@
 package club.bugmakers.boy.core;
 
+import club.bugmakers.boy.dns.CachingDnsResolver;
+import club.bugmakers.boy.registry.ProxyAddress;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.net.*;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -15,7 +19,9 @@ import java.util.Random;
 @Slf4j
 public class BoyClientHttpRequestFactory extends SimpleClientHttpRequestFactory {
 
-    private List<String> proxies;
+    private volatile List<String> proxies;
+    private volatile List<ProxyAddress> proxyAddresses = Collections.emptyList();
+    private volatile CachingDnsResolver dnsResolver;
     private final Random random = new Random();
 
     /**
@@ -29,7 +35,7 @@ public class BoyClientHttpRequestFactory extends SimpleClientHttpRequestFactory
      * @param proxies 代理列表，格式为 host:port
      */
     public BoyClientHttpRequestFactory(List<String> proxies) {
-        this.proxies = proxies;
+        setProxies(proxies);
     }
 
     /**
@@ -43,17 +49,16 @@ public class BoyClientHttpRequestFactory extends SimpleClientHttpRequestFactory
     protected HttpURLConnection openConnection(URL url, Proxy proxy) throws IOException {
         // 如果指定了代理，则使用指定的代理
         if (proxy != null) {
-            log.info("Using specified proxy {} for request to {}", proxy.address(), url);
+            log.debug("Using specified proxy {} for request to {}", proxy.address(), url);
             return super.openConnection(url, proxy);
         }
 
-        // 如果配置了代理列表，则随机选择一个代理
-        if (proxies != null && !proxies.isEmpty()) {
-            int proxyIndex = random.nextInt(proxies.size());
-            String proxyStr = proxies.get(proxyIndex);
-            Proxy selectedProxy = createProxy(proxyStr);
-            log.info("Selected proxy {} for request to {}", proxyStr, url);
-            return super.openConnection(url, selectedProxy);
+        // 如果配置了代理列表，则随机选择一个预解析的代理
+        List<ProxyAddress> candidates = proxyAddresses;
+        if (!candidates.isEmpty()) {
+            ProxyAddress selected = candidates.get(random.nextInt(candidates.size()));
+            log.debug("Selected proxy {} for request to {}", selected, url);
+            return super.openConnection(url, resolveProxy(selected));
         }
 
         // 否则使用默认连接
@@ -62,22 +67,18 @@ public class BoyClientHttpRequestFactory extends SimpleClientHttpRequestFactory
     }
 
     /**
-     * 创建代理
-     * @param proxyStr 代理字符串，格式为 host:port
+     * 通过 DNS 解析缓存解析代理地址，未设置解析缓存时交由 JDK 在连接时解析
+     * @param proxyAddress 代理地址
      * @return 代理对象
+     * @throws UnknownHostException 代理主机解析失败
      */
-    private Proxy createProxy(String proxyStr) {
-        try {
-            String[] parts = proxyStr.split(":");
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("Invalid proxy format: " + proxyStr);
-            }
-            String host = parts[0];
-            int port = Integer.parseInt(parts[1]);
-            return new Proxy(Proxy.Type.HTTP, new InetSocketAddress(host, port));
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid proxy configuration: " + proxyStr, e);
+    private Proxy resolveProxy(ProxyAddress proxyAddress) throws UnknownHostException {
+        CachingDnsResolver resolver = dnsResolver;
+        if (resolver == null) {
+            return proxyAddress.getProxy();
         }
+        InetAddress address = resolver.resolveFirst(proxyAddress.getHost());
+        return new Proxy(Proxy.Type.HTTP, new InetSocketAddress(address, proxyAddress.getPort()));
     }
 
     /**
@@ -93,6 +94,29 @@ public class BoyClientHttpRequestFactory extends SimpleClientHttpRequestFactory
      * @param proxies 代理列表
      */
     public void setProxies(List<String> proxies) {
+        List<ProxyAddress> parsed = new ArrayList<>();
+        if (proxies != null) {
+            for (String proxy : proxies) {
+                parsed.add(ProxyAddress.parse(proxy));
+            }
+        }
+        this.proxyAddresses = Collections.unmodifiableList(parsed);
         this.proxies = proxies;
     }
+
+    /**
+     * 获取 DNS 解析缓存
+     * @return DNS 解析器
+     */
+    public CachingDnsResolver getDnsResolver() {
+        return dnsResolver;
+    }
+
+    /**
+     * 设置 DNS 解析缓存，用于解析代理地址
+     * @param dnsResolver DNS 解析器
+     */
+    public void setDnsResolver(CachingDnsResolver dnsResolver) {
+        this.dnsResolver = dnsResolver;
+    }
 }
@@ -1,35 +1,128 @@
 package club.bugmakers.boy.core;
 
+import club.bugmakers.boy.balancer.HostSelection;
+import club.bugmakers.boy.coalesce.SingleFlight;
+import club.bugmakers.boy.hedge.AttemptContext;
+import club.bugmakers.boy.hedge.HedgePolicy;
+import club.bugmakers.boy.io.ByteBufferPool;
+import club.bugmakers.boy.io.FileChannelEntity;
+import club.bugmakers.boy.journal.RequestJournal;
+import club.bugmakers.boy.metrics.EndpointMetrics;
+import club.bugmakers.boy.pool.BoyConnectionPool;
+import club.bugmakers.boy.pool.BoyConnectionPoolManager;
 import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointPlan;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import club.bugmakers.boy.registry.ProxyAddress;
+import club.bugmakers.boy.registry.RetrySettings;
+import club.bugmakers.boy.retry.RetryAfter;
+import club.bugmakers.boy.retry.RetryClassifier;
+import club.bugmakers.boy.retry.RetryFuture;
+import club.bugmakers.boy.retry.RetryableCall;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
 import org.springframework.stereotype.Component;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.*;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 高可用 HttpClient 核心类
- * 支持多服务端点、多代理和重试策略
+ * 支持多服务端点、多代理、重试策略和连接池
  */
 @Slf4j
 @Component
-public class BoyHttpClient {
+public class BoyHttpClient implements Closeable {
 
-    private final BoyHttpClientProperties properties;
-    private final Random random = new Random();
+    /**
+     * 以字符串读取响应体，响应未声明字符集时按 UTF-8 解码
+     */
+    private static final BodyReader<String> STRING_READER = response -> {
+        HttpEntity entity = response.getEntity();
+        return entity != null ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : "";
+    };
+
+    /**
+     * 以字节数组读取响应体，按 Content-Length 预分配缓冲区
+     */
+    private static final BodyReader<byte[]> BYTES_READER = response -> {
+        HttpEntity entity = response.getEntity();
+        return entity != null ? EntityUtils.toByteArray(entity) : new byte[0];
+    };
+
+    /**
+     * 文件上传下载的缓冲区大小
+     */
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 最多保留的空闲传输缓冲区数量
+     */
+    private static final int MAX_POOLED_BUFFERS = 16;
+
+    /**
+     * 指标和请求日志中的客户端名称
+     */
+    private static final String CLIENT_NAME = "httpclient";
+
+    private final EndpointRegistry registry;
+    private final boolean ownsRegistry;
+    private final BoyConnectionPoolManager poolManager;
+    private final ByteBufferPool bufferPool = new ByteBufferPool(TRANSFER_BUFFER_SIZE, MAX_POOLED_BUFFERS);
 
     /**
      * 构造方法
      * @param properties 配置属性
      */
     public BoyHttpClient(BoyHttpClientProperties properties) {
-        this.properties = properties;
-        log.info("BoyHttpClient initialized with {} endpoints", properties.getEndpoints() != null ? properties.getEndpoints().size() : 0);
+        this(new EndpointRegistry(properties), true);
+    }
+
+    /**
+     * 构造方法
+     * @param registry 服务端点注册表
+     */
+    public BoyHttpClient(EndpointRegistry registry) {
+        this(registry, false);
+    }
+
+    /**
+     * 构造方法
+     * @param registry 服务端点注册表
+     * @param ownsRegistry 关闭客户端时是否同时关闭注册表
+     */
+    private BoyHttpClient(EndpointRegistry registry, boolean ownsRegistry) {
+        this.registry = registry;
+        this.ownsRegistry = ownsRegistry;
+        this.poolManager = new BoyConnectionPoolManager(registry.getDnsResolver(), pool -> registry.getMetrics().registerPool(CLIENT_NAME, pool));
+        log.info("BoyHttpClient initialized with {} endpoints", registry.size());
     }
 
     /**
@@ -40,7 +133,7 @@ public class BoyHttpClient {
      * @throws IOException IO异常
      */
     public String get(String endpointId, String path) throws IOException {
-        return executeRequest(endpointId, path, "GET", null, null);
+        return executeGet(endpointId, path, null);
     }
 
     /**
@@ -52,7 +145,7 @@ public class BoyHttpClient {
      * @throws IOException IO异常
      */
     public String get(String endpointId, String path, Map<String, String> headers) throws IOException {
-        return executeRequest(endpointId, path, "GET", null, headers);
+        return executeGet(endpointId, path, headers);
     }
 
     /**
@@ -64,7 +157,7 @@ public class BoyHttpClient {
      * @throws IOException IO异常
      */
     public String post(String endpointId, String path, String body) throws IOException {
-        return executeRequest(endpointId, path, "POST", body, null);
+        return executeRequest(endpointId, path, "POST", stringEntity(body), null, STRING_READER);
     }
 
     /**
@@ -77,7 +170,7 @@ public class BoyHttpClient {
      * @throws IOException IO异常
      */
     public String post(String endpointId, String path, String body, Map<String, String> headers) throws IOException {
-        return executeRequest(endpointId, path, "POST", body, headers);
+        return executeRequest(endpointId, path, "POST", stringEntity(body), headers, STRING_READER);
     }
 
     /**
@@ -89,7 +182,7 @@ public class BoyHttpClient {
      * @throws IOException IO异常
      */
     public String put(String endpointId, String path, String body) throws IOException {
-        return executeRequest(endpointId, path, "PUT", body, null);
+        return executeRequest(endpointId, path, "PUT", stringEntity(body), null, STRING_READER);
     }
 
     /**
@@ -102,7 +195,7 @@ public class BoyHttpClient {
      * @throws IOException IO异常
      */
     public String put(String endpointId, String path, String body, Map<String, String> headers) throws IOException {
-        return executeRequest(endpointId, path, "PUT", body, headers);
+        return executeRequest(endpointId, path, "PUT", stringEntity(body), headers, STRING_READER);
     }
 
     /**
@@ -113,7 +206,7 @@ public class BoyHttpClient {
      * @throws IOException IO异常
      */
     public String delete(String endpointId, String path) throws IOException {
-        return executeRequest(endpointId, path, "DELETE", null, null);
+        return executeRequest(endpointId, path, "DELETE", null, null, STRING_READER);
     }
 
     /**
@@ -125,174 +218,666 @@ public class BoyHttpClient {
      * @throws IOException IO异常
      */
     public String delete(String endpointId, String path, Map<String, String> headers) throws IOException {
-        return executeRequest(endpointId, path, "DELETE", null, headers);
+        return executeRequest(endpointId, path, "DELETE", null, headers, STRING_READER);
+    }
+
+    /**
+     * 发送 GET 请求，以字节数组返回响应体
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @return 响应体
+     * @throws IOException IO异常
+     */
+    public byte[] getBytes(String endpointId, String path) throws IOException {
+        return executeRequest(endpointId, path, "GET", null, null, BYTES_READER);
+    }
+
+    /**
+     * 发送 GET 请求（带header），以字节数组返回响应体
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param headers 请求头
+     * @return 响应体
+     * @throws IOException IO异常
+     */
+    public byte[] getBytes(String endpointId, String path, Map<String, String> headers) throws IOException {
+        return executeRequest(endpointId, path, "GET", null, headers, BYTES_READER);
+    }
+
+    /**
+     * 发送 GET 请求，以输入流的形式处理响应体，响应体不会整体读入内存
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param callback 响应体处理回调
+     * @param <T> 处理结果类型
+     * @return 回调的处理结果
+     * @throws IOException IO异常
+     */
+    public <T> T getStream(String endpointId, String path, ResponseStreamCallback<T> callback) throws IOException {
+        return execute(endpointId, "GET", path, null, null, callback);
+    }
+
+    /**
+     * 发送 GET 请求（带header），以输入流的形式处理响应体
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param headers 请求头
+     * @param callback 响应体处理回调
+     * @param <T> 处理结果类型
+     * @return 回调的处理结果
+     * @throws IOException IO异常
+     */
+    public <T> T getStream(String endpointId, String path, Map<String, String> headers, ResponseStreamCallback<T> callback) throws IOException {
+        return execute(endpointId, "GET", path, null, headers, callback);
+    }
+
+    /**
+     * 发送 GET 请求，按指定字符集以字符流的形式处理响应体
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param charset 响应体字符集
+     * @param callback 响应体处理回调
+     * @param <T> 处理结果类型
+     * @return 回调的处理结果
+     * @throws IOException IO异常
+     */
+    public <T> T getReader(String endpointId, String path, Charset charset, ResponseReaderCallback<T> callback) throws IOException {
+        return execute(endpointId, "GET", path, null, null, body -> callback.doWithReader(new InputStreamReader(body, charset)));
+    }
+
+    /**
+     * 发送任意方法的请求，以输入流的形式处理响应体
+     * 连接建立失败和错误状态码按重试策略重试；回调一旦被调用，其抛出的异常不再重试，直接抛给调用方
+     * @param endpointId 服务端点ID
+     * @param method 请求方法
+     * @param path 请求路径
+     * @param body 请求体
+     * @param headers 请求头
+     * @param callback 响应体处理回调
+     * @param <T> 处理结果类型
+     * @return 回调的处理结果
+     * @throws IOException IO异常
+     */
+    public <T> T execute(String endpointId, String method, String path, String body, Map<String, String> headers, ResponseStreamCallback<T> callback) throws IOException {
+        return executeRequest(endpointId, path, method, stringEntity(body), headers, response -> {
+            HttpEntity entity = response.getEntity();
+            InputStream content = entity != null ? entity.getContent() : new ByteArrayInputStream(new byte[0]);
+            try {
+                return callback.doWithStream(content);
+            } catch (IOException | RuntimeException e) {
+                throw new CallbackException(e);
+            }
+        });
+    }
+
+    /**
+     * 以 POST 请求上传文件
+     * 文件通过 FileChannel 和池化的固定大小缓冲区分块写入连接，不会整体读入内存，重试时重新发送整个文件
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param file 待上传的文件
+     * @return 响应结果
+     * @throws IOException IO异常
+     */
+    public String upload(String endpointId, String path, Path file) throws IOException {
+        return upload(endpointId, path, file, null, false);
+    }
+
+    /**
+     * 以 POST 请求上传文件（带header）
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param file 待上传的文件
+     * @param headers 请求头，未指定 Content-Type 时使用 application/octet-stream
+     * @param chunked 是否使用分块传输编码，为 false 时发送 Content-Length
+     * @return 响应结果
+     * @throws IOException IO异常
+     */
+    public String upload(String endpointId, String path, Path file, Map<String, String> headers, boolean chunked) throws IOException {
+        if (!Files.isReadable(file)) {
+            throw new FileNotFoundException(file.toString());
+        }
+        Map<String, String> uploadHeaders = new LinkedHashMap<>();
+        uploadHeaders.put("Content-Type", ContentType.APPLICATION_OCTET_STREAM.getMimeType());
+        if (headers != null) {
+            uploadHeaders.putAll(headers);
+        }
+        FileChannelEntity entity = new FileChannelEntity(file, null, bufferPool, chunked);
+        return executeRequest(endpointId, path, "POST", entity, uploadHeaders, STRING_READER);
+    }
+
+    /**
+     * 以 GET 请求下载文件
+     * 响应体通过池化的固定大小缓冲区写入 FileChannel；下载中断重试时通过 Range 加 If-Range 请求从已写入的位置继续，
+     * 服务端不支持 Range 或文件已变化时重新下载整个文件
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param target 目标文件，已存在时被覆盖
+     * @return 文件大小（字节）
+     * @throws IOException IO异常
+     */
+    public long download(String endpointId, String path, Path target) throws IOException {
+        return download(endpointId, path, target, null);
+    }
+
+    /**
+     * 以 GET 请求下载文件（带header）
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param target 目标文件，已存在时被覆盖
+     * @param headers 请求头
+     * @return 文件大小（字节）
+     * @throws IOException IO异常
+     */
+    public long download(String endpointId, String path, Path target, Map<String, String> headers) throws IOException {
+        return executeRequest(endpointId, path, "GET", null, headers, new FileDownload(target));
+    }
+
+    /**
+     * 异步发送 GET 请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @return 响应结果的 Future，取消时中止正在进行的请求
+     */
+    public CompletableFuture<String> getAsync(String endpointId, String path) {
+        return executeGetAsync(endpointId, path, null);
+    }
+
+    /**
+     * 异步发送 GET 请求（带header）
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param headers 请求头
+     * @return 响应结果的 Future，取消时中止正在进行的请求
+     */
+    public CompletableFuture<String> getAsync(String endpointId, String path, Map<String, String> headers) {
+        return executeGetAsync(endpointId, path, headers);
+    }
+
+    /**
+     * 异步发送 POST 请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param body 请求体
+     * @return 响应结果的 Future，取消时中止正在进行的请求
+     */
+    public CompletableFuture<String> postAsync(String endpointId, String path, String body) {
+        return executeRequestAsync(endpointId, path, "POST", stringEntity(body), null);
+    }
+
+    /**
+     * 异步发送 POST 请求（带header）
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param body 请求体
+     * @param headers 请求头
+     * @return 响应结果的 Future，取消时中止正在进行的请求
+     */
+    public CompletableFuture<String> postAsync(String endpointId, String path, String body, Map<String, String> headers) {
+        return executeRequestAsync(endpointId, path, "POST", stringEntity(body), headers);
+    }
+
+    /**
+     * 异步发送 PUT 请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param body 请求体
+     * @return 响应结果的 Future，取消时中止正在进行的请求
+     */
+    public CompletableFuture<String> putAsync(String endpointId, String path, String body) {
+        return executeRequestAsync(endpointId, path, "PUT", stringEntity(body), null);
+    }
+
+    /**
+     * 异步发送 PUT 请求（带header）
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param body 请求体
+     * @param headers 请求头
+     * @return 响应结果的 Future，取消时中止正在进行的请求
+     */
+    public CompletableFuture<String> putAsync(String endpointId, String path, String body, Map<String, String> headers) {
+        return executeRequestAsync(endpointId, path, "PUT", stringEntity(body), headers);
+    }
+
+    /**
+     * 异步发送 DELETE 请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @return 响应结果的 Future，取消时中止正在进行的请求
+     */
+    public CompletableFuture<String> deleteAsync(String endpointId, String path) {
+        return executeRequestAsync(endpointId, path, "DELETE", null, null);
+    }
+
+    /**
+     * 异步发送 DELETE 请求（带header）
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param headers 请求头
+     * @return 响应结果的 Future，取消时中止正在进行的请求
+     */
+    public CompletableFuture<String> deleteAsync(String endpointId, String path, Map<String, String> headers) {
+        return executeRequestAsync(endpointId, path, "DELETE", null, headers);
+    }
+
+    /**
+     * 执行读取字符串响应的 GET 请求，启用请求合并时与正在执行的相同请求共享结果
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param headers 请求头
+     * @return 响应结果
+     * @throws IOException IO异常
+     */
+    private String executeGet(String endpointId, String path, Map<String, String> headers) throws IOException {
+        SingleFlight singleFlight = registry.require(endpointId).getSingleFlight();
+        if (singleFlight == null) {
+            return executeRequest(endpointId, path, "GET", null, headers, STRING_READER);
+        }
+        return singleFlight.execute(singleFlight.key(path, headers), () -> executeRequest(endpointId, path, "GET", null, headers, STRING_READER));
+    }
+
+    /**
+     * 异步执行读取字符串响应的 GET 请求，启用请求合并时与正在执行的相同请求共享结果
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param headers 请求头
+     * @return 响应结果的 Future，取消时只退出等待，所有等待者都取消后才中止共享的请求
+     */
+    private CompletableFuture<String> executeGetAsync(String endpointId, String path, Map<String, String> headers) {
+        SingleFlight singleFlight = registry.require(endpointId).getSingleFlight();
+        if (singleFlight == null) {
+            return executeRequestAsync(endpointId, path, "GET", null, headers);
+        }
+        return singleFlight.executeAsync(singleFlight.key(path, headers), () -> executeRequestAsync(endpointId, path, "GET", null, headers));
+    }
+
+    /**
+     * 在服务端点的线程池中异步执行 HTTP 请求
+     * 失败后的重试由重试引擎的定时器安排，退避期间不占用任何线程
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param method 请求方法
+     * @param body 请求体
+     * @param headers 请求头
+     * @return 响应结果的 Future
+     */
+    private CompletableFuture<String> executeRequestAsync(String endpointId, String path, String method, HttpEntity body, Map<String, String> headers) {
+        EndpointPlan endpoint = registry.require(endpointId);
+        HostSelection selection = endpoint.newHostSelection();
+        EndpointMetrics metrics = endpoint.getMetrics();
+        int methodIndex = EndpointMetrics.method(method);
+        long start = metrics.requestStarted();
+        RetryFuture<String> future = registry.getRetryEngine().executeAsync(endpointId, endpoint.getRetry(), endpoint.getRetryBudget(), endpoint.getRateLimiter(), endpoint.getExecutor(),
+                (attempt, call) -> attempt(endpoint, selection, path, method, body, headers, STRING_READER, attempt, newContext(call)),
+                new Classifier(endpoint.getRetry()));
+        future.whenComplete((result, error) -> metrics.requestFinished(methodIndex, error == null ? EndpointMetrics.SUCCESS : statusOf(error), start));
+        return future;
     }
 
     /**
      * 执行 HTTP 请求
+     * 同步执行是异步重试引擎的简单封装，退避期间调用线程等待定时器交回下一次尝试；
+     * 启用对冲时，读取整个响应体的 GET 请求在每次尝试内由调用线程执行主请求，超过对冲延迟后由线程池向另一个主机发出对冲请求
      * @param endpointId 服务端点ID
      * @param path 请求路径
      * @param method 请求方法
      * @param body 请求体
      * @param headers 请求头
+     * @param reader 响应体读取方式
+     * @param <T> 响应结果类型
      * @return 响应结果
      * @throws IOException IO异常
      */
-    private String executeRequest(String endpointId, String path, String method, String body, Map<String, String> headers) throws IOException {
-        BoyHttpClientProperties.ServiceEndpoint endpoint = findEndpoint(endpointId);
-        if (endpoint == null) {
-            throw new IllegalArgumentException("Endpoint not found: " + endpointId);
+    private <T> T executeRequest(String endpointId, String path, String method, HttpEntity body, Map<String, String> headers, BodyReader<T> reader) throws IOException {
+        EndpointPlan endpoint = registry.require(endpointId);
+        HostSelection selection = endpoint.newHostSelection();
+        // 流式回调和文件下载有副作用，不能同时执行两次
+        HedgePolicy hedging = "GET".equals(method) && (reader == STRING_READER || reader == BYTES_READER) ? endpoint.getHedgePolicy() : null;
+        RetryableCall<T> call = hedging == null
+                ? (attempt, future) -> attempt(endpoint, selection, path, method, body, headers, reader, attempt, newContext(future))
+                : (attempt, future) -> hedging.execute(context -> attempt(endpoint, selection, path, method, body, headers, reader, attempt, context),
+                        true, endpoint.getExecutor(), registry.getRetryEngine(), future::bindAbortAction);
+        EndpointMetrics metrics = endpoint.getMetrics();
+        int status = EndpointMetrics.ERROR;
+        long start = metrics.requestStarted();
+        try {
+            T result = registry.getRetryEngine().execute(endpointId, endpoint.getRetry(), endpoint.getRetryBudget(), endpoint.getRateLimiter(),
+                    call, new Classifier(endpoint.getRetry()));
+            status = EndpointMetrics.SUCCESS;
+            return result;
+        } catch (CallbackException e) {
+            status = EndpointMetrics.SUCCESS;
+            throw e.unwrap();
+        } catch (IOException | RuntimeException e) {
+            status = statusOf(e);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for next attempt");
+        } catch (Exception e) {
+            throw new IOException(e);
+        } finally {
+            metrics.requestFinished(EndpointMetrics.method(method), status, start);
         }
+    }
 
-        List<String> hosts = endpoint.getHosts();
-        List<String> proxies = endpoint.getProxies();
-        BoyHttpClientProperties.RetryPolicy retryPolicy = endpoint.getRetryPolicy();
-
-        int attempts = 0;
-        int maxAttempts = retryPolicy != null ? retryPolicy.getMaxAttempts() : 3;
-        long backoffMs = retryPolicy != null ? retryPolicy.getBackoffMs() : 100;
-        double multiplier = retryPolicy != null ? retryPolicy.getMultiplier() : 1.5;
-
-        while (attempts < maxAttempts) {
-            int urlIndex = random.nextInt(hosts.size());
-            String baseUrl = hosts.get(urlIndex);
-            String fullUrl = baseUrl + (path.startsWith("/") ? path : "/" + path);
-
-            Proxy proxy = null;
-            String proxyInfo = "none";
-            if (proxies != null && !proxies.isEmpty()) {
-                int proxyIndex = random.nextInt(proxies.size());
-                String proxyStr = proxies.get(proxyIndex);
-                proxy = createProxy(proxyStr);
-                proxyInfo = proxyStr;
-            }
+    /**
+     * 执行一次尝试：选择主机并随机选择代理后发送请求
+     * @param endpoint 服务端点
+     * @param selection 本次请求的主机选择状态，重试时避开已尝试和被摘除的主机
+     * @param path 请求路径
+     * @param method 请求方法
+     * @param body 请求体
+     * @param headers 请求头
+     * @param reader 响应体读取方式
+     * @param attempt 当前尝试次数
+     * @param context 尝试上下文，用于在取消或对冲落败时中止请求
+     * @param <T> 响应结果类型
+     * @return 响应结果
+     * @throws IOException IO异常
+     */
+    private <T> T attempt(EndpointPlan endpoint, HostSelection selection, String path, String method, HttpEntity body, Map<String, String> headers, BodyReader<T> reader, int attempt, AttemptContext context) throws IOException {
+        List<ProxyAddress> proxies = endpoint.getProxies();
+        BoyConnectionPool pool = poolManager.getPool(endpoint.getId(), endpoint.getConfig().getPool());
 
-            log.info("Attempt {}/{} for {} {} via proxy {}", attempts + 1, maxAttempts, method, fullUrl, proxyInfo);
-            
-            try {
-                String result = doRequest(fullUrl, method, body, proxy, headers);
-                log.info("Request successful: {} {}", method, fullUrl);
-                return result;
-            } catch (IOException e) {
-                attempts++;
-                log.warn("Attempt {}/{} failed: {} {}. Error: {}", attempts, maxAttempts, method, fullUrl, e.getMessage());
-                if (attempts >= maxAttempts) {
-                    log.error("Max retry attempts reached for endpoint: {}", endpointId);
-                    throw e;
-                }
-                long sleepTime = (long) (backoffMs * Math.pow(multiplier, attempts - 1));
-                log.info("Backing off for {}ms before next attempt", sleepTime);
-                backoff(backoffMs, multiplier, attempts);
-            }
+        int hostIndex = selection.select();
+        String fullUrl = endpoint.url(hostIndex, path);
+
+        HttpHost proxy = null;
+        String proxyInfo = RequestJournal.NO_PROXY;
+        int proxyIndex = 0;
+        if (!proxies.isEmpty()) {
+            proxyIndex = ThreadLocalRandom.current().nextInt(proxies.size());
+            ProxyAddress proxyAddress = proxies.get(proxyIndex);
+            proxy = proxyAddress.getHttpHost();
+            proxyInfo = proxyAddress.getValue();
         }
 
-        throw new IOException("Max retry attempts reached for endpoint: " + endpointId);
+        log.debug("{} {}/{} for {} {} via proxy {}", context.isHedge() ? "Hedged attempt" : "Attempt",
+                attempt, endpoint.getRetry().getMaxAttempts(), method, fullUrl, proxyInfo);
+        selection.onStart(hostIndex);
+        long start = System.nanoTime();
+        boolean healthy = false;
+        Throwable failure = null;
+        try {
+            T result = doRequest(pool, fullUrl, method, body, proxy, headers, reader, context);
+            healthy = true;
+            log.debug("Request successful: {} {}", method, fullUrl);
+            return result;
+        } catch (CallbackException e) {
+            // 回调失败与主机健康无关
+            healthy = true;
+            failure = e.getCause();
+            throw e;
+        } catch (HttpStatusException e) {
+            healthy = !e.isServerError();
+            failure = e;
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            long latency = System.nanoTime() - start;
+            if (context.isAborted()) {
+                selection.onCancel(hostIndex, latency);
+            } else {
+                selection.onComplete(hostIndex, latency, healthy);
+                int statusCode = context.getStatusCode();
+                endpoint.getMetrics().recordAttempt(hostIndex, proxyIndex, EndpointMetrics.method(method),
+                        statusCode > 0 ? EndpointMetrics.status(statusCode) : EndpointMetrics.ERROR, attempt, latency);
+            }
+            registry.getJournal().record(CLIENT_NAME, endpoint, hostIndex, proxyInfo, method, attempt, context, latency, failure);
+        }
     }
 
     /**
      * 执行具体的 HTTP 请求
+     * 连接从服务端点的连接池中租用，响应读取完毕后归还以便复用
+     * @param pool 连接池
      * @param url 请求URL
      * @param method 请求方法
      * @param body 请求体
      * @param proxy 代理
      * @param headers 请求头
+     * @param reader 响应体读取方式
+     * @param context 尝试上下文，用于在取消或对冲落败时中止请求
+     * @param <T> 响应结果类型
      * @return 响应结果
      * @throws IOException IO异常
      */
-    private String doRequest(String url, String method, String body, Proxy proxy, Map<String, String> headers) throws IOException {
-        URLConnection connection;
-        if (proxy != null) {
-            connection = new URL(url).openConnection(proxy);
-        } else {
-            connection = new URL(url).openConnection();
-        }
+    private <T> T doRequest(BoyConnectionPool pool, String url, String method, HttpEntity body, HttpHost proxy, Map<String, String> headers, BodyReader<T> reader, AttemptContext context) throws IOException {
+        RequestBuilder builder = RequestBuilder.create(method)
+                .setUri(url)
+                .setConfig(pool.requestConfig(proxy));
 
-        HttpURLConnection httpConnection = (HttpURLConnection) connection;
-        httpConnection.setRequestMethod(method);
-        httpConnection.setDoOutput(true);
-        
         // 设置默认Content-Type
-        httpConnection.setRequestProperty("Content-Type", "application/json");
-        
+        builder.setHeader("Content-Type", "application/json");
+
         // 设置自定义headers
         if (headers != null && !headers.isEmpty()) {
             for (Map.Entry<String, String> entry : headers.entrySet()) {
-                httpConnection.setRequestProperty(entry.getKey(), entry.getValue());
+                builder.setHeader(entry.getKey(), entry.getValue());
             }
         }
 
         if (body != null) {
-            try (OutputStream os = httpConnection.getOutputStream()) {
-                os.write(body.getBytes());
-                os.flush();
-            }
+            builder.setEntity(body);
         }
+        reader.prepare(builder);
 
-        int responseCode = httpConnection.getResponseCode();
-        try (InputStream is = responseCode >= 400 ? httpConnection.getErrorStream() : httpConnection.getInputStream()) {
-            byte[] buffer = new byte[1024];
-            int len;
-            StringBuilder response = new StringBuilder();
-            while ((len = is.read(buffer)) != -1) {
-                response.append(new String(buffer, 0, len));
-            }
+        HttpUriRequest request = builder.build();
+        context.onAbort(request::abort);
+
+        // ResponseHandler 返回后剩余的响应体被读完、连接归还连接池；抛出异常时连接被关闭
+        return pool.execute(request, proxy, response -> {
+            int responseCode = response.getStatusLine().getStatusCode();
+            context.setStatusCode(responseCode);
+            HttpEntity entity = response.getEntity();
 
             if (responseCode >= 400) {
-                throw new IOException("HTTP error: " + responseCode + " - " + response.toString());
+                String content = entity != null ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : "";
+                Header retryAfter = response.getFirstHeader(RetryAfter.HEADER);
+                throw new HttpStatusException(responseCode, content, retryAfter != null ? retryAfter.getValue() : null);
             }
 
-            return response.toString();
-        } finally {
-            httpConnection.disconnect();
+            return reader.read(response);
+        });
+    }
+
+    /**
+     * 创建不对冲的尝试上下文，取消执行结果时中止该尝试
+     * @param call 所属的执行结果
+     * @return 尝试上下文
+     */
+    private static AttemptContext newContext(RetryFuture<?> call) {
+        AttemptContext context = new AttemptContext();
+        call.bindAbortAction(context::abort);
+        return context;
+    }
+
+    /**
+     * 获取失败请求的指标状态类别
+     * @param error 异常
+     * @return 状态类别
+     */
+    private static int statusOf(Throwable error) {
+        if (error instanceof HttpStatusException) {
+            return EndpointMetrics.status(((HttpStatusException) error).getStatusCode());
         }
+        return error instanceof CallbackException ? EndpointMetrics.SUCCESS : EndpointMetrics.failure(error);
     }
 
     /**
-     * 查找服务端点
-     * @param endpointId 服务端点ID
-     * @return 服务端点配置
+     * 将字符串请求体转换为 UTF-8 编码的请求实体
+     * @param body 请求体
+     * @return 请求实体，请求体为 null 时返回 null
      */
-    private BoyHttpClientProperties.ServiceEndpoint findEndpoint(String endpointId) {
-        if (properties.getEndpoints() == null) {
-            return null;
+    private static HttpEntity stringEntity(String body) {
+        return body != null ? new StringEntity(body, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * 关闭客户端，释放连接池中的所有连接
+     */
+    @Override
+    public void close() {
+        poolManager.close();
+        if (ownsRegistry) {
+            registry.close();
         }
-        return properties.getEndpoints().stream()
-                .filter(endpoint -> endpointId.equals(endpoint.getId()))
-                .findFirst()
-                .orElse(null);
     }
 
     /**
-     * 创建代理
-     * @param proxyStr 代理字符串，格式为 host:port
-     * @return 代理对象
+     * 响应体读取方式
+     * @param <T> 读取结果类型
      */
-    private Proxy createProxy(String proxyStr) {
-        try {
-            String[] parts = proxyStr.split(":");
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("Invalid proxy format: " + proxyStr);
+    @FunctionalInterface
+    private interface BodyReader<T> {
+
+        /**
+         * 在每次尝试发送前调整请求，例如断点续传时设置 Range
+         * @param request 请求构建器
+         */
+        default void prepare(RequestBuilder request) {
+        }
+
+        T read(HttpResponse response) throws IOException;
+    }
+
+    /**
+     * 失败分类：IO 异常可重试，但不包括调用方回调抛出的异常；错误状态码只有在 retryableStatusCodes 中时才重试
+     */
+    private static final class Classifier implements RetryClassifier {
+
+        private final RetrySettings retry;
+
+        private Classifier(RetrySettings retry) {
+            this.retry = retry;
+        }
+
+        @Override
+        public boolean isRetryable(Throwable error) {
+            if (error instanceof HttpStatusException) {
+                return retry.isRetryableStatus(((HttpStatusException) error).getStatusCode());
             }
-            String host = parts[0];
-            int port = Integer.parseInt(parts[1]);
-            return new Proxy(Proxy.Type.HTTP, new InetSocketAddress(host, port));
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid proxy configuration: " + proxyStr, e);
+            return error instanceof IOException && !(error instanceof CallbackException);
+        }
+
+        @Override
+        public long retryAfterMs(Throwable error) {
+            return error instanceof HttpStatusException ? RetryAfter.parse(((HttpStatusException) error).getRetryAfter()) : -1;
         }
     }
 
     /**
-     * 退避等待
-     * @param backoffMs 基础退避时间
-     * @param multiplier 退避乘数
-     * @param attempt 当前尝试次数
+     * 包装调用方回调抛出的异常，使其不被重试，并在返回调用方前还原
      */
-    private void backoff(long backoffMs, double multiplier, int attempt) {
-        try {
-            long sleepTime = (long) (backoffMs * Math.pow(multiplier, attempt - 1));
-            Thread.sleep(sleepTime);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private static final class CallbackException extends IOException {
+
+        private CallbackException(Exception cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        private IOException unwrap() {
+            if (getCause() instanceof RuntimeException) {
+                throw (RuntimeException) getCause();
+            }
+            return (IOException) getCause();
+        }
+    }
+
+    /**
+     * 可断点续传的文件下载
+     * 记录已写入文件的字节数和首个完整响应的验证器（强 ETag 或 Last-Modified），重试时以 Range 加 If-Range 请求剩余部分，
+     * 文件在两次尝试之间发生变化时服务端返回完整的 200 响应，从头写入；没有验证器时无法确认文件未变，重试总是从头下载。
+     * 206 响应的 Content-Range 与已写入位置不符时本次尝试失败，下一次尝试不带 Range 从头下载
+     */
+    private final class FileDownload implements BodyReader<Long> {
+
+        private final Path target;
+        private volatile long written;
+        private volatile String validator;
+
+        private FileDownload(Path target) {
+            this.target = target;
+        }
+
+        @Override
+        public void prepare(RequestBuilder request) {
+            String ifRange = validator;
+            if (written > 0 && ifRange != null) {
+                request.setHeader("Range", "bytes=" + written + "-");
+                request.setHeader("If-Range", ifRange);
+            }
+        }
+
+        @Override
+        public Long read(HttpResponse response) throws IOException {
+            long position;
+            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_PARTIAL_CONTENT) {
+                if (!resumable(response)) {
+                    Header contentRange = response.getFirstHeader("Content-Range");
+                    written = 0;
+                    throw new IOException("Unexpected Content-Range " + (contentRange != null ? contentRange.getValue() : null)
+                            + " when resuming download of " + target + ", restarting from byte 0");
+                }
+                position = written;
+                log.info("Resuming download of {} from byte {}", target, position);
+            } else {
+                position = 0;
+                validator = validatorOf(response);
+            }
+
+            ByteBuffer buffer = bufferPool.acquire();
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                channel.truncate(position);
+                written = position;
+                HttpEntity entity = response.getEntity();
+                if (entity != null) {
+                    try (InputStream content = entity.getContent()) {
+                        int read;
+                        while ((read = content.read(buffer.array(), buffer.arrayOffset(), buffer.capacity())) != -1) {
+                            ((Buffer) buffer).limit(read);
+                            while (buffer.hasRemaining()) {
+                                position += channel.write(buffer, position);
+                            }
+                            ((Buffer) buffer).clear();
+                            written = position;
+                        }
+                    }
+                }
+                return position;
+            } finally {
+                bufferPool.release(buffer);
+            }
+        }
+
+        /**
+         * 取出可用于 If-Range 的验证器：弱 ETag 不能用于 If-Range，此时改用 Last-Modified
+         * @param response 完整响应
+         * @return 验证器，没有时为 null
+         */
+        private String validatorOf(HttpResponse response) {
+            Header etag = response.getFirstHeader("ETag");
+            if (etag != null && !etag.getValue().startsWith("W/")) {
+                return etag.getValue();
+            }
+            Header lastModified = response.getFirstHeader("Last-Modified");
+            return lastModified != null ? lastModified.getValue() : null;
+        }
+
+        /**
+         * 判断响应是否为从已写入位置开始的部分内容
+         * @param response 响应
+         * @return 是否可以续写
+         */
+        private boolean resumable(HttpResponse response) {
+            if (written == 0 || response.getStatusLine().getStatusCode() != HttpStatus.SC_PARTIAL_CONTENT) {
+                return false;
+            }
+            Header contentRange = response.getFirstHeader("Content-Range");
+            return contentRange != null && contentRange.getValue().startsWith("bytes " + written + "-");
         }
     }
 }
@@ -1,31 +1,95 @@
 package club.bugmakers.boy.core;
 
+import club.bugmakers.boy.balancer.HostSelection;
+import club.bugmakers.boy.breaker.CircuitBreakerOpenException;
+import club.bugmakers.boy.cache.CachePolicy;
+import club.bugmakers.boy.cache.CachedResponse;
+import club.bugmakers.boy.cache.ResponseCache;
+import club.bugmakers.boy.hedge.AttemptContext;
+import club.bugmakers.boy.hedge.HedgePolicy;
+import club.bugmakers.boy.journal.RequestJournal;
+import club.bugmakers.boy.limit.ConcurrencyLimitExceededException;
+import club.bugmakers.boy.limit.RateLimitExceededException;
+import club.bugmakers.boy.metrics.EndpointMetrics;
+import club.bugmakers.boy.pool.BoyConnectionPool;
+import club.bugmakers.boy.pool.BoyConnectionPoolManager;
 import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointPlan;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import club.bugmakers.boy.registry.ProxyAddress;
+import club.bugmakers.boy.registry.RetrySettings;
+import club.bugmakers.boy.retry.RetryAfter;
+import club.bugmakers.boy.retry.RetryClassifier;
+import club.bugmakers.boy.retry.RetryFuture;
+import club.bugmakers.boy.retry.RetryableCall;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInitializer;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 /**
  * 高可用 RestTemplate
- * 支持多服务端点、多代理配置和重试策略
+ * 支持多服务端点、多代理配置和重试策略。
+ * 服务端点请求使用各自专属的请求工厂，基于独立连接池复用长连接并预先构建代理，按服务端点ID查表获取；
+ * 构造时传入的请求工厂只用于继承自 RestTemplate 的普通 URL 请求。
+ * 服务端点启用响应缓存时，GET 请求先查缓存，新鲜的缓存直接反序列化返回，不经过重试引擎、限流和连接池；
+ * 批量 GET 请求由调用线程和服务端点线程池中的线程以有界并行数执行，按传入顺序返回每个请求的结果或异常
  */
 @Slf4j
-public class BoyRestTemplate extends RestTemplate {
+public class BoyRestTemplate extends RestTemplate implements Closeable {
 
-    private final BoyHttpClientProperties properties;
-    private final Random random = new Random();
+    /**
+     * 指标和请求日志中的客户端名称
+     */
+    private static final String CLIENT_NAME = "resttemplate";
+
+    private final EndpointRegistry registry;
+    private final boolean ownsRegistry;
+    private final BoyConnectionPoolManager poolManager;
+    private final Map<String, EndpointRequestFactory[]> requestFactories;
 
     /**
      * 构造方法
      * @param properties 配置属性
      */
     public BoyRestTemplate(BoyHttpClientProperties properties) {
-        this.properties = properties;
-        log.info("BoyRestTemplate initialized with {} endpoints", properties.getEndpoints() != null ? properties.getEndpoints().size() : 0);
+        this.registry = new EndpointRegistry(properties);
+        this.ownsRegistry = true;
+        this.poolManager = new BoyConnectionPoolManager(registry.getDnsResolver(), pool -> registry.getMetrics().registerPool(CLIENT_NAME, pool));
+        this.requestFactories = createRequestFactories(registry, poolManager);
+        log.info("BoyRestTemplate initialized with {} endpoints", registry.size());
     }
 
     /**
@@ -34,9 +98,54 @@ public class BoyRestTemplate extends RestTemplate {
      * @param requestFactory 请求工厂
      */
     public BoyRestTemplate(BoyHttpClientProperties properties, BoyClientHttpRequestFactory requestFactory) {
+        this(new EndpointRegistry(properties), requestFactory, true);
+    }
+
+    /**
+     * 构造方法
+     * @param registry 服务端点注册表
+     * @param requestFactory 请求工厂
+     */
+    public BoyRestTemplate(EndpointRegistry registry, BoyClientHttpRequestFactory requestFactory) {
+        this(registry, requestFactory, false);
+    }
+
+    /**
+     * 构造方法
+     * @param registry 服务端点注册表
+     * @param requestFactory 请求工厂
+     * @param ownsRegistry 关闭时是否同时关闭注册表
+     */
+    private BoyRestTemplate(EndpointRegistry registry, BoyClientHttpRequestFactory requestFactory, boolean ownsRegistry) {
         super(requestFactory);
-        this.properties = properties;
-        log.info("BoyRestTemplate initialized with {} endpoints and custom BoyClientHttpRequestFactory", properties.getEndpoints() != null ? properties.getEndpoints().size() : 0);
+        this.registry = registry;
+        this.ownsRegistry = ownsRegistry;
+        if (requestFactory.getDnsResolver() == null) {
+            requestFactory.setDnsResolver(registry.getDnsResolver());
+        }
+        this.poolManager = new BoyConnectionPoolManager(registry.getDnsResolver(), pool -> registry.getMetrics().registerPool(CLIENT_NAME, pool));
+        this.requestFactories = createRequestFactories(registry, poolManager);
+        log.info("BoyRestTemplate initialized with {} endpoints and custom BoyClientHttpRequestFactory", registry.size());
+    }
+
+    /**
+     * 为每个服务端点创建专属的请求工厂，注册表创建后不再变化，因此查找表同样不可变
+     * @param registry 服务端点注册表
+     * @param poolManager 连接池管理器
+     * @return 按服务端点ID索引的请求工厂，下标与代理列表一致，未配置代理时只有一个不使用代理的实例
+     */
+    private static Map<String, EndpointRequestFactory[]> createRequestFactories(EndpointRegistry registry, BoyConnectionPoolManager poolManager) {
+        Map<String, EndpointRequestFactory[]> factories = new HashMap<>();
+        for (EndpointPlan endpoint : registry.getEndpoints()) {
+            BoyConnectionPool pool = poolManager.getPool(endpoint.getId(), endpoint.getConfig().getPool());
+            List<ProxyAddress> proxies = endpoint.getProxies();
+            EndpointRequestFactory[] endpointFactories = new EndpointRequestFactory[Math.max(1, proxies.size())];
+            for (int i = 0; i < endpointFactories.length; i++) {
+                endpointFactories[i] = new EndpointRequestFactory(pool, proxies.isEmpty() ? null : proxies.get(i));
+            }
+            factories.put(endpoint.getId(), endpointFactories);
+        }
+        return Collections.unmodifiableMap(factories);
     }
 
     /**
@@ -187,6 +296,105 @@ public class BoyRestTemplate extends RestTemplate {
         executeWithEndpoint(endpointId, path, HttpMethod.DELETE, null, null, headers, Void.class);
     }
 
+    /**
+     * 批量发送 GET 请求
+     * @param endpointId 服务端点ID
+     * @param paths 请求路径列表
+     * @param responseType 响应类型
+     * @param parallelism 最大并行数，包括调用线程
+     * @param <T> 响应类型泛型
+     * @return 与路径列表顺序一致的结果，单个请求失败时对应的结果持有异常
+     */
+    public <T> List<BatchResult<T>> getForObjects(String endpointId, List<String> paths, Class<T> responseType, int parallelism) {
+        return getForObjects(endpointId, paths, null, responseType, parallelism, null);
+    }
+
+    /**
+     * 批量发送 GET 请求（带header），每个请求完成时回调
+     * 调用线程和最多 parallelism - 1 个服务端点线程池中的线程依次领取下一个请求执行，每个请求各自选择主机和重试，
+     * 负载均衡器把同时进行的请求分散到不同主机；线程池满时以较低的并行数继续，不会失败
+     * @param endpointId 服务端点ID
+     * @param paths 请求路径列表
+     * @param headers 所有请求共用的请求头
+     * @param responseType 响应类型
+     * @param parallelism 最大并行数，包括调用线程
+     * @param listener 单个请求完成时在执行它的线程上回调，可为 null；会被多个线程同时调用，抛出的异常只记录日志
+     * @param <T> 响应类型泛型
+     * @return 与路径列表顺序一致的结果，单个请求失败时对应的结果持有异常
+     */
+    public <T> List<BatchResult<T>> getForObjects(String endpointId, List<String> paths, Map<String, String> headers, Class<T> responseType,
+                                                  int parallelism, Consumer<BatchResult<T>> listener) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Batch parallelism must be positive: " + parallelism);
+        }
+        EndpointPlan endpoint = registry.require(endpointId);
+        int size = paths.size();
+        AtomicReferenceArray<BatchResult<T>> results = new AtomicReferenceArray<>(size);
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(size);
+        Thread caller = Thread.currentThread();
+        Runnable worker = () -> {
+            // 对冲请求在线程池中执行，线程池中的批量请求若再对冲，可能占满线程后互相等待，因此只有调用线程上的请求对冲
+            boolean hedging = Thread.currentThread() == caller;
+            int index;
+            while (!stopped.get() && (index = next.getAndIncrement()) < size) {
+                String path = paths.get(index);
+                try {
+                    BatchResult<T> result;
+                    try {
+                        result = BatchResult.success(index, path, executeWithEndpoint(endpointId, path, HttpMethod.GET, null, null, headers, responseType, hedging));
+                    } catch (RuntimeException e) {
+                        result = BatchResult.failure(index, path, e);
+                    }
+                    results.set(index, result);
+                    if (listener != null) {
+                        try {
+                            listener.accept(result);
+                        } catch (RuntimeException e) {
+                            log.warn("Batch listener failed for {} via endpoint {}", path, endpointId, e);
+                        }
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            }
+        };
+
+        int helpers = Math.min(parallelism, size) - 1;
+        List<Future<?>> submitted = new ArrayList<>(Math.max(helpers, 0));
+        for (int i = 0; i < helpers; i++) {
+            try {
+                submitted.add(endpoint.getExecutor().submit(worker));
+            } catch (RejectedExecutionException e) {
+                log.debug("Executor of endpoint {} is full, running batch with parallelism {}", endpointId, i + 1);
+                break;
+            }
+        }
+        try {
+            worker.run();
+            // 仍在队列中的线程已经没有请求可领取，取消后只等待正在执行的请求
+            for (Future<?> future : submitted) {
+                future.cancel(false);
+            }
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for batch", new InterruptedIOException(e.getMessage()));
+        } finally {
+            // 调用线程异常退出时，其他线程执行完当前请求后不再领取新的请求
+            stopped.set(true);
+        }
+
+        List<BatchResult<T>> ordered = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BatchResult<T> result = results.get(i);
+            ordered.add(result != null ? result
+                    : BatchResult.failure(i, paths.get(i), new IllegalStateException("Batch request was not completed for endpoint: " + endpointId)));
+        }
+        return ordered;
+    }
+
     /**
      * 执行带端点的请求
      * @param endpointId 服务端点ID
@@ -200,119 +408,378 @@ public class BoyRestTemplate extends RestTemplate {
      * @return 响应结果
      */
     private <T> T executeWithEndpoint(String endpointId, String path, HttpMethod method, Object request, Map<String, ?> uriVariables, Map<String, String> headers, Class<T> responseType) {
-        BoyHttpClientProperties.ServiceEndpoint endpoint = findEndpoint(endpointId);
-        if (endpoint == null) {
-            throw new IllegalArgumentException("Endpoint not found: " + endpointId);
-        }
+        return executeWithEndpoint(endpointId, path, method, request, uriVariables, headers, responseType, true);
+    }
 
-        List<String> hosts = endpoint.getHosts();
-        List<String> proxies = endpoint.getProxies();
-        BoyHttpClientProperties.RetryPolicy retryPolicy = endpoint.getRetryPolicy();
+    /**
+     * 执行带端点的请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param method HTTP 方法
+     * @param request 请求对象
+     * @param uriVariables URI 变量
+     * @param headers 请求头
+     * @param responseType 响应类型
+     * @param allowHedging 服务端点启用对冲时 GET 请求是否对冲
+     * @param <T> 响应类型泛型
+     * @return 响应结果
+     */
+    private <T> T executeWithEndpoint(String endpointId, String path, HttpMethod method, Object request, Map<String, ?> uriVariables, Map<String, String> headers,
+                                      Class<T> responseType, boolean allowHedging) {
+        EndpointPlan endpoint = registry.require(endpointId);
+        ResponseCache cache = method == HttpMethod.GET ? endpoint.getResponseCache() : null;
+        CacheExchange cacheExchange = null;
+        if (cache != null && !CachePolicy.bypass(headers)) {
+            URI relative = uriVariables != null ? getUriTemplateHandler().expand(path, uriVariables) : getUriTemplateHandler().expand(path);
+            String key = ResponseCache.key(relative.toString(), headers);
+            CachedResponse cached = cache.get(key);
+            if (cached != null && cache.isFresh(cached)) {
+                log.debug("Cache hit for GET {} via endpoint {}", relative, endpointId);
+                return fromCache(cached, responseType);
+            }
+            cacheExchange = new CacheExchange(cache, key, cached);
+        }
+        CacheExchange exchange = cacheExchange;
+        HostSelection selection = endpoint.newHostSelection();
 
-        int attempts = 0;
-        int maxAttempts = retryPolicy != null ? retryPolicy.getMaxAttempts() : 3;
-        long backoffMs = retryPolicy != null ? retryPolicy.getBackoffMs() : 100;
-        double multiplier = retryPolicy != null ? retryPolicy.getMultiplier() : 1.5;
+        // 请求工厂向尝试上下文登记底层请求的中止动作，对冲时主请求在调用线程上执行，落败的请求被中止并释放连接和许可
+        HedgePolicy hedging = allowHedging && method == HttpMethod.GET ? endpoint.getHedgePolicy() : null;
+        RetryableCall<T> call = (attempt, future) -> hedging == null
+                ? attempt(endpoint, selection, path, method, request, uriVariables, headers, responseType, exchange, attempt, newContext(future))
+                : hedging.execute(context -> attempt(endpoint, selection, path, method, request, uriVariables, headers, responseType, exchange, attempt, context),
+                        true, endpoint.getExecutor(), registry.getRetryEngine(), future::bindAbortAction);
 
-        while (attempts < maxAttempts) {
-            int urlIndex = random.nextInt(hosts.size());
-            String baseUrl = hosts.get(urlIndex);
-            String fullUrl = baseUrl + (path.startsWith("/") ? path : "/" + path);
+        // 退避期间调用线程等待重试引擎的定时器交回下一次尝试，不再调用 Thread.sleep
+        EndpointMetrics metrics = endpoint.getMetrics();
+        int status = EndpointMetrics.ERROR;
+        long start = metrics.requestStarted();
+        try {
+            T result = registry.getRetryEngine().execute(endpointId, endpoint.getRetry(), endpoint.getRetryBudget(), endpoint.getRateLimiter(),
+                    call, new Classifier(endpoint.getRetry()));
+            status = EndpointMetrics.SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            status = statusOf(e);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for next attempt", new InterruptedIOException(e.getMessage()));
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected exception for endpoint: " + endpointId, e);
+        } finally {
+            metrics.requestFinished(EndpointMetrics.method(method.name()), status, start);
+        }
+    }
 
-            // 配置代理
-            if (proxies != null && !proxies.isEmpty() && getRequestFactory() instanceof BoyClientHttpRequestFactory) {
-                ((BoyClientHttpRequestFactory) getRequestFactory()).setProxies(proxies);
-                log.info("Configured {} proxies for endpoint {}", proxies.size(), endpointId);
-            }
+    /**
+     * 执行一次尝试：选择主机后发送请求
+     * @param endpoint 服务端点
+     * @param selection 本次请求的主机选择状态
+     * @param path 请求路径
+     * @param method HTTP 方法
+     * @param request 请求对象
+     * @param uriVariables URI 变量
+     * @param headers 请求头
+     * @param responseType 响应类型
+     * @param cacheExchange 响应缓存交互，未启用缓存或不是 GET 请求时为 null
+     * @param attempt 当前尝试次数
+     * @param context 尝试上下文，对冲落败时被标记为中止
+     * @param <T> 响应类型泛型
+     * @return 响应结果
+     */
+    private <T> T attempt(EndpointPlan endpoint, HostSelection selection, String path, HttpMethod method, Object request, Map<String, ?> uriVariables,
+                          Map<String, String> headers, Class<T> responseType, CacheExchange cacheExchange, int attempt, AttemptContext context) {
+        EndpointRequestFactory[] endpointFactories = requestFactories.get(endpoint.getId());
+        int proxyIndex = endpointFactories.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(endpointFactories.length);
+        EndpointRequestFactory requestFactory = endpointFactories[proxyIndex];
+        int hostIndex = selection.select();
+        String fullUrl = endpoint.url(hostIndex, path);
 
-            log.info("Attempt {}/{} for {} {} via endpoint {}", attempts + 1, maxAttempts, method, fullUrl, endpointId);
-            
-            try {
-                T result;
-                if (uriVariables != null) {
-                    // 带URI变量的请求
-                    result = executeWithHeaders(fullUrl, method, request, uriVariables, headers, responseType);
-                } else {
-                    // 不带URI变量的请求
-                    result = executeWithHeaders(fullUrl, method, request, null, headers, responseType);
-                }
-                log.info("Request successful: {} {} via endpoint {}", method, fullUrl, endpointId);
-                return result;
-            } catch (Exception e) {
-                attempts++;
-                log.warn("Attempt {}/{} failed: {} {} via endpoint {}. Error: {}", attempts, maxAttempts, method, fullUrl, endpointId, e.getMessage());
-                if (attempts >= maxAttempts) {
-                    log.error("Max retry attempts reached for endpoint: {}", endpointId);
-                    throw e;
-                }
-                long sleepTime = (long) (backoffMs * Math.pow(multiplier, attempts - 1));
-                log.info("Backing off for {}ms before next attempt", sleepTime);
-                backoff(backoffMs, multiplier, attempts);
+        log.debug("{} {}/{} for {} {} via endpoint {}", context.isHedge() ? "Hedged attempt" : "Attempt",
+                attempt, endpoint.getRetry().getMaxAttempts(), method, fullUrl, endpoint.getId());
+        selection.onStart(hostIndex);
+        long start = System.nanoTime();
+        boolean healthy = false;
+        RuntimeException failure = null;
+        try {
+            T result = executeWithHeaders(requestFactory, fullUrl, method, request, uriVariables, headers, responseType, cacheExchange, context);
+            healthy = true;
+            log.debug("Request successful: {} {} via endpoint {}", method, fullUrl, endpoint.getId());
+            return result;
+        } catch (HttpClientErrorException e) {
+            // 4xx 与主机健康无关
+            healthy = true;
+            failure = e;
+            throw e;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            long latency = System.nanoTime() - start;
+            if (context.isAborted()) {
+                selection.onCancel(hostIndex, latency);
+            } else {
+                selection.onComplete(hostIndex, latency, healthy);
+                int statusCode = context.getStatusCode();
+                endpoint.getMetrics().recordAttempt(hostIndex, proxyIndex, EndpointMetrics.method(method.name()),
+                        statusCode > 0 ? EndpointMetrics.status(statusCode) : EndpointMetrics.ERROR, attempt, latency);
             }
+            registry.getJournal().record(CLIENT_NAME, endpoint, hostIndex, requestFactory.getProxyName(), method.name(), attempt, context, latency, failure);
         }
-
-        throw new RuntimeException("Max retry attempts reached for endpoint: " + endpointId);
     }
 
     /**
-     * 执行带header的请求
+     * 通过服务端点专属的请求工厂执行带header的请求
+     * 与 RestTemplate.exchange 的处理流程一致，只是请求由指定的工厂创建，拦截器、请求初始化器和错误处理器照常生效
+     * @param requestFactory 服务端点的请求工厂
      * @param url 请求URL
      * @param method HTTP 方法
      * @param request 请求对象
      * @param uriVariables URI 变量
      * @param headers 请求头
      * @param responseType 响应类型
+     * @param cacheExchange 响应缓存交互，为 null 时不读写缓存
+     * @param context 尝试上下文，用于记录响应状态码，并在取消或对冲落败时中止请求
      * @param <T> 响应类型泛型
      * @return 响应结果
      */
-    private <T> T executeWithHeaders(String url, HttpMethod method, Object request, Map<String, ?> uriVariables, Map<String, String> headers, Class<T> responseType) {
-        // 创建请求实体
+    private <T> T executeWithHeaders(EndpointRequestFactory requestFactory, String url, HttpMethod method, Object request, Map<String, ?> uriVariables,
+                                     Map<String, String> headers, Class<T> responseType, CacheExchange cacheExchange, AttemptContext context) {
+        // 创建请求实体，有过期但可重新验证的缓存时附带条件请求头
         HttpEntity<?> requestEntity;
-        if (headers != null && !headers.isEmpty()) {
+        boolean conditional = cacheExchange != null && cacheExchange.stale != null;
+        if ((headers != null && !headers.isEmpty()) || conditional) {
             HttpHeaders httpHeaders = new HttpHeaders();
-            httpHeaders.setAll(headers);
+            if (headers != null) {
+                httpHeaders.setAll(headers);
+            }
+            if (conditional) {
+                cacheExchange.stale.addConditionalHeaders(httpHeaders);
+            }
             requestEntity = new HttpEntity<>(request, httpHeaders);
         } else {
             requestEntity = new HttpEntity<>(request);
         }
 
+        URI uri = uriVariables != null ? getUriTemplateHandler().expand(url, uriVariables) : getUriTemplateHandler().expand(url);
+        RequestCallback requestCallback = httpEntityCallback(requestEntity, responseType);
+        ResponseExtractor<ResponseEntity<T>> responseExtractor = responseEntityExtractor(responseType);
+
         // 执行请求
-        if (uriVariables != null) {
-            // 带URI变量的请求
-            return super.exchange(url, method, requestEntity, responseType, uriVariables).getBody();
-        } else {
-            // 不带URI变量的请求
-            return super.exchange(url, method, requestEntity, responseType).getBody();
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequestFactory factory = getInterceptors().isEmpty()
+                    ? requestFactory : new InterceptingClientHttpRequestFactory(requestFactory, getInterceptors());
+            EndpointRequestFactory.bind(context);
+            try {
+                ClientHttpRequest clientRequest = factory.createRequest(uri, method);
+                for (ClientHttpRequestInitializer initializer : getClientHttpRequestInitializers()) {
+                    initializer.initialize(clientRequest);
+                }
+                requestCallback.doWithRequest(clientRequest);
+                response = clientRequest.execute();
+            } finally {
+                EndpointRequestFactory.unbind();
+            }
+            context.setStatusCode(response.getRawStatusCode());
+            handleResponse(uri, method, response);
+            ResponseEntity<T> entity = responseExtractor.extractData(cacheExchange != null ? cacheExchange.onResponse(response) : response);
+            return entity != null ? entity.getBody() : null;
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + method.name() + " request for \"" + url + "\": " + e.getMessage(), e);
+        } finally {
+            if (response != null) {
+                response.close();
+            }
         }
     }
 
     /**
-     * 查找服务端点
-     * @param endpointId 服务端点ID
-     * @return 服务端点配置
+     * 把缓存的响应交给消息转换器反序列化
+     * @param cached 缓存的响应
+     * @param responseType 响应类型
+     * @param <T> 响应类型泛型
+     * @return 响应结果
      */
-    private BoyHttpClientProperties.ServiceEndpoint findEndpoint(String endpointId) {
-        if (properties.getEndpoints() == null) {
-            return null;
+    private <T> T fromCache(CachedResponse cached, Class<T> responseType) {
+        try {
+            ResponseExtractor<ResponseEntity<T>> responseExtractor = responseEntityExtractor(responseType);
+            ResponseEntity<T> entity = responseExtractor.extractData(new CachedClientHttpResponse(cached));
+            return entity != null ? entity.getBody() : null;
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error reading cached response: " + e.getMessage(), e);
         }
-        return properties.getEndpoints().stream()
-                .filter(endpoint -> endpointId.equals(endpoint.getId()))
-                .findFirst()
-                .orElse(null);
     }
 
     /**
-     * 退避等待
-     * @param backoffMs 基础退避时间
-     * @param multiplier 退避乘数
-     * @param attempt 当前尝试次数
+     * 一次 GET 请求与响应缓存的交互：持有缓存键和发出条件请求时使用的过期缓存项，
+     * 收到 304 时改用更新后的缓存项，收到可缓存的响应时读入内存、放入缓存后再交给消息转换器
      */
-    private void backoff(long backoffMs, double multiplier, int attempt) {
-        try {
-            long sleepTime = (long) (backoffMs * Math.pow(multiplier, attempt - 1));
-            Thread.sleep(sleepTime);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private static final class CacheExchange {
+
+        private final ResponseCache cache;
+        private final String key;
+        private final CachedResponse stale;
+
+        private CacheExchange(ResponseCache cache, String key, CachedResponse stale) {
+            this.cache = cache;
+            this.key = key;
+            this.stale = stale;
+        }
+
+        /**
+         * 处理服务端响应
+         * @param response 服务端响应，由调用方关闭
+         * @return 交给消息转换器的响应
+         * @throws IOException 读取响应体失败
+         */
+        private ClientHttpResponse onResponse(ClientHttpResponse response) throws IOException {
+            int statusCode = response.getRawStatusCode();
+            if (statusCode == HttpStatus.NOT_MODIFIED.value() && stale != null) {
+                return new CachedClientHttpResponse(cache.revalidated(key, stale, response.getHeaders()));
+            }
+            HttpHeaders responseHeaders = response.getHeaders();
+            int maxEntryBytes = cache.getMaxEntryBytes();
+            if (!CachePolicy.isStorable(statusCode, responseHeaders) || responseHeaders.getContentLength() > maxEntryBytes) {
+                return response;
+            }
+            // 没有 Content-Length 时最多读入 maxEntryBytes + 1 字节，超出说明响应体放不进缓存，停止读入
+            InputStream in = response.getBody();
+            byte[] body = readAtMost(in, maxEntryBytes < Integer.MAX_VALUE ? maxEntryBytes + 1 : maxEntryBytes);
+            if (body.length > maxEntryBytes) {
+                return new PrefixedClientHttpResponse(response, new SequenceInputStream(new ByteArrayInputStream(body), in));
+            }
+            cache.put(key, statusCode, responseHeaders, body);
+            return new CachedClientHttpResponse(statusCode, responseHeaders, body);
+        }
+
+        /**
+         * 读取输入流，最多读取 limit 字节
+         * @param in 输入流
+         * @param limit 最多读取的字节数
+         * @return 读到的字节，长度小于 limit 时已读到流末尾
+         * @throws IOException 读取失败
+         */
+        private static byte[] readAtMost(InputStream in, int limit) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(limit, StreamUtils.BUFFER_SIZE));
+            byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+            int remaining = limit;
+            int read;
+            while (remaining > 0 && (read = in.read(buffer, 0, Math.min(buffer.length, remaining))) != -1) {
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 响应体的开头已被读入内存的响应：先返回已读入的部分，再接着读取原响应的剩余部分，关闭时关闭原响应
+     */
+    private static final class PrefixedClientHttpResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private final InputStream body;
+
+        private PrefixedClientHttpResponse(ClientHttpResponse response, InputStream body) {
+            this.response = response;
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+
+    /**
+     * 创建不对冲的尝试上下文，取消执行结果时中止该尝试
+     * @param call 所属的执行结果
+     * @return 尝试上下文
+     */
+    private static AttemptContext newContext(RetryFuture<?> call) {
+        AttemptContext context = new AttemptContext();
+        call.bindAbortAction(context::abort);
+        return context;
+    }
+
+    /**
+     * 获取失败请求的指标状态类别
+     * @param error 异常
+     * @return 状态类别
+     */
+    private static int statusOf(Throwable error) {
+        if (error instanceof RestClientResponseException) {
+            return EndpointMetrics.status(((RestClientResponseException) error).getRawStatusCode());
+        }
+        return EndpointMetrics.failure(error);
+    }
+
+    /**
+     * 失败分类：熔断器打开、并发数或请求速率达到上限、等待对冲结果时被中断则直接失败；
+     * 错误状态码只有在 retryableStatusCodes 中时才重试，其余异常（连接失败、读取超时等）都重试
+     */
+    private static final class Classifier implements RetryClassifier {
+
+        private final RetrySettings retry;
+
+        private Classifier(RetrySettings retry) {
+            this.retry = retry;
+        }
+
+        @Override
+        public boolean isRetryable(Throwable error) {
+            if (error instanceof RestClientResponseException) {
+                return retry.isRetryableStatus(((RestClientResponseException) error).getRawStatusCode());
+            }
+            return error instanceof Exception
+                    && !(error instanceof CircuitBreakerOpenException) && !(error instanceof ConcurrencyLimitExceededException)
+                    && !(error instanceof RateLimitExceededException) && !(error instanceof InterruptedException);
+        }
+
+        @Override
+        public long retryAfterMs(Throwable error) {
+            if (error instanceof RestClientResponseException) {
+                HttpHeaders headers = ((RestClientResponseException) error).getResponseHeaders();
+                return headers != null ? RetryAfter.parse(headers.getFirst(RetryAfter.HEADER)) : -1;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 关闭服务端点的连接池和自行创建的注册表
+     */
+    @Override
+    public void close() {
+        poolManager.close();
+        if (ownsRegistry) {
+            registry.close();
         }
     }
 }
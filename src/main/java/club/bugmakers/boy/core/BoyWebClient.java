@@ -0,0 +1,568 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.balancer.HostSelection;
+import club.bugmakers.boy.breaker.CircuitBreakerOpenException;
+import club.bugmakers.boy.hedge.AttemptContext;
+import club.bugmakers.boy.journal.RequestJournal;
+import club.bugmakers.boy.limit.ConcurrencyLimitExceededException;
+import club.bugmakers.boy.limit.RateLimitExceededException;
+import club.bugmakers.boy.limit.RateLimiter;
+import club.bugmakers.boy.metrics.EndpointMetrics;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointPlan;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import club.bugmakers.boy.registry.ProxyAddress;
+import club.bugmakers.boy.registry.RetrySettings;
+import club.bugmakers.boy.retry.RetryAfter;
+import club.bugmakers.boy.retry.RetryBudget;
+import club.bugmakers.boy.retry.RetryClassifier;
+import club.bugmakers.boy.retry.RetryEngine;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.ProxyProvider;
+import reactor.util.retry.Retry;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 高可用响应式 WebClient
+ * 与 BoyHttpClient、BoyRestTemplate 共享服务端点、代理和重试策略配置，基于 Spring WebFlux 的 WebClient 和 Reactor Netty，
+ * 主机选择、代理选择和指数退避重试都是非阻塞的操作符，请求在事件循环上执行而不占用调用线程
+ */
+@Slf4j
+public class BoyWebClient implements Closeable {
+
+    private static final String CLIENT_NAME = "webclient";
+
+    /**
+     * 请求属性：本次尝试的上下文
+     */
+    private static final String ATTEMPT_CONTEXT = BoyWebClient.class.getName() + ".attemptContext";
+
+    /**
+     * 收到响应时把状态码记录到尝试上下文，供指标和请求日志使用
+     */
+    private static final ExchangeFilterFunction RECORD_STATUS = (request, next) -> next.exchange(request)
+            .doOnNext(response -> request.attribute(ATTEMPT_CONTEXT)
+                    .ifPresent(context -> ((AttemptContext) context).setStatusCode(response.rawStatusCode())));
+
+    private final EndpointRegistry registry;
+    private final boolean ownsRegistry;
+    private final WebClient.Builder builder;
+    private final Map<String, EndpointClients> clients = new ConcurrentHashMap<>();
+
+    /**
+     * 构造方法
+     * @param properties 配置属性
+     */
+    public BoyWebClient(BoyHttpClientProperties properties) {
+        this(new EndpointRegistry(properties), WebClient.builder(), true);
+    }
+
+    /**
+     * 构造方法
+     * @param registry 服务端点注册表
+     */
+    public BoyWebClient(EndpointRegistry registry) {
+        this(registry, WebClient.builder(), false);
+    }
+
+    /**
+     * 构造方法
+     * @param registry 服务端点注册表
+     * @param builder WebClient 构建器模板，每个服务端点基于其副本构建，可用于统一配置编解码器和过滤器
+     */
+    public BoyWebClient(EndpointRegistry registry, WebClient.Builder builder) {
+        this(registry, builder, false);
+    }
+
+    /**
+     * 构造方法
+     * @param registry 服务端点注册表
+     * @param builder WebClient 构建器模板
+     * @param ownsRegistry 关闭时是否同时关闭注册表
+     */
+    private BoyWebClient(EndpointRegistry registry, WebClient.Builder builder, boolean ownsRegistry) {
+        this.registry = registry;
+        this.builder = builder;
+        this.ownsRegistry = ownsRegistry;
+        log.info("BoyWebClient initialized with {} endpoints", registry.size());
+    }
+
+    /**
+     * 发送 GET 请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param responseType 响应类型
+     * @param <T> 响应类型泛型
+     * @return 响应结果
+     */
+    public <T> Mono<T> get(String endpointId, String path, Class<T> responseType) {
+        return executeMono(endpointId, path, HttpMethod.GET, null, null, null, spec -> spec.bodyToMono(responseType));
+    }
+
+    /**
+     * 发送 GET 请求（带header）
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param headers 请求头
+     * @param responseType 响应类型
+     * @param <T> 响应类型泛型
+     * @return 响应结果
+     */
+    public <T> Mono<T> get(String endpointId, String path, Map<String, String> headers, Class<T> responseType) {
+        return executeMono(endpointId, path, HttpMethod.GET, null, null, headers, spec -> spec.bodyToMono(responseType));
+    }
+
+    /**
+     * 发送 GET 请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param responseType 响应类型
+     * @param uriVariables URI 变量
+     * @param <T> 响应类型泛型
+     * @return 响应结果
+     */
+    public <T> Mono<T> get(String endpointId, String path, Class<T> responseType, Map<String, ?> uriVariables) {
+        return executeMono(endpointId, path, HttpMethod.GET, null, uriVariables, null, spec -> spec.bodyToMono(responseType));
+    }
+
+    /**
+     * 发送 GET 请求，以流的形式返回响应元素
+     * 失败时整个请求重新订阅，已经发出的元素会再次发出
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param elementType 元素类型
+     * @param <T> 元素类型泛型
+     * @return 响应元素流
+     */
+    public <T> Flux<T> getFlux(String endpointId, String path, Class<T> elementType) {
+        return executeFlux(endpointId, path, null, spec -> spec.bodyToFlux(elementType));
+    }
+
+    /**
+     * 发送 GET 请求（带header），以流的形式返回响应元素
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param headers 请求头
+     * @param elementType 元素类型
+     * @param <T> 元素类型泛型
+     * @return 响应元素流
+     */
+    public <T> Flux<T> getFlux(String endpointId, String path, Map<String, String> headers, Class<T> elementType) {
+        return executeFlux(endpointId, path, headers, spec -> spec.bodyToFlux(elementType));
+    }
+
+    /**
+     * 发送 POST 请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param request 请求对象
+     * @param responseType 响应类型
+     * @param <T> 响应类型泛型
+     * @return 响应结果
+     */
+    public <T> Mono<T> post(String endpointId, String path, Object request, Class<T> responseType) {
+        return executeMono(endpointId, path, HttpMethod.POST, request, null, null, spec -> spec.bodyToMono(responseType));
+    }
+
+    /**
+     * 发送 POST 请求（带header）
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param request 请求对象
+     * @param headers 请求头
+     * @param responseType 响应类型
+     * @param <T> 响应类型泛型
+     * @return 响应结果
+     */
+    public <T> Mono<T> post(String endpointId, String path, Object request, Map<String, String> headers, Class<T> responseType) {
+        return executeMono(endpointId, path, HttpMethod.POST, request, null, headers, spec -> spec.bodyToMono(responseType));
+    }
+
+    /**
+     * 发送 PUT 请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param request 请求对象
+     * @return 请求完成信号
+     */
+    public Mono<Void> put(String endpointId, String path, Object request) {
+        return executeMono(endpointId, path, HttpMethod.PUT, request, null, null, spec -> spec.toBodilessEntity().then());
+    }
+
+    /**
+     * 发送 PUT 请求（带header）
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param request 请求对象
+     * @param headers 请求头
+     * @return 请求完成信号
+     */
+    public Mono<Void> put(String endpointId, String path, Object request, Map<String, String> headers) {
+        return executeMono(endpointId, path, HttpMethod.PUT, request, null, headers, spec -> spec.toBodilessEntity().then());
+    }
+
+    /**
+     * 发送 DELETE 请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @return 请求完成信号
+     */
+    public Mono<Void> delete(String endpointId, String path) {
+        return executeMono(endpointId, path, HttpMethod.DELETE, null, null, null, spec -> spec.toBodilessEntity().then());
+    }
+
+    /**
+     * 发送 DELETE 请求（带header）
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param headers 请求头
+     * @return 请求完成信号
+     */
+    public Mono<Void> delete(String endpointId, String path, Map<String, String> headers) {
+        return executeMono(endpointId, path, HttpMethod.DELETE, null, null, headers, spec -> spec.toBodilessEntity().then());
+    }
+
+    /**
+     * 执行返回单个结果的请求
+     * 每次订阅独立计数尝试次数并记录已尝试的主机，每次尝试重新选择主机，并在结束时反馈耗时和结果
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param method HTTP 方法
+     * @param request 请求对象
+     * @param uriVariables URI 变量
+     * @param headers 请求头
+     * @param extractor 响应提取方式
+     * @param <T> 响应类型泛型
+     * @return 响应结果
+     */
+    private <T> Mono<T> executeMono(String endpointId, String path, HttpMethod method, Object request, Map<String, ?> uriVariables,
+                                    Map<String, String> headers, Function<WebClient.ResponseSpec, Mono<T>> extractor) {
+        return Mono.defer(() -> {
+            EndpointPlan endpoint = registry.require(endpointId);
+            HostSelection selection = endpoint.newHostSelection();
+            AtomicInteger attempts = new AtomicInteger();
+            EndpointMetrics metrics = endpoint.getMetrics();
+            long start = metrics.requestStarted();
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            return ratePermit(endpoint).then(Mono.defer(() -> {
+                Attempt attempt = new Attempt(endpoint, selection, path, method, request, uriVariables, headers, attempts.incrementAndGet());
+                return extractor.apply(attempt.spec)
+                        .doOnError(attempt::onError)
+                        .doFinally(attempt::finish);
+            })).retryWhen(retrySpec(endpointId, endpoint.getRetry(), endpoint.getRetryBudget()))
+                    .doOnError(error::set)
+                    .doFinally(signal -> metrics.requestFinished(EndpointMetrics.method(method.name()), statusOf(signal, error.get()), start));
+        });
+    }
+
+    /**
+     * 执行返回元素流的 GET 请求
+     * @param endpointId 服务端点ID
+     * @param path 请求路径
+     * @param headers 请求头
+     * @param extractor 响应提取方式
+     * @param <T> 元素类型泛型
+     * @return 响应元素流
+     */
+    private <T> Flux<T> executeFlux(String endpointId, String path, Map<String, String> headers,
+                                    Function<WebClient.ResponseSpec, Flux<T>> extractor) {
+        return Flux.defer(() -> {
+            EndpointPlan endpoint = registry.require(endpointId);
+            HostSelection selection = endpoint.newHostSelection();
+            AtomicInteger attempts = new AtomicInteger();
+            EndpointMetrics metrics = endpoint.getMetrics();
+            long start = metrics.requestStarted();
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            return ratePermit(endpoint).thenMany(Flux.defer(() -> {
+                Attempt attempt = new Attempt(endpoint, selection, path, HttpMethod.GET, null, null, headers, attempts.incrementAndGet());
+                return extractor.apply(attempt.spec)
+                        .doOnError(attempt::onError)
+                        .doFinally(attempt::finish);
+            })).retryWhen(retrySpec(endpointId, endpoint.getRetry(), endpoint.getRetryBudget()))
+                    .doOnError(error::set)
+                    .doFinally(signal -> metrics.requestFinished(EndpointMetrics.method(HttpMethod.GET.name()), statusOf(signal, error.get()), start));
+        });
+    }
+
+    /**
+     * 预约本次尝试的速率限制令牌，需要等待时由 Reactor 定时调度器延迟，不阻塞事件循环
+     * @param endpoint 服务端点
+     * @return 等待结束后完成的 Mono，拿不到令牌时以 RateLimitExceededException 结束
+     */
+    private static Mono<Void> ratePermit(EndpointPlan endpoint) {
+        RateLimiter limiter = endpoint.getRateLimiter();
+        if (limiter == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            long wait = limiter.reserve();
+            if (wait < 0) {
+                return Mono.error(new RateLimitExceededException(endpoint.getId()));
+            }
+            return wait == 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(wait)).then();
+        });
+    }
+
+    /**
+     * 获取请求结束时的指标状态类别
+     * @param signal 结束信号
+     * @param error 失败时的异常
+     * @return 状态类别，被取消时为 {@link EndpointMetrics#ERROR}
+     */
+    private static int statusOf(SignalType signal, Throwable error) {
+        if (signal == SignalType.ON_COMPLETE) {
+            return EndpointMetrics.SUCCESS;
+        }
+        if (error instanceof WebClientResponseException) {
+            return EndpointMetrics.status(((WebClientResponseException) error).getRawStatusCode());
+        }
+        return error != null ? EndpointMetrics.failure(error) : EndpointMetrics.ERROR;
+    }
+
+    /**
+     * 按服务端点的重试策略构建重试规格，退避由 Reactor 的定时调度器完成，不阻塞任何线程
+     * 每次订阅构建一次，同时向重试预算存入本次请求的份额；是否重试及退避时间与重试引擎使用相同的规则，
+     * 不再重试时以最后一次失败的异常结束
+     * @param endpointId 服务端点ID
+     * @param retry 重试设置
+     * @param budget 重试预算，未启用时为 null
+     * @return 重试规格
+     */
+    private static Retry retrySpec(String endpointId, RetrySettings retry, RetryBudget budget) {
+        int maxAttempts = retry.getMaxAttempts();
+        if (budget != null) {
+            budget.onRequest();
+        }
+        RetryClassifier classifier = new Classifier(retry);
+        AtomicLong lastDelay = new AtomicLong();
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            int attempt = (int) signal.totalRetries() + 1;
+            Throwable failure = signal.failure();
+            log.debug("Attempt {}/{} failed for endpoint {}", attempt, maxAttempts, endpointId, failure);
+            long delay = RetryEngine.retryDelay(endpointId, retry, budget, classifier, attempt, lastDelay.get(), failure);
+            if (delay < 0) {
+                return Mono.error(failure);
+            }
+            lastDelay.set(delay);
+            return Mono.delay(Duration.ofMillis(delay));
+        }));
+    }
+
+    /**
+     * 失败分类：熔断器打开、并发数或请求速率达到上限时直接失败；错误状态码只有在 retryableStatusCodes 中时才重试，其余异常都重试
+     */
+    private static final class Classifier implements RetryClassifier {
+
+        private final RetrySettings retry;
+
+        private Classifier(RetrySettings retry) {
+            this.retry = retry;
+        }
+
+        @Override
+        public boolean isRetryable(Throwable error) {
+            if (error instanceof WebClientResponseException) {
+                return retry.isRetryableStatus(((WebClientResponseException) error).getRawStatusCode());
+            }
+            return !(error instanceof CircuitBreakerOpenException) && !(error instanceof ConcurrencyLimitExceededException)
+                    && !(error instanceof RateLimitExceededException);
+        }
+
+        @Override
+        public long retryAfterMs(Throwable error) {
+            if (error instanceof WebClientResponseException) {
+                return RetryAfter.parse(((WebClientResponseException) error).getHeaders().getFirst(RetryAfter.HEADER));
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 单次尝试
+     * 创建时选择主机和代理并构建请求，结束时把结果反馈给主机选择状态、指标和请求日志；
+     * 下游取消订阅（例如超时、zip 中其他请求失败或调用方主动取消）与主机健康无关，按中止处理，只归还许可，不计入尝试指标
+     */
+    private final class Attempt {
+
+        private final EndpointPlan endpoint;
+        private final HostSelection selection;
+        private final HttpMethod method;
+        private final int number;
+        private final int hostIndex;
+        private final int proxyIndex;
+        private final AttemptContext context = new AttemptContext();
+        private final WebClient.ResponseSpec spec;
+        private final long start;
+        private volatile Throwable error;
+
+        /**
+         * 构造方法
+         * @param endpoint 服务端点
+         * @param selection 本次请求的主机选择状态
+         * @param path 请求路径
+         * @param method HTTP 方法
+         * @param request 请求对象
+         * @param uriVariables URI 变量
+         * @param headers 请求头
+         * @param number 当前尝试次数，从1开始
+         */
+        private Attempt(EndpointPlan endpoint, HostSelection selection, String path, HttpMethod method, Object request,
+                        Map<String, ?> uriVariables, Map<String, String> headers, int number) {
+            this.endpoint = endpoint;
+            this.selection = selection;
+            this.method = method;
+            this.number = number;
+            this.hostIndex = selection.select();
+            List<WebClient> candidates = clients.computeIfAbsent(endpoint.getId(), id -> new EndpointClients(endpoint)).webClients;
+            this.proxyIndex = candidates.size() == 1 ? 0 : ThreadLocalRandom.current().nextInt(candidates.size());
+            try {
+                this.spec = request(candidates.get(proxyIndex), endpoint.url(hostIndex, path), request, uriVariables, headers);
+            } catch (RuntimeException e) {
+                selection.abort(hostIndex);
+                throw e;
+            }
+            selection.onStart(hostIndex);
+            this.start = System.nanoTime();
+        }
+
+        private WebClient.ResponseSpec request(WebClient client, String fullUrl, Object request, Map<String, ?> uriVariables,
+                                               Map<String, String> headers) {
+            log.debug("Attempt {}/{} for {} {} via proxy {}", number, endpoint.getRetry().getMaxAttempts(), method, fullUrl, proxyName());
+            WebClient.RequestBodySpec requestSpec = uriVariables != null
+                    ? client.method(method).uri(fullUrl, uriVariables)
+                    : client.method(method).uri(fullUrl);
+            requestSpec.attribute(ATTEMPT_CONTEXT, context);
+            if (headers != null && !headers.isEmpty()) {
+                requestSpec.headers(httpHeaders -> httpHeaders.setAll(headers));
+            }
+            if (request != null) {
+                requestSpec.bodyValue(request);
+            }
+            return requestSpec.retrieve();
+        }
+
+        private void onError(Throwable error) {
+            this.error = error;
+        }
+
+        /**
+         * 尝试结束
+         * @param signal 结束信号
+         */
+        private void finish(SignalType signal) {
+            long latency = System.nanoTime() - start;
+            if (signal == SignalType.CANCEL) {
+                context.abort();
+                selection.onCancel(hostIndex, latency);
+            } else {
+                selection.onComplete(hostIndex, latency, isHealthy(signal));
+                int statusCode = context.getStatusCode();
+                endpoint.getMetrics().recordAttempt(hostIndex, proxyIndex, EndpointMetrics.method(method.name()),
+                        statusCode > 0 ? EndpointMetrics.status(statusCode) : EndpointMetrics.ERROR, number, latency);
+            }
+            registry.getJournal().record(CLIENT_NAME, endpoint, hostIndex, proxyName(), method.name(), number, context, latency, error);
+        }
+
+        /**
+         * 判断结果是否说明主机正常
+         * @param signal 结束信号
+         * @return 正常完成或返回 4xx 时为 true
+         */
+        private boolean isHealthy(SignalType signal) {
+            if (signal == SignalType.ON_COMPLETE) {
+                return true;
+            }
+            if (error instanceof WebClientResponseException) {
+                int status = ((WebClientResponseException) error).getRawStatusCode();
+                return status >= 400 && status < 500;
+            }
+            return false;
+        }
+
+        private String proxyName() {
+            List<ProxyAddress> proxies = endpoint.getProxies();
+            return proxies.isEmpty() ? RequestJournal.NO_PROXY : proxies.get(proxyIndex).getValue();
+        }
+    }
+
+    /**
+     * 关闭所有服务端点的连接池，以及自行创建的注册表
+     */
+    @Override
+    public void close() {
+        for (EndpointClients endpointClients : clients.values()) {
+            endpointClients.connectionProvider.dispose();
+        }
+        clients.clear();
+        if (ownsRegistry) {
+            registry.close();
+        }
+    }
+
+    /**
+     * 单个服务端点的 WebClient 集合
+     * Reactor Netty 的代理在 HttpClient 上配置，因此每个代理一个 WebClient，共享同一个连接池
+     */
+    private final class EndpointClients {
+        private final ConnectionProvider connectionProvider;
+        private final List<WebClient> webClients;
+
+        private EndpointClients(EndpointPlan endpoint) {
+            BoyHttpClientProperties.PoolConfig pool = endpoint.getConfig().getPool() != null
+                    ? endpoint.getConfig().getPool() : new BoyHttpClientProperties.PoolConfig();
+            // Reactor Netty 按远程地址划分连接池，maxConnections 对应每路由最大连接数
+            this.connectionProvider = ConnectionProvider.builder("boy-" + endpoint.getId())
+                    .maxConnections(pool.getMaxPerRoute())
+                    .pendingAcquireMaxCount(-1)
+                    .pendingAcquireTimeout(Duration.ofMillis(pool.getLeaseTimeoutMs()))
+                    .maxIdleTime(Duration.ofMillis(pool.getIdleTimeoutMs()))
+                    .build();
+
+            HttpClient httpClient = HttpClient.create(connectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, pool.getConnectTimeoutMs());
+            if (pool.getSocketTimeoutMs() > 0) {
+                httpClient = httpClient.responseTimeout(Duration.ofMillis(pool.getSocketTimeoutMs()));
+            }
+            List<WebClient> list = new ArrayList<>();
+            if (endpoint.getProxies().isEmpty()) {
+                list.add(build(httpClient));
+            } else {
+                for (ProxyAddress proxy : endpoint.getProxies()) {
+                    list.add(build(httpClient.proxy(spec -> spec.type(ProxyProvider.Proxy.HTTP)
+                            .host(proxy.getHost())
+                            .port(proxy.getPort()))));
+                }
+            }
+            this.webClients = Collections.unmodifiableList(list);
+            log.info("Reactive clients for endpoint {} created: proxies={}, maxConnections={}",
+                    endpoint.getId(), endpoint.getProxies().size(), pool.getMaxPerRoute());
+        }
+
+        private WebClient build(HttpClient httpClient) {
+            return builder.clone().filter(RECORD_STATUS).clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.cache.CachedResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * 基于内存中字节数组的响应，用于把缓存的或已读入内存的响应体交给 RestTemplate 的消息转换器
+ */
+class CachedClientHttpResponse implements ClientHttpResponse {
+
+    private final int statusCode;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    /**
+     * 构造方法
+     * @param cached 缓存的响应
+     */
+    CachedClientHttpResponse(CachedResponse cached) {
+        this(cached.getStatusCode(), cached.getHeaders(), cached.getBody());
+    }
+
+    /**
+     * 构造方法
+     * @param statusCode 状态码
+     * @param headers 响应头
+     * @param body 响应体
+     */
+    CachedClientHttpResponse(int statusCode, HttpHeaders headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.valueOf(statusCode);
+    }
+
+    @Override
+    public int getRawStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public String getStatusText() {
+        HttpStatus status = HttpStatus.resolve(statusCode);
+        return status != null ? status.getReasonPhrase() : "";
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public void close() {
+        // 没有需要释放的资源
+    }
+}
@@ -0,0 +1,112 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.hedge.AttemptContext;
+import club.bugmakers.boy.journal.RequestJournal;
+import club.bugmakers.boy.pool.BoyConnectionPool;
+import club.bugmakers.boy.registry.ProxyAddress;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.URI;
+
+/**
+ * 单个服务端点、单个代理专属的请求工厂
+ * 基于服务端点连接池的 HttpClient 复用长连接，请求配置在创建时预先构建，创建后不可变；
+ * 该 HttpClient 与 BoyHttpClient 一样先获取连接池的信号量许可再进入 HttpClient，许可持有到响应关闭，
+ * 多个服务端点的请求并发执行时互不影响；配置了多个代理时每个代理对应一个实例，由调用方随机选择。
+ * Spring 的请求对象不暴露底层请求，调用方通过 {@link #bind(AttemptContext)} 把当前尝试绑定到线程，
+ * 创建底层请求时向尝试上下文登记中止动作，对冲落败或调用被取消时可从其他线程中止请求
+ */
+final class EndpointRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    private static final ThreadLocal<AttemptContext> CURRENT_ATTEMPT = new ThreadLocal<>();
+
+    private final HttpHost proxy;
+    private final String proxyName;
+    private final RequestConfig requestConfig;
+
+    /**
+     * 构造方法
+     * @param pool 服务端点的连接池，由调用方负责关闭
+     * @param proxyAddress 预解析的代理，不使用代理时为 null
+     */
+    EndpointRequestFactory(BoyConnectionPool pool, ProxyAddress proxyAddress) {
+        super(pool.getHttpClient());
+        this.proxy = proxyAddress != null ? proxyAddress.getHttpHost() : null;
+        this.proxyName = proxyAddress != null ? proxyAddress.getValue() : RequestJournal.NO_PROXY;
+        this.requestConfig = pool.requestConfig(proxy);
+    }
+
+    /**
+     * 把尝试上下文绑定到当前线程，直到调用 {@link #unbind()}
+     * 拦截器链在执行请求时才创建底层请求，因此绑定需覆盖请求的创建和执行
+     * @param context 尝试上下文
+     */
+    static void bind(AttemptContext context) {
+        CURRENT_ATTEMPT.set(context);
+    }
+
+    /**
+     * 解除当前线程绑定的尝试上下文
+     */
+    static void unbind() {
+        CURRENT_ATTEMPT.remove();
+    }
+
+    /**
+     * 创建底层请求，并向当前线程绑定的尝试上下文登记中止动作
+     * @param httpMethod HTTP 方法
+     * @param uri 请求地址
+     * @return 底层请求
+     */
+    @Override
+    protected HttpUriRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+        HttpUriRequest request = super.createHttpUriRequest(httpMethod, uri);
+        AttemptContext context = CURRENT_ATTEMPT.get();
+        if (context != null) {
+            context.onAbort(request::abort);
+        }
+        return request;
+    }
+
+    /**
+     * 为每个请求设置连接池的请求配置和代理
+     * @param httpMethod HTTP 方法
+     * @param uri 请求地址
+     * @return 请求上下文
+     */
+    @Override
+    protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(requestConfig);
+        return context;
+    }
+
+    /**
+     * 获取代理
+     * @return 代理，不使用代理时为 null
+     */
+    HttpHost getProxy() {
+        return proxy;
+    }
+
+    /**
+     * 获取用于请求日志的代理名称
+     * @return 代理地址，不使用代理时为 none
+     */
+    String getProxyName() {
+        return proxyName;
+    }
+
+    /**
+     * 连接池由所属的 BoyRestTemplate 统一关闭，这里不关闭共享的 HttpClient
+     */
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,68 @@
+package club.bugmakers.boy.core;
+
+import java.io.IOException;
+
+/**
+ * 服务端返回错误状态码（400及以上）时由 BoyHttpClient 抛出的异常
+ * 继承 IOException，与原有的异常处理方式兼容
+ */
+public class HttpStatusException extends IOException {
+
+    private final int statusCode;
+    private final String responseBody;
+    private final String retryAfter;
+
+    /**
+     * 构造方法
+     * @param statusCode 响应状态码
+     * @param responseBody 响应体
+     */
+    public HttpStatusException(int statusCode, String responseBody) {
+        this(statusCode, responseBody, null);
+    }
+
+    /**
+     * 构造方法
+     * @param statusCode 响应状态码
+     * @param responseBody 响应体
+     * @param retryAfter 响应的 Retry-After 头，没有时为 null
+     */
+    public HttpStatusException(int statusCode, String responseBody, String retryAfter) {
+        super("HTTP error: " + statusCode + " - " + responseBody);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * 获取响应状态码
+     * @return 响应状态码
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 获取响应体
+     * @return 响应体
+     */
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * 获取响应的 Retry-After 头
+     * @return 原始值，没有时为 null
+     */
+    public String getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * 是否为服务端错误（5xx），客户端错误（4xx）不代表主机异常
+     * @return 是否为服务端错误
+     */
+    public boolean isServerError() {
+        return statusCode >= 500;
+    }
+}
@@ -0,0 +1,21 @@
+package club.bugmakers.boy.core;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 响应体字符流处理回调
+ * 与 {@link ResponseStreamCallback} 相同，但按调用方指定的字符集解码，跨缓冲区边界的多字节字符不会被截断
+ * @param <T> 处理结果类型
+ */
+@FunctionalInterface
+public interface ResponseReaderCallback<T> {
+
+    /**
+     * 处理响应体
+     * @param body 响应体字符流，无需手动关闭
+     * @return 处理结果
+     * @throws IOException IO异常
+     */
+    T doWithReader(Reader body) throws IOException;
+}
@@ -0,0 +1,21 @@
+package club.bugmakers.boy.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 响应体流处理回调
+ * 回调返回后剩余的响应体会被读完并将连接归还连接池；回调抛出异常时连接被直接关闭而不再复用
+ * @param <T> 处理结果类型
+ */
+@FunctionalInterface
+public interface ResponseStreamCallback<T> {
+
+    /**
+     * 处理响应体
+     * @param body 响应体输入流，无需手动关闭
+     * @return 处理结果
+     * @throws IOException IO异常
+     */
+    T doWithStream(InputStream body) throws IOException;
+}
@@ -0,0 +1,217 @@
+package club.bugmakers.boy.dns;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 带 TTL 的 DNS 解析缓存
+ * 解析成功和失败的结果分别按各自的 TTL 缓存，成功结果在到期前由后台线程提前刷新，
+ * 避免请求线程在 DNS 查询上阻塞。同一主机同时只有一个解析在进行，
+ * 缓存过期时只有一个请求线程同步解析，其余线程在已有成功结果时继续使用旧结果，否则等待该解析完成；
+ * 后台刷新失败时保留原有结果，并在 negativeTtlMs 后再次尝试刷新
+ */
+@Slf4j
+public class CachingDnsResolver implements DnsResolver, Closeable {
+
+    private final DnsResolver delegate;
+    private final boolean enabled;
+    private final long positiveTtlMs;
+    private final long negativeTtlMs;
+    private final long refreshAheadMs;
+    private final LongSupplier clock;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> inflight = new ConcurrentHashMap<>();
+    private final ExecutorService refresher;
+
+    /**
+     * 构造方法
+     * @param config DNS 缓存配置，为 null 时使用默认配置
+     */
+    public CachingDnsResolver(BoyHttpClientProperties.DnsConfig config) {
+        this(config, SystemDefaultDnsResolver.INSTANCE, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    /**
+     * 构造方法
+     * @param config DNS 缓存配置，为 null 时使用默认配置
+     * @param delegate 实际执行解析的解析器
+     * @param clock 毫秒时钟
+     */
+    CachingDnsResolver(BoyHttpClientProperties.DnsConfig config, DnsResolver delegate, LongSupplier clock) {
+        BoyHttpClientProperties.DnsConfig dnsConfig = config != null ? config : new BoyHttpClientProperties.DnsConfig();
+        this.delegate = delegate;
+        this.enabled = dnsConfig.isEnabled();
+        this.positiveTtlMs = dnsConfig.getPositiveTtlMs();
+        this.negativeTtlMs = dnsConfig.getNegativeTtlMs();
+        this.refreshAheadMs = Math.min(dnsConfig.getRefreshAheadMs(), dnsConfig.getPositiveTtlMs());
+        this.clock = clock;
+        // 单线程刷新，同一主机的重复刷新由 inflight 去重
+        this.refresher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "boy-dns-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 解析主机名
+     * @param host 主机名
+     * @return 地址列表
+     * @throws UnknownHostException 解析失败
+     */
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        if (!enabled) {
+            return delegate.resolve(host);
+        }
+
+        long now = clock.getAsLong();
+        Entry entry = cache.get(host);
+        if (entry == null || now >= entry.expiresAt) {
+            // 其他线程正在解析时继续使用过期的成功结果，不在请求线程上重复解析
+            if (entry == null || entry.addresses == null || !inflight.containsKey(host)) {
+                entry = lookup(host);
+            }
+        } else if (entry.addresses != null && now >= entry.refreshAt) {
+            scheduleRefresh(host, entry);
+        }
+
+        if (entry.addresses == null) {
+            throw new UnknownHostException(host);
+        }
+        return entry.addresses.clone();
+    }
+
+    /**
+     * 解析单个地址，用于构造 java.net.Proxy 等只需要一个地址的场景
+     * @param host 主机名
+     * @return 第一个解析到的地址
+     * @throws UnknownHostException 解析失败
+     */
+    public InetAddress resolveFirst(String host) throws UnknownHostException {
+        return resolve(host)[0];
+    }
+
+    /**
+     * 同步解析并写入缓存，同一主机已有解析在进行时等待其结果
+     * @param host 主机名
+     * @return 缓存项
+     */
+    private Entry lookup(String host) {
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> pending = inflight.putIfAbsent(host, created);
+        if (pending != null) {
+            return pending.join();
+        }
+        try {
+            // 其他线程可能在本线程登记前刚完成解析
+            Entry entry = cache.get(host);
+            if (entry == null || clock.getAsLong() >= entry.expiresAt) {
+                entry = query(host);
+                cache.put(host, entry);
+            }
+            created.complete(entry);
+            return entry;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(host, created);
+        }
+    }
+
+    /**
+     * 在后台提前刷新即将到期的缓存，同一主机已有解析在进行时跳过
+     * 刷新失败时保留原有结果直到其过期，并推迟 negativeTtlMs 后再次刷新
+     * @param host 主机名
+     * @param entry 当前缓存项
+     */
+    private void scheduleRefresh(String host, Entry entry) {
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        if (inflight.putIfAbsent(host, created) != null) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    Entry refreshed = query(host);
+                    if (refreshed.addresses != null) {
+                        cache.put(host, refreshed);
+                    } else {
+                        log.debug("Failed to refresh host {}, keeping cached addresses", host);
+                        cache.replace(host, entry, new Entry(entry.addresses, entry.expiresAt, clock.getAsLong() + negativeTtlMs));
+                    }
+                    created.complete(refreshed);
+                } catch (RuntimeException | Error e) {
+                    created.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inflight.remove(host, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inflight.remove(host, created);
+            created.complete(entry);
+        }
+    }
+
+    /**
+     * 调用实际的解析器
+     * @param host 主机名
+     * @return 新的缓存项，解析失败时 addresses 为 null
+     */
+    private Entry query(String host) {
+        try {
+            InetAddress[] addresses = delegate.resolve(host);
+            long now = clock.getAsLong();
+            return new Entry(addresses, now + positiveTtlMs, now + positiveTtlMs - refreshAheadMs);
+        } catch (UnknownHostException e) {
+            log.debug("Failed to resolve host {}: {}", host, e.getMessage());
+            return new Entry(null, clock.getAsLong() + negativeTtlMs, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 关闭后台刷新线程
+     */
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * 缓存项，addresses 为 null 表示解析失败
+     */
+    private static final class Entry {
+        private final InetAddress[] addresses;
+        private final long expiresAt;
+        private final long refreshAt;
+
+        private Entry(InetAddress[] addresses, long expiresAt, long refreshAt) {
+            this.addresses = addresses;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
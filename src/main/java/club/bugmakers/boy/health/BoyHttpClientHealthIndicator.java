@@ -0,0 +1,117 @@
+package club.bugmakers.boy.health;
+
+import club.bugmakers.boy.balancer.OutlierDetector;
+import club.bugmakers.boy.breaker.CircuitBreaker;
+import club.bugmakers.boy.limit.ConcurrencyLimiter;
+import club.bugmakers.boy.limit.RateLimiter;
+import club.bugmakers.boy.registry.EndpointPlan;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boy HttpClient 健康指示器
+ * 只读取主动健康检查、被动健康检查、熔断器、并发限制器和速率限制器缓存的状态，不发起任何网络请求，调用不会阻塞。
+ * 并发限制器和速率限制器只展示当前上限、并发数和令牌计数，达到上限不影响健康状态。
+ * 某个服务端点的所有主机都不可用或服务端点熔断器打开时该端点为 DOWN；下游服务不可用通常不代表本服务不可用，
+ * 因此默认整体保持 UP，只有开启 propagateDown 时任一服务端点为 DOWN 才使整体为 DOWN
+ */
+public class BoyHttpClientHealthIndicator implements HealthIndicator {
+
+    private final EndpointRegistry registry;
+    private final boolean propagateDown;
+
+    /**
+     * 构造方法，服务端点为 DOWN 时整体仍为 UP
+     * @param registry 服务端点注册表
+     */
+    public BoyHttpClientHealthIndicator(EndpointRegistry registry) {
+        this(registry, false);
+    }
+
+    /**
+     * 构造方法
+     * @param registry 服务端点注册表
+     * @param propagateDown 任一服务端点为 DOWN 时是否把整体状态报告为 DOWN
+     */
+    public BoyHttpClientHealthIndicator(EndpointRegistry registry, boolean propagateDown) {
+        this.registry = registry;
+        this.propagateDown = propagateDown;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = Health.up();
+        for (EndpointPlan endpoint : registry.getEndpoints()) {
+            HealthCheckState state = endpoint.getHealthCheckState();
+            OutlierDetector outlierDetector = endpoint.getOutlierDetector();
+            List<CircuitBreaker> hostBreakers = endpoint.getHostCircuitBreakers();
+            Map<String, Object> hosts = new LinkedHashMap<>();
+            int available = 0;
+            for (int host = 0; host < endpoint.getHosts().size(); host++) {
+                Map<String, Object> detail = new LinkedHashMap<>();
+                boolean healthy = state == null || state.isHealthy(host);
+                boolean ejected = outlierDetector != null && outlierDetector.isEjected(host);
+                CircuitBreaker.State breakerState = hostBreakers != null ? hostBreakers.get(host).getState() : CircuitBreaker.State.CLOSED;
+                boolean up = healthy && !ejected && breakerState != CircuitBreaker.State.OPEN;
+                detail.put("status", up ? Status.UP.getCode() : Status.DOWN.getCode());
+                if (ejected) {
+                    detail.put("ejected", true);
+                }
+                if (breakerState != CircuitBreaker.State.CLOSED) {
+                    detail.put("circuitBreaker", breakerState.name());
+                }
+                if (state != null) {
+                    HealthCheckState.HostHealth health = state.getHost(host);
+                    if (health.getLastCheckMillis() > 0) {
+                        detail.put("lastCheck", Instant.ofEpochMilli(health.getLastCheckMillis()).toString());
+                    }
+                    if (health.getLastError() != null) {
+                        detail.put("lastError", health.getLastError());
+                    }
+                }
+                if (up) {
+                    available++;
+                }
+                hosts.put(endpoint.getHosts().get(host), detail);
+            }
+
+            Map<String, Object> endpointDetail = new LinkedHashMap<>();
+            CircuitBreaker breaker = endpoint.getCircuitBreaker();
+            boolean breakerOpen = breaker != null && breaker.getState() == CircuitBreaker.State.OPEN;
+            Status status = available > 0 && !breakerOpen ? Status.UP : Status.DOWN;
+            endpointDetail.put("status", status.getCode());
+            endpointDetail.put("healthCheck", state != null);
+            if (breaker != null) {
+                endpointDetail.put("circuitBreaker", breaker.getState().name());
+            }
+            ConcurrencyLimiter limiter = endpoint.getConcurrencyLimiter();
+            if (limiter != null) {
+                Map<String, Object> limitDetail = new LinkedHashMap<>();
+                limitDetail.put("limit", limiter.getLimit());
+                limitDetail.put("inflight", limiter.getInflight());
+                endpointDetail.put("concurrencyLimit", limitDetail);
+            }
+            RateLimiter rateLimiter = endpoint.getRateLimiter();
+            if (rateLimiter != null) {
+                Map<String, Object> rateDetail = new LinkedHashMap<>();
+                rateDetail.put("acquired", rateLimiter.getAcquiredCount());
+                rateDetail.put("delayed", rateLimiter.getDelayedCount());
+                rateDetail.put("rejected", rateLimiter.getRejectedCount());
+                endpointDetail.put("rateLimit", rateDetail);
+            }
+            endpointDetail.put("hosts", hosts);
+            builder.withDetail(endpoint.getId(), endpointDetail);
+            if (status == Status.DOWN && propagateDown) {
+                builder.down();
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,125 @@
+package club.bugmakers.boy.health;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+
+/**
+ * 服务端点的主动健康检查状态
+ * 由后台探测任务写入，请求线程和健康指示器只读取缓存的结果，不会因为健康检查而阻塞。
+ * 主机初始视为健康，连续探测失败达到阈值后标记为不健康，连续探测成功达到阈值后恢复
+ */
+public class HealthCheckState {
+
+    private final int healthyThreshold;
+    private final int unhealthyThreshold;
+    private final HostHealth[] hosts;
+
+    /**
+     * 构造方法
+     * @param config 主动健康检查配置
+     * @param hostCount 主机数量
+     */
+    public HealthCheckState(BoyHttpClientProperties.HealthCheckConfig config, int hostCount) {
+        this.healthyThreshold = Math.max(1, config.getHealthyThreshold());
+        this.unhealthyThreshold = Math.max(1, config.getUnhealthyThreshold());
+        this.hosts = new HostHealth[hostCount];
+        for (int i = 0; i < hostCount; i++) {
+            hosts[i] = new HostHealth();
+        }
+    }
+
+    /**
+     * 判断主机是否健康
+     * @param host 主机下标
+     * @return 是否健康
+     */
+    public boolean isHealthy(int host) {
+        return hosts[host].healthy;
+    }
+
+    /**
+     * 获取主机的健康状态
+     * @param host 主机下标
+     * @return 健康状态
+     */
+    public HostHealth getHost(int host) {
+        return hosts[host];
+    }
+
+    /**
+     * 获取主机数量
+     * @return 主机数量
+     */
+    public int getHostCount() {
+        return hosts.length;
+    }
+
+    /**
+     * 记录一次探测结果
+     * 同一主机的探测任务不会并发执行，因此计数器只有一个写线程
+     * @param host 主机下标
+     * @param success 是否成功
+     * @param error 失败原因，成功时为 null
+     * @return 主机的健康状态是否因此改变
+     */
+    boolean record(int host, boolean success, String error) {
+        HostHealth health = hosts[host];
+        health.lastCheckMillis = System.currentTimeMillis();
+        health.lastError = error;
+        if (success) {
+            health.consecutiveFailures = 0;
+            health.consecutiveSuccesses++;
+            if (!health.healthy && health.consecutiveSuccesses >= healthyThreshold) {
+                health.healthy = true;
+                return true;
+            }
+        } else {
+            health.consecutiveSuccesses = 0;
+            health.consecutiveFailures++;
+            if (health.healthy && health.consecutiveFailures >= unhealthyThreshold) {
+                health.healthy = false;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 单个主机的健康状态
+     */
+    public static final class HostHealth {
+
+        private volatile boolean healthy = true;
+        private volatile int consecutiveSuccesses;
+        private volatile int consecutiveFailures;
+        private volatile long lastCheckMillis;
+        private volatile String lastError;
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public int getConsecutiveSuccesses() {
+            return consecutiveSuccesses;
+        }
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        /**
+         * 获取最近一次探测的时间
+         * @return 毫秒时间戳，尚未探测时为 0
+         */
+        public long getLastCheckMillis() {
+            return lastCheckMillis;
+        }
+
+        /**
+         * 获取最近一次探测的失败原因
+         * @return 失败原因，最近一次探测成功时为 null
+         */
+        public String getLastError() {
+            return lastError;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package club.bugmakers.boy.health;
+
+import club.bugmakers.boy.concurrent.BoyExecutors;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointPlan;
+import club.bugmakers.boy.registry.ProxyAddress;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 主动健康检查调度器
+ * 为每个启用了健康检查的服务端点的每个主机安排固定间隔的探测任务，结果写入端点的 HealthCheckState。
+ * 探测在一个小的共享调度线程池上执行，与业务请求的连接池互不影响；没有端点启用健康检查时不创建任何线程
+ */
+@Slf4j
+public class HealthChecker implements Closeable {
+
+    /**
+     * 探测线程数上限，单个慢主机只会占住一个线程
+     */
+    private static final int MAX_THREADS = 4;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * 构造方法
+     * @param endpoints 服务端点
+     */
+    public HealthChecker(Collection<EndpointPlan> endpoints) {
+        List<EndpointPlan> checked = new ArrayList<>();
+        int probes = 0;
+        for (EndpointPlan endpoint : endpoints) {
+            if (endpoint.getHealthCheckState() != null) {
+                checked.add(endpoint);
+                probes += endpoint.getHosts().size();
+            }
+        }
+        if (checked.isEmpty()) {
+            this.scheduler = null;
+            return;
+        }
+
+        this.scheduler = new ScheduledThreadPoolExecutor(Math.min(MAX_THREADS, probes), BoyExecutors.namedThreadFactory("boy-health-check"));
+        for (EndpointPlan endpoint : checked) {
+            BoyHttpClientProperties.HealthCheckConfig config = endpoint.getConfig().getHealthCheck();
+            long interval = Math.max(1, config.getIntervalMs());
+            for (int host = 0; host < endpoint.getHosts().size(); host++) {
+                int hostIndex = host;
+                // 首次探测加入随机延迟，避免所有主机在同一时刻被探测
+                long initialDelay = ThreadLocalRandom.current().nextLong(Math.min(interval, 1000));
+                scheduler.scheduleWithFixedDelay(() -> probe(endpoint, hostIndex, config),
+                        initialDelay, interval, TimeUnit.MILLISECONDS);
+            }
+            log.info("Scheduled health checks for endpoint {} every {}ms on path {}", endpoint.getId(), interval, config.getPath());
+        }
+    }
+
+    /**
+     * 探测单个主机
+     * @param endpoint 服务端点
+     * @param host 主机下标
+     * @param config 健康检查配置
+     */
+    private void probe(EndpointPlan endpoint, int host, BoyHttpClientProperties.HealthCheckConfig config) {
+        String url = endpoint.url(host, config.getPath());
+        String error = null;
+        try {
+            int status = request(endpoint, url, config.getTimeoutMs());
+            if (status < 200 || status >= 300) {
+                error = "HTTP status " + status;
+            }
+        } catch (IOException | RuntimeException e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+
+        HealthCheckState state = endpoint.getHealthCheckState();
+        if (state.record(host, error == null, error)) {
+            if (state.isHealthy(host)) {
+                log.info("Health check passed, host {} of endpoint {} is healthy again", url, endpoint.getId());
+            } else {
+                log.warn("Health check failed, host {} of endpoint {} marked unhealthy: {}", url, endpoint.getId(), error);
+            }
+        }
+    }
+
+    /**
+     * 发送探测请求，与业务请求一样随机选择一个代理
+     * @param endpoint 服务端点
+     * @param url 探测URL
+     * @param timeoutMs 超时时间
+     * @return 响应状态码
+     * @throws IOException IO异常
+     */
+    private int request(EndpointPlan endpoint, String url, int timeoutMs) throws IOException {
+        List<ProxyAddress> proxies = endpoint.getProxies();
+        HttpURLConnection connection = (HttpURLConnection) (proxies.isEmpty()
+                ? new URL(url).openConnection()
+                : new URL(url).openConnection(proxies.get(ThreadLocalRandom.current().nextInt(proxies.size())).getProxy()));
+        connection.setConnectTimeout(timeoutMs);
+        connection.setReadTimeout(timeoutMs);
+        connection.setRequestMethod("GET");
+        connection.setUseCaches(false);
+        try {
+            int status = connection.getResponseCode();
+            // 读完响应体以便复用 keep-alive 连接
+            InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (body != null) {
+                try (InputStream in = body) {
+                    byte[] buffer = new byte[1024];
+                    while (in.read(buffer) != -1) {
+                        // 丢弃
+                    }
+                }
+            }
+            return status;
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * 停止所有探测任务
+     */
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
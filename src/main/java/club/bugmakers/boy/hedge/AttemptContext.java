@@ -0,0 +1,93 @@
+package club.bugmakers.boy.hedge;
+
+/**
+ * 单次尝试的上下文
+ * 尝试发出请求前通过 {@link #onAbort(Runnable)} 登记中止动作，对冲中落败或整个调用被取消时执行；
+ * 尝试结束后可通过 {@link #isAborted()} 区分被主动中止的失败和真正的失败，前者不应计入主机健康统计；
+ * 收到响应时记录状态码，供指标和请求日志使用
+ */
+public final class AttemptContext {
+
+    private final boolean hedge;
+    private volatile boolean aborted;
+    private volatile int statusCode;
+    private Runnable abortAction;
+
+    /**
+     * 构造方法，用于不对冲的普通尝试
+     */
+    public AttemptContext() {
+        this(false);
+    }
+
+    /**
+     * 构造方法
+     * @param hedge 是否为对冲请求
+     */
+    AttemptContext(boolean hedge) {
+        this.hedge = hedge;
+    }
+
+    /**
+     * 判断是否为延迟发出的对冲请求
+     * @return 是否为对冲请求
+     */
+    public boolean isHedge() {
+        return hedge;
+    }
+
+    /**
+     * 获取收到的响应状态码
+     * @return 状态码，未收到响应时为 0
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 记录收到的响应状态码
+     * @param statusCode 状态码
+     */
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * 判断是否已被中止
+     * @return 是否已被中止
+     */
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * 登记中止动作，替换之前登记的动作；已被中止时立即执行
+     * @param action 中止动作，例如中止正在进行的 HTTP 请求
+     */
+    public void onAbort(Runnable action) {
+        synchronized (this) {
+            if (!aborted) {
+                abortAction = action;
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * 中止尝试，只有第一次调用生效
+     */
+    public void abort() {
+        Runnable action;
+        synchronized (this) {
+            if (aborted) {
+                return;
+            }
+            aborted = true;
+            action = abortAction;
+        }
+        if (action != null) {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package club.bugmakers.boy.hedge;
+
+import club.bugmakers.boy.limit.RateLimiter;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.retry.RetryEngine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 服务端点的对冲请求策略
+ * 请求在延迟时间内未返回时再发出一个对冲请求，先成功的结果胜出，另一个被中止；
+ * 两者都失败时返回先失败的异常。延迟为固定值或最近成功请求延迟的百分位数。
+ * 对冲次数受令牌桶预算限制：每个请求存入 budgetPercent% 个令牌，每次对冲消耗一个，
+ * 因此对冲请求长期不超过请求总数的 budgetPercent%，突发时最多连续对冲 MAX_BURST 次；
+ * 服务端点启用速率限制时对冲请求还需立即拿到令牌，拿不到时不对冲
+ */
+@Slf4j
+public class HedgePolicy {
+
+    /**
+     * 参与百分位数计算的最近样本数
+     */
+    private static final int LATENCY_SAMPLES = 1024;
+
+    /**
+     * 令牌桶容量（次）
+     */
+    private static final int MAX_BURST = 10;
+
+    /**
+     * 一个令牌的单位数，令牌桶以千分之一令牌为单位计数
+     */
+    private static final long TOKEN = 1000;
+
+    private final String endpointId;
+    private final long fixedDelayNanos;
+    private final long minDelayNanos;
+    private final long depositPerRequest;
+    private final LatencyTracker latencies;
+    private final RateLimiter rateLimiter;
+    private final AtomicLong budget = new AtomicLong();
+
+    /**
+     * 构造方法
+     * @param endpointId 服务端点ID，用于日志
+     * @param config 对冲请求配置
+     */
+    public HedgePolicy(String endpointId, BoyHttpClientProperties.HedgingConfig config) {
+        this(endpointId, config, null);
+    }
+
+    /**
+     * 构造方法
+     * @param endpointId 服务端点ID，用于日志
+     * @param config 对冲请求配置
+     * @param rateLimiter 服务端点的速率限制器，未启用时为 null
+     */
+    public HedgePolicy(String endpointId, BoyHttpClientProperties.HedgingConfig config, RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+        this.endpointId = endpointId;
+        this.fixedDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getDelayMs()));
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getMinDelayMs()));
+        this.depositPerRequest = Math.max(0, Math.round(config.getBudgetPercent() * TOKEN / 100));
+        this.latencies = new LatencyTracker(LATENCY_SAMPLES, config.getPercentile());
+    }
+
+    /**
+     * 获取当前的对冲延迟
+     * @return 延迟（纳秒），自适应延迟的样本不足时为 -1
+     */
+    public long hedgeDelayNanos() {
+        if (fixedDelayNanos > 0) {
+            return fixedDelayNanos;
+        }
+        long percentile = latencies.percentileNanos();
+        return percentile < 0 ? -1 : Math.max(minDelayNanos, percentile);
+    }
+
+    /**
+     * 执行可对冲的调用
+     * 主请求在调用线程或执行器上执行，对冲请求由重试引擎的定时器在延迟到达后派发到执行器；
+     * 执行器拒绝任务时退化为不对冲的普通请求
+     * @param call 单次调用
+     * @param primaryOnCaller 主请求是否直接在调用线程上执行，只有主请求能被 {@link AttemptContext#onAbort(Runnable)} 中止时才应为 true，
+     *                        否则对冲请求胜出后调用线程仍要等待主请求结束
+     * @param executor 执行器
+     * @param timer 提供共享定时器的重试引擎
+     * @param cancelBinder 接收中止整个调用的动作，例如绑定到所属的重试 Future
+     * @param <T> 结果类型
+     * @return 先成功的结果
+     * @throws Exception 所有请求都失败时为先失败的异常；等待期间被中断时抛出 InterruptedException
+     */
+    public <T> T execute(HedgeableCall<T> call, boolean primaryOnCaller, Executor executor, RetryEngine timer, Consumer<Runnable> cancelBinder) throws Exception {
+        deposit();
+        long delay = hedgeDelayNanos();
+        if (delay < 0) {
+            AttemptContext context = new AttemptContext();
+            cancelBinder.accept(context::abort);
+            return callTimed(call, context);
+        }
+
+        Race<T> race = new Race<>();
+        cancelBinder.accept(race::abortAll);
+        AttemptContext primary = race.launch(false);
+        try {
+            race.bindHedgeTimer(timer.schedule(() -> launchHedge(race, call, executor, delay), delay));
+        } catch (RejectedExecutionException e) {
+            race.bindHedgeTimer(null);
+        }
+
+        if (primaryOnCaller) {
+            race.run(primary, call);
+        } else {
+            try {
+                executor.execute(() -> race.run(primary, call));
+            } catch (RejectedExecutionException e) {
+                race.run(primary, call);
+            }
+        }
+
+        try {
+            return race.outcome.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        } catch (InterruptedException e) {
+            race.abortAll();
+            throw e;
+        }
+    }
+
+    /**
+     * 延迟到达后发出对冲请求，在定时器线程上执行，只做派发不做 IO
+     * @param race 竞速状态
+     * @param call 单次调用
+     * @param executor 执行器
+     * @param delay 对冲延迟（纳秒）
+     * @param <T> 结果类型
+     */
+    private <T> void launchHedge(Race<T> race, HedgeableCall<T> call, Executor executor, long delay) {
+        if (race.outcome.isDone()) {
+            return;
+        }
+        if (!tryAcquireBudget()) {
+            log.debug("Hedging budget exhausted for endpoint {}", endpointId);
+            return;
+        }
+        if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+            log.debug("Rate limited, skipping hedged request for endpoint {}", endpointId);
+            return;
+        }
+        AttemptContext hedge = race.launch(true);
+        if (hedge == null) {
+            return;
+        }
+        log.debug("No response within {}ms, sending hedged request for endpoint {}", TimeUnit.NANOSECONDS.toMillis(delay), endpointId);
+        try {
+            executor.execute(() -> race.run(hedge, call));
+        } catch (RejectedExecutionException e) {
+            race.withdraw(hedge);
+        }
+    }
+
+    /**
+     * 执行一次尝试，成功且未被中止时记录延迟
+     * @param call 单次调用
+     * @param context 尝试上下文
+     * @param <T> 结果类型
+     * @return 调用结果
+     * @throws Exception 调用失败
+     */
+    private <T> T callTimed(HedgeableCall<T> call, AttemptContext context) throws Exception {
+        long start = System.nanoTime();
+        T result = call.call(context);
+        if (!context.isAborted()) {
+            latencies.record(System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    private void deposit() {
+        long cap = MAX_BURST * TOKEN;
+        budget.updateAndGet(tokens -> Math.min(cap, tokens + depositPerRequest));
+    }
+
+    private boolean tryAcquireBudget() {
+        long tokens;
+        do {
+            tokens = budget.get();
+            if (tokens < TOKEN) {
+                return false;
+            }
+        } while (!budget.compareAndSet(tokens, tokens - TOKEN));
+        return true;
+    }
+
+    /**
+     * 主请求与对冲请求的竞速状态，状态变更在实例锁内完成，中止动作在锁外执行
+     * @param <T> 结果类型
+     */
+    private final class Race<T> {
+
+        private final CompletableFuture<T> outcome = new CompletableFuture<>();
+        private final List<AttemptContext> attempts = new ArrayList<>(2);
+        private int running;
+        private boolean hedgePending = true;
+        private Future<?> hedgeTimer;
+        private Throwable firstError;
+
+        /**
+         * 登记一次尝试
+         * @param hedge 是否为对冲请求
+         * @return 尝试上下文，已有结果或对冲已取消时为 null
+         */
+        private synchronized AttemptContext launch(boolean hedge) {
+            if (outcome.isDone()) {
+                return null;
+            }
+            if (hedge) {
+                if (!hedgePending) {
+                    return null;
+                }
+                hedgePending = false;
+            }
+            AttemptContext context = new AttemptContext(hedge);
+            attempts.add(context);
+            running++;
+            return context;
+        }
+
+        /**
+         * 绑定对冲定时器，已有结果时立即取消
+         * @param timer 定时器任务，定时器已关闭时为 null
+         */
+        private void bindHedgeTimer(Future<?> timer) {
+            synchronized (this) {
+                if (timer == null) {
+                    hedgePending = false;
+                    return;
+                }
+                if (hedgePending) {
+                    hedgeTimer = timer;
+                    return;
+                }
+            }
+            timer.cancel(false);
+        }
+
+        /**
+         * 执行一次尝试并记录结果
+         * @param context 尝试上下文
+         * @param call 单次调用
+         */
+        private void run(AttemptContext context, HedgeableCall<T> call) {
+            try {
+                onSuccess(context, callTimed(call, context));
+            } catch (Throwable e) {
+                onFailure(e);
+            }
+        }
+
+        private void onSuccess(AttemptContext winner, T value) {
+            List<AttemptContext> losers = new ArrayList<>(1);
+            Future<?> timer;
+            synchronized (this) {
+                running--;
+                if (!outcome.complete(value)) {
+                    return;
+                }
+                for (AttemptContext attempt : attempts) {
+                    if (attempt != winner) {
+                        losers.add(attempt);
+                    }
+                }
+                timer = cancelHedge();
+            }
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            for (AttemptContext loser : losers) {
+                loser.abort();
+            }
+        }
+
+        private void onFailure(Throwable e) {
+            Future<?> timer;
+            synchronized (this) {
+                running--;
+                if (firstError == null) {
+                    firstError = e;
+                }
+                // 还有尝试在进行时等待其结果；主请求在对冲发出前失败时不再对冲，交给重试策略处理
+                if (running > 0 || outcome.isDone()) {
+                    return;
+                }
+                timer = cancelHedge();
+            }
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            outcome.completeExceptionally(firstError);
+        }
+
+        /**
+         * 撤回已登记但未能派发的对冲请求
+         * @param context 尝试上下文
+         */
+        private void withdraw(AttemptContext context) {
+            synchronized (this) {
+                attempts.remove(context);
+                running--;
+                if (running > 0 || outcome.isDone() || firstError == null) {
+                    return;
+                }
+            }
+            outcome.completeExceptionally(firstError);
+        }
+
+        /**
+         * 中止所有尝试，用于调用被取消或调用线程被中断
+         */
+        private void abortAll() {
+            List<AttemptContext> all;
+            Future<?> timer;
+            synchronized (this) {
+                all = new ArrayList<>(attempts);
+                timer = cancelHedge();
+            }
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            for (AttemptContext attempt : all) {
+                attempt.abort();
+            }
+        }
+
+        /**
+         * 取消尚未发出的对冲请求，调用方持有实例锁
+         * @return 需要在锁外取消的定时器任务
+         */
+        private Future<?> cancelHedge() {
+            hedgePending = false;
+            Future<?> timer = hedgeTimer;
+            hedgeTimer = null;
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package club.bugmakers.boy.hedge;
+
+/**
+ * 可对冲的单次调用，必须是幂等的，同一时刻可能在两个线程上各执行一次
+ * @param <T> 结果类型
+ */
+@FunctionalInterface
+public interface HedgeableCall<T> {
+
+    /**
+     * 执行一次尝试
+     * @param context 尝试上下文
+     * @return 调用结果
+     * @throws Exception 调用失败
+     */
+    T call(AttemptContext context) throws Exception;
+}
@@ -0,0 +1,72 @@
+package club.bugmakers.boy.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 最近请求延迟的百分位数估计
+ * 延迟写入固定大小的环形数组，每写入 REFRESH_INTERVAL 个样本由写入线程排序一次副本并缓存结果，
+ * 读取只是一次 volatile 读；样本不足 MIN_SAMPLES 时不给出估计
+ */
+class LatencyTracker {
+
+    /**
+     * 给出估计所需的最少样本数
+     */
+    static final int MIN_SAMPLES = 50;
+
+    /**
+     * 重新计算百分位数的样本间隔
+     */
+    static final int REFRESH_INTERVAL = 64;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private final double percentile;
+    private volatile long percentileNanos = -1;
+
+    /**
+     * 构造方法
+     * @param size 保留的样本数
+     * @param percentile 百分位数，取值 (0, 100]
+     */
+    LatencyTracker(int size, double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+        }
+        this.samples = new AtomicLongArray(size);
+        this.percentile = percentile;
+    }
+
+    /**
+     * 记录一次请求延迟
+     * @param latencyNanos 延迟（纳秒）
+     */
+    void record(long latencyNanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % samples.length()), latencyNanos);
+        long recorded = n + 1;
+        if (recorded == MIN_SAMPLES || (recorded > MIN_SAMPLES && recorded % REFRESH_INTERVAL == 0)) {
+            refresh((int) Math.min(recorded, samples.length()));
+        }
+    }
+
+    /**
+     * 获取缓存的百分位数
+     * @return 延迟（纳秒），样本不足时为 -1
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void refresh(int filled) {
+        long[] sorted = new long[filled];
+        for (int i = 0; i < filled; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * filled) - 1;
+        percentileNanos = sorted[Math.max(0, Math.min(filled - 1, index))];
+    }
+}
@@ -0,0 +1,70 @@
+package club.bugmakers.boy.io;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 固定大小的字节缓冲区池
+ * 文件上传下载按缓冲区大小分块传输，缓冲区在请求间复用，内存占用与文件大小无关。
+ * 池为空时临时分配新缓冲区而不阻塞，归还时超出容量的缓冲区直接丢弃
+ */
+public class ByteBufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    /**
+     * 构造方法
+     * @param bufferSize 单个缓冲区大小（字节）
+     * @param maxPooled 最多保留的空闲缓冲区数量
+     */
+    public ByteBufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0 || maxPooled <= 0) {
+            throw new IllegalArgumentException("bufferSize and maxPooled must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * 获取一个已清空的堆缓冲区
+     * @return 缓冲区
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(bufferSize);
+        }
+        // 转为 Buffer 调用，避免在 JDK 9+ 上编译出 Java 8 中不存在的协变返回方法
+        ((Buffer) buffer).clear();
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区
+     * @param buffer 缓冲区，大小不符的缓冲区不会入池
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.capacity() == bufferSize && buffer.hasArray()) {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * 获取单个缓冲区大小
+     * @return 缓冲区大小（字节）
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 获取当前空闲的缓冲区数量
+     * @return 空闲缓冲区数量
+     */
+    public int getPooledCount() {
+        return buffers.size();
+    }
+}
@@ -0,0 +1,82 @@
+package club.bugmakers.boy.io;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 基于 FileChannel 的文件请求体
+ * 每次写出时重新打开文件，通过池化的固定大小缓冲区分块写入连接，因此可在重试时重复发送；
+ * 启用分块传输时不发送 Content-Length
+ */
+public class FileChannelEntity extends AbstractHttpEntity {
+
+    private final Path file;
+    private final ByteBufferPool bufferPool;
+
+    /**
+     * 构造方法
+     * @param file 文件
+     * @param contentType 内容类型，为 null 时不设置
+     * @param bufferPool 缓冲区池
+     * @param chunked 是否使用分块传输编码
+     */
+    public FileChannelEntity(Path file, ContentType contentType, ByteBufferPool bufferPool, boolean chunked) {
+        this.file = file;
+        this.bufferPool = bufferPool;
+        if (contentType != null) {
+            setContentType(contentType.toString());
+        }
+        setChunked(chunked);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        ByteBuffer buffer = bufferPool.acquire();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                if (read > 0) {
+                    outStream.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+                }
+                ((Buffer) buffer).clear();
+            }
+            outStream.flush();
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+package club.bugmakers.boy.journal;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 请求日志 Actuator 端点
+ * 通过 /actuator/boyrequests 查看最近的尝试记录，可按服务端点过滤并限制条数，
+ * 需要在 management.endpoints.web.exposure.include 中加入 boyrequests
+ */
+@Endpoint(id = "boyrequests")
+public class BoyRequestJournalEndpoint {
+
+    /**
+     * 未指定条数时返回的记录数
+     */
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final RequestJournal journal;
+
+    /**
+     * 构造方法
+     * @param journal 请求日志
+     */
+    public BoyRequestJournalEndpoint(RequestJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * 查看最近的尝试记录
+     * @param endpoint 服务端点ID，为空时返回全部服务端点
+     * @param limit 最多返回的条数，为空时返回 100 条
+     * @return 容量、记录总数和最近的记录（最新的在前）
+     */
+    @ReadOperation
+    public Map<String, Object> events(@Nullable String endpoint, @Nullable Integer limit) {
+        List<RequestEvent> events = journal.recent(endpoint, limit != null ? limit : DEFAULT_LIMIT);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", journal.isEnabled());
+        result.put("capacity", journal.getCapacity());
+        result.put("recorded", journal.getRecordedCount());
+        result.put("events", events);
+        return result;
+    }
+}
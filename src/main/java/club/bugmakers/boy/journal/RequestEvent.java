@@ -0,0 +1,159 @@
+package club.bugmakers.boy.journal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次尝试的记录
+ * 创建后不可变，可在记录线程与读取线程之间安全共享
+ */
+public final class RequestEvent {
+
+    /**
+     * 错误信息保留的最大长度，BoyHttpClient 的状态码异常信息包含响应体
+     */
+    private static final int MAX_MESSAGE_LENGTH = 256;
+
+    private final long sequence;
+    private final long timestamp;
+    private final String client;
+    private final String endpointId;
+    private final String host;
+    private final String proxy;
+    private final String method;
+    private final int attempt;
+    private final boolean hedge;
+    private final boolean aborted;
+    private final int statusCode;
+    private final long latencyNanos;
+    private final String error;
+    private final String message;
+
+    /**
+     * 构造方法
+     * @param sequence 序号，按记录顺序递增
+     * @param timestamp 尝试开始的时间戳（毫秒）
+     * @param client 客户端名称
+     * @param endpointId 服务端点ID
+     * @param host 主机基础URL
+     * @param proxy 代理，未使用代理时为 none
+     * @param method HTTP 方法
+     * @param attempt 尝试次数，从1开始
+     * @param hedge 是否为对冲请求
+     * @param aborted 是否被中止，例如对冲落败或调用被取消
+     * @param statusCode 响应状态码，未收到响应时为 0
+     * @param latencyNanos 耗时（纳秒）
+     * @param error 失败时的异常，成功时为 null
+     */
+    RequestEvent(long sequence, long timestamp, String client, String endpointId, String host, String proxy, String method,
+                 int attempt, boolean hedge, boolean aborted, int statusCode, long latencyNanos, Throwable error) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.client = client;
+        this.endpointId = endpointId;
+        this.host = host;
+        this.proxy = proxy;
+        this.method = method;
+        this.attempt = attempt;
+        this.hedge = hedge;
+        this.aborted = aborted;
+        this.statusCode = statusCode;
+        this.latencyNanos = latencyNanos;
+        this.error = error != null ? error.getClass().getSimpleName() : null;
+        String errorMessage = error != null ? error.getMessage() : null;
+        this.message = errorMessage != null && errorMessage.length() > MAX_MESSAGE_LENGTH
+                ? errorMessage.substring(0, MAX_MESSAGE_LENGTH) : errorMessage;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public String getEndpointId() {
+        return endpointId;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public String getProxy() {
+        return proxy;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public boolean isHedge() {
+        return hedge;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 获取耗时
+     * @return 耗时（毫秒）
+     */
+    public double getLatencyMs() {
+        return latencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 获取失败时的异常类名
+     * @return 异常类名，成功时为 null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * 获取失败时的异常信息，超长时被截断
+     * @return 异常信息，成功时为 null
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 判断尝试是否成功：收到了 400 以下的响应且没有异常
+     * @return 是否成功
+     */
+    public boolean isSuccess() {
+        return error == null && !aborted;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(128)
+                .append(client).append(' ').append(endpointId).append(' ').append(method).append(' ').append(host)
+                .append(" proxy=").append(proxy)
+                .append(" attempt=").append(attempt).append(hedge ? " hedge" : "")
+                .append(" status=").append(statusCode)
+                .append(" latencyMs=").append(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        if (aborted) {
+            builder.append(" aborted");
+        }
+        if (error != null) {
+            builder.append(" error=").append(error).append(": ").append(message);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package club.bugmakers.boy.journal;
+
+/**
+ * 请求日志的抽样导出
+ * 在记录尝试的线程上调用，实现应尽快返回，例如写入异步日志或消息队列
+ */
+@FunctionalInterface
+public interface RequestEventExporter {
+
+    /**
+     * 导出一条被抽中的记录
+     * @param event 尝试记录
+     */
+    void export(RequestEvent event);
+}
@@ -0,0 +1,136 @@
+package club.bugmakers.boy.journal;
+
+import club.bugmakers.boy.hedge.AttemptContext;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointPlan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 最近请求的内存日志
+ * 固定容量的无锁环形缓冲区：记录时用 getAndIncrement 取得序号，把不可变的记录写入序号对应的槽位，
+ * 写满后覆盖最旧的记录，记录线程之间不加锁也不等待；读取时从最新的序号向前收集，
+ * 槽位已被更新的记录覆盖时跳过，因此读取结果是近似快照。
+ * 按 exportSampleRate 抽样的记录同时交给 {@link RequestEventExporter}，默认写入 INFO 日志
+ */
+@Slf4j
+public class RequestJournal {
+
+    /**
+     * 默认导出方式：一条记录写一行 INFO 日志
+     */
+    private static final RequestEventExporter LOG_EXPORTER = event -> log.info("{}", event);
+
+    /**
+     * 未使用代理时的代理名称
+     */
+    public static final String NO_PROXY = "none";
+
+    private final boolean enabled;
+    private final int mask;
+    private final AtomicReferenceArray<RequestEvent> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final double exportSampleRate;
+    private volatile RequestEventExporter exporter = LOG_EXPORTER;
+
+    /**
+     * 构造方法
+     * @param config 请求日志配置，为 null 时使用默认配置
+     */
+    public RequestJournal(BoyHttpClientProperties.JournalConfig config) {
+        BoyHttpClientProperties.JournalConfig journalConfig = config != null ? config : new BoyHttpClientProperties.JournalConfig();
+        this.enabled = journalConfig.isEnabled();
+        int capacity = Integer.highestOneBit(Math.max(1, Math.min(journalConfig.getCapacity(), 1 << 20)) * 2 - 1);
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(enabled ? capacity : 0);
+        this.exportSampleRate = Math.max(0, Math.min(1, journalConfig.getExportSampleRate()));
+    }
+
+    /**
+     * 记录一次尝试，未启用时不创建记录
+     * @param client 客户端名称
+     * @param endpoint 服务端点
+     * @param hostIndex 主机下标
+     * @param proxy 代理，未使用代理时为 {@link #NO_PROXY}
+     * @param method HTTP 方法
+     * @param attempt 尝试次数，从1开始
+     * @param context 尝试上下文，提供状态码、是否对冲和是否被中止
+     * @param latencyNanos 耗时（纳秒）
+     * @param error 失败时的异常，成功时为 null
+     */
+    public void record(String client, EndpointPlan endpoint, int hostIndex, String proxy, String method, int attempt,
+                       AttemptContext context, long latencyNanos, Throwable error) {
+        if (!enabled) {
+            return;
+        }
+        long seq = sequence.getAndIncrement();
+        RequestEvent event = new RequestEvent(seq, System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(latencyNanos),
+                client, endpoint.getId(), endpoint.getHosts().get(hostIndex), proxy, method, attempt,
+                context.isHedge(), context.isAborted(), context.getStatusCode(), latencyNanos, error);
+        slots.set((int) (seq & mask), event);
+        if (exportSampleRate > 0 && (exportSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < exportSampleRate)) {
+            try {
+                exporter.export(event);
+            } catch (RuntimeException e) {
+                log.warn("Failed to export request event: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 获取最近的记录，最新的在前
+     * @param endpointId 只返回该服务端点的记录，为 null 时返回全部
+     * @param limit 最多返回的条数
+     * @return 记录列表
+     */
+    public List<RequestEvent> recent(String endpointId, int limit) {
+        List<RequestEvent> events = new ArrayList<>(Math.min(Math.max(limit, 0), slots.length()));
+        long newest = sequence.get() - 1;
+        long oldest = Math.max(0, newest - mask);
+        for (long seq = newest; seq >= oldest && events.size() < limit; seq--) {
+            RequestEvent event = slots.get((int) (seq & mask));
+            // 槽位尚未写入或已被更新的记录覆盖
+            if (event == null || event.getSequence() != seq) {
+                continue;
+            }
+            if (endpointId == null || endpointId.equals(event.getEndpointId())) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * 替换抽样导出方式
+     * @param exporter 导出方式，为 null 时恢复为写入 INFO 日志
+     */
+    public void setExporter(RequestEventExporter exporter) {
+        this.exporter = exporter != null ? exporter : LOG_EXPORTER;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取缓冲区容量
+     * @return 容量，未启用时为 0
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * 获取启动以来记录的总次数
+     * @return 次数
+     */
+    public long getRecordedCount() {
+        return sequence.get();
+    }
+}
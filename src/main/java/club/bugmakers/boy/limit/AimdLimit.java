@@ -0,0 +1,55 @@
+package club.bugmakers.boy.limit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 加性增、乘性减的并发上限
+ * 请求成功且并发数达到上限的一半以上时上限加1；请求失败或耗时超过 timeout 时上限乘以 backoffRatio。
+ * 并发数远低于上限时不增长，避免空闲期间上限无限膨胀
+ */
+public class AimdLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+    private volatile int limit;
+
+    /**
+     * 构造方法
+     * @param initialLimit 初始上限
+     * @param minLimit 上限下界
+     * @param maxLimit 上限上界
+     * @param backoffRatio 过载时的缩小比例，取值 (0, 1)
+     * @param timeoutMs 耗时超过该值（毫秒）视为过载
+     */
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long timeoutMs) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("AIMD backoffRatio must be in (0, 1): " + backoffRatio);
+        }
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.limit = clamp(initialLimit);
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        int current = limit;
+        if (dropped || rttNanos > timeoutNanos) {
+            limit = clamp((int) (current * backoffRatio));
+        } else if (inflight * 2 >= current) {
+            limit = clamp(current + 1);
+        }
+    }
+
+    private int clamp(int value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
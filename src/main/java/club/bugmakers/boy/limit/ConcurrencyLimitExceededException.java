@@ -0,0 +1,38 @@
+package club.bugmakers.boy.limit;
+
+/**
+ * 服务端点同时进行的尝试数达到 concurrencyLimit 的当前上限时抛出的异常
+ * 请求不排队，上限由 concurrencyLimit.strategy 决定，可通过 {@link #getLimit()} 获取拒绝时的上限
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final String endpointId;
+    private final int limit;
+
+    /**
+     * 构造方法
+     * @param endpointId 服务端点ID
+     * @param limit 拒绝时的并发上限
+     */
+    public ConcurrencyLimitExceededException(String endpointId, int limit) {
+        super("Concurrency limit " + limit + " exceeded for endpoint: " + endpointId);
+        this.endpointId = endpointId;
+        this.limit = limit;
+    }
+
+    /**
+     * 获取服务端点ID
+     * @return 服务端点ID
+     */
+    public String getEndpointId() {
+        return endpointId;
+    }
+
+    /**
+     * 获取拒绝时的并发上限
+     * @return 并发上限
+     */
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,105 @@
+package club.bugmakers.boy.limit;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务端点的并发限制器
+ * 请求发出前获取许可，并发数达到上限时立即拒绝而不排队；请求结束后归还许可，
+ * 并把耗时和结果交给限制算法调整上限。所有客户端共享同一个实例
+ */
+public class ConcurrencyLimiter {
+
+    private final String name;
+    private final LimitAlgorithm algorithm;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    /**
+     * 构造方法
+     * @param name 名称，一般为服务端点ID
+     * @param algorithm 并发上限算法
+     */
+    public ConcurrencyLimiter(String name, LimitAlgorithm algorithm) {
+        this.name = name;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * 按配置创建并发限制器
+     * @param name 名称，一般为服务端点ID
+     * @param config 并发限制配置
+     * @return 并发限制器
+     */
+    public static ConcurrencyLimiter create(String name, BoyHttpClientProperties.ConcurrencyLimitConfig config) {
+        BoyHttpClientProperties.ConcurrencyLimitStrategy strategy = config.getStrategy() != null
+                ? config.getStrategy() : BoyHttpClientProperties.ConcurrencyLimitStrategy.FIXED;
+        LimitAlgorithm algorithm;
+        switch (strategy) {
+            case AIMD:
+                algorithm = new AimdLimit(config.getLimit(), config.getMinLimit(), config.getMaxLimit(),
+                        config.getBackoffRatio(), config.getTimeoutMs());
+                break;
+            case GRADIENT:
+                algorithm = new GradientLimit(config.getLimit(), config.getMinLimit(), config.getMaxLimit(),
+                        config.getRttTolerance(), config.getSmoothing());
+                break;
+            case FIXED:
+            default:
+                algorithm = new FixedLimit(config.getLimit());
+        }
+        return new ConcurrencyLimiter(name, algorithm);
+    }
+
+    /**
+     * 获取许可
+     * @throws ConcurrencyLimitExceededException 并发数已达到上限
+     */
+    public void acquire() {
+        int limit = algorithm.getLimit();
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= limit) {
+                throw new ConcurrencyLimitExceededException(name, limit);
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+    }
+
+    /**
+     * 归还许可但不记录结果，用于请求未发出或被主动中止
+     */
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * 请求结束，归还许可并记录结果，以结束时的并发数（含本请求）近似本请求期间的并发数
+     * @param rttNanos 请求耗时（纳秒）
+     * @param dropped 请求是否因过载失败
+     */
+    public void onComplete(long rttNanos, boolean dropped) {
+        int current = inflight.getAndDecrement();
+        algorithm.onSample(rttNanos, current, dropped);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取当前并发上限
+     * @return 并发上限
+     */
+    public int getLimit() {
+        return algorithm.getLimit();
+    }
+
+    /**
+     * 获取当前并发数
+     * @return 并发数
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+}
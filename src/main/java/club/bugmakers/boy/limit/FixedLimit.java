@@ -0,0 +1,26 @@
+package club.bugmakers.boy.limit;
+
+/**
+ * 固定并发上限，即静态舱壁
+ */
+public class FixedLimit implements LimitAlgorithm {
+
+    private final int limit;
+
+    /**
+     * 构造方法
+     * @param limit 并发上限
+     */
+    public FixedLimit(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+    }
+}
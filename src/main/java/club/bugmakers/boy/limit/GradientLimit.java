@@ -0,0 +1,90 @@
+package club.bugmakers.boy.limit;
+
+/**
+ * 按延迟梯度调整的并发上限，思路与 TCP Vegas 相同
+ * 分别维护短期和长期的平均延迟，长期延迟近似无排队时的延迟；
+ * 梯度 = rttTolerance × 长期延迟 / 短期延迟，取值限制在 [0.5, 1]，延迟上升说明请求开始在下游排队，
+ * 新上限 = 当前上限 × 梯度 + sqrt(当前上限)，其中平方根项为允许的排队余量，使上限在延迟稳定时缓慢增长；
+ * 结果再按 smoothing 平滑。并发数不到上限一半时不调整，因为此时的延迟不能反映上限是否合适
+ */
+public class GradientLimit implements LimitAlgorithm {
+
+    /**
+     * 短期平均延迟的 EWMA 系数，约等于最近10个样本
+     */
+    private static final double SHORT_ALPHA = 0.1;
+
+    /**
+     * 长期平均延迟的 EWMA 系数，约等于最近500个样本
+     */
+    private static final double LONG_ALPHA = 0.002;
+
+    /**
+     * 梯度下限，单次调整最多把上限减半
+     */
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+    private volatile int limit;
+
+    /**
+     * 构造方法
+     * @param initialLimit 初始上限
+     * @param minLimit 上限下界
+     * @param maxLimit 上限上界
+     * @param rttTolerance 允许短期延迟相对长期延迟的放大倍数，不小于1
+     * @param smoothing 平滑系数，取值 (0, 1]
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance, double smoothing) {
+        if (rttTolerance < 1) {
+            throw new IllegalArgumentException("Gradient rttTolerance must be >= 1: " + rttTolerance);
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Gradient smoothing must be in (0, 1]: " + smoothing);
+        }
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = clamp(initialLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        double rtt = Math.max(1, rttNanos);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+        } else {
+            shortRtt += (rtt - shortRtt) * SHORT_ALPHA;
+            longRtt += (rtt - longRtt) * LONG_ALPHA;
+        }
+        // 延迟长期下降后（例如下游扩容），长期延迟收敛太慢会让上限持续偏高，这里加速收敛
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+        if (inflight * 2 < estimatedLimit) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = clamp(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+        limit = (int) estimatedLimit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
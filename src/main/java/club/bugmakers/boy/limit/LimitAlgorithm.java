@@ -0,0 +1,22 @@
+package club.bugmakers.boy.limit;
+
+/**
+ * 并发上限算法
+ * 根据每个请求的耗时和结果调整服务端点允许的并发数，实现需保证线程安全
+ */
+public interface LimitAlgorithm {
+
+    /**
+     * 获取当前并发上限
+     * @return 并发上限
+     */
+    int getLimit();
+
+    /**
+     * 记录一次请求结果
+     * @param rttNanos 请求耗时（纳秒）
+     * @param inflight 请求期间的并发数（含本请求）
+     * @param dropped 请求是否因过载失败，例如连接超时或服务端错误
+     */
+    void onSample(long rttNanos, int inflight, boolean dropped);
+}
@@ -0,0 +1,27 @@
+package club.bugmakers.boy.limit;
+
+/**
+ * 在 rateLimit.maxWaitMs 内拿不到速率限制令牌时抛出的异常
+ * 速率由 rateLimit.permitsPerSecond 和 burst 决定；重试被限流时请求以上一次失败的异常结束，本异常作为其 suppressed 异常
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String endpointId;
+
+    /**
+     * 构造方法
+     * @param endpointId 服务端点ID
+     */
+    public RateLimitExceededException(String endpointId) {
+        super("Rate limit exceeded for endpoint: " + endpointId);
+        this.endpointId = endpointId;
+    }
+
+    /**
+     * 获取服务端点ID
+     * @return 服务端点ID
+     */
+    public String getEndpointId() {
+        return endpointId;
+    }
+}
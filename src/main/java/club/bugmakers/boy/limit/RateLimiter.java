@@ -0,0 +1,142 @@
+package club.bugmakers.boy.limit;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 服务端点的请求速率限制器
+ * 令牌桶的无锁实现（GCRA）：只维护下一个令牌的理论可用时间，每次获取令牌把它向后推一个发放间隔，
+ * 理论可用时间领先当前时间不超过 (burst - 1) 个间隔时立即放行，否则需要等待二者之差；
+ * 状态只有一个 AtomicLong，多核并发时通过 CAS 更新，不使用锁。
+ * 支持三种获取方式：{@link #tryAcquire()} 不等待，{@link #acquire()} 阻塞等待，
+ * {@link #reserve()} 预约令牌并返回需要等待的时间，由调用方用定时器异步等待。
+ * 所有客户端共享同一个实例
+ */
+public class RateLimiter {
+
+    private final String name;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long maxWaitNanos;
+    private final LongSupplier clock;
+    private final AtomicLong nextFreeNanos;
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 构造方法
+     * @param name 名称，一般为服务端点ID
+     * @param config 速率限制配置
+     */
+    public RateLimiter(String name, BoyHttpClientProperties.RateLimitConfig config) {
+        this(name, config, System::nanoTime);
+    }
+
+    /**
+     * 构造方法
+     * @param name 名称，一般为服务端点ID
+     * @param config 速率限制配置
+     * @param clock 纳秒时钟
+     */
+    RateLimiter(String name, BoyHttpClientProperties.RateLimitConfig config, LongSupplier clock) {
+        if (config.getPermitsPerSecond() <= 0) {
+            throw new IllegalArgumentException("Rate limit permitsPerSecond must be positive for endpoint: " + name);
+        }
+        this.name = name;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / config.getPermitsPerSecond()));
+        this.toleranceNanos = intervalNanos * (Math.max(1, config.getBurst()) - 1);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getMaxWaitMs()));
+        this.clock = clock;
+        this.nextFreeNanos = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * 尝试立即获取令牌，不等待
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire() {
+        return reserve(0) == 0;
+    }
+
+    /**
+     * 获取令牌，没有令牌时阻塞等待，最长等待 maxWaitMs
+     * @throws RateLimitExceededException 最长等待时间内拿不到令牌
+     * @throws InterruptedException 等待期间被中断，已预约的令牌不会归还
+     */
+    public void acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait < 0) {
+            throw new RateLimitExceededException(name);
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * 按配置的最长等待时间预约令牌，调用方需等待返回的时间后再发出请求
+     * @return 需要等待的时间（纳秒），0 表示立即可用，拿不到令牌时为 -1
+     */
+    public long reserve() {
+        return reserve(maxWaitNanos);
+    }
+
+    /**
+     * 预约令牌
+     * @param maxWaitNanos 最长等待时间（纳秒）
+     * @return 需要等待的时间（纳秒），0 表示立即可用，需要等待的时间超过 maxWaitNanos 时为 -1 且不占用令牌
+     */
+    public long reserve(long maxWaitNanos) {
+        while (true) {
+            long now = clock.getAsLong();
+            long nextFree = nextFreeNanos.get();
+            long start = Math.max(nextFree, now);
+            long wait = start - now - toleranceNanos;
+            if (wait > maxWaitNanos) {
+                rejected.increment();
+                return -1;
+            }
+            if (nextFreeNanos.compareAndSet(nextFree, start + intervalNanos)) {
+                acquired.increment();
+                if (wait > 0) {
+                    delayed.increment();
+                    return wait;
+                }
+                return 0;
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取已发放的令牌数，包括需要等待的令牌
+     * @return 令牌数
+     */
+    public long getAcquiredCount() {
+        return acquired.sum();
+    }
+
+    /**
+     * 获取需要等待才能使用的令牌数
+     * @return 令牌数
+     */
+    public long getDelayedCount() {
+        return delayed.sum();
+    }
+
+    /**
+     * 获取被拒绝的请求数
+     * @return 请求数
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
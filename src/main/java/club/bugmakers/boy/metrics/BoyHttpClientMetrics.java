@@ -0,0 +1,166 @@
+package club.bugmakers.boy.metrics;
+
+import club.bugmakers.boy.cache.ResponseCache;
+import club.bugmakers.boy.coalesce.SingleFlight;
+import club.bugmakers.boy.limit.ConcurrencyLimiter;
+import club.bugmakers.boy.limit.RateLimiter;
+import club.bugmakers.boy.pool.BoyConnectionPool;
+import club.bugmakers.boy.registry.EndpointPlan;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Boy HttpClient 的 Micrometer 指标
+ * 绑定到 MeterRegistry 后开始记录各服务端点的请求与尝试耗时，并注册未完成请求数、并发限制、速率限制、响应缓存和连接池的仪表；
+ * Spring Boot 中作为 MeterBinder 自动绑定，其他场景可手动调用 {@link #bindTo(MeterRegistry)}
+ */
+@Slf4j
+public class BoyHttpClientMetrics implements MeterBinder {
+
+    private static final String PREFIX = "boy.http.client.";
+
+    private final Collection<EndpointPlan> endpoints;
+    private final boolean enabled;
+    private final List<PoolBinding> pools = new ArrayList<>();
+    private MeterRegistry registry;
+
+    /**
+     * 构造方法
+     * @param endpoints 服务端点
+     * @param enabled 是否记录指标，为 false 时绑定不产生任何效果
+     */
+    public BoyHttpClientMetrics(Collection<EndpointPlan> endpoints, boolean enabled) {
+        this.endpoints = endpoints;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        if (!enabled) {
+            return;
+        }
+        List<PoolBinding> bound;
+        synchronized (this) {
+            if (registry != null) {
+                log.warn("Boy HttpClient metrics are already bound, ignoring additional MeterRegistry {}", meterRegistry);
+                return;
+            }
+            registry = meterRegistry;
+            bound = new ArrayList<>(pools);
+        }
+        for (EndpointPlan endpoint : endpoints) {
+            bindEndpoint(meterRegistry, endpoint);
+        }
+        for (PoolBinding pool : bound) {
+            bindPool(meterRegistry, pool);
+        }
+    }
+
+    /**
+     * 登记客户端的连接池，已绑定时立即注册仪表，否则在绑定时注册
+     * @param client 客户端名称，例如 httpclient、resttemplate
+     * @param pool 连接池，名称为服务端点ID
+     */
+    public void registerPool(String client, BoyConnectionPool pool) {
+        if (!enabled) {
+            return;
+        }
+        PoolBinding binding = new PoolBinding(client, pool);
+        MeterRegistry meterRegistry;
+        synchronized (this) {
+            pools.add(binding);
+            meterRegistry = registry;
+        }
+        if (meterRegistry != null) {
+            bindPool(meterRegistry, binding);
+        }
+    }
+
+    private static void bindEndpoint(MeterRegistry meterRegistry, EndpointPlan endpoint) {
+        Tags tags = Tags.of("endpoint", endpoint.getId());
+        EndpointMetrics metrics = endpoint.getMetrics();
+        Gauge.builder(PREFIX + "inflight", metrics, EndpointMetrics::getInflight)
+                .description("Requests in flight, including retries and backoff")
+                .tags(tags).register(meterRegistry);
+
+        ConcurrencyLimiter limiter = endpoint.getConcurrencyLimiter();
+        if (limiter != null) {
+            Gauge.builder(PREFIX + "concurrency.limit", limiter, ConcurrencyLimiter::getLimit).tags(tags).register(meterRegistry);
+            Gauge.builder(PREFIX + "concurrency.inflight", limiter, ConcurrencyLimiter::getInflight).tags(tags).register(meterRegistry);
+        }
+        RateLimiter rateLimiter = endpoint.getRateLimiter();
+        if (rateLimiter != null) {
+            FunctionCounter.builder(PREFIX + "rate.limit.permits", rateLimiter, RateLimiter::getAcquiredCount)
+                    .tags(tags).tag("result", "acquired").register(meterRegistry);
+            FunctionCounter.builder(PREFIX + "rate.limit.permits", rateLimiter, RateLimiter::getDelayedCount)
+                    .tags(tags).tag("result", "delayed").register(meterRegistry);
+            FunctionCounter.builder(PREFIX + "rate.limit.permits", rateLimiter, RateLimiter::getRejectedCount)
+                    .tags(tags).tag("result", "rejected").register(meterRegistry);
+        }
+        ResponseCache cache = endpoint.getResponseCache();
+        if (cache != null) {
+            FunctionCounter.builder(PREFIX + "cache.requests", cache, ResponseCache::getHitCount)
+                    .tags(tags).tag("result", "hit").register(meterRegistry);
+            FunctionCounter.builder(PREFIX + "cache.requests", cache, ResponseCache::getMissCount)
+                    .tags(tags).tag("result", "miss").register(meterRegistry);
+            FunctionCounter.builder(PREFIX + "cache.revalidations", cache, ResponseCache::getRevalidationCount)
+                    .description("Stale entries confirmed by a 304 response")
+                    .tags(tags).register(meterRegistry);
+            FunctionCounter.builder(PREFIX + "cache.evictions", cache, ResponseCache::getEvictionCount)
+                    .tags(tags).tag("cause", "size").register(meterRegistry);
+            FunctionCounter.builder(PREFIX + "cache.evictions", cache, ResponseCache::getRejectionCount)
+                    .description("New responses not admitted because they were accessed less often than the eviction candidates")
+                    .tags(tags).tag("cause", "admission").register(meterRegistry);
+            Gauge.builder(PREFIX + "cache.size", cache, ResponseCache::size).tags(tags).register(meterRegistry);
+            Gauge.builder(PREFIX + "cache.weight", cache, ResponseCache::weight).baseUnit("bytes").tags(tags).register(meterRegistry);
+        }
+        SingleFlight singleFlight = endpoint.getSingleFlight();
+        if (singleFlight != null) {
+            FunctionCounter.builder(PREFIX + "coalesced.requests", singleFlight, SingleFlight::getLeaderCount)
+                    .tags(tags).tag("role", "leader").register(meterRegistry);
+            FunctionCounter.builder(PREFIX + "coalesced.requests", singleFlight, SingleFlight::getCoalescedCount)
+                    .description("Requests that joined an identical in-flight request instead of being sent")
+                    .tags(tags).tag("role", "follower").register(meterRegistry);
+            Gauge.builder(PREFIX + "coalesced.inflight", singleFlight, SingleFlight::inFlight).tags(tags).register(meterRegistry);
+        }
+        metrics.bind(meterRegistry);
+    }
+
+    private static void bindPool(MeterRegistry meterRegistry, PoolBinding binding) {
+        BoyConnectionPool pool = binding.pool;
+        Tags tags = Tags.of("endpoint", pool.getName(), "client", binding.client);
+        Gauge.builder(PREFIX + "pool.leased", pool, p -> p.getTotalStats().getLeased()).tags(tags).register(meterRegistry);
+        Gauge.builder(PREFIX + "pool.available", pool, p -> p.getTotalStats().getAvailable()).tags(tags).register(meterRegistry);
+        Gauge.builder(PREFIX + "pool.pending", pool, p -> p.getTotalStats().getPending()).tags(tags).register(meterRegistry);
+        Gauge.builder(PREFIX + "pool.max", pool, p -> p.getTotalStats().getMax()).tags(tags).register(meterRegistry);
+        Gauge.builder(PREFIX + "pool.utilization", pool, BoyHttpClientMetrics::utilization)
+                .description("Leased connections divided by the pool maximum")
+                .tags(tags).register(meterRegistry);
+    }
+
+    private static double utilization(BoyConnectionPool pool) {
+        int max = pool.getTotalStats().getMax();
+        return max > 0 ? (double) pool.getTotalStats().getLeased() / max : 0;
+    }
+
+    /**
+     * 客户端的连接池
+     */
+    private static final class PoolBinding {
+        private final String client;
+        private final BoyConnectionPool pool;
+
+        private PoolBinding(String client, BoyConnectionPool pool) {
+            this.client = client;
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package club.bugmakers.boy.metrics;
+
+import club.bugmakers.boy.breaker.CircuitBreakerOpenException;
+import club.bugmakers.boy.limit.ConcurrencyLimitExceededException;
+import club.bugmakers.boy.limit.RateLimitExceededException;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.ProxyAddress;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 单个服务端点的请求指标
+ * 所有标签值在创建时预先计算，计时器按 (主机, 代理, 方法, 状态类别, 尝试次数) 下标缓存在数组中，
+ * 每个组合只在第一次出现时注册，之后的记录只做数组访问，不分配对象；未绑定 MeterRegistry 时不记录
+ */
+public final class EndpointMetrics {
+
+    /**
+     * 请求耗时，包含所有重试
+     */
+    public static final String REQUESTS = "boy.http.client.requests";
+
+    /**
+     * 单次尝试耗时
+     */
+    public static final String ATTEMPTS = "boy.http.client.attempts";
+
+    /**
+     * 状态类别：2xx，客户端只区分成功与失败时使用
+     */
+    public static final int SUCCESS = 1;
+
+    /**
+     * 状态类别：未收到响应，例如连接失败、读取超时
+     */
+    public static final int ERROR = 5;
+
+    /**
+     * 状态类别：被熔断器、并发限制器或速率限制器直接拒绝
+     */
+    public static final int REJECTED = 6;
+
+    private static final String[] STATUS_TAGS = {"1xx", "2xx", "3xx", "4xx", "5xx", "error", "rejected"};
+    private static final String[] METHOD_TAGS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS", "OTHER"};
+    private static final String NO_PROXY = "none";
+
+    private final String endpointId;
+    private final String[] hostTags;
+    private final String[] proxyTags;
+    private final String[] attemptTags;
+    private final double[] percentiles;
+    private final boolean percentileHistogram;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicReferenceArray<Timer> requestTimers;
+    private final AtomicReferenceArray<Timer> attemptTimers;
+    private volatile MeterRegistry registry;
+
+    /**
+     * 构造方法
+     * @param endpointId 服务端点ID
+     * @param hosts 主机基础URL列表
+     * @param proxies 代理列表
+     * @param maxAttempts 最大尝试次数
+     * @param config 指标配置，为 null 时使用默认配置
+     */
+    public EndpointMetrics(String endpointId, List<String> hosts, List<ProxyAddress> proxies, int maxAttempts,
+                           BoyHttpClientProperties.MetricsConfig config) {
+        BoyHttpClientProperties.MetricsConfig metricsConfig = config != null ? config : new BoyHttpClientProperties.MetricsConfig();
+        this.endpointId = endpointId;
+        this.hostTags = hosts.toArray(new String[0]);
+        if (proxies.isEmpty()) {
+            this.proxyTags = new String[]{NO_PROXY};
+        } else {
+            this.proxyTags = new String[proxies.size()];
+            for (int i = 0; i < proxyTags.length; i++) {
+                proxyTags[i] = proxies.get(i).getValue();
+            }
+        }
+        this.attemptTags = new String[Math.max(1, maxAttempts)];
+        for (int i = 0; i < attemptTags.length; i++) {
+            attemptTags[i] = String.valueOf(i + 1);
+        }
+        List<Double> configured = metricsConfig.getPercentiles();
+        this.percentiles = new double[configured != null ? configured.size() : 0];
+        for (int i = 0; i < percentiles.length; i++) {
+            percentiles[i] = configured.get(i);
+        }
+        this.percentileHistogram = metricsConfig.isPercentileHistogram();
+        this.requestTimers = new AtomicReferenceArray<>(METHOD_TAGS.length * STATUS_TAGS.length);
+        this.attemptTimers = new AtomicReferenceArray<>(hostTags.length * proxyTags.length * METHOD_TAGS.length * STATUS_TAGS.length * attemptTags.length);
+    }
+
+    /**
+     * 绑定 MeterRegistry，之后的请求开始记录
+     * @param registry 指标注册表
+     */
+    void bind(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 请求开始，增加未完成请求数
+     * @return 开始时间（纳秒）
+     */
+    public long requestStarted() {
+        inflight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * 请求结束，减少未完成请求数并记录耗时
+     * @param method 方法下标，见 {@link #method(String)}
+     * @param status 状态类别下标，见 {@link #status(int)}
+     * @param startNanos {@link #requestStarted()} 返回的开始时间
+     */
+    public void requestFinished(int method, int status, long startNanos) {
+        inflight.decrementAndGet();
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        int index = method * STATUS_TAGS.length + status;
+        Timer timer = requestTimers.get(index);
+        if (timer == null) {
+            timer = timer(meterRegistry, REQUESTS, Tags.of("endpoint", endpointId, "method", METHOD_TAGS[method], "status", STATUS_TAGS[status]));
+            requestTimers.set(index, timer);
+        }
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次尝试
+     * @param host 主机下标
+     * @param proxy 代理下标，未使用代理时为 0
+     * @param method 方法下标
+     * @param status 状态类别下标
+     * @param attempt 尝试次数，从1开始
+     * @param latencyNanos 耗时（纳秒）
+     */
+    public void recordAttempt(int host, int proxy, int method, int status, int attempt, long latencyNanos) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        int attemptIndex = Math.min(Math.max(attempt, 1), attemptTags.length) - 1;
+        int index = (((host * proxyTags.length + proxy) * METHOD_TAGS.length + method) * STATUS_TAGS.length + status) * attemptTags.length + attemptIndex;
+        Timer timer = attemptTimers.get(index);
+        if (timer == null) {
+            timer = timer(meterRegistry, ATTEMPTS, Tags.of("endpoint", endpointId, "host", hostTags[host], "proxy", proxyTags[proxy],
+                    "method", METHOD_TAGS[method], "status", STATUS_TAGS[status]).and("attempt", attemptTags[attemptIndex]));
+            attemptTimers.set(index, timer);
+        }
+        timer.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 注册计时器，同名同标签的计时器已存在时返回已有实例，因此并发首次记录时重复注册也是安全的
+     * @param meterRegistry 指标注册表
+     * @param name 名称
+     * @param tags 标签
+     * @return 计时器
+     */
+    private Timer timer(MeterRegistry meterRegistry, String name, Tags tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentiles(percentiles)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取未完成的请求数
+     * @return 请求数
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public String getEndpointId() {
+        return endpointId;
+    }
+
+    /**
+     * 获取 HTTP 方法的下标
+     * @param method 方法名
+     * @return 下标，不常见的方法归为 OTHER
+     */
+    public static int method(String method) {
+        switch (method) {
+            case "GET":
+                return 0;
+            case "POST":
+                return 1;
+            case "PUT":
+                return 2;
+            case "DELETE":
+                return 3;
+            case "PATCH":
+                return 4;
+            case "HEAD":
+                return 5;
+            case "OPTIONS":
+                return 6;
+            default:
+                return 7;
+        }
+    }
+
+    /**
+     * 获取状态码的类别下标
+     * @param statusCode HTTP 状态码
+     * @return 下标
+     */
+    public static int status(int statusCode) {
+        if (statusCode < 100 || statusCode >= 600) {
+            return ERROR;
+        }
+        return statusCode / 100 - 1;
+    }
+
+    /**
+     * 获取没有响应状态码的失败的类别下标
+     * @param error 异常
+     * @return 被直接拒绝时为 {@link #REJECTED}，否则为 {@link #ERROR}
+     */
+    public static int failure(Throwable error) {
+        return error instanceof CircuitBreakerOpenException || error instanceof ConcurrencyLimitExceededException
+                || error instanceof RateLimitExceededException ? REJECTED : ERROR;
+    }
+}
@@ -0,0 +1,217 @@
+package club.bugmakers.boy.pool;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个服务端点的连接池
+ * 基于 Apache HttpClient 的 PoolingHttpClientConnectionManager，按路由（目标主机+代理）复用长连接
+ */
+@Slf4j
+public class BoyConnectionPool implements Closeable {
+
+    private final String name;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final CloseableHttpClient guardedHttpClient;
+    private final RequestConfig defaultRequestConfig;
+    private final long idleTimeoutMs;
+    private final long leaseTimeoutMs;
+    private final int maxPerRoute;
+    private final Semaphore totalPermits;
+    private final Map<String, Semaphore> routePermits = new ConcurrentHashMap<>();
+
+    /**
+     * 构造方法
+     * @param name 连接池名称，通常为服务端点ID
+     * @param config 连接池配置
+     * @param dnsResolver DNS 解析器，用于解析目标主机和代理地址
+     */
+    public BoyConnectionPool(String name, BoyHttpClientProperties.PoolConfig config, DnsResolver dnsResolver) {
+        this.name = name;
+        this.idleTimeoutMs = config.getIdleTimeoutMs();
+        this.leaseTimeoutMs = config.getLeaseTimeoutMs();
+        this.maxPerRoute = config.getMaxPerRoute();
+        this.totalPermits = new Semaphore(config.getMaxTotal(), true);
+
+        this.connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                dnsResolver);
+        this.connectionManager.setMaxTotal(config.getMaxTotal());
+        this.connectionManager.setDefaultMaxPerRoute(config.getMaxPerRoute());
+        this.connectionManager.setValidateAfterInactivity(config.getValidateAfterInactivityMs());
+
+        this.defaultRequestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(config.getLeaseTimeoutMs())
+                .setConnectTimeout(config.getConnectTimeoutMs())
+                .setSocketTimeout(config.getSocketTimeoutMs())
+                .build();
+
+        // 重试由上层统一处理，这里关闭 HttpClient 自带的重试；同时保持与 HttpURLConnection 一致的行为，不管理 Cookie、不自动解压
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(defaultRequestConfig)
+                .disableAutomaticRetries()
+                .disableCookieManagement()
+                .disableContentCompression()
+                .build();
+        this.guardedHttpClient = new PermitGuardedHttpClient(this, httpClient);
+
+        log.info("Connection pool {} created: maxTotal={}, maxPerRoute={}, idleTimeoutMs={}, validateAfterInactivityMs={}, leaseTimeoutMs={}, "
+                        + "connectTimeoutMs={}, socketTimeoutMs={}",
+                name, config.getMaxTotal(), config.getMaxPerRoute(), config.getIdleTimeoutMs(),
+                config.getValidateAfterInactivityMs(), config.getLeaseTimeoutMs(), config.getConnectTimeoutMs(), config.getSocketTimeoutMs());
+    }
+
+    /**
+     * 获取共享连接池的 HttpClient，供 Spring 的请求工厂等不经过 {@link #execute} 的调用方使用
+     * 返回的 HttpClient 执行请求前先获取与 {@link #execute} 相同的许可，许可持有到响应关闭；关闭它不会关闭连接池
+     * @return HttpClient
+     */
+    public CloseableHttpClient getHttpClient() {
+        return guardedHttpClient;
+    }
+
+    /**
+     * 执行请求，ResponseHandler 返回后连接自动归还连接池
+     * HttpClient 在 synchronized 块内等待空闲连接，虚拟线程在其中等待会占住载体线程，
+     * 连接池耗尽时可能导致所有载体线程被占满而无法归还连接。因此先按连接池容量获取许可，
+     * 保证进入 HttpClient 时总有可用连接，等待只发生在可被虚拟线程安全挂起的信号量上
+     * @param request 请求
+     * @param proxy 代理，为 null 时直连
+     * @param handler 响应处理器
+     * @param <T> 返回类型
+     * @return 处理结果
+     * @throws IOException IO异常，等待连接超时时抛出 ConnectionPoolTimeoutException
+     */
+    public <T> T execute(HttpUriRequest request, HttpHost proxy, ResponseHandler<? extends T> handler) throws IOException {
+        Runnable release = acquire(URIUtils.extractHost(request.getURI()), proxy);
+        try {
+            return httpClient.execute(request, handler);
+        } finally {
+            release.run();
+        }
+    }
+
+    /**
+     * 按路由和连接池总容量获取许可，两者共用同一个租用超时
+     * @param target 目标主机
+     * @param proxy 代理，为 null 时直连
+     * @return 释放许可的动作，调用方必须恰好调用一次
+     * @throws IOException 等待连接超时时抛出 ConnectionPoolTimeoutException，被中断时抛出 InterruptedIOException
+     */
+    Runnable acquire(HttpHost target, HttpHost proxy) throws IOException {
+        Semaphore route = routePermits.computeIfAbsent(routeKey(target, proxy), key -> new Semaphore(maxPerRoute, true));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMs);
+        acquire(route, deadline);
+        try {
+            acquire(totalPermits, deadline);
+        } catch (IOException e) {
+            route.release();
+            throw e;
+        }
+        return () -> {
+            totalPermits.release();
+            route.release();
+        };
+    }
+
+    /**
+     * 在截止时间前获取许可
+     * @param semaphore 信号量
+     * @param deadline 截止时间（纳秒）
+     * @throws IOException 超时或被中断
+     */
+    private void acquire(Semaphore semaphore, long deadline) throws IOException {
+        try {
+            if (!semaphore.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new ConnectionPoolTimeoutException("Timeout waiting for connection from pool " + name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for connection from pool " + name);
+        }
+    }
+
+    /**
+     * 路由标识，与 HttpClient 的路由划分一致：目标主机 + 代理
+     * @param target 目标主机
+     * @param proxy 代理
+     * @return 路由标识
+     */
+    private static String routeKey(HttpHost target, HttpHost proxy) {
+        return proxy != null ? target + "|" + proxy : String.valueOf(target);
+    }
+
+    /**
+     * 构建单次请求的配置
+     * @param proxy 代理，为 null 时直连
+     * @return 请求配置
+     */
+    public RequestConfig requestConfig(HttpHost proxy) {
+        if (proxy == null) {
+            return defaultRequestConfig;
+        }
+        return RequestConfig.copy(defaultRequestConfig).setProxy(proxy).build();
+    }
+
+    /**
+     * 回收过期连接和空闲超时的连接
+     */
+    void evictIdleConnections() {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 获取连接池统计信息
+     * @return 统计信息
+     */
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * 获取连接池名称
+     * @return 名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 关闭连接池及其所有连接
+     * @throws IOException IO异常
+     */
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+        log.info("Connection pool {} closed", name);
+    }
+}
@@ -0,0 +1,111 @@
+package club.bugmakers.boy.pool;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 连接池管理器
+ * 为每个服务端点维护独立的连接池，并由一个共享的后台线程定期回收空闲连接
+ */
+@Slf4j
+public class BoyConnectionPoolManager implements Closeable {
+
+    /**
+     * 空闲连接回收间隔
+     */
+    private static final long EVICTION_INTERVAL_MS = 5000;
+
+    private final Map<String, BoyConnectionPool> pools = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+    private final DnsResolver dnsResolver;
+    private final Consumer<BoyConnectionPool> poolListener;
+
+    /**
+     * 构造方法
+     */
+    public BoyConnectionPoolManager() {
+        this(SystemDefaultDnsResolver.INSTANCE);
+    }
+
+    /**
+     * 构造方法
+     * @param dnsResolver 所有连接池共享的 DNS 解析器
+     */
+    public BoyConnectionPoolManager(DnsResolver dnsResolver) {
+        this(dnsResolver, pool -> { });
+    }
+
+    /**
+     * 构造方法
+     * @param dnsResolver 所有连接池共享的 DNS 解析器
+     * @param poolListener 连接池创建后的回调，例如注册连接池指标
+     */
+    public BoyConnectionPoolManager(DnsResolver dnsResolver, Consumer<BoyConnectionPool> poolListener) {
+        this.dnsResolver = dnsResolver;
+        this.poolListener = poolListener;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "boy-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictor.scheduleWithFixedDelay(this::evictIdleConnections, EVICTION_INTERVAL_MS, EVICTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 获取服务端点的连接池，不存在时按配置创建
+     * @param endpointId 服务端点ID
+     * @param config 连接池配置，为 null 时使用默认配置
+     * @return 连接池
+     */
+    public BoyConnectionPool getPool(String endpointId, BoyHttpClientProperties.PoolConfig config) {
+        BoyConnectionPool pool = pools.get(endpointId);
+        if (pool != null) {
+            return pool;
+        }
+        return pools.computeIfAbsent(endpointId, id -> {
+            BoyConnectionPool created = new BoyConnectionPool(id, config != null ? config : new BoyHttpClientProperties.PoolConfig(), dnsResolver);
+            poolListener.accept(created);
+            return created;
+        });
+    }
+
+    /**
+     * 回收所有连接池中的空闲连接
+     */
+    private void evictIdleConnections() {
+        for (BoyConnectionPool pool : pools.values()) {
+            try {
+                pool.evictIdleConnections();
+            } catch (Exception e) {
+                log.warn("Failed to evict idle connections of pool {}: {}", pool.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 关闭所有连接池
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        for (BoyConnectionPool pool : pools.values()) {
+            try {
+                pool.close();
+            } catch (IOException e) {
+                log.warn("Failed to close pool {}: {}", pool.getName(), e.getMessage());
+            }
+        }
+        pools.clear();
+    }
+}
@@ -0,0 +1,109 @@
+package club.bugmakers.boy.pool;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 先获取连接池许可再执行请求的 HttpClient
+ * 供 Spring 的请求工厂使用：响应体在 execute 返回后才被读取，许可一直持有到响应关闭，
+ * 与 {@link BoyConnectionPool#execute} 使用同一组信号量，虚拟线程不会在 HttpClient 的 synchronized 块内等待连接
+ */
+final class PermitGuardedHttpClient extends CloseableHttpClient {
+
+    private final BoyConnectionPool pool;
+    private final CloseableHttpClient delegate;
+
+    PermitGuardedHttpClient(BoyConnectionPool pool, CloseableHttpClient delegate) {
+        this.pool = pool;
+        this.delegate = delegate;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) throws IOException, ClientProtocolException {
+        Runnable release = pool.acquire(target, proxyOf(request, context));
+        try {
+            return new PermitReleasingResponse(delegate.execute(target, request, context), release);
+        } catch (IOException | RuntimeException | Error e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    /**
+     * 取出请求使用的代理：优先取请求自身的配置，其次取上下文中的配置
+     * @param request 请求
+     * @param context 请求上下文，可为 null
+     * @return 代理，直连时为 null
+     */
+    private static HttpHost proxyOf(HttpRequest request, HttpContext context) {
+        RequestConfig config = request instanceof Configurable ? ((Configurable) request).getConfig() : null;
+        if (config == null && context != null) {
+            config = HttpClientContext.adapt(context).getRequestConfig();
+        }
+        return config != null ? config.getProxy() : null;
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public org.apache.http.params.HttpParams getParams() {
+        return delegate.getParams();
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public org.apache.http.conn.ClientConnectionManager getConnectionManager() {
+        return delegate.getConnectionManager();
+    }
+
+    /**
+     * 连接池统一关闭底层的 HttpClient
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * 关闭时释放许可的响应
+     */
+    private static final class PermitReleasingResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+        private final CloseableHttpResponse response;
+        private final Runnable release;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private PermitReleasingResponse(CloseableHttpResponse response, Runnable release) {
+            super(response.getStatusLine());
+            this.response = response;
+            this.release = release;
+            setHeaders(response.getAllHeaders());
+            setEntity(response.getEntity());
+            if (response.getLocale() != null) {
+                setLocale(response.getLocale());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    response.close();
+                } finally {
+                    release.run();
+                }
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -20,6 +21,26 @@ public class BoyHttpClientProperties {
      * 服务端点列表
      */
     private List<ServiceEndpoint> endpoints;
+    /**
+     * DNS 解析缓存配置，对所有服务端点的主机和代理生效
+     */
+    private DnsConfig dns;
+    /**
+     * 是否在虚拟线程上执行异步请求、重试和并发请求，默认关闭，仅在 Java 21 及以上生效
+     */
+    private boolean virtualThreads = false;
+    /**
+     * Micrometer 指标配置
+     */
+    private MetricsConfig metrics;
+    /**
+     * 请求日志环形缓冲区配置
+     */
+    private JournalConfig journal;
+    /**
+     * 健康指示器配置
+     */
+    private HealthConfig health;
 
     public List<ServiceEndpoint> getEndpoints() {
         return endpoints;
@@ -29,6 +50,46 @@ public class BoyHttpClientProperties {
         this.endpoints = endpoints;
     }
 
+    public DnsConfig getDns() {
+        return dns;
+    }
+
+    public void setDns(DnsConfig dns) {
+        this.dns = dns;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public MetricsConfig getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(MetricsConfig metrics) {
+        this.metrics = metrics;
+    }
+
+    public JournalConfig getJournal() {
+        return journal;
+    }
+
+    public void setJournal(JournalConfig journal) {
+        this.journal = journal;
+    }
+
+    public HealthConfig getHealth() {
+        return health;
+    }
+
+    public void setHealth(HealthConfig health) {
+        this.health = health;
+    }
+
     /**
      * 服务端点配置类
      */
@@ -49,6 +110,54 @@ public class BoyHttpClientProperties {
          * 重试策略配置
          */
         private RetryPolicy retryPolicy;
+        /**
+         * 重试预算配置
+         */
+        private RetryBudgetConfig retryBudget;
+        /**
+         * 连接池配置
+         */
+        private PoolConfig pool;
+        /**
+         * 异步请求线程池配置
+         */
+        private ExecutorConfig executor;
+        /**
+         * 负载均衡配置
+         */
+        private LoadBalancerConfig loadBalancer;
+        /**
+         * 被动健康检查（异常主机摘除）配置
+         */
+        private OutlierDetectionConfig outlierDetection;
+        /**
+         * 主动健康检查配置
+         */
+        private HealthCheckConfig healthCheck;
+        /**
+         * 熔断器配置
+         */
+        private CircuitBreakerConfig circuitBreaker;
+        /**
+         * 对冲请求配置
+         */
+        private HedgingConfig hedging;
+        /**
+         * 并发限制（舱壁）配置
+         */
+        private ConcurrencyLimitConfig concurrencyLimit;
+        /**
+         * 请求速率限制配置
+         */
+        private RateLimitConfig rateLimit;
+        /**
+         * GET 响应缓存配置，仅 BoyRestTemplate 生效
+         */
+        private ResponseCacheConfig responseCache;
+        /**
+         * 相同 GET 请求合并配置，仅 BoyHttpClient 的 get/getAsync 生效
+         */
+        private SingleFlightConfig singleFlight;
 
         public String getId() {
             return id;
@@ -81,6 +190,102 @@ public class BoyHttpClientProperties {
         public void setRetryPolicy(RetryPolicy retryPolicy) {
             this.retryPolicy = retryPolicy;
         }
+
+        public RetryBudgetConfig getRetryBudget() {
+            return retryBudget;
+        }
+
+        public void setRetryBudget(RetryBudgetConfig retryBudget) {
+            this.retryBudget = retryBudget;
+        }
+
+        public PoolConfig getPool() {
+            return pool;
+        }
+
+        public void setPool(PoolConfig pool) {
+            this.pool = pool;
+        }
+
+        public ExecutorConfig getExecutor() {
+            return executor;
+        }
+
+        public void setExecutor(ExecutorConfig executor) {
+            this.executor = executor;
+        }
+
+        public LoadBalancerConfig getLoadBalancer() {
+            return loadBalancer;
+        }
+
+        public void setLoadBalancer(LoadBalancerConfig loadBalancer) {
+            this.loadBalancer = loadBalancer;
+        }
+
+        public OutlierDetectionConfig getOutlierDetection() {
+            return outlierDetection;
+        }
+
+        public void setOutlierDetection(OutlierDetectionConfig outlierDetection) {
+            this.outlierDetection = outlierDetection;
+        }
+
+        public HealthCheckConfig getHealthCheck() {
+            return healthCheck;
+        }
+
+        public void setHealthCheck(HealthCheckConfig healthCheck) {
+            this.healthCheck = healthCheck;
+        }
+
+        public CircuitBreakerConfig getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        public void setCircuitBreaker(CircuitBreakerConfig circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        public HedgingConfig getHedging() {
+            return hedging;
+        }
+
+        public void setHedging(HedgingConfig hedging) {
+            this.hedging = hedging;
+        }
+
+        public ConcurrencyLimitConfig getConcurrencyLimit() {
+            return concurrencyLimit;
+        }
+
+        public void setConcurrencyLimit(ConcurrencyLimitConfig concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+        }
+
+        public RateLimitConfig getRateLimit() {
+            return rateLimit;
+        }
+
+        public void setRateLimit(RateLimitConfig rateLimit) {
+            this.rateLimit = rateLimit;
+        }
+
+        public ResponseCacheConfig getResponseCache() {
+            return responseCache;
+        }
+
+        public void setResponseCache(ResponseCacheConfig responseCache) {
+            this.responseCache = responseCache;
+        }
+
+        public SingleFlightConfig getSingleFlight() {
+            return singleFlight;
+        }
+
+        public void setSingleFlight(SingleFlightConfig singleFlight) {
+            this.singleFlight = singleFlight;
+        }
     }
 
     /**
@@ -100,9 +305,25 @@ public class BoyHttpClientProperties {
          */
         private double multiplier = 1.5;
         /**
-         * 可重试的状态码列表
+         * 可重试的状态码列表，未配置时为 408、429、500、502、503、504
          */
         private List<Integer> retryableStatusCodes;
+        /**
+         * 退避抖动方式，默认 FULL
+         */
+        private RetryJitter jitter = RetryJitter.FULL;
+        /**
+         * 单次退避时间上限（毫秒），默认30000
+         */
+        private long maxBackoffMs = 30000;
+        /**
+         * 是否遵守响应的 Retry-After 头，默认开启
+         */
+        private boolean respectRetryAfter = true;
+        /**
+         * Retry-After 要求等待的时间超过该值（毫秒）时不再重试，默认30000
+         */
+        private long maxRetryAfterMs = 30000;
 
         public int getMaxAttempts() {
             return maxAttempts;
@@ -135,5 +356,1108 @@ public class BoyHttpClientProperties {
         public void setRetryableStatusCodes(List<Integer> retryableStatusCodes) {
             this.retryableStatusCodes = retryableStatusCodes;
         }
+
+        public RetryJitter getJitter() {
+            return jitter;
+        }
+
+        public void setJitter(RetryJitter jitter) {
+            this.jitter = jitter;
+        }
+
+        public long getMaxBackoffMs() {
+            return maxBackoffMs;
+        }
+
+        public void setMaxBackoffMs(long maxBackoffMs) {
+            this.maxBackoffMs = maxBackoffMs;
+        }
+
+        public boolean isRespectRetryAfter() {
+            return respectRetryAfter;
+        }
+
+        public void setRespectRetryAfter(boolean respectRetryAfter) {
+            this.respectRetryAfter = respectRetryAfter;
+        }
+
+        public long getMaxRetryAfterMs() {
+            return maxRetryAfterMs;
+        }
+
+        public void setMaxRetryAfterMs(long maxRetryAfterMs) {
+            this.maxRetryAfterMs = maxRetryAfterMs;
+        }
+    }
+
+    /**
+     * 重试预算配置类
+     * 按令牌桶限制重试量：每个请求存入 budgetPercent% 个令牌，每次重试消耗一个，
+     * 另外每秒补充 minRetriesPerSecond 个令牌，保证低流量时仍可重试
+     */
+    public static class RetryBudgetConfig {
+        /**
+         * 是否启用，默认开启
+         */
+        private boolean enabled = true;
+        /**
+         * 重试量占请求总数的比例上限（百分比），默认20
+         */
+        private double budgetPercent = 20;
+        /**
+         * 不论流量多少，每秒至少允许的重试次数，默认10
+         */
+        private int minRetriesPerSecond = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public int getMinRetriesPerSecond() {
+            return minRetriesPerSecond;
+        }
+
+        public void setMinRetriesPerSecond(int minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+        }
+    }
+
+    /**
+     * 连接池配置类
+     */
+    public static class PoolConfig {
+        /**
+         * 连接池最大连接数，默认50
+         */
+        private int maxTotal = 50;
+        /**
+         * 每个路由（目标主机+代理）的最大连接数，默认20
+         */
+        private int maxPerRoute = 20;
+        /**
+         * 空闲连接的最大存活时间，超过后被回收，默认30000ms
+         */
+        private long idleTimeoutMs = 30000;
+        /**
+         * 连接空闲超过该时间后，复用前先进行有效性校验，默认2000ms
+         */
+        private int validateAfterInactivityMs = 2000;
+        /**
+         * 从连接池获取连接的超时时间，默认1000ms
+         */
+        private int leaseTimeoutMs = 1000;
+        /**
+         * 建立连接的超时时间，默认5000ms，0 表示不超时
+         */
+        private int connectTimeoutMs = 5000;
+        /**
+         * 读取响应时两次收到数据之间的最大间隔，默认30000ms，0 表示不超时
+         */
+        private int socketTimeoutMs = 30000;
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public long getIdleTimeoutMs() {
+            return idleTimeoutMs;
+        }
+
+        public void setIdleTimeoutMs(long idleTimeoutMs) {
+            this.idleTimeoutMs = idleTimeoutMs;
+        }
+
+        public int getValidateAfterInactivityMs() {
+            return validateAfterInactivityMs;
+        }
+
+        public void setValidateAfterInactivityMs(int validateAfterInactivityMs) {
+            this.validateAfterInactivityMs = validateAfterInactivityMs;
+        }
+
+        public int getLeaseTimeoutMs() {
+            return leaseTimeoutMs;
+        }
+
+        public void setLeaseTimeoutMs(int leaseTimeoutMs) {
+            this.leaseTimeoutMs = leaseTimeoutMs;
+        }
+
+        public int getConnectTimeoutMs() {
+            return connectTimeoutMs;
+        }
+
+        public void setConnectTimeoutMs(int connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+        }
+
+        public int getSocketTimeoutMs() {
+            return socketTimeoutMs;
+        }
+
+        public void setSocketTimeoutMs(int socketTimeoutMs) {
+            this.socketTimeoutMs = socketTimeoutMs;
+        }
+    }
+
+    /**
+     * 负载均衡配置类
+     */
+    public static class LoadBalancerConfig {
+        /**
+         * 负载均衡策略，默认随机
+         */
+        private LoadBalancerStrategy strategy = LoadBalancerStrategy.RANDOM;
+        /**
+         * 主机权重，与 hosts 按顺序一一对应，仅 WEIGHTED 策略使用；未配置时所有主机权重相同
+         */
+        private List<Integer> weights;
+        /**
+         * 延迟 EWMA 的衰减时间常数（毫秒），仅 P2C_EWMA 策略使用，默认10000
+         */
+        private long ewmaDecayMs = 10000;
+
+        public LoadBalancerStrategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(LoadBalancerStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        public List<Integer> getWeights() {
+            return weights;
+        }
+
+        public void setWeights(List<Integer> weights) {
+            this.weights = weights;
+        }
+
+        public long getEwmaDecayMs() {
+            return ewmaDecayMs;
+        }
+
+        public void setEwmaDecayMs(long ewmaDecayMs) {
+            this.ewmaDecayMs = ewmaDecayMs;
+        }
+    }
+
+    /**
+     * 被动健康检查配置类
+     * 根据真实请求的结果统计每个主机的连续失败次数、失败率和延迟，异常主机在一段时间内不再被负载均衡选中
+     */
+    public static class OutlierDetectionConfig {
+        /**
+         * 是否启用，默认启用，与重试策略一样默认保护调用方；只有一个主机时受 maxEjectionPercent 限制不会摘除；
+         * 关闭后仍会在重试时避开本次请求已尝试过的主机
+         */
+        private boolean enabled = true;
+        /**
+         * 连续失败多少次后摘除主机，默认5，0表示不按连续失败摘除
+         */
+        private int consecutiveFailures = 5;
+        /**
+         * 统计窗口内失败率达到该值（百分比）时摘除主机，与熔断器的 failureRateThreshold 单位一致，默认50，0表示不按失败率摘除
+         */
+        private double failureRateThreshold = 50;
+        /**
+         * 统计窗口内至少有多少次请求才按失败率和延迟判断，默认10
+         */
+        private int minimumRequests = 10;
+        /**
+         * 失败率统计窗口（毫秒），默认10000
+         */
+        private long intervalMs = 10000;
+        /**
+         * 主机平均延迟超过其他主机平均延迟的倍数时摘除，默认3.0，0表示不按延迟摘除；至少3个主机时生效
+         */
+        private double latencyOutlierFactor = 3.0;
+        /**
+         * 首次摘除时长（毫秒），之后每次连续摘除时长翻倍，默认30000
+         */
+        private long baseEjectionMs = 30000;
+        /**
+         * 最长摘除时长（毫秒），默认300000
+         */
+        private long maxEjectionMs = 300000;
+        /**
+         * 同时被摘除的主机最多占主机总数的百分比，默认50
+         */
+        private int maxEjectionPercent = 50;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public void setConsecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getMinimumRequests() {
+            return minimumRequests;
+        }
+
+        public void setMinimumRequests(int minimumRequests) {
+            this.minimumRequests = minimumRequests;
+        }
+
+        public long getIntervalMs() {
+            return intervalMs;
+        }
+
+        public void setIntervalMs(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+
+        public double getLatencyOutlierFactor() {
+            return latencyOutlierFactor;
+        }
+
+        public void setLatencyOutlierFactor(double latencyOutlierFactor) {
+            this.latencyOutlierFactor = latencyOutlierFactor;
+        }
+
+        public long getBaseEjectionMs() {
+            return baseEjectionMs;
+        }
+
+        public void setBaseEjectionMs(long baseEjectionMs) {
+            this.baseEjectionMs = baseEjectionMs;
+        }
+
+        public long getMaxEjectionMs() {
+            return maxEjectionMs;
+        }
+
+        public void setMaxEjectionMs(long maxEjectionMs) {
+            this.maxEjectionMs = maxEjectionMs;
+        }
+
+        public int getMaxEjectionPercent() {
+            return maxEjectionPercent;
+        }
+
+        public void setMaxEjectionPercent(int maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+        }
+    }
+
+    /**
+     * 主动健康检查配置类
+     * 后台定时探测每个主机，不健康的主机不再被负载均衡选中，直到探测恢复
+     */
+    public static class HealthCheckConfig {
+        /**
+         * 是否启用，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 探测路径，返回 2xx 状态码视为健康，默认 /health
+         */
+        private String path = "/health";
+        /**
+         * 探测间隔（毫秒），默认10000
+         */
+        private long intervalMs = 10000;
+        /**
+         * 探测的连接和读取超时（毫秒），默认2000
+         */
+        private int timeoutMs = 2000;
+        /**
+         * 不健康的主机连续探测成功多少次后恢复，默认2
+         */
+        private int healthyThreshold = 2;
+        /**
+         * 健康的主机连续探测失败多少次后标记为不健康，默认3
+         */
+        private int unhealthyThreshold = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public long getIntervalMs() {
+            return intervalMs;
+        }
+
+        public void setIntervalMs(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+
+        public int getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(int timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public int getHealthyThreshold() {
+            return healthyThreshold;
+        }
+
+        public void setHealthyThreshold(int healthyThreshold) {
+            this.healthyThreshold = healthyThreshold;
+        }
+
+        public int getUnhealthyThreshold() {
+            return unhealthyThreshold;
+        }
+
+        public void setUnhealthyThreshold(int unhealthyThreshold) {
+            this.unhealthyThreshold = unhealthyThreshold;
+        }
+    }
+
+    /**
+     * 熔断器配置类
+     * 按滑动窗口内的失败率和慢调用率在关闭、打开、半开三种状态间切换，打开时请求直接失败
+     */
+    public static class CircuitBreakerConfig {
+        /**
+         * 是否启用，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 是否同时为每个主机维护独立的熔断器，熔断的主机不参与负载均衡，默认开启
+         */
+        private boolean perHost = true;
+        /**
+         * 滑动窗口大小，按最近多少次调用计算失败率和慢调用率，默认100
+         */
+        private int windowSize = 100;
+        /**
+         * 窗口内至少有多少次调用才计算失败率和慢调用率，默认20
+         */
+        private int minimumCalls = 20;
+        /**
+         * 失败率阈值（百分比），达到后熔断，默认50
+         */
+        private double failureRateThreshold = 50;
+        /**
+         * 慢调用率阈值（百分比），达到后熔断，默认100
+         */
+        private double slowCallRateThreshold = 100;
+        /**
+         * 耗时超过该值的调用视为慢调用（毫秒），默认5000
+         */
+        private long slowCallDurationMs = 5000;
+        /**
+         * 熔断后保持打开的时间（毫秒），之后进入半开状态，默认30000
+         */
+        private long openDurationMs = 30000;
+        /**
+         * 半开状态允许通过的探测调用数，全部完成后决定关闭或重新打开，默认5
+         */
+        private int halfOpenCalls = 5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isPerHost() {
+            return perHost;
+        }
+
+        public void setPerHost(boolean perHost) {
+            this.perHost = perHost;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public double getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public long getSlowCallDurationMs() {
+            return slowCallDurationMs;
+        }
+
+        public void setSlowCallDurationMs(long slowCallDurationMs) {
+            this.slowCallDurationMs = slowCallDurationMs;
+        }
+
+        public long getOpenDurationMs() {
+            return openDurationMs;
+        }
+
+        public void setOpenDurationMs(long openDurationMs) {
+            this.openDurationMs = openDurationMs;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+
+    /**
+     * 对冲请求配置类
+     * 幂等的同步 GET 请求在延迟时间内未返回时向另一个主机再发一次，先返回的结果胜出，另一个被取消；
+     * 至少配置两个主机时才生效
+     */
+    public static class HedgingConfig {
+        /**
+         * 是否启用，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 固定的对冲延迟（毫秒），为0时按最近请求延迟的百分位数计算，默认0
+         */
+        private long delayMs = 0;
+        /**
+         * 自适应延迟使用的延迟百分位数，默认95
+         */
+        private double percentile = 95;
+        /**
+         * 自适应延迟的下限（毫秒），默认5
+         */
+        private long minDelayMs = 5;
+        /**
+         * 对冲请求占请求总数的比例上限（百分比），默认10
+         */
+        private double budgetPercent = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDelayMs() {
+            return delayMs;
+        }
+
+        public void setDelayMs(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public long getMinDelayMs() {
+            return minDelayMs;
+        }
+
+        public void setMinDelayMs(long minDelayMs) {
+            this.minDelayMs = minDelayMs;
+        }
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+    }
+
+    /**
+     * 并发限制配置类
+     * 限制同一服务端点同时进行的请求数，超出时立即拒绝而不排队，避免一个变慢的依赖占满所有调用线程
+     */
+    public static class ConcurrencyLimitConfig {
+        /**
+         * 是否启用，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 限制算法，默认 FIXED
+         */
+        private ConcurrencyLimitStrategy strategy = ConcurrencyLimitStrategy.FIXED;
+        /**
+         * FIXED 策略下的并发上限，自适应策略下的初始上限，默认100
+         */
+        private int limit = 100;
+        /**
+         * 自适应策略的并发上限下界，默认5
+         */
+        private int minLimit = 5;
+        /**
+         * 自适应策略的并发上限上界，默认500
+         */
+        private int maxLimit = 500;
+        /**
+         * AIMD 策略下失败或超时后上限乘以该比例，默认0.9
+         */
+        private double backoffRatio = 0.9;
+        /**
+         * AIMD 策略下耗时超过该值（毫秒）的请求视为过载信号，默认5000
+         */
+        private long timeoutMs = 5000;
+        /**
+         * GRADIENT 策略下允许的短期延迟相对长期延迟的放大倍数，超过时开始降低上限，默认1.5
+         */
+        private double rttTolerance = 1.5;
+        /**
+         * GRADIENT 策略下每次调整的平滑系数，取值 (0, 1]，默认0.2
+         */
+        private double smoothing = 0.2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public ConcurrencyLimitStrategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(ConcurrencyLimitStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public double getRttTolerance() {
+            return rttTolerance;
+        }
+
+        public void setRttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+    }
+
+    /**
+     * 请求速率限制配置类
+     * 按令牌桶限制发往同一服务端点的请求速率，重试和对冲请求同样计入，用于遵守对端的 QPS 配额
+     */
+    public static class RateLimitConfig {
+        /**
+         * 是否启用，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 每秒允许的请求数，默认100
+         */
+        private double permitsPerSecond = 100;
+        /**
+         * 允许的突发请求数，即令牌桶容量，默认10
+         */
+        private int burst = 10;
+        /**
+         * 没有令牌时最长等待时间（毫秒），0 表示不等待直接拒绝，默认500
+         */
+        private long maxWaitMs = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public void setPermitsPerSecond(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+
+        public void setMaxWaitMs(long maxWaitMs) {
+            this.maxWaitMs = maxWaitMs;
+        }
+    }
+
+    /**
+     * GET 响应缓存配置类
+     */
+    public static class ResponseCacheConfig {
+        /**
+         * 是否启用，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 最多缓存的响应数，默认1000
+         */
+        private int maxEntries = 1000;
+        /**
+         * 所有缓存响应的总字节数上限，0 表示只按条数限制，默认0
+         */
+        private long maxBytes = 0;
+        /**
+         * 单个响应的字节数上限，超过时不缓存，默认1MB
+         */
+        private int maxEntryBytes = 1024 * 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public int getMaxEntryBytes() {
+            return maxEntryBytes;
+        }
+
+        public void setMaxEntryBytes(int maxEntryBytes) {
+            this.maxEntryBytes = maxEntryBytes;
+        }
+    }
+
+    /**
+     * 相同 GET 请求合并配置类
+     */
+    public static class SingleFlightConfig {
+        /**
+         * 是否启用，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 参与合并键的请求头名称（不区分大小写），未列出的请求头视为不影响响应；
+         * 为空时所有请求头都参与合并键，默认为空
+         */
+        private List<String> keyHeaders = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getKeyHeaders() {
+            return keyHeaders;
+        }
+
+        public void setKeyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+        }
+    }
+
+    /**
+     * 并发限制算法
+     */
+    public enum ConcurrencyLimitStrategy {
+        /**
+         * 固定上限（舱壁）
+         */
+        FIXED,
+        /**
+         * 加性增、乘性减：上限被充分使用且请求成功时加1，失败或超时时按比例缩小
+         */
+        AIMD,
+        /**
+         * 按短期延迟与长期延迟之比调整上限（类似 TCP Vegas），延迟开始排队上升时主动降低上限
+         */
+        GRADIENT
+    }
+
+    /**
+     * 重试退避抖动方式
+     */
+    public enum RetryJitter {
+        /**
+         * 不抖动，按 backoffMs * multiplier^(n-1) 退避
+         */
+        NONE,
+        /**
+         * 在 0 到指数退避时间之间均匀随机
+         */
+        FULL,
+        /**
+         * 在 backoffMs 到上一次退避时间的 3 倍之间均匀随机，不使用 multiplier
+         */
+        DECORRELATED
+    }
+
+    /**
+     * 负载均衡策略
+     */
+    public enum LoadBalancerStrategy {
+        /**
+         * 随机
+         */
+        RANDOM,
+        /**
+         * 轮询
+         */
+        ROUND_ROBIN,
+        /**
+         * 按权重随机
+         */
+        WEIGHTED,
+        /**
+         * 最少未完成请求
+         */
+        LEAST_REQUESTS,
+        /**
+         * 随机取两个主机，选择 EWMA 延迟与未完成请求数综合代价较低的一个
+         */
+        P2C_EWMA
+    }
+
+    /**
+     * 异步请求线程池配置类
+     */
+    public static class ExecutorConfig {
+        /**
+         * 最大线程数，默认10；使用虚拟线程时 threads + queueCapacity 为同时提交的最大任务数
+         */
+        private int threads = 10;
+        /**
+         * 等待队列容量，队列满时拒绝新的请求，默认100
+         */
+        private int queueCapacity = 100;
+        /**
+         * 是否使用虚拟线程，未配置时继承全局的 virtualThreads 配置
+         */
+        private Boolean virtualThreads;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Boolean getVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(Boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+    }
+
+    /**
+     * DNS 解析缓存配置类
+     */
+    public static class DnsConfig {
+        /**
+         * 是否启用 DNS 解析缓存，默认启用
+         */
+        private boolean enabled = true;
+        /**
+         * 解析成功结果的缓存时间，默认30000ms
+         */
+        private long positiveTtlMs = 30000;
+        /**
+         * 解析失败结果的缓存时间，默认5000ms
+         */
+        private long negativeTtlMs = 5000;
+        /**
+         * 缓存到期前提前在后台刷新的时间窗口，默认5000ms，为0时不提前刷新
+         */
+        private long refreshAheadMs = 5000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getPositiveTtlMs() {
+            return positiveTtlMs;
+        }
+
+        public void setPositiveTtlMs(long positiveTtlMs) {
+            this.positiveTtlMs = positiveTtlMs;
+        }
+
+        public long getNegativeTtlMs() {
+            return negativeTtlMs;
+        }
+
+        public void setNegativeTtlMs(long negativeTtlMs) {
+            this.negativeTtlMs = negativeTtlMs;
+        }
+
+        public long getRefreshAheadMs() {
+            return refreshAheadMs;
+        }
+
+        public void setRefreshAheadMs(long refreshAheadMs) {
+            this.refreshAheadMs = refreshAheadMs;
+        }
+    }
+
+    /**
+     * Micrometer 指标配置类
+     */
+    public static class MetricsConfig {
+        /**
+         * 是否记录指标，默认启用，类路径中存在 MeterRegistry 时生效
+         */
+        private boolean enabled = true;
+        /**
+         * 请求和尝试耗时在客户端计算的百分位数，例如 [0.5, 0.95, 0.99]，默认不计算
+         */
+        private List<Double> percentiles;
+        /**
+         * 是否发布百分位直方图，供 Prometheus 等监控系统在服务端聚合计算百分位数，默认关闭
+         */
+        private boolean percentileHistogram = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<Double> getPercentiles() {
+            return percentiles;
+        }
+
+        public void setPercentiles(List<Double> percentiles) {
+            this.percentiles = percentiles;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+    }
+
+    /**
+     * 请求日志配置类
+     * 最近的尝试记录在内存中的环形缓冲区中，通过 Actuator 端点查看，并可按比例抽样导出
+     */
+    public static class JournalConfig {
+        /**
+         * 是否记录请求日志，默认启用
+         */
+        private boolean enabled = true;
+        /**
+         * 保留的最近尝试数，向上取整为2的幂
+         */
+        private int capacity = 1024;
+        /**
+         * 抽样导出的比例（0~1），默认 0 不导出；未提供 RequestEventExporter 时导出到 INFO 日志
+         */
+        private double exportSampleRate = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getExportSampleRate() {
+            return exportSampleRate;
+        }
+
+        public void setExportSampleRate(double exportSampleRate) {
+            this.exportSampleRate = exportSampleRate;
+        }
+    }
+
+    /**
+     * 健康指示器配置类
+     */
+    public static class HealthConfig {
+        /**
+         * 服务端点不可用（所有主机不可用或熔断器打开）时是否把整体健康状态报告为 DOWN，默认关闭，
+         * 关闭时整体保持 UP，只在服务端点和主机的详情中标记 DOWN，避免下游故障导致本服务被摘除或重启
+         */
+        private boolean propagateDown = false;
+
+        public boolean isPropagateDown() {
+            return propagateDown;
+        }
+
+        public void setPropagateDown(boolean propagateDown) {
+            this.propagateDown = propagateDown;
+        }
     }
 }
@@ -0,0 +1,280 @@
+package club.bugmakers.boy.registry;
+
+import club.bugmakers.boy.balancer.HostSelection;
+import club.bugmakers.boy.balancer.LoadBalancer;
+import club.bugmakers.boy.balancer.LoadBalancers;
+import club.bugmakers.boy.balancer.OutlierDetector;
+import club.bugmakers.boy.breaker.CircuitBreaker;
+import club.bugmakers.boy.cache.ResponseCache;
+import club.bugmakers.boy.coalesce.SingleFlight;
+import club.bugmakers.boy.concurrent.BoyExecutors;
+import club.bugmakers.boy.hedge.HedgePolicy;
+import club.bugmakers.boy.health.HealthCheckState;
+import club.bugmakers.boy.limit.ConcurrencyLimiter;
+import club.bugmakers.boy.limit.RateLimiter;
+import club.bugmakers.boy.metrics.EndpointMetrics;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.retry.RetryBudget;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 服务端点的运行时计划
+ * 由 ServiceEndpoint 配置编译而来，创建后不可变，可在多线程间安全共享；
+ * 同时持有该服务端点专属的线程安全运行时组件，生命周期由 EndpointRegistry 管理
+ */
+public final class EndpointPlan {
+
+    private final String id;
+    private final List<String> hosts;
+    private final List<ProxyAddress> proxies;
+    private final RetrySettings retry;
+    private final RetryBudget retryBudget;
+    private final BoyHttpClientProperties.ServiceEndpoint config;
+    private final ExecutorService executor;
+    private final LoadBalancer loadBalancer;
+    private final OutlierDetector outlierDetector;
+    private final HealthCheckState healthCheckState;
+    private final CircuitBreaker circuitBreaker;
+    private final List<CircuitBreaker> hostCircuitBreakers;
+    private final HedgePolicy hedgePolicy;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final RateLimiter rateLimiter;
+    private final ResponseCache responseCache;
+    private final SingleFlight singleFlight;
+    private final EndpointMetrics metrics;
+
+    /**
+     * 构造方法
+     * @param endpoint 服务端点配置
+     * @param properties 全局配置，用于读取服务端点未覆盖的默认值
+     */
+    EndpointPlan(BoyHttpClientProperties.ServiceEndpoint endpoint, BoyHttpClientProperties properties) {
+        if (endpoint.getHosts() == null || endpoint.getHosts().isEmpty()) {
+            throw new IllegalArgumentException("No hosts configured for endpoint: " + endpoint.getId());
+        }
+        this.id = endpoint.getId();
+        this.config = endpoint;
+
+        List<String> baseUrls = new ArrayList<>(endpoint.getHosts().size());
+        for (String host : endpoint.getHosts()) {
+            baseUrls.add(host.endsWith("/") ? host.substring(0, host.length() - 1) : host);
+        }
+        this.hosts = Collections.unmodifiableList(baseUrls);
+
+        List<ProxyAddress> proxyAddresses = new ArrayList<>();
+        if (endpoint.getProxies() != null) {
+            for (String proxy : endpoint.getProxies()) {
+                proxyAddresses.add(ProxyAddress.parse(proxy));
+            }
+        }
+        this.proxies = Collections.unmodifiableList(proxyAddresses);
+
+        this.retry = new RetrySettings(endpoint.getRetryPolicy());
+        BoyHttpClientProperties.RetryBudgetConfig budgetConfig = endpoint.getRetryBudget() != null
+                ? endpoint.getRetryBudget() : new BoyHttpClientProperties.RetryBudgetConfig();
+        this.retryBudget = budgetConfig.isEnabled() ? new RetryBudget(budgetConfig) : null;
+        this.loadBalancer = LoadBalancers.create(endpoint.getLoadBalancer(), hosts.size());
+        BoyHttpClientProperties.OutlierDetectionConfig outlierConfig = endpoint.getOutlierDetection() != null
+                ? endpoint.getOutlierDetection() : new BoyHttpClientProperties.OutlierDetectionConfig();
+        this.outlierDetector = outlierConfig.isEnabled() ? new OutlierDetector(id, outlierConfig, hosts.size()) : null;
+        BoyHttpClientProperties.HealthCheckConfig healthConfig = endpoint.getHealthCheck();
+        this.healthCheckState = healthConfig != null && healthConfig.isEnabled() ? new HealthCheckState(healthConfig, hosts.size()) : null;
+
+        BoyHttpClientProperties.CircuitBreakerConfig breakerConfig = endpoint.getCircuitBreaker();
+        if (breakerConfig != null && breakerConfig.isEnabled()) {
+            this.circuitBreaker = new CircuitBreaker(id, breakerConfig);
+            if (breakerConfig.isPerHost()) {
+                List<CircuitBreaker> breakers = new ArrayList<>(hosts.size());
+                for (String host : hosts) {
+                    breakers.add(new CircuitBreaker(id + " " + host, breakerConfig));
+                }
+                this.hostCircuitBreakers = Collections.unmodifiableList(breakers);
+            } else {
+                this.hostCircuitBreakers = null;
+            }
+        } else {
+            this.circuitBreaker = null;
+            this.hostCircuitBreakers = null;
+        }
+        BoyHttpClientProperties.RateLimitConfig rateLimitConfig = endpoint.getRateLimit();
+        this.rateLimiter = rateLimitConfig != null && rateLimitConfig.isEnabled() ? new RateLimiter(id, rateLimitConfig) : null;
+        BoyHttpClientProperties.HedgingConfig hedgingConfig = endpoint.getHedging();
+        // 对冲请求需要发往另一个主机，只有一个主机时不启用
+        this.hedgePolicy = hedgingConfig != null && hedgingConfig.isEnabled() && hosts.size() > 1 ? new HedgePolicy(id, hedgingConfig, rateLimiter) : null;
+        BoyHttpClientProperties.ConcurrencyLimitConfig limitConfig = endpoint.getConcurrencyLimit();
+        this.concurrencyLimiter = limitConfig != null && limitConfig.isEnabled() ? ConcurrencyLimiter.create(id, limitConfig) : null;
+        BoyHttpClientProperties.ResponseCacheConfig cacheConfig = endpoint.getResponseCache();
+        this.responseCache = cacheConfig != null && cacheConfig.isEnabled() ? new ResponseCache(id, cacheConfig) : null;
+        BoyHttpClientProperties.SingleFlightConfig singleFlightConfig = endpoint.getSingleFlight();
+        this.singleFlight = singleFlightConfig != null && singleFlightConfig.isEnabled() ? new SingleFlight(id, singleFlightConfig) : null;
+        this.metrics = new EndpointMetrics(id, hosts, proxies, retry.getMaxAttempts(), properties.getMetrics());
+        this.executor = BoyExecutors.newEndpointExecutor(id, endpoint.getExecutor(), properties.isVirtualThreads());
+    }
+
+    /**
+     * 拼接完整请求URL
+     * @param hostIndex 主机下标
+     * @param path 请求路径
+     * @return 完整URL
+     */
+    public String url(int hostIndex, String path) {
+        String baseUrl = hosts.get(hostIndex);
+        return path.startsWith("/") ? baseUrl + path : baseUrl + "/" + path;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 获取去掉末尾斜杠的主机基础URL列表
+     * @return 基础URL列表
+     */
+    public List<String> getHosts() {
+        return hosts;
+    }
+
+    /**
+     * 获取预解析的代理列表，未配置代理时为空列表
+     * @return 代理列表
+     */
+    public List<ProxyAddress> getProxies() {
+        return proxies;
+    }
+
+    public RetrySettings getRetry() {
+        return retry;
+    }
+
+    /**
+     * 获取重试预算，所有客户端共享
+     * @return 重试预算，未启用时为 null
+     */
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * 获取原始配置，用于读取连接池等组件的配置
+     * @return 服务端点配置
+     */
+    public BoyHttpClientProperties.ServiceEndpoint getConfig() {
+        return config;
+    }
+
+    /**
+     * 获取异步请求线程池
+     * @return 线程池
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * 获取负载均衡器，所有客户端共享同一个实例，因此未完成请求数和延迟统计是全局的
+     * @return 负载均衡器
+     */
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * 获取被动健康检查
+     * @return 被动健康检查，未启用时为 null
+     */
+    public OutlierDetector getOutlierDetector() {
+        return outlierDetector;
+    }
+
+    /**
+     * 获取主动健康检查状态
+     * @return 主动健康检查状态，未启用时为 null
+     */
+    public HealthCheckState getHealthCheckState() {
+        return healthCheckState;
+    }
+
+    /**
+     * 获取服务端点熔断器
+     * @return 熔断器，未启用时为 null
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * 获取与主机一一对应的熔断器
+     * @return 熔断器列表，未启用时为 null
+     */
+    public List<CircuitBreaker> getHostCircuitBreakers() {
+        return hostCircuitBreakers;
+    }
+
+    /**
+     * 获取对冲请求策略
+     * @return 对冲请求策略，未启用或只有一个主机时为 null
+     */
+    public HedgePolicy getHedgePolicy() {
+        return hedgePolicy;
+    }
+
+    /**
+     * 获取并发限制器，所有客户端共享
+     * @return 并发限制器，未启用时为 null
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * 获取速率限制器，所有客户端共享
+     * @return 速率限制器，未启用时为 null
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * 获取 GET 响应缓存
+     * @return 响应缓存，未启用时为 null
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * 获取相同 GET 请求合并器
+     * @return 请求合并器，未启用时为 null
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * 获取请求指标，所有客户端共享，未绑定 MeterRegistry 时不记录
+     * @return 请求指标
+     */
+    public EndpointMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 为一次请求创建主机选择状态，请求的所有尝试共用同一个实例
+     * @return 主机选择状态
+     */
+    public HostSelection newHostSelection() {
+        return new HostSelection(loadBalancer, outlierDetector, healthCheckState, circuitBreaker, hostCircuitBreakers,
+                concurrencyLimiter, hosts.size());
+    }
+
+    /**
+     * 释放运行时组件
+     */
+    void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,142 @@
+package club.bugmakers.boy.registry;
+
+import club.bugmakers.boy.dns.CachingDnsResolver;
+import club.bugmakers.boy.health.HealthChecker;
+import club.bugmakers.boy.journal.RequestJournal;
+import club.bugmakers.boy.metrics.BoyHttpClientMetrics;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.retry.RetryEngine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 服务端点注册表
+ * 启动时将 BoyHttpClientProperties 编译为按ID哈希索引的不可变运行时计划，避免请求时线性查找和重复解析；
+ * 同时持有各客户端共享的运行时组件
+ */
+@Slf4j
+public class EndpointRegistry implements Closeable {
+
+    private final Map<String, EndpointPlan> plans;
+    private final CachingDnsResolver dnsResolver;
+    private final RetryEngine retryEngine;
+    private final HealthChecker healthChecker;
+    private final BoyHttpClientMetrics metrics;
+    private final RequestJournal journal;
+
+    /**
+     * 构造方法
+     * @param properties 配置属性
+     */
+    public EndpointRegistry(BoyHttpClientProperties properties) {
+        Map<String, EndpointPlan> compiled = new HashMap<>();
+        if (properties.getEndpoints() != null) {
+            for (BoyHttpClientProperties.ServiceEndpoint endpoint : properties.getEndpoints()) {
+                if (endpoint.getId() == null) {
+                    throw new IllegalArgumentException("Endpoint id must not be null");
+                }
+                if (compiled.containsKey(endpoint.getId())) {
+                    // 与原有的查找逻辑保持一致，重复ID以第一个为准
+                    log.warn("Duplicate endpoint id {} ignored", endpoint.getId());
+                    continue;
+                }
+                compiled.put(endpoint.getId(), new EndpointPlan(endpoint, properties));
+            }
+        }
+        this.plans = Collections.unmodifiableMap(compiled);
+        this.dnsResolver = new CachingDnsResolver(properties.getDns());
+        this.retryEngine = new RetryEngine();
+        this.healthChecker = new HealthChecker(plans.values());
+        this.journal = new RequestJournal(properties.getJournal());
+        this.metrics = new BoyHttpClientMetrics(plans.values(), properties.getMetrics() == null || properties.getMetrics().isEnabled());
+        log.info("EndpointRegistry compiled {} endpoints", plans.size());
+    }
+
+    /**
+     * 查找服务端点
+     * @param endpointId 服务端点ID
+     * @return 运行时计划，不存在时返回 null
+     */
+    public EndpointPlan find(String endpointId) {
+        return endpointId != null ? plans.get(endpointId) : null;
+    }
+
+    /**
+     * 获取服务端点，不存在时抛出异常
+     * @param endpointId 服务端点ID
+     * @return 运行时计划
+     */
+    public EndpointPlan require(String endpointId) {
+        EndpointPlan plan = find(endpointId);
+        if (plan == null) {
+            throw new IllegalArgumentException("Endpoint not found: " + endpointId);
+        }
+        return plan;
+    }
+
+    /**
+     * 获取所有服务端点
+     * @return 运行时计划集合
+     */
+    public Collection<EndpointPlan> getEndpoints() {
+        return plans.values();
+    }
+
+    /**
+     * 获取服务端点数量
+     * @return 数量
+     */
+    public int size() {
+        return plans.size();
+    }
+
+    /**
+     * 获取共享的 DNS 解析缓存
+     * @return DNS 解析器
+     */
+    public CachingDnsResolver getDnsResolver() {
+        return dnsResolver;
+    }
+
+    /**
+     * 获取共享的重试引擎
+     * @return 重试引擎
+     */
+    public RetryEngine getRetryEngine() {
+        return retryEngine;
+    }
+
+    /**
+     * 获取共享的 Micrometer 指标
+     * @return 指标
+     */
+    public BoyHttpClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 获取共享的请求日志
+     * @return 请求日志
+     */
+    public RequestJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * 关闭共享的运行时组件
+     */
+    @Override
+    public void close() {
+        healthChecker.close();
+        for (EndpointPlan plan : plans.values()) {
+            plan.close();
+        }
+        retryEngine.close();
+        dnsResolver.close();
+    }
+}
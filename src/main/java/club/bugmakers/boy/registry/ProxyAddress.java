@@ -0,0 +1,84 @@
+package club.bugmakers.boy.registry;
+
+import org.apache.http.HttpHost;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+
+/**
+ * 预解析的代理地址
+ * 启动时由 host:port 字符串解析一次，请求时直接复用
+ */
+public final class ProxyAddress {
+
+    private final String value;
+    private final String host;
+    private final int port;
+    private final HttpHost httpHost;
+    private final Proxy proxy;
+
+    private ProxyAddress(String value, String host, int port) {
+        this.value = value;
+        this.host = host;
+        this.port = port;
+        this.httpHost = new HttpHost(host, port);
+        // 使用未解析的地址，避免在启动时进行 DNS 查询
+        this.proxy = new Proxy(Proxy.Type.HTTP, InetSocketAddress.createUnresolved(host, port));
+    }
+
+    /**
+     * 解析代理地址
+     * @param proxyStr 代理字符串，格式为 host:port
+     * @return 代理地址
+     */
+    public static ProxyAddress parse(String proxyStr) {
+        try {
+            String[] parts = proxyStr.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid proxy format: " + proxyStr);
+            }
+            String host = parts[0];
+            int port = Integer.parseInt(parts[1]);
+            return new ProxyAddress(proxyStr, host, port);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid proxy configuration: " + proxyStr, e);
+        }
+    }
+
+    /**
+     * 获取原始代理字符串
+     * @return 代理字符串
+     */
+    public String getValue() {
+        return value;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * 获取 Apache HttpClient 使用的代理主机
+     * @return 代理主机
+     */
+    public HttpHost getHttpHost() {
+        return httpHost;
+    }
+
+    /**
+     * 获取 java.net 使用的代理对象
+     * @return 代理对象
+     */
+    public Proxy getProxy() {
+        return proxy;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
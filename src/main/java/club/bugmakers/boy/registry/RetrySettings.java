@@ -0,0 +1,134 @@
+package club.bugmakers.boy.registry;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 解析后的重试参数
+ * 未配置重试策略时使用默认值，并预先计算好每次重试的指数退避时间
+ */
+public final class RetrySettings {
+
+    /**
+     * 未配置 retryableStatusCodes 时可重试的状态码：请求超时、限流和网关类错误
+     */
+    private static final List<Integer> DEFAULT_RETRYABLE_STATUS_CODES = Arrays.asList(408, 429, 500, 502, 503, 504);
+
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final double multiplier;
+    private final Set<Integer> retryableStatusCodes;
+    private final BoyHttpClientProperties.RetryJitter jitter;
+    private final long maxBackoffMs;
+    private final boolean respectRetryAfter;
+    private final long maxRetryAfterMs;
+    private final long[] backoffDelays;
+
+    /**
+     * 构造方法
+     * @param retryPolicy 重试策略配置，为 null 时使用默认值
+     */
+    public RetrySettings(BoyHttpClientProperties.RetryPolicy retryPolicy) {
+        BoyHttpClientProperties.RetryPolicy policy = retryPolicy != null ? retryPolicy : new BoyHttpClientProperties.RetryPolicy();
+        this.maxAttempts = policy.getMaxAttempts();
+        this.backoffMs = policy.getBackoffMs();
+        this.multiplier = policy.getMultiplier();
+        this.retryableStatusCodes = Collections.unmodifiableSet(new HashSet<>(policy.getRetryableStatusCodes() != null
+                ? policy.getRetryableStatusCodes() : DEFAULT_RETRYABLE_STATUS_CODES));
+        this.jitter = policy.getJitter() != null ? policy.getJitter() : BoyHttpClientProperties.RetryJitter.FULL;
+        this.maxBackoffMs = Math.max(backoffMs, policy.getMaxBackoffMs());
+        this.respectRetryAfter = policy.isRespectRetryAfter();
+        this.maxRetryAfterMs = policy.getMaxRetryAfterMs();
+
+        this.backoffDelays = new long[Math.max(maxAttempts, 1)];
+        for (int attempt = 1; attempt < backoffDelays.length; attempt++) {
+            backoffDelays[attempt] = exponential(attempt);
+        }
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getBackoffMs() {
+        return backoffMs;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public Set<Integer> getRetryableStatusCodes() {
+        return retryableStatusCodes;
+    }
+
+    public BoyHttpClientProperties.RetryJitter getJitter() {
+        return jitter;
+    }
+
+    /**
+     * 判断状态码是否可重试
+     * @param statusCode 状态码
+     * @return 是否可重试
+     */
+    public boolean isRetryableStatus(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * 是否遵守响应的 Retry-After 头
+     * @return 是否遵守
+     */
+    public boolean isRespectRetryAfter() {
+        return respectRetryAfter;
+    }
+
+    /**
+     * 获取 Retry-After 可接受的最长等待时间，超过时不再重试
+     * @return 等待时间（毫秒）
+     */
+    public long getMaxRetryAfterMs() {
+        return maxRetryAfterMs;
+    }
+
+    /**
+     * 获取第 attempt 次失败后不含抖动的指数退避时间，不超过 maxBackoffMs
+     * @param attempt 已失败的尝试次数，从1开始
+     * @return 退避时间（毫秒）
+     */
+    public long backoffDelay(int attempt) {
+        if (attempt < backoffDelays.length) {
+            return backoffDelays[attempt];
+        }
+        return exponential(attempt);
+    }
+
+    /**
+     * 按抖动方式计算第 attempt 次失败后实际的退避时间，避免多个实例的重试同时到达
+     * @param attempt 已失败的尝试次数，从1开始
+     * @param previousDelay 上一次的退避时间，首次重试时为 0，只有 DECORRELATED 使用
+     * @return 退避时间（毫秒）
+     */
+    public long nextDelay(int attempt, long previousDelay) {
+        switch (jitter) {
+            case FULL:
+                return ThreadLocalRandom.current().nextLong(backoffDelay(attempt) + 1);
+            case DECORRELATED:
+                long upper = Math.min(maxBackoffMs, Math.max(backoffMs, previousDelay) * 3);
+                return backoffMs + ThreadLocalRandom.current().nextLong(upper - backoffMs + 1);
+            case NONE:
+            default:
+                return backoffDelay(attempt);
+        }
+    }
+
+    private long exponential(int attempt) {
+        return (long) Math.min(maxBackoffMs, backoffMs * Math.pow(multiplier, attempt - 1));
+    }
+}
@@ -0,0 +1,48 @@
+package club.bugmakers.boy.retry;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Retry-After 响应头解析
+ */
+public final class RetryAfter {
+
+    /**
+     * 响应头名称
+     */
+    public static final String HEADER = "Retry-After";
+
+    private RetryAfter() {
+    }
+
+    /**
+     * 解析 Retry-After 头，支持秒数和 HTTP 日期两种格式
+     * @param value 响应头的值，可以为 null
+     * @return 需要等待的时间（毫秒），未设置或无法解析时为 -1，日期已过时为 0
+     */
+    public static long parse(String value) {
+        if (value == null) {
+            return -1;
+        }
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return -1;
+        }
+        if (Character.isDigit(trimmed.charAt(0))) {
+            try {
+                long seconds = Long.parseLong(trimmed);
+                return seconds > Long.MAX_VALUE / 1000 ? Long.MAX_VALUE : seconds * 1000;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        try {
+            long at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
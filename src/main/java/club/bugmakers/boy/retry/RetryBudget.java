@@ -0,0 +1,109 @@
+package club.bugmakers.boy.retry;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 服务端点的重试预算
+ * 令牌桶以千分之一令牌为单位计数：每个请求存入 budgetPercent% 个令牌，每次重试消耗一个，
+ * 另外按时间每秒补充 minRetriesPerSecond 个令牌；桶容量为 10 秒的保底补充量（至少 10 个令牌）。
+ * 后端故障时重试量因此被限制在正常流量的 budgetPercent% 加上保底量以内，不会按 maxAttempts 倍放大负载。
+ * 所有操作都是无锁的
+ */
+public class RetryBudget {
+
+    private static final long TOKEN = 1000;
+
+    /**
+     * 桶容量对应的保底补充秒数
+     */
+    private static final int CAPACITY_SECONDS = 10;
+
+    private final long depositPerRequest;
+    private final long refillPerSecond;
+    private final long capacity;
+    private final LongSupplier clock;
+    private final AtomicLong tokens;
+    private final AtomicLong lastRefill;
+
+    /**
+     * 构造方法
+     * @param config 重试预算配置
+     */
+    public RetryBudget(BoyHttpClientProperties.RetryBudgetConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    /**
+     * 构造方法
+     * @param config 重试预算配置
+     * @param clock 纳秒时钟
+     */
+    RetryBudget(BoyHttpClientProperties.RetryBudgetConfig config, LongSupplier clock) {
+        this.depositPerRequest = Math.max(0, Math.round(config.getBudgetPercent() * TOKEN / 100));
+        this.refillPerSecond = Math.max(0, config.getMinRetriesPerSecond()) * TOKEN;
+        this.capacity = Math.max(10 * TOKEN, refillPerSecond * CAPACITY_SECONDS);
+        this.clock = clock;
+        // 初始存入一秒的保底量，启动后立即发生的故障也能重试
+        this.tokens = new AtomicLong(Math.min(capacity, refillPerSecond));
+        this.lastRefill = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * 记录一个新请求，在第一次尝试前调用
+     */
+    public void onRequest() {
+        if (depositPerRequest > 0) {
+            add(depositPerRequest);
+        }
+    }
+
+    /**
+     * 尝试为一次重试消耗一个令牌
+     * @return 是否允许重试
+     */
+    public boolean tryAcquire() {
+        refill();
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    /**
+     * 获取当前可用的重试次数
+     * @return 重试次数
+     */
+    public long available() {
+        refill();
+        return tokens.get() / TOKEN;
+    }
+
+    /**
+     * 按距上次补充经过的时间补充保底令牌，只有成功更新补充时间的线程执行补充
+     */
+    private void refill() {
+        if (refillPerSecond == 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long last = lastRefill.get();
+        // 桶容量不超过 CAPACITY_SECONDS 秒的补充量，更长的间隔按此截断，避免乘法溢出
+        long elapsed = Math.min(now - last, TimeUnit.SECONDS.toNanos(CAPACITY_SECONDS));
+        long amount = elapsed * refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        if (amount > 0 && lastRefill.compareAndSet(last, now)) {
+            add(amount);
+        }
+    }
+
+    private void add(long amount) {
+        tokens.updateAndGet(current -> Math.min(capacity, current + amount));
+    }
+}
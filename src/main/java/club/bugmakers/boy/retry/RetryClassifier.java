@@ -0,0 +1,24 @@
+package club.bugmakers.boy.retry;
+
+/**
+ * 失败分类
+ * 由各客户端按自己的异常类型实现，判断失败是否可重试，并提取服务端通过 Retry-After 要求的等待时间
+ */
+public interface RetryClassifier {
+
+    /**
+     * 判断失败是否可重试
+     * @param error 失败的异常
+     * @return 是否可重试
+     */
+    boolean isRetryable(Throwable error);
+
+    /**
+     * 获取服务端要求的最短等待时间
+     * @param error 失败的异常
+     * @return 等待时间（毫秒），没有要求时为 -1
+     */
+    default long retryAfterMs(Throwable error) {
+        return -1;
+    }
+}
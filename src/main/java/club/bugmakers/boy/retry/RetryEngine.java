@@ -0,0 +1,354 @@
+package club.bugmakers.boy.retry;
+
+import club.bugmakers.boy.concurrent.BoyExecutors;
+import club.bugmakers.boy.limit.RateLimitExceededException;
+import club.bugmakers.boy.limit.RateLimiter;
+import club.bugmakers.boy.registry.RetrySettings;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 非阻塞重试引擎
+ * 失败后不在请求线程上 sleep，而是由共享的定时器在退避时间到达后把下一次尝试派发到执行器，
+ * 等待中的重试只占用定时器队列中的一个条目，少量线程即可承载大量待重试请求。
+ * 指定速率限制器时每次尝试前先预约令牌，需要等待时同样由定时器延迟派发
+ */
+@Slf4j
+public class RetryEngine implements Closeable {
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    /**
+     * 构造方法
+     */
+    public RetryEngine() {
+        this.timer = new ScheduledThreadPoolExecutor(1, BoyExecutors.namedThreadFactory("boy-retry-timer"));
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 异步执行，所有尝试都在指定的执行器中运行
+     * @param name 名称，用于日志，通常为服务端点ID
+     * @param retry 重试参数
+     * @param executor 执行器
+     * @param call 单次调用
+     * @param retryable 判断异常是否可重试
+     * @param <T> 结果类型
+     * @return 执行结果
+     */
+    public <T> RetryFuture<T> executeAsync(String name, RetrySettings retry, Executor executor, RetryableCall<T> call, Predicate<Throwable> retryable) {
+        return executeAsync(name, retry, null, executor, call, retryable::test);
+    }
+
+    /**
+     * 异步执行，所有尝试都在指定的执行器中运行
+     * @param name 名称，用于日志，通常为服务端点ID
+     * @param retry 重试参数
+     * @param budget 重试预算，为 null 时不限制
+     * @param executor 执行器
+     * @param call 单次调用
+     * @param classifier 失败分类
+     * @param <T> 结果类型
+     * @return 执行结果
+     */
+    public <T> RetryFuture<T> executeAsync(String name, RetrySettings retry, RetryBudget budget, Executor executor, RetryableCall<T> call, RetryClassifier classifier) {
+        return executeAsync(name, retry, budget, null, executor, call, classifier);
+    }
+
+    /**
+     * 异步执行，所有尝试都在指定的执行器中运行
+     * @param name 名称，用于日志，通常为服务端点ID
+     * @param retry 重试参数
+     * @param budget 重试预算，为 null 时不限制
+     * @param rateLimiter 速率限制器，为 null 时不限制
+     * @param executor 执行器
+     * @param call 单次调用
+     * @param classifier 失败分类
+     * @param <T> 结果类型
+     * @return 执行结果
+     */
+    public <T> RetryFuture<T> executeAsync(String name, RetrySettings retry, RetryBudget budget, RateLimiter rateLimiter,
+                                           Executor executor, RetryableCall<T> call, RetryClassifier classifier) {
+        Execution<T> execution = new Execution<>(name, retry, budget, rateLimiter, executor, call, classifier);
+        dispatch(execution, null);
+        return execution.future;
+    }
+
+    /**
+     * 阻塞执行，是 executeAsync 的简单封装
+     * 第一次尝试直接在调用线程上执行；失败后调用线程等待定时器交回的下一次尝试并亲自执行，
+     * 因此不占用任何其他线程池，也不再调用 Thread.sleep
+     * @param name 名称，用于日志，通常为服务端点ID
+     * @param retry 重试参数
+     * @param call 单次调用
+     * @param retryable 判断异常是否可重试
+     * @param <T> 结果类型
+     * @return 调用结果
+     * @throws Exception 最后一次尝试的异常；等待期间被中断时抛出 InterruptedException
+     */
+    public <T> T execute(String name, RetrySettings retry, RetryableCall<T> call, Predicate<Throwable> retryable) throws Exception {
+        return execute(name, retry, null, call, retryable::test);
+    }
+
+    /**
+     * 阻塞执行，是 executeAsync 的简单封装
+     * @param name 名称，用于日志，通常为服务端点ID
+     * @param retry 重试参数
+     * @param budget 重试预算，为 null 时不限制
+     * @param call 单次调用
+     * @param classifier 失败分类
+     * @param <T> 结果类型
+     * @return 调用结果
+     * @throws Exception 最后一次尝试的异常；等待期间被中断时抛出 InterruptedException
+     */
+    public <T> T execute(String name, RetrySettings retry, RetryBudget budget, RetryableCall<T> call, RetryClassifier classifier) throws Exception {
+        return execute(name, retry, budget, null, call, classifier);
+    }
+
+    /**
+     * 阻塞执行，是 executeAsync 的简单封装；等待速率限制器的令牌时调用线程同样等待定时器交回尝试
+     * @param name 名称，用于日志，通常为服务端点ID
+     * @param retry 重试参数
+     * @param budget 重试预算，为 null 时不限制
+     * @param rateLimiter 速率限制器，为 null 时不限制
+     * @param call 单次调用
+     * @param classifier 失败分类
+     * @param <T> 结果类型
+     * @return 调用结果
+     * @throws Exception 最后一次尝试的异常；等待期间被中断时抛出 InterruptedException
+     */
+    public <T> T execute(String name, RetrySettings retry, RetryBudget budget, RateLimiter rateLimiter,
+                         RetryableCall<T> call, RetryClassifier classifier) throws Exception {
+        BlockingQueue<Runnable> handoff = new LinkedBlockingQueue<>();
+        Execution<T> execution = new Execution<>(name, retry, budget, rateLimiter, handoff::add, call, classifier);
+        runAttempt(execution, null);
+
+        RetryFuture<T> future = execution.future;
+        try {
+            while (!future.isDone()) {
+                handoff.take().run();
+            }
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    /**
+     * 在共享定时器上延迟执行任务，例如发出对冲请求
+     * 定时器只有一个线程，任务应当立即返回，IO 等耗时操作需转交给执行器
+     * @param task 任务
+     * @param delayNanos 延迟（纳秒）
+     * @return 可取消的定时任务
+     * @throws RejectedExecutionException 定时器已关闭
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delayNanos) {
+        return timer.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 执行一次尝试，失败时按退避时间安排下一次尝试
+     * @param execution 执行状态
+     * @param lastError 上一次尝试的异常，首次尝试时为 null
+     * @param <T> 结果类型
+     */
+    private <T> void runAttempt(Execution<T> execution, Throwable lastError) {
+        RetryFuture<T> future = execution.future;
+        if (future.isDone()) {
+            return;
+        }
+        if (!acquirePermit(execution, lastError)) {
+            return;
+        }
+
+        int attempt = ++execution.attempts;
+        int maxAttempts = execution.retry.getMaxAttempts();
+        try {
+            future.complete(execution.call.call(attempt, future));
+        } catch (Throwable e) {
+            if (future.isCancelled()) {
+                return;
+            }
+            // 每次尝试已记录在请求日志中，这里只在重试或放弃时输出 WARN
+            log.debug("Attempt {}/{} failed for endpoint {}", attempt, maxAttempts, execution.name, e);
+            long delay = retryDelay(execution.name, execution.retry, execution.budget, execution.classifier, attempt, execution.lastDelay, e);
+            if (delay < 0) {
+                future.completeExceptionally(e);
+                return;
+            }
+
+            execution.lastDelay = delay;
+            try {
+                future.bindPending(timer.schedule(() -> dispatch(execution, e), delay, TimeUnit.MILLISECONDS));
+            } catch (RejectedExecutionException rejected) {
+                e.addSuppressed(rejected);
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * 预约本次尝试的速率限制令牌，需要等待时由定时器在等待结束后重新派发本次尝试
+     * @param execution 执行状态
+     * @param lastError 上一次尝试的异常，首次尝试时为 null
+     * @param <T> 结果类型
+     * @return 是否可以立即执行本次尝试
+     */
+    private <T> boolean acquirePermit(Execution<T> execution, Throwable lastError) {
+        if (execution.rateLimiter == null) {
+            return true;
+        }
+        if (execution.permitReserved) {
+            execution.permitReserved = false;
+            return true;
+        }
+        long wait = execution.rateLimiter.reserve();
+        if (wait == 0) {
+            return true;
+        }
+        if (wait < 0) {
+            RateLimitExceededException rejected = new RateLimitExceededException(execution.name);
+            // 重试被限流时以上一次失败的异常结束，与重试预算耗尽时一致
+            if (lastError != null) {
+                lastError.addSuppressed(rejected);
+                execution.future.completeExceptionally(lastError);
+            } else {
+                execution.future.completeExceptionally(rejected);
+            }
+            return false;
+        }
+
+        log.debug("Rate limited, delaying attempt for endpoint {} by {}ms", execution.name, TimeUnit.NANOSECONDS.toMillis(wait));
+        execution.permitReserved = true;
+        try {
+            execution.future.bindPending(timer.schedule(() -> dispatch(execution, lastError), wait, TimeUnit.NANOSECONDS));
+        } catch (RejectedExecutionException rejected) {
+            execution.future.completeExceptionally(rejected);
+        }
+        return false;
+    }
+
+    /**
+     * 决定是否重试以及退避时间，BoyWebClient 的 Reactor 重试规格共用同一套规则
+     * 依次检查失败是否可重试、尝试次数、Retry-After 是否超过上限和重试预算，
+     * 退避时间取带抖动的指数退避与 Retry-After 中的较大值；
+     * 不可重试的失败不输出日志，可重试的失败在安排重试或放弃重试时输出一条 WARN
+     * @param name 名称，用于日志，通常为服务端点ID
+     * @param retry 重试参数
+     * @param budget 重试预算，为 null 时不限制
+     * @param classifier 失败分类
+     * @param attempt 已失败的尝试次数
+     * @param previousDelay 上一次的退避时间，首次重试时为 0
+     * @param error 失败的异常
+     * @return 退避时间（毫秒），不再重试时为 -1
+     */
+    public static long retryDelay(String name, RetrySettings retry, RetryBudget budget, RetryClassifier classifier,
+                                  int attempt, long previousDelay, Throwable error) {
+        if (!classifier.isRetryable(error)) {
+            return -1;
+        }
+        if (attempt >= retry.getMaxAttempts()) {
+            if (retry.getMaxAttempts() > 1) {
+                log.warn("Max retry attempts reached for endpoint {}, giving up after {} attempts: {}", name, attempt, error.toString());
+            }
+            return -1;
+        }
+        long retryAfter = retry.isRespectRetryAfter() ? classifier.retryAfterMs(error) : -1;
+        if (retryAfter > retry.getMaxRetryAfterMs()) {
+            log.warn("Retry-After of {}ms exceeds limit of {}ms for endpoint {}, giving up", retryAfter, retry.getMaxRetryAfterMs(), name);
+            return -1;
+        }
+        if (budget != null && !budget.tryAcquire()) {
+            log.warn("Retry budget exhausted for endpoint {}, giving up", name);
+            return -1;
+        }
+        long delay = Math.max(retryAfter, retry.nextDelay(attempt, previousDelay));
+        log.warn("Attempt {}/{} failed for endpoint {}, retrying in {}ms: {}", attempt, retry.getMaxAttempts(), name, delay, error.toString());
+        return delay;
+    }
+
+    /**
+     * 把下一次尝试派发到执行器
+     * @param execution 执行状态
+     * @param lastError 上一次尝试的异常，首次派发时为 null
+     * @param <T> 结果类型
+     */
+    private <T> void dispatch(Execution<T> execution, Throwable lastError) {
+        Runnable task = () -> runAttempt(execution, lastError);
+        try {
+            if (execution.executor instanceof ExecutorService) {
+                execution.future.bindPending(((ExecutorService) execution.executor).submit(task));
+            } else {
+                execution.executor.execute(task);
+            }
+        } catch (RejectedExecutionException rejected) {
+            if (lastError != null) {
+                lastError.addSuppressed(rejected);
+                execution.future.completeExceptionally(lastError);
+            } else {
+                execution.future.completeExceptionally(rejected);
+            }
+        }
+    }
+
+    /**
+     * 关闭定时器，已安排的重试仍会按时派发
+     */
+    @Override
+    public void close() {
+        timer.shutdown();
+    }
+
+    /**
+     * 单次执行的状态
+     * @param <T> 结果类型
+     */
+    private static final class Execution<T> {
+        private final String name;
+        private final RetrySettings retry;
+        private final RetryBudget budget;
+        private final RateLimiter rateLimiter;
+        private final Executor executor;
+        private final RetryableCall<T> call;
+        private final RetryClassifier classifier;
+        private final RetryFuture<T> future = new RetryFuture<>();
+        private int attempts;
+        private long lastDelay;
+        private boolean permitReserved;
+
+        private Execution(String name, RetrySettings retry, RetryBudget budget, RateLimiter rateLimiter,
+                          Executor executor, RetryableCall<T> call, RetryClassifier classifier) {
+            this.name = name;
+            this.retry = retry;
+            this.budget = budget;
+            this.rateLimiter = rateLimiter;
+            this.executor = executor;
+            this.call = call;
+            this.classifier = classifier;
+            if (budget != null) {
+                budget.onRequest();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package club.bugmakers.boy.retry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * 可取消的重试执行结果
+ * 取消时同时取消等待中的任务或重试定时器，并中止正在进行的尝试
+ * @param <T> 结果类型
+ */
+public class RetryFuture<T> extends CompletableFuture<T> {
+
+    private volatile Future<?> pending;
+    private volatile Runnable abortAction;
+
+    /**
+     * 绑定等待执行的任务或重试定时器
+     * @param pending 任务
+     */
+    void bindPending(Future<?> pending) {
+        this.pending = pending;
+        if (isCancelled()) {
+            pending.cancel(true);
+        }
+    }
+
+    /**
+     * 绑定中止当前尝试的动作，例如中止正在进行的 HTTP 请求
+     * @param abortAction 中止动作
+     */
+    public void bindAbortAction(Runnable abortAction) {
+        this.abortAction = abortAction;
+        if (isCancelled()) {
+            abortAction.run();
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            Future<?> task = pending;
+            if (task != null) {
+                task.cancel(true);
+            }
+            Runnable abort = abortAction;
+            if (abort != null) {
+                abort.run();
+            }
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,18 @@
+package club.bugmakers.boy.retry;
+
+/**
+ * 可重试的单次调用
+ * @param <T> 结果类型
+ */
+@FunctionalInterface
+public interface RetryableCall<T> {
+
+    /**
+     * 执行一次尝试
+     * @param attempt 当前尝试次数，从1开始
+     * @param future 本次执行所属的 Future，可用于绑定中止动作
+     * @return 调用结果
+     * @throws Exception 调用失败
+     */
+    T call(int attempt, RetryFuture<T> future) throws Exception;
+}
@@ -0,0 +1,113 @@
+package club.bugmakers.boy.balancer;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadBalancersTest {
+
+    @Test
+    public void testDefaultIsRandom() {
+        LoadBalancer balancer = LoadBalancers.create(null, 3);
+        assertTrue(balancer instanceof RandomLoadBalancer);
+        for (int i = 0; i < 100; i++) {
+            int host = balancer.select();
+            assertTrue(host >= 0 && host < 3);
+        }
+    }
+
+    @Test
+    public void testRoundRobin() {
+        LoadBalancer balancer = LoadBalancers.create(config(BoyHttpClientProperties.LoadBalancerStrategy.ROUND_ROBIN), 3);
+        int[] selected = new int[6];
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = balancer.select();
+        }
+        assertArrayEquals(new int[]{0, 1, 2, 0, 1, 2}, selected);
+    }
+
+    @Test
+    public void testWeighted() {
+        BoyHttpClientProperties.LoadBalancerConfig config = config(BoyHttpClientProperties.LoadBalancerStrategy.WEIGHTED);
+        config.setWeights(Arrays.asList(1, 3, 0));
+        LoadBalancer balancer = LoadBalancers.create(config, 3);
+
+        int[] counts = new int[3];
+        for (int i = 0; i < 40000; i++) {
+            counts[balancer.select()]++;
+        }
+        // 权重 1:3，权重为 0 的主机不会被选中
+        assertEquals(0, counts[2]);
+        assertEquals(0.75, counts[1] / 40000.0, 0.02);
+
+        config.setWeights(Arrays.asList(1, 2));
+        assertThrows(IllegalArgumentException.class, () -> LoadBalancers.create(config, 3));
+        config.setWeights(Arrays.asList(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> LoadBalancers.create(config, 3));
+    }
+
+    @Test
+    public void testLeastRequests() {
+        LoadBalancer balancer = LoadBalancers.create(config(BoyHttpClientProperties.LoadBalancerStrategy.LEAST_REQUESTS), 3);
+        balancer.onStart(0);
+        balancer.onStart(0);
+        balancer.onStart(1);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(2, balancer.select());
+        }
+        balancer.onStart(2);
+        balancer.onStart(2);
+        balancer.onComplete(1, 0, true);
+        assertEquals(1, balancer.select());
+    }
+
+    @Test
+    public void testPeakEwmaAvoidsSlowHost() {
+        AtomicLong clock = new AtomicLong(1);
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(2, 10000, clock::get);
+        record(balancer, clock, 0, 5);
+        record(balancer, clock, 1, 200);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, balancer.select());
+        }
+
+        // 延迟上升立即生效，下降则按时间衰减
+        record(balancer, clock, 0, 500);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), balancer.getEwmaNanos(0), 1);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        record(balancer, clock, 0, 5);
+        assertTrue(balancer.getEwmaNanos(0) < TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(0, balancer.select());
+    }
+
+    @Test
+    public void testPeakEwmaPenalizesFailures() {
+        AtomicLong clock = new AtomicLong(1);
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(2, 10000, clock::get);
+        record(balancer, clock, 0, 10);
+        record(balancer, clock, 1, 10);
+
+        // 快速失败的主机不会因为延迟低而被优先选择
+        balancer.onStart(1);
+        balancer.onComplete(1, TimeUnit.MILLISECONDS.toNanos(1), false);
+        assertEquals(0, balancer.select());
+    }
+
+    private static void record(LoadBalancer balancer, AtomicLong clock, int host, long latencyMs) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        balancer.onStart(host);
+        balancer.onComplete(host, TimeUnit.MILLISECONDS.toNanos(latencyMs), true);
+    }
+
+    private static BoyHttpClientProperties.LoadBalancerConfig config(BoyHttpClientProperties.LoadBalancerStrategy strategy) {
+        BoyHttpClientProperties.LoadBalancerConfig config = new BoyHttpClientProperties.LoadBalancerConfig();
+        config.setStrategy(strategy);
+        return config;
+    }
+}
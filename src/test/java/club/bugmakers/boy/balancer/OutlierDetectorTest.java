@@ -0,0 +1,146 @@
+package club.bugmakers.boy.balancer;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutlierDetectorTest {
+
+    private final AtomicLong clock = new AtomicLong(1);
+
+    @Test
+    public void testConsecutiveFailuresWithExponentialEjection() {
+        OutlierDetector detector = new OutlierDetector("test", config(), 4, clock::get);
+
+        fail(detector, 0, 2);
+        assertFalse(detector.isEjected(0));
+        fail(detector, 0, 1);
+        assertTrue(detector.isEjected(0));
+
+        // 第一次摘除 1s
+        advance(999);
+        assertTrue(detector.isEjected(0));
+        advance(2);
+        assertFalse(detector.isEjected(0));
+
+        // 恢复后立即再次失败，摘除时长翻倍
+        fail(detector, 0, 3);
+        advance(1500);
+        assertTrue(detector.isEjected(0));
+        advance(600);
+        assertFalse(detector.isEjected(0));
+
+        // 成功请求重置连续失败次数
+        fail(detector, 0, 2);
+        detector.record(0, ms(10), true);
+        fail(detector, 0, 2);
+        assertFalse(detector.isEjected(0));
+    }
+
+    @Test
+    public void testFailureRate() {
+        BoyHttpClientProperties.OutlierDetectionConfig config = config();
+        config.setConsecutiveFailures(0);
+        OutlierDetector detector = new OutlierDetector("test", config, 4, clock::get);
+
+        for (int i = 0; i < 8; i++) {
+            detector.record(1, ms(10), i % 2 == 0);
+        }
+        assertFalse(detector.isEjected(1));
+        detector.record(1, ms(10), true);
+        detector.record(1, ms(10), false);
+        assertTrue(detector.isEjected(1));
+
+        // 阈值是百分比，与熔断器一致
+        config.setFailureRateThreshold(40);
+        OutlierDetector percent = new OutlierDetector("test", config, 4, clock::get);
+        for (int i = 0; i < 10; i++) {
+            percent.record(2, ms(10), i % 2 == 0);
+        }
+        assertTrue(percent.isEjected(2));
+    }
+
+    @Test
+    public void testLatencyOutlier() {
+        OutlierDetector detector = new OutlierDetector("test", config(), 4, clock::get);
+        for (int i = 0; i < 10; i++) {
+            detector.record(0, ms(10), true);
+            detector.record(1, ms(12), true);
+            detector.record(2, ms(11), true);
+        }
+        for (int i = 0; i < 9; i++) {
+            detector.record(3, ms(200), true);
+        }
+        assertFalse(detector.isEjected(3));
+        detector.record(3, ms(200), true);
+        assertTrue(detector.isEjected(3));
+        assertFalse(detector.isEjected(0));
+    }
+
+    @Test
+    public void testMaxEjectionPercent() {
+        OutlierDetector detector = new OutlierDetector("test", config(), 4, clock::get);
+        for (int host = 0; host < 4; host++) {
+            fail(detector, host, 3);
+        }
+        int ejected = 0;
+        for (int host = 0; host < 4; host++) {
+            ejected += detector.isEjected(host) ? 1 : 0;
+        }
+        assertEquals(2, ejected);
+    }
+
+    @Test
+    public void testSelectionExcludesTriedAndEjectedHosts() {
+        OutlierDetector detector = new OutlierDetector("test", config(), 4, clock::get);
+        fail(detector, 2, 3);
+        LoadBalancer balancer = new RoundRobinLoadBalancer(4);
+
+        for (int i = 0; i < 20; i++) {
+            HostSelection selection = new HostSelection(balancer, detector, 4);
+            Set<Integer> selected = new HashSet<>();
+            for (int attempt = 0; attempt < 3; attempt++) {
+                int host = selection.select();
+                assertNotEquals(2, host);
+                assertTrue(selected.add(host));
+            }
+            // 健康主机都已尝试过，再次选择时回到健康主机而不是被摘除的主机
+            assertNotEquals(2, selection.select());
+        }
+    }
+
+    @Test
+    public void testSelectionWithSingleHost() {
+        HostSelection selection = new HostSelection(new RandomLoadBalancer(1), null, 1);
+        assertEquals(0, selection.select());
+        assertEquals(0, selection.select());
+    }
+
+    private void fail(OutlierDetector detector, int host, int times) {
+        for (int i = 0; i < times; i++) {
+            detector.record(host, ms(1), false);
+        }
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static BoyHttpClientProperties.OutlierDetectionConfig config() {
+        BoyHttpClientProperties.OutlierDetectionConfig config = new BoyHttpClientProperties.OutlierDetectionConfig();
+        config.setConsecutiveFailures(3);
+        config.setBaseEjectionMs(1000);
+        config.setMaxEjectionMs(10000);
+        return config;
+    }
+}
@@ -0,0 +1,173 @@
+package club.bugmakers.boy.breaker;
+
+import club.bugmakers.boy.balancer.HostSelection;
+import club.bugmakers.boy.balancer.RoundRobinLoadBalancer;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong(1);
+
+    @Test
+    public void testOpensOnFailureRate() {
+        CircuitBreaker breaker = new CircuitBreaker("test", config(), clock::get);
+        // 未达到最少调用次数前不会打开
+        for (int i = 0; i < 4; i++) {
+            record(breaker, 1, false);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        record(breaker, 1, true);
+        // 4/5 失败
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertFalse(breaker.isCallPermitted());
+    }
+
+    @Test
+    public void testSlidingWindowEvictsOldResults() {
+        CircuitBreaker breaker = new CircuitBreaker("test", config(), clock::get);
+        for (int i = 0; i < 10; i++) {
+            record(breaker, 1, true);
+        }
+        for (int i = 0; i < 4; i++) {
+            record(breaker, 1, false);
+        }
+        for (int i = 0; i < 10; i++) {
+            record(breaker, 1, true);
+        }
+        // 窗口大小 10，早期的失败已被移出窗口
+        for (int i = 0; i < 4; i++) {
+            record(breaker, 1, false);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        record(breaker, 1, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testOpensOnSlowCallRate() {
+        BoyHttpClientProperties.CircuitBreakerConfig config = config();
+        config.setSlowCallRateThreshold(60);
+        CircuitBreaker breaker = new CircuitBreaker("test", config, clock::get);
+        record(breaker, 10, true);
+        record(breaker, 10, true);
+        record(breaker, 500, true);
+        record(breaker, 500, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        record(breaker, 500, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenProbes() {
+        CircuitBreaker breaker = new CircuitBreaker("test", config(), clock::get);
+        open(breaker);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertTrue(breaker.isCallPermitted());
+        // 半开状态只放行 2 次探测
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+
+        // 归还未使用的许可
+        breaker.releasePermission();
+        assertTrue(breaker.tryAcquirePermission());
+
+        breaker.onResult(ms(1), true);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(ms(1), true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testHalfOpenFailureReopens() {
+        CircuitBreaker breaker = new CircuitBreaker("test", config(), clock::get);
+        open(breaker);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onResult(ms(1), false);
+        breaker.onResult(ms(1), true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testHostSelectionTakesHostPermit() {
+        BoyHttpClientProperties.CircuitBreakerConfig config = config();
+        config.setHalfOpenCalls(1);
+        List<CircuitBreaker> hosts = Arrays.asList(new CircuitBreaker("test h0", config, clock::get),
+                new CircuitBreaker("test h1", config, clock::get));
+        open(hosts.get(0));
+
+        // 熔断的主机不会被选中
+        for (int i = 0; i < 4; i++) {
+            HostSelection selection = newSelection(hosts);
+            assertEquals(1, selection.select());
+            selection.onCancel(1, ms(1));
+        }
+
+        // 所有主机都熔断时直接拒绝，不再发出不计入统计的请求
+        open(hosts.get(1));
+        assertThrows(CircuitBreakerOpenException.class, () -> newSelection(hosts).select());
+
+        // 半开后每个主机只放行一次探测，探测名额用完时同样拒绝
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        HostSelection first = newSelection(hosts);
+        HostSelection second = newSelection(hosts);
+        int firstHost = first.select();
+        int secondHost = second.select();
+        assertNotEquals(firstHost, secondHost);
+        assertThrows(CircuitBreakerOpenException.class, () -> newSelection(hosts).select());
+
+        // 成功的探测关闭熔断器，放弃的尝试归还探测名额
+        first.onComplete(firstHost, ms(1), true);
+        second.abort(secondHost);
+        assertEquals(CircuitBreaker.State.CLOSED, hosts.get(firstHost).getState());
+        assertTrue(hosts.get(secondHost).tryAcquirePermission());
+    }
+
+    private static HostSelection newSelection(List<CircuitBreaker> hosts) {
+        return new HostSelection(new RoundRobinLoadBalancer(hosts.size()), null, null, null, hosts, hosts.size());
+    }
+
+    private void open(CircuitBreaker breaker) {
+        for (int i = 0; i < 5; i++) {
+            record(breaker, 1, false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static void record(CircuitBreaker breaker, long latencyMs, boolean success) {
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onResult(ms(latencyMs), success);
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static BoyHttpClientProperties.CircuitBreakerConfig config() {
+        BoyHttpClientProperties.CircuitBreakerConfig config = new BoyHttpClientProperties.CircuitBreakerConfig();
+        config.setEnabled(true);
+        config.setWindowSize(10);
+        config.setMinimumCalls(5);
+        config.setFailureRateThreshold(50);
+        config.setSlowCallDurationMs(100);
+        config.setOpenDurationMs(1000);
+        config.setHalfOpenCalls(2);
+        return config;
+    }
+}
@@ -0,0 +1,173 @@
+package club.bugmakers.boy.cache;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+
+    private static final byte[] BODY = "ok".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Test
+    public void testMaxAgeFreshness() {
+        ResponseCache cache = cache(10, 0);
+        assertNull(cache.get("/a"));
+        assertTrue(cache.put("/a", 200, headers("max-age=10"), BODY));
+
+        CachedResponse cached = cache.get("/a");
+        assertNotNull(cached);
+        assertTrue(cache.isFresh(cached));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // 过期且没有验证器，查找时移除
+        now.addAndGet(10_000);
+        assertNull(cache.get("/a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testUnstorableResponses() {
+        ResponseCache cache = cache(10, 0);
+        assertFalse(cache.put("/a", 200, headers("no-store, max-age=60"), BODY));
+        assertFalse(cache.put("/b", 500, headers("max-age=60"), BODY));
+        // 既不新鲜也没有验证器
+        assertFalse(cache.put("/c", 200, new HttpHeaders(), BODY));
+        HttpHeaders vary = headers("max-age=60");
+        vary.setVary(Collections.singletonList("*"));
+        assertFalse(cache.put("/d", 200, vary, BODY));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpiresAndAge() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setDate(now.get());
+        headers.setExpires(now.get() + 30_000);
+        headers.set(HttpHeaders.AGE, "20");
+        CachedResponse response = CachedResponse.of(200, headers, BODY, now.get());
+        assertNotNull(response);
+        // 30 秒新鲜期已用掉 20 秒
+        assertEquals(now.get() + 10_000, response.getExpiresAtMs());
+
+        HttpHeaders expired = new HttpHeaders();
+        expired.set(HttpHeaders.EXPIRES, "0");
+        expired.setETag("\"v1\"");
+        CachedResponse stale = CachedResponse.of(200, expired, BODY, now.get());
+        assertNotNull(stale);
+        assertFalse(stale.isFresh(now.get()));
+    }
+
+    @Test
+    public void testRevalidation() {
+        ResponseCache cache = cache(10, 0);
+        HttpHeaders headers = headers("no-cache");
+        headers.setETag("\"v1\"");
+        headers.setContentType(MediaType.TEXT_PLAIN);
+        assertTrue(cache.put("/a", 200, headers, BODY));
+
+        CachedResponse stale = cache.get("/a");
+        assertNotNull(stale);
+        assertFalse(cache.isFresh(stale));
+        HttpHeaders conditional = new HttpHeaders();
+        stale.addConditionalHeaders(conditional);
+        assertEquals("\"v1\"", conditional.getFirst(HttpHeaders.IF_NONE_MATCH));
+
+        HttpHeaders notModified = headers("max-age=60");
+        notModified.setContentLength(0);
+        CachedResponse refreshed = cache.revalidated("/a", stale, notModified);
+        assertTrue(cache.isFresh(refreshed));
+        assertArrayEquals(BODY, refreshed.getBody());
+        assertEquals(MediaType.TEXT_PLAIN, refreshed.getHeaders().getContentType());
+        // 304 的 Content-Length 不覆盖缓存的响应头
+        assertEquals(-1, refreshed.getHeaders().getContentLength());
+        assertEquals(1, cache.getRevalidationCount());
+        assertSame(refreshed, cache.get("/a"));
+    }
+
+    @Test
+    public void testFrequentEntriesSurviveScan() {
+        ResponseCache cache = cache(4, 0);
+        for (int i = 0; i < 4; i++) {
+            String key = "/hot" + i;
+            for (int j = 0; j < 5; j++) {
+                cache.get(key);
+            }
+            assertTrue(cache.put(key, 200, headers("max-age=60"), BODY));
+        }
+        // 只访问一次的新响应频率不高于最久未使用的热点项，不被接纳
+        for (int i = 0; i < 100; i++) {
+            String key = "/scan" + i;
+            assertNull(cache.get(key));
+            assertFalse(cache.put(key, 200, headers("max-age=60"), BODY));
+        }
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(cache.get("/hot" + i));
+        }
+        assertEquals(100, cache.getRejectionCount());
+        assertEquals(0, cache.getEvictionCount());
+
+        // 访问次数超过热点项后被接纳，淘汰最久未使用的项
+        for (int j = 0; j < 10; j++) {
+            cache.get("/new");
+        }
+        assertTrue(cache.put("/new", 200, headers("max-age=60"), BODY));
+        assertEquals(4, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testByteWeightedLimit() {
+        byte[] large = new byte[400];
+        ResponseCache cache = cache(100, 1000);
+        for (int i = 0; i < 2; i++) {
+            cache.get("/k" + i);
+            assertTrue(cache.put("/k" + i, 200, headers("max-age=60"), large));
+        }
+        assertTrue(cache.weight() > 800);
+        cache.get("/k2");
+        cache.get("/k2");
+        assertTrue(cache.put("/k2", 200, headers("max-age=60"), large));
+        assertEquals(2, cache.size());
+        assertTrue(cache.weight() <= 1000);
+        assertEquals(1, cache.getEvictionCount());
+
+        // 单个响应超过字节数上限
+        assertFalse(cache.put("/huge", 200, headers("max-age=60"), new byte[2000]));
+    }
+
+    @Test
+    public void testBypassAndKey() {
+        assertFalse(CachePolicy.bypass(null));
+        assertFalse(CachePolicy.bypass(Collections.singletonMap("Accept", "application/json")));
+        assertTrue(CachePolicy.bypass(Collections.singletonMap("Cache-Control", "no-cache")));
+        assertTrue(CachePolicy.bypass(Collections.singletonMap("If-None-Match", "\"v1\"")));
+        assertEquals("/a", ResponseCache.key("/a", null));
+        assertNotEquals(ResponseCache.key("/a", Collections.singletonMap("Authorization", "x")),
+                ResponseCache.key("/a", Collections.singletonMap("Authorization", "y")));
+    }
+
+    private ResponseCache cache(int maxEntries, long maxBytes) {
+        BoyHttpClientProperties.ResponseCacheConfig config = new BoyHttpClientProperties.ResponseCacheConfig();
+        config.setEnabled(true);
+        config.setMaxEntries(maxEntries);
+        config.setMaxBytes(maxBytes);
+        config.setMaxEntryBytes(1500);
+        return new ResponseCache("test", config, now::get);
+    }
+
+    private static HttpHeaders headers(String cacheControl) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(cacheControl);
+        return headers;
+    }
+}
@@ -0,0 +1,141 @@
+package club.bugmakers.boy.coalesce;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallsShareOneExecution() throws Exception {
+        SingleFlight singleFlight = new SingleFlight("test", new BoyHttpClientProperties.SingleFlightConfig());
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("/a", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+            waitUntil(() -> singleFlight.getCoalescedCount() == 7);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("result", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getLeaderCount());
+        assertEquals(0, singleFlight.inFlight());
+
+        // 上一次执行结束后到达的请求重新执行
+        assertEquals("again", singleFlight.execute("/a", () -> "again"));
+        assertEquals(2, singleFlight.getLeaderCount());
+    }
+
+    @Test
+    public void testFailureSharedWithFollowers() throws Exception {
+        SingleFlight singleFlight = new SingleFlight("test", new BoyHttpClientProperties.SingleFlightConfig());
+        CountDownLatch release = new CountDownLatch(1);
+        IOException failure = new IOException("boom");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("/a", () -> {
+                await(release);
+                throw failure;
+            }));
+            waitUntil(() -> singleFlight.inFlight() == 1);
+            Future<String> follower = executor.submit(() -> singleFlight.execute("/a", () -> "unexpected"));
+            waitUntil(() -> singleFlight.getCoalescedCount() == 1);
+            release.countDown();
+
+            assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+            assertSame(failure, assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAsyncCancellation() {
+        SingleFlight singleFlight = new SingleFlight("test", new BoyHttpClientProperties.SingleFlightConfig());
+        CompletableFuture<String> execution = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.executeAsync("/a", () -> execution);
+        CompletableFuture<String> second = singleFlight.executeAsync("/a", () -> new CompletableFuture<>());
+        assertEquals(1, singleFlight.getCoalescedCount());
+
+        // 一个等待者取消不影响其他等待者
+        assertTrue(first.cancel(true));
+        assertFalse(execution.isCancelled());
+        assertFalse(second.isDone());
+
+        // 所有等待者都取消后取消共享的执行，新请求重新执行
+        assertTrue(second.cancel(true));
+        assertTrue(execution.isCancelled());
+        assertEquals(0, singleFlight.inFlight());
+        assertEquals("fresh", singleFlight.executeAsync("/a", () -> CompletableFuture.completedFuture("fresh")).join());
+    }
+
+    @Test
+    public void testKeyHeaders() {
+        SingleFlight all = new SingleFlight("test", new BoyHttpClientProperties.SingleFlightConfig());
+        assertEquals("/a", all.key("/a", null));
+        assertNotEquals(all.key("/a", Collections.singletonMap("Authorization", "x")),
+                all.key("/a", Collections.singletonMap("Authorization", "y")));
+
+        BoyHttpClientProperties.SingleFlightConfig config = new BoyHttpClientProperties.SingleFlightConfig();
+        config.setKeyHeaders(Arrays.asList("Accept-Language"));
+        SingleFlight selected = new SingleFlight("test", config);
+        Map<String, String> zh = new HashMap<>();
+        zh.put("accept-language", "zh");
+        zh.put("X-Request-Id", "1");
+        Map<String, String> zhOther = new HashMap<>();
+        zhOther.put("Accept-Language", "zh");
+        zhOther.put("X-Request-Id", "2");
+        // 未列出的请求头不参与合并键，名称不区分大小写
+        assertEquals(selected.key("/a", zh), selected.key("/a", zhOther));
+        assertNotEquals(selected.key("/a", zh), selected.key("/a", Collections.singletonMap("Accept-Language", "en")));
+        assertEquals("/a", selected.key("/a", Collections.singletonMap("X-Request-Id", "1")));
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IOException("latch timeout");
+            }
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
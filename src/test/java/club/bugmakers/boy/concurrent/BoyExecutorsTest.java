@@ -0,0 +1,77 @@
+package club.bugmakers.boy.concurrent;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyExecutorsTest {
+
+    @Test
+    public void testPlatformExecutor() {
+        BoyHttpClientProperties.ExecutorConfig config = new BoyHttpClientProperties.ExecutorConfig();
+        config.setThreads(4);
+        ExecutorService executor = BoyExecutors.newEndpointExecutor("service1", config, false);
+        try {
+            assertTrue(executor instanceof ThreadPoolExecutor);
+            assertEquals(4, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsFallback() {
+        // 端点配置优先于全局配置；不支持虚拟线程的运行环境回退到平台线程池
+        BoyHttpClientProperties.ExecutorConfig config = new BoyHttpClientProperties.ExecutorConfig();
+        config.setVirtualThreads(true);
+        ExecutorService executor = BoyExecutors.newEndpointExecutor("service1", config, false);
+        try {
+            assertEquals(!VirtualThreads.isSupported(), executor instanceof ThreadPoolExecutor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBoundedExecutorRejects() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = new BoundedExecutorService(Executors.newCachedThreadPool(), 2);
+        try {
+            Runnable blocking = () -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            executor.execute(blocking);
+            executor.execute(blocking);
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(blocking));
+
+            // 任务结束后释放许可，许可在任务返回后才归还，需等待
+            release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (true) {
+                try {
+                    executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+                    break;
+                } catch (RejectedExecutionException e) {
+                    if (System.nanoTime() > deadline) {
+                        throw e;
+                    }
+                    Thread.sleep(10);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
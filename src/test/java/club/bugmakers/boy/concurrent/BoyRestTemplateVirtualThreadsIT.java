@@ -0,0 +1,87 @@
+package club.bugmakers.boy.concurrent;
+
+import club.bugmakers.boy.core.BatchResult;
+import club.bugmakers.boy.core.BoyRestTemplate;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 基于打包后的多版本 JAR 验证 BoyRestTemplate 在虚拟线程上并发请求数超过每路由连接数时不会占满载体线程
+ */
+public class BoyRestTemplateVirtualThreadsIT {
+
+    private static final int CALLS = 200;
+    private static final int MAX_PER_ROUTE = 2;
+
+    @Test
+    public void testMoreVirtualThreadsThanConnections() throws Exception {
+        assumeTrue(VirtualThreadsIT.javaVersion() >= 21, "Requires Java 21 or later");
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), CALLS);
+        server.setExecutor(Executors.newFixedThreadPool(MAX_PER_ROUTE));
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+
+        BoyHttpClientProperties.PoolConfig pool = new BoyHttpClientProperties.PoolConfig();
+        pool.setMaxPerRoute(MAX_PER_ROUTE);
+        pool.setLeaseTimeoutMs(30000);
+        BoyHttpClientProperties.ExecutorConfig executor = new BoyHttpClientProperties.ExecutorConfig();
+        executor.setThreads(CALLS);
+        executor.setVirtualThreads(true);
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setPool(pool);
+        endpoint.setExecutor(executor);
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+
+        ExecutorService callers = BoyExecutors.newEndpointExecutor("callers", executor, true);
+        try (BoyRestTemplate restTemplate = new BoyRestTemplate(properties)) {
+            // 调用方自身运行在虚拟线程上
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLS; i++) {
+                results.add(callers.submit(() -> restTemplate.getForObject("local", "/item", String.class)));
+            }
+            for (Future<String> result : results) {
+                assertEquals("ok", result.get(60, TimeUnit.SECONDS));
+            }
+
+            // 批量请求的辅助线程运行在服务端点的虚拟线程池上
+            List<String> paths = Collections.nCopies(CALLS, "/item");
+            for (BatchResult<String> result : restTemplate.getForObjects("local", paths, String.class, CALLS)) {
+                assertEquals("ok", result.getOrThrow());
+            }
+        } finally {
+            callers.shutdownNow();
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package club.bugmakers.boy.concurrent;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import club.bugmakers.boy.core.BoyHttpClient;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 平台线程与虚拟线程的吞吐量对比
+ * 对本地桩服务同时发起 N 个异步请求（默认 10000），桩服务对每个请求固定延迟后返回。
+ * 运行方式（需要 JDK 21）：mvn verify -Dit.test=VirtualThreadBenchmarkIT -Dboy.benchmark=true
+ * 可选参数：boy.benchmark.concurrency、boy.benchmark.latencyMs、boy.benchmark.platformThreads、
+ * boy.benchmark.connections、boy.benchmark.rounds
+ */
+@EnabledIfSystemProperty(named = "boy.benchmark", matches = "true")
+public class VirtualThreadBenchmarkIT {
+
+    private final int concurrency = Integer.getInteger("boy.benchmark.concurrency", 10000);
+    private final int latencyMs = Integer.getInteger("boy.benchmark.latencyMs", 50);
+    private final int platformThreads = Integer.getInteger("boy.benchmark.platformThreads", 200);
+    private final int connections = Integer.getInteger("boy.benchmark.connections", 2000);
+    private final int rounds = Integer.getInteger("boy.benchmark.rounds", 3);
+
+    @Test
+    public void benchmark() throws Exception {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        // JDK 自带 HttpServer 默认最多保留 200 个空闲连接，其余会被关闭，需与客户端连接数一致才能复用长连接
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(connections));
+        // 桩服务固定使用平台线程，避免 HttpServer 内部的 synchronized 块占住虚拟线程的载体线程而影响客户端
+        ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), concurrency);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+
+        try {
+            String baseUrl = "http://localhost:" + server.getAddress().getPort();
+            double platform = run("platform", properties(baseUrl, false));
+            double virtual = VirtualThreads.isSupported() ? run("virtual", properties(baseUrl, true)) : 0;
+            System.out.printf("concurrency=%d latencyMs=%d platformThreads=%d connections=%d%n",
+                    concurrency, latencyMs, platformThreads, connections);
+            System.out.printf("platform threads: %.0f req/s%n", platform);
+            System.out.printf("virtual threads:  %s%n", VirtualThreads.isSupported() ? String.format("%.0f req/s", virtual) : "not supported");
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    private double run(String mode, BoyHttpClientProperties properties) throws Exception {
+        try (BoyHttpClient client = new BoyHttpClient(properties)) {
+            // 预热：建立连接并触发 JIT
+            round(client);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                round(client);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double throughput = (double) concurrency * rounds / seconds;
+            System.out.printf("%s: %d requests in %.2fs%n", mode, concurrency * rounds, seconds);
+            return throughput;
+        }
+    }
+
+    private void round(BoyHttpClient client) throws Exception {
+        List<CompletableFuture<String>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(client.getAsync("stub", "/"));
+        }
+        for (CompletableFuture<String> future : futures) {
+            assertEquals("ok", future.get(1, TimeUnit.MINUTES));
+        }
+    }
+
+    private BoyHttpClientProperties properties(String baseUrl, boolean virtualThreads) {
+        BoyHttpClientProperties.ExecutorConfig executor = new BoyHttpClientProperties.ExecutorConfig();
+        executor.setThreads(platformThreads);
+        executor.setQueueCapacity(concurrency);
+        executor.setVirtualThreads(virtualThreads);
+
+        BoyHttpClientProperties.PoolConfig pool = new BoyHttpClientProperties.PoolConfig();
+        pool.setMaxTotal(connections);
+        pool.setMaxPerRoute(connections);
+        pool.setLeaseTimeoutMs(60000);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("stub");
+        endpoint.setHosts(Collections.singletonList(baseUrl));
+        endpoint.setExecutor(executor);
+        endpoint.setPool(pool);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
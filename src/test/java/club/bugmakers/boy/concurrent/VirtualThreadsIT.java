@@ -0,0 +1,39 @@
+package club.bugmakers.boy.concurrent;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 基于打包后的多版本 JAR 验证 Java 21 的虚拟线程实现
+ */
+public class VirtualThreadsIT {
+
+    @Test
+    public void testVirtualThreadExecutor() throws Exception {
+        assumeTrue(javaVersion() >= 21, "Requires Java 21 or later");
+        assertTrue(VirtualThreads.isSupported());
+
+        BoyHttpClientProperties.ExecutorConfig config = new BoyHttpClientProperties.ExecutorConfig();
+        ExecutorService executor = BoyExecutors.newEndpointExecutor("service1", config, true);
+        try {
+            assertFalse(executor instanceof ThreadPoolExecutor);
+            Boolean virtual = executor.submit(() -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                    .get(5, TimeUnit.SECONDS);
+            assertTrue(virtual);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static int javaVersion() {
+        String version = System.getProperty("java.specification.version");
+        return version.startsWith("1.") ? Integer.parseInt(version.substring(2)) : Integer.parseInt(version);
+    }
+}
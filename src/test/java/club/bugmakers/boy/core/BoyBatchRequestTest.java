@@ -0,0 +1,127 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyBatchRequestTest {
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final List<AtomicInteger> served = new ArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    public void startServers() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            AtomicInteger count = new AtomicInteger();
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/items", exchange -> {
+                count.incrementAndGet();
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                String id = exchange.getRequestURI().getPath().substring("/items/".length());
+                int status = id.equals("missing") ? 404 : 200;
+                byte[] response = ("item-" + id).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain");
+                exchange.sendResponseHeaders(status, response.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(response);
+                }
+            });
+            server.start();
+            servers.add(server);
+            served.add(count);
+        }
+    }
+
+    @AfterEach
+    public void stopServers() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    public void testResultsInOrderWithPartialFailures() {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            paths.add(i == 7 ? "/items/missing" : "/items/" + i);
+        }
+        ConcurrentLinkedQueue<BatchResult<String>> completed = new ConcurrentLinkedQueue<>();
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyRestTemplate restTemplate = new BoyRestTemplate(registry, new BoyClientHttpRequestFactory())) {
+            List<BatchResult<String>> results = restTemplate.getForObjects("local", paths, null, String.class, 8, completed::add);
+
+            assertEquals(40, results.size());
+            for (int i = 0; i < 40; i++) {
+                BatchResult<String> result = results.get(i);
+                assertEquals(i, result.getIndex());
+                assertEquals(paths.get(i), result.getPath());
+                if (i == 7) {
+                    assertFalse(result.isSuccess());
+                    assertTrue(result.getError() instanceof HttpClientErrorException);
+                    assertThrows(HttpClientErrorException.class, result::getOrThrow);
+                } else {
+                    assertEquals("item-" + i, result.getOrThrow());
+                }
+            }
+            assertEquals(40, completed.size());
+        }
+        // 并行执行且不超过并行数，轮询把请求分散到两个主机
+        assertTrue(maxInFlight.get() > 1, "max in flight: " + maxInFlight.get());
+        assertTrue(maxInFlight.get() <= 8, "max in flight: " + maxInFlight.get());
+        assertEquals(20, served.get(0).get());
+        assertEquals(20, served.get(1).get());
+    }
+
+    @Test
+    public void testSequentialAndEmptyBatch() {
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyRestTemplate restTemplate = new BoyRestTemplate(registry, new BoyClientHttpRequestFactory())) {
+            assertTrue(restTemplate.getForObjects("local", Collections.<String>emptyList(), String.class, 4).isEmpty());
+
+            List<BatchResult<String>> results = restTemplate.getForObjects("local", Arrays.asList("/items/a", "/items/b", "/items/c"), String.class, 1);
+            assertEquals(Arrays.asList("item-a", "item-b", "item-c"), Arrays.asList(results.get(0).getValue(), results.get(1).getValue(), results.get(2).getValue()));
+            assertEquals(1, maxInFlight.get());
+
+            assertThrows(IllegalArgumentException.class, () -> restTemplate.getForObjects("local", Collections.singletonList("/items/a"), String.class, 0));
+        }
+    }
+
+    private BoyHttpClientProperties properties() {
+        BoyHttpClientProperties.LoadBalancerConfig loadBalancer = new BoyHttpClientProperties.LoadBalancerConfig();
+        loadBalancer.setStrategy(BoyHttpClientProperties.LoadBalancerStrategy.ROUND_ROBIN);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Arrays.asList("http://localhost:" + servers.get(0).getAddress().getPort(),
+                "http://localhost:" + servers.get(1).getAddress().getPort()));
+        endpoint.setLoadBalancer(loadBalancer);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
@@ -0,0 +1,113 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.breaker.CircuitBreaker;
+import club.bugmakers.boy.breaker.CircuitBreakerOpenException;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyCircuitBreakerTest {
+
+    private HttpServer server;
+    private final AtomicBoolean failing = new AtomicBoolean(true);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api", exchange -> {
+            calls.incrementAndGet();
+            if (failing.get()) {
+                respond(exchange, 503, "unavailable");
+            } else {
+                respond(exchange, 200, "ok");
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testHttpClientFailsFastAndRecovers() throws Exception {
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyHttpClient client = new BoyHttpClient(registry)) {
+            // 两次请求共 4 次尝试后熔断，第二次请求的最后一次尝试被直接拒绝
+            assertThrows(HttpStatusException.class, () -> client.get("local", "/api"));
+            assertThrows(CircuitBreakerOpenException.class, () -> client.get("local", "/api"));
+            assertEquals(4, calls.get());
+            assertEquals(CircuitBreaker.State.OPEN, registry.require("local").getCircuitBreaker().getState());
+
+            // 打开期间不再发出请求，也不再重试
+            for (int i = 0; i < 10; i++) {
+                assertThrows(CircuitBreakerOpenException.class, () -> client.get("local", "/api"));
+            }
+            assertEquals(4, calls.get());
+
+            // 半开后探测成功，熔断器关闭
+            failing.set(false);
+            Thread.sleep(250);
+            assertEquals("ok", client.get("local", "/api"));
+            assertEquals(CircuitBreaker.State.CLOSED, registry.require("local").getCircuitBreaker().getState());
+        }
+    }
+
+    @Test
+    public void testRestTemplateFailsFast() {
+        try (BoyRestTemplate restTemplate = new BoyRestTemplate(properties())) {
+            assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject("local", "/api", String.class));
+            assertThrows(CircuitBreakerOpenException.class, () -> restTemplate.getForObject("local", "/api", String.class));
+            assertThrows(CircuitBreakerOpenException.class, () -> restTemplate.getForObject("local", "/api", String.class));
+            assertEquals(4, calls.get());
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private BoyHttpClientProperties properties() {
+        BoyHttpClientProperties.CircuitBreakerConfig circuitBreaker = new BoyHttpClientProperties.CircuitBreakerConfig();
+        circuitBreaker.setEnabled(true);
+        circuitBreaker.setWindowSize(10);
+        circuitBreaker.setMinimumCalls(4);
+        circuitBreaker.setOpenDurationMs(200);
+        circuitBreaker.setHalfOpenCalls(1);
+
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(3);
+        retryPolicy.setBackoffMs(1);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setRetryPolicy(retryPolicy);
+        endpoint.setCircuitBreaker(circuitBreaker);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
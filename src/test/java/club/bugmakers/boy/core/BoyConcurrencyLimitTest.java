@@ -0,0 +1,103 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.limit.ConcurrencyLimitExceededException;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyConcurrencyLimitTest {
+
+    private HttpServer server;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch arrived = new CountDownLatch(2);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api", exchange -> {
+            calls.incrementAndGet();
+            arrived.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testExcessRequestsShedWithoutRetry() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyHttpClient client = new BoyHttpClient(registry)) {
+            Future<String> first = callers.submit(() -> client.get("local", "/api"));
+            Future<String> second = callers.submit(() -> client.get("local", "/api"));
+            assertTrue(arrived.await(5, TimeUnit.SECONDS));
+            assertEquals(2, registry.require("local").getConcurrencyLimiter().getInflight());
+
+            // 超出上限的请求立即失败，不发出也不重试
+            ConcurrencyLimitExceededException e = assertThrows(ConcurrencyLimitExceededException.class,
+                    () -> client.get("local", "/api"));
+            assertEquals("local", e.getEndpointId());
+            assertEquals(2, calls.get());
+
+            release.countDown();
+            assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+            assertEquals("ok", second.get(5, TimeUnit.SECONDS));
+            assertEquals(0, registry.require("local").getConcurrencyLimiter().getInflight());
+            assertEquals("ok", client.get("local", "/api"));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private BoyHttpClientProperties properties() {
+        BoyHttpClientProperties.ConcurrencyLimitConfig concurrencyLimit = new BoyHttpClientProperties.ConcurrencyLimitConfig();
+        concurrencyLimit.setEnabled(true);
+        concurrencyLimit.setLimit(2);
+
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(3);
+        retryPolicy.setBackoffMs(1);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setRetryPolicy(retryPolicy);
+        endpoint.setConcurrencyLimit(concurrencyLimit);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
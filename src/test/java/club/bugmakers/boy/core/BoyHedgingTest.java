@@ -0,0 +1,146 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyHedgingTest {
+
+    private final HttpServer[] servers = new HttpServer[2];
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger slowCalls = new AtomicInteger();
+    private final AtomicInteger fastCalls = new AtomicInteger();
+
+    @BeforeEach
+    public void startServers() throws Exception {
+        for (int i = 0; i < servers.length; i++) {
+            boolean slow = i == 0;
+            servers[i] = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            servers[i].createContext("/api", exchange -> {
+                if (slow) {
+                    // 模拟单个节点长时间停顿
+                    slowCalls.incrementAndGet();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    respond(exchange, "slow");
+                } else {
+                    fastCalls.incrementAndGet();
+                    respond(exchange, "fast");
+                }
+            });
+            servers[i].setExecutor(serverExecutor);
+            servers[i].start();
+        }
+    }
+
+    @AfterEach
+    public void stopServers() {
+        release.countDown();
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testHttpClientHedgesSlowHost() throws Exception {
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 4; i++) {
+                assertEquals("fast", client.get("local", "/api"));
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+            // 轮询时主请求总是先落到慢主机，对冲请求发往快主机
+            assertEquals(4, slowCalls.get());
+            assertEquals(4, fastCalls.get());
+        }
+    }
+
+    @Test
+    public void testRestTemplateHedgesSlowHost() {
+        BoyHttpClientProperties properties = properties();
+        // 每个主机只有一个连接，落败的请求不被中止时后续请求拿不到发往慢主机的连接
+        BoyHttpClientProperties.PoolConfig pool = new BoyHttpClientProperties.PoolConfig();
+        pool.setMaxPerRoute(1);
+        properties.getEndpoints().get(0).setPool(pool);
+
+        try (BoyRestTemplate restTemplate = new BoyRestTemplate(properties)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 4; i++) {
+                assertEquals("fast", restTemplate.getForObject("local", "/api", String.class));
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+            // 主请求在调用线程上发往慢主机，落败后被中止并归还连接
+            assertEquals(4, slowCalls.get());
+            assertEquals(4, fastCalls.get());
+        }
+    }
+
+    @Test
+    public void testPostIsNotHedged() throws Exception {
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            // 轮询从慢主机开始，第一个 POST 只能等慢主机返回
+            new Thread(() -> {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+                release.countDown();
+            }).start();
+            assertEquals("slow", client.post("local", "/api", "{}"));
+            assertEquals(0, fastCalls.get());
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private BoyHttpClientProperties properties() {
+        BoyHttpClientProperties.LoadBalancerConfig loadBalancer = new BoyHttpClientProperties.LoadBalancerConfig();
+        loadBalancer.setStrategy(BoyHttpClientProperties.LoadBalancerStrategy.ROUND_ROBIN);
+
+        BoyHttpClientProperties.HedgingConfig hedgingConfig = new BoyHttpClientProperties.HedgingConfig();
+        hedgingConfig.setEnabled(true);
+        hedgingConfig.setDelayMs(50);
+        hedgingConfig.setBudgetPercent(100);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Arrays.asList(
+                "http://localhost:" + servers[0].getAddress().getPort(),
+                "http://localhost:" + servers[1].getAddress().getPort()));
+        endpoint.setLoadBalancer(loadBalancer);
+        endpoint.setHedging(hedgingConfig);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
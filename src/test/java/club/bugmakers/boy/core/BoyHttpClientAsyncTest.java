@@ -0,0 +1,127 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyHttpClientAsyncTest {
+
+    private HttpServer server;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/ok", exchange -> {
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testGetAsync() throws Exception {
+        try (BoyHttpClient client = new BoyHttpClient(properties(2, 10))) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(client.getAsync("local", "/ok"));
+            }
+            for (CompletableFuture<String> future : futures) {
+                assertEquals("ok", future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals("ok", client.postAsync("local", "/ok", "{}").get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testAsyncFailure() {
+        try (BoyHttpClient client = new BoyHttpClient(properties(2, 10))) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> client.getAsync("local", "/missing").get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IOException);
+            assertThrows(IllegalArgumentException.class, () -> client.getAsync("non-existent", "/ok"));
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        try (BoyHttpClient client = new BoyHttpClient(properties(1, 10))) {
+            CompletableFuture<String> slow = client.getAsync("local", "/slow");
+            Thread.sleep(200);
+            assertTrue(slow.cancel(true));
+            assertThrows(CancellationException.class, slow::join);
+
+            // 取消后线程被释放，后续请求可以正常执行
+            assertEquals("ok", client.getAsync("local", "/ok").get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testRejectWhenSaturated() {
+        try (BoyHttpClient client = new BoyHttpClient(properties(1, 1))) {
+            client.getAsync("local", "/slow");
+            client.getAsync("local", "/slow");
+            CompletableFuture<String> rejected = client.getAsync("local", "/slow");
+            ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    private BoyHttpClientProperties properties(int threads, int queueCapacity) {
+        BoyHttpClientProperties.ExecutorConfig executor = new BoyHttpClientProperties.ExecutorConfig();
+        executor.setThreads(threads);
+        executor.setQueueCapacity(queueCapacity);
+
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(2);
+        retryPolicy.setBackoffMs(10);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setExecutor(executor);
+        endpoint.setRetryPolicy(retryPolicy);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
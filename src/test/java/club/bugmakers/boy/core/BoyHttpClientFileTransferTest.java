@@ -0,0 +1,260 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyHttpClientFileTransferTest {
+
+    private static final int FILE_SIZE = 1024 * 1024 + 123;
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2026 07:28:00 GMT";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final byte[] content = new byte[FILE_SIZE];
+    private final byte[] changed = new byte[FILE_SIZE / 2];
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> ifRanges = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger downloads = new AtomicInteger();
+    private volatile byte[] uploaded;
+    private volatile String uploadTransferEncoding;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        new Random(42).nextBytes(content);
+        new Random(7).nextBytes(changed);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/upload", exchange -> {
+            uploadTransferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+            uploaded = readAll(exchange.getRequestBody());
+            respond(exchange, 200, "uploaded".getBytes());
+        });
+        server.createContext("/download", exchange -> {
+            String range = record(exchange);
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if (downloads.incrementAndGet() == 1) {
+                // 第一次只发送一半内容后断开连接
+                sendHalf(exchange, content);
+                return;
+            }
+            if (range != null && "\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-Range"))) {
+                int start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+                exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + (content.length - 1) + "/" + content.length);
+                exchange.sendResponseHeaders(206, content.length - start);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(content, start, content.length - start);
+                }
+            } else {
+                respond(exchange, 200, content);
+            }
+        });
+        server.createContext("/changed", exchange -> {
+            record(exchange);
+            if (downloads.incrementAndGet() == 1) {
+                exchange.getResponseHeaders().set("ETag", "\"v1\"");
+                sendHalf(exchange, content);
+                return;
+            }
+            // 文件已更新，If-Range 不匹配时返回完整的新内容
+            exchange.getResponseHeaders().set("ETag", "\"v2\"");
+            respond(exchange, 200, changed);
+        });
+        server.createContext("/badrange", exchange -> {
+            String range = record(exchange);
+            exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+            if (downloads.incrementAndGet() == 1) {
+                sendHalf(exchange, content);
+                return;
+            }
+            if (range != null) {
+                // 忽略请求的起始位置，返回从 0 开始的部分内容
+                exchange.getResponseHeaders().set("Content-Range", "bytes 0-" + (content.length - 1) + "/" + content.length);
+                respond(exchange, 206, content);
+            } else {
+                respond(exchange, 200, content);
+            }
+        });
+        server.createContext("/norange", exchange -> {
+            record(exchange);
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if (downloads.incrementAndGet() == 1) {
+                sendHalf(exchange, content);
+                return;
+            }
+            // 忽略 Range，总是返回完整内容
+            respond(exchange, 200, content);
+        });
+        server.createContext("/novalidator", exchange -> {
+            record(exchange);
+            if (downloads.incrementAndGet() == 1) {
+                sendHalf(exchange, content);
+                return;
+            }
+            respond(exchange, 200, content);
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testUpload() throws Exception {
+        Path file = tempDir.resolve("report.bin");
+        Files.write(file, content);
+
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            assertEquals("uploaded", client.upload("local", "/upload", file));
+            assertArrayEquals(content, uploaded);
+            assertNull(uploadTransferEncoding);
+
+            assertEquals("uploaded", client.upload("local", "/upload", file, null, true));
+            assertArrayEquals(content, uploaded);
+            assertEquals("chunked", uploadTransferEncoding);
+
+            assertThrows(IOException.class, () -> client.upload("local", "/upload", tempDir.resolve("missing.bin")));
+        }
+    }
+
+    @Test
+    public void testDownloadResumesWithRange() throws Exception {
+        Path target = tempDir.resolve("download.bin");
+        Files.write(target, new byte[]{1, 2, 3});
+
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            assertEquals(FILE_SIZE, client.download("local", "/download", target));
+        }
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(2, ranges.size());
+        assertEquals("null", ranges.get(0));
+        assertTrue(ranges.get(1).startsWith("bytes="));
+        assertTrue(Integer.parseInt(ranges.get(1).replaceAll("\\D", "")) > 0);
+        assertEquals("\"v1\"", ifRanges.get(1));
+    }
+
+    @Test
+    public void testDownloadRestartsWhenFileChanged() throws Exception {
+        Path target = tempDir.resolve("download.bin");
+
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            assertEquals(changed.length, client.download("local", "/changed", target));
+        }
+
+        assertArrayEquals(changed, Files.readAllBytes(target));
+        assertTrue(ranges.get(1).startsWith("bytes="));
+        assertEquals("\"v1\"", ifRanges.get(1));
+    }
+
+    @Test
+    public void testDownloadRetriesFromStartOnMismatchedContentRange() throws Exception {
+        Path target = tempDir.resolve("download.bin");
+
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            assertEquals(FILE_SIZE, client.download("local", "/badrange", target));
+        }
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(3, ranges.size());
+        assertTrue(ranges.get(1).startsWith("bytes="));
+        assertEquals(LAST_MODIFIED, ifRanges.get(1));
+        // Content-Range 不匹配的 206 之后不带 Range 从头下载
+        assertEquals("null", ranges.get(2));
+        assertEquals("null", ifRanges.get(2));
+    }
+
+    @Test
+    public void testDownloadRestartsWithoutRangeSupport() throws Exception {
+        Path target = tempDir.resolve("download.bin");
+
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            assertEquals(FILE_SIZE, client.download("local", "/norange", target));
+        }
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertTrue(ranges.get(1).startsWith("bytes="));
+    }
+
+    @Test
+    public void testDownloadRestartsWithoutValidator() throws Exception {
+        Path target = tempDir.resolve("download.bin");
+
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            assertEquals(FILE_SIZE, client.download("local", "/novalidator", target));
+        }
+
+        // 无法确认文件未变化，不发送 Range
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals("null", ranges.get(1));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private String record(HttpExchange exchange) {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        ranges.add(String.valueOf(range));
+        ifRanges.add(String.valueOf(exchange.getRequestHeaders().getFirst("If-Range")));
+        return range;
+    }
+
+    private static void sendHalf(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream os = exchange.getResponseBody();
+        os.write(body, 0, body.length / 2);
+        os.flush();
+        exchange.close();
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] response) throws IOException {
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private BoyHttpClientProperties properties() {
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(3);
+        retryPolicy.setBackoffMs(10);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setRetryPolicy(retryPolicy);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
@@ -0,0 +1,106 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyHttpClientOutlierTest {
+
+    private final HttpServer[] servers = new HttpServer[3];
+    private final AtomicInteger badCalls = new AtomicInteger();
+
+    @BeforeEach
+    public void startServers() throws Exception {
+        for (int i = 0; i < servers.length; i++) {
+            boolean bad = i == 2;
+            servers[i] = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            servers[i].createContext("/ok", exchange -> {
+                if (bad) {
+                    badCalls.incrementAndGet();
+                    respond(exchange, 503, "unavailable");
+                } else {
+                    respond(exchange, 200, "ok");
+                }
+            });
+            servers[i].createContext("/missing", exchange -> respond(exchange, 404, "missing"));
+            servers[i].start();
+        }
+    }
+
+    @AfterEach
+    public void stopServers() {
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testBadHostEjectedAndExcludedOnRetry() throws Exception {
+        try (BoyHttpClient client = new BoyHttpClient(properties(2))) {
+            // 只允许重试一次，重试一定会换到另一台主机
+            for (int i = 0; i < 50; i++) {
+                assertEquals("ok", client.get("local", "/ok"));
+            }
+        }
+        // 连续失败2次后被摘除，不再收到请求
+        assertEquals(2, badCalls.get());
+    }
+
+    @Test
+    public void testClientErrorsDoNotEject() throws Exception {
+        try (EndpointRegistry registry = new EndpointRegistry(properties(1));
+             BoyHttpClient client = new BoyHttpClient(registry)) {
+            for (int i = 0; i < 10; i++) {
+                HttpStatusException e = assertThrows(HttpStatusException.class, () -> client.get("local", "/missing"));
+                assertEquals(404, e.getStatusCode());
+            }
+            for (int i = 0; i < 3; i++) {
+                assertFalse(registry.require("local").getOutlierDetector().isEjected(i));
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private BoyHttpClientProperties properties(int maxAttempts) {
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(maxAttempts);
+        retryPolicy.setBackoffMs(1);
+
+        BoyHttpClientProperties.OutlierDetectionConfig outlierDetection = new BoyHttpClientProperties.OutlierDetectionConfig();
+        outlierDetection.setConsecutiveFailures(2);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Arrays.asList(url(servers[0]), url(servers[1]), url(servers[2])));
+        endpoint.setRetryPolicy(retryPolicy);
+        endpoint.setOutlierDetection(outlierDetection);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Arrays.asList(endpoint));
+        return properties;
+    }
+
+    private static String url(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
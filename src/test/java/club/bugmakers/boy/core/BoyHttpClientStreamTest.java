@@ -0,0 +1,151 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyHttpClientStreamTest {
+
+    private static final int LARGE_SIZE = 8 * 1024 * 1024;
+    private static final String MULTIBYTE = "高可用客户端-";
+
+    private HttpServer server;
+    private final AtomicInteger errorCalls = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/large", exchange -> {
+            byte[] chunk = new byte[64 * 1024];
+            Arrays.fill(chunk, (byte) 'x');
+            exchange.sendResponseHeaders(200, LARGE_SIZE);
+            try (OutputStream os = exchange.getResponseBody()) {
+                for (int written = 0; written < LARGE_SIZE; written += chunk.length) {
+                    os.write(chunk);
+                }
+            }
+        });
+        server.createContext("/text", exchange -> {
+            // 多字节字符会跨越任意大小的读取缓冲区边界
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                text.append(MULTIBYTE);
+            }
+            respond(exchange, 200, text.toString().getBytes(StandardCharsets.UTF_8));
+        });
+        server.createContext("/error", exchange -> {
+            errorCalls.incrementAndGet();
+            respond(exchange, 500, "error".getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testStreamLargeBody() throws Exception {
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            assertEquals(LARGE_SIZE, client.getStream("local", "/large", this::count).longValue());
+
+            assertEquals(LARGE_SIZE, client.getBytes("local", "/large").length);
+        }
+    }
+
+    @Test
+    public void testReaderWithCharset() throws Exception {
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            String text = client.getReader("local", "/text", StandardCharsets.UTF_8, body -> {
+                StringBuilder builder = new StringBuilder();
+                char[] buffer = new char[7];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    builder.append(buffer, 0, read);
+                }
+                return builder.toString();
+            });
+            assertEquals(1000 * MULTIBYTE.length(), text.length());
+            assertTrue(text.startsWith(MULTIBYTE + MULTIBYTE));
+            assertEquals(text, new String(client.getBytes("local", "/text"), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testCallbackExceptionNotRetried() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            IOException e = assertThrows(IOException.class, () -> client.getStream("local", "/large", body -> {
+                calls.incrementAndGet();
+                body.read();
+                throw new IOException("callback failed");
+            }));
+            assertEquals("callback failed", e.getMessage());
+            assertEquals(1, calls.get());
+
+            // 部分读取后放弃的连接不会影响后续请求
+            assertEquals(LARGE_SIZE, client.getStream("local", "/large", this::count).longValue());
+            assertThrows(IllegalStateException.class, () -> client.getStream("local", "/large", body -> {
+                throw new IllegalStateException("runtime failure");
+            }));
+        }
+    }
+
+    @Test
+    public void testErrorStatusRetriedBeforeCallback() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        try (BoyHttpClient client = new BoyHttpClient(properties())) {
+            assertThrows(IOException.class, () -> client.getStream("local", "/error", body -> calls.incrementAndGet()));
+            assertEquals(0, calls.get());
+            assertEquals(3, errorCalls.get());
+        }
+    }
+
+    private Long count(InputStream body) throws IOException {
+        byte[] buffer = new byte[8192];
+        long count = 0;
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            count += read;
+        }
+        return count;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] response) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private BoyHttpClientProperties properties() {
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(3);
+        retryPolicy.setBackoffMs(10);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setRetryPolicy(retryPolicy);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
@@ -0,0 +1,147 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.metrics.EndpointMetrics;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyMetricsTest {
+
+    private HttpServer server;
+    private String host;
+    private final AtomicInteger flaky = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api", exchange -> respond(exchange, 200));
+        // 奇数次请求返回 503，重试后成功
+        server.createContext("/flaky", exchange -> respond(exchange, flaky.incrementAndGet() % 2 == 1 ? 503 : 200));
+        server.createContext("/down", exchange -> respond(exchange, 503));
+        server.start();
+        host = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testHttpClientRecordsRequestsAndAttempts() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (EndpointRegistry registry = new EndpointRegistry(properties(true));
+             BoyHttpClient client = new BoyHttpClient(registry)) {
+            registry.getMetrics().bindTo(meterRegistry);
+            assertEquals("ok", client.get("local", "/flaky"));
+            assertEquals("ok", client.postAsync("local", "/api", "{}").get(5, TimeUnit.SECONDS));
+
+            assertEquals(1, meterRegistry.get(EndpointMetrics.REQUESTS).tags("endpoint", "local", "method", "GET", "status", "2xx").timer().count());
+            assertEquals(1, meterRegistry.get(EndpointMetrics.ATTEMPTS)
+                    .tags("host", host, "proxy", "none", "method", "GET", "status", "5xx", "attempt", "1").timer().count());
+            assertEquals(1, meterRegistry.get(EndpointMetrics.ATTEMPTS)
+                    .tags("method", "GET", "status", "2xx", "attempt", "2").timer().count());
+            // 异步请求的计时在 Future 完成后的回调中记录，可能晚于 get() 返回
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.find(EndpointMetrics.REQUESTS).tags("method", "POST").timer() == null && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, meterRegistry.get(EndpointMetrics.REQUESTS).tags("method", "POST", "status", "2xx").timer().count());
+            assertEquals(0, meterRegistry.get("boy.http.client.inflight").tags("endpoint", "local").gauge().value());
+            assertTrue(meterRegistry.get("boy.http.client.pool.max").tags("endpoint", "local", "client", "httpclient").gauge().value() > 0);
+            assertTrue(meterRegistry.get("boy.http.client.pool.available").tags("client", "httpclient").gauge().value() >= 1);
+        }
+    }
+
+    @Test
+    public void testRestTemplateRecordsFailures() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (EndpointRegistry registry = new EndpointRegistry(properties(true));
+             BoyRestTemplate restTemplate = new BoyRestTemplate(registry, new BoyClientHttpRequestFactory())) {
+            registry.getMetrics().bindTo(meterRegistry);
+            assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject("local", "/down", String.class));
+
+            assertEquals(1, meterRegistry.get(EndpointMetrics.REQUESTS).tags("method", "GET", "status", "5xx").timer().count());
+            assertEquals(2, meterRegistry.get(EndpointMetrics.ATTEMPTS).tags("method", "GET", "status", "5xx").timers().stream()
+                    .mapToLong(timer -> timer.count()).sum());
+            assertNotNull(meterRegistry.find("boy.http.client.pool.leased").tags("client", "resttemplate").gauge());
+        }
+    }
+
+    @Test
+    public void testWebClientRecordsRequestsAndAttempts() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (EndpointRegistry registry = new EndpointRegistry(properties(true));
+             BoyWebClient client = new BoyWebClient(registry)) {
+            registry.getMetrics().bindTo(meterRegistry);
+            assertEquals("ok", client.get("local", "/flaky", String.class).block(Duration.ofSeconds(5)));
+
+            // 请求的计时在 doFinally 中记录，可能晚于 block() 返回
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.find(EndpointMetrics.REQUESTS).timer() == null && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, meterRegistry.get(EndpointMetrics.REQUESTS).tags("endpoint", "local", "method", "GET", "status", "2xx").timer().count());
+            assertEquals(1, meterRegistry.get(EndpointMetrics.ATTEMPTS)
+                    .tags("host", host, "proxy", "none", "method", "GET", "status", "5xx", "attempt", "1").timer().count());
+            assertEquals(1, meterRegistry.get(EndpointMetrics.ATTEMPTS)
+                    .tags("method", "GET", "status", "2xx", "attempt", "2").timer().count());
+            assertEquals(0, meterRegistry.get("boy.http.client.inflight").tags("endpoint", "local").gauge().value());
+        }
+    }
+
+    @Test
+    public void testDisabledMetricsRegisterNothing() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (EndpointRegistry registry = new EndpointRegistry(properties(false));
+             BoyHttpClient client = new BoyHttpClient(registry)) {
+            registry.getMetrics().bindTo(meterRegistry);
+            assertEquals("ok", client.get("local", "/api"));
+            assertTrue(meterRegistry.getMeters().isEmpty());
+        }
+    }
+
+    private BoyHttpClientProperties properties(boolean metricsEnabled) {
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(2);
+        retryPolicy.setBackoffMs(1);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList(host));
+        endpoint.setRetryPolicy(retryPolicy);
+
+        BoyHttpClientProperties.MetricsConfig metrics = new BoyHttpClientProperties.MetricsConfig();
+        metrics.setEnabled(metricsEnabled);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        properties.setMetrics(metrics);
+        return properties;
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+}
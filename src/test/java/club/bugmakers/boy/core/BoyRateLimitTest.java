@@ -0,0 +1,108 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.limit.RateLimitExceededException;
+import club.bugmakers.boy.limit.RateLimiter;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyRateLimitTest {
+
+    private HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api", exchange -> {
+            calls.incrementAndGet();
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testTryAcquireRejectsWithoutSending() throws Exception {
+        try (EndpointRegistry registry = new EndpointRegistry(properties(1, 0));
+             BoyHttpClient client = new BoyHttpClient(registry)) {
+            assertEquals("ok", client.get("local", "/api"));
+            assertEquals("ok", client.get("local", "/api"));
+            RateLimitExceededException e = assertThrows(RateLimitExceededException.class, () -> client.get("local", "/api"));
+            assertEquals("local", e.getEndpointId());
+            assertEquals(2, calls.get());
+            assertEquals(1, registry.require("local").getRateLimiter().getRejectedCount());
+        }
+    }
+
+    @Test
+    public void testAsyncRequestsWaitForPermits() throws Exception {
+        try (EndpointRegistry registry = new EndpointRegistry(properties(20, 2000));
+             BoyHttpClient client = new BoyHttpClient(registry)) {
+            long start = System.nanoTime();
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(client.getAsync("local", "/api"));
+            }
+            for (CompletableFuture<String> future : futures) {
+                assertEquals("ok", future.get(5, TimeUnit.SECONDS));
+            }
+            // 突发2个后每50ms一个令牌，后两个请求至少等待100ms
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(90));
+            RateLimiter limiter = registry.require("local").getRateLimiter();
+            assertEquals(2, limiter.getDelayedCount());
+            assertEquals(0, limiter.getRejectedCount());
+        }
+    }
+
+    @Test
+    public void testWebClientRejects() {
+        try (EndpointRegistry registry = new EndpointRegistry(properties(1, 0));
+             BoyWebClient webClient = new BoyWebClient(registry)) {
+            assertEquals("ok", webClient.get("local", "/api", String.class).block());
+            assertEquals("ok", webClient.get("local", "/api", String.class).block());
+            assertThrows(RateLimitExceededException.class, () -> webClient.get("local", "/api", String.class).block());
+            assertEquals(2, calls.get());
+        }
+    }
+
+    private BoyHttpClientProperties properties(double permitsPerSecond, long maxWaitMs) {
+        BoyHttpClientProperties.RateLimitConfig rateLimit = new BoyHttpClientProperties.RateLimitConfig();
+        rateLimit.setEnabled(true);
+        rateLimit.setPermitsPerSecond(permitsPerSecond);
+        rateLimit.setBurst(2);
+        rateLimit.setMaxWaitMs(maxWaitMs);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setRateLimit(rateLimit);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
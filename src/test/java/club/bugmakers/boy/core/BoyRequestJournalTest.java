@@ -0,0 +1,117 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.journal.RequestEvent;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyRequestJournalTest {
+
+    private HttpServer server;
+    private String host;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api", exchange -> {
+            int status = exchange.getRequestURI().getPath().endsWith("missing") ? 404 : 201;
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+        host = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testHttpClientAttemptsAreJournaled() throws Exception {
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyHttpClient client = new BoyHttpClient(registry)) {
+            assertEquals("ok", client.post("local", "/api", "{}"));
+            assertThrows(HttpStatusException.class, () -> client.get("local", "/api/missing"));
+
+            List<RequestEvent> events = registry.getJournal().recent("local", 10);
+            assertEquals(2, events.size());
+            RequestEvent failed = events.get(0);
+            assertEquals("httpclient", failed.getClient());
+            assertEquals("GET", failed.getMethod());
+            assertEquals(404, failed.getStatusCode());
+            assertEquals("HttpStatusException", failed.getError());
+            RequestEvent created = events.get(1);
+            assertEquals(201, created.getStatusCode());
+            assertEquals(host, created.getHost());
+            assertEquals("none", created.getProxy());
+            assertTrue(created.isSuccess());
+        }
+    }
+
+    @Test
+    public void testRestTemplateAttemptsAreJournaled() {
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyRestTemplate restTemplate = new BoyRestTemplate(registry, new BoyClientHttpRequestFactory())) {
+            assertEquals("ok", restTemplate.getForObject("local", "/api", String.class));
+            assertThrows(HttpClientErrorException.class, () -> restTemplate.getForObject("local", "/api/missing", String.class));
+
+            List<RequestEvent> events = registry.getJournal().recent(null, 10);
+            assertEquals(2, events.size());
+            assertEquals("resttemplate", events.get(0).getClient());
+            assertEquals(404, events.get(0).getStatusCode());
+            assertEquals(201, events.get(1).getStatusCode());
+            assertNull(events.get(1).getError());
+        }
+    }
+
+    @Test
+    public void testWebClientAttemptsAreJournaled() throws Exception {
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyWebClient client = new BoyWebClient(registry)) {
+            assertEquals("ok", client.get("local", "/api", String.class).block(Duration.ofSeconds(5)));
+            assertThrows(WebClientResponseException.class, () -> client.get("local", "/api/missing", String.class).block(Duration.ofSeconds(5)));
+
+            // 尝试在 doFinally 中记录，可能晚于 block() 返回
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (registry.getJournal().getRecordedCount() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            List<RequestEvent> events = registry.getJournal().recent("local", 10);
+            assertEquals(2, events.size());
+            assertEquals("webclient", events.get(0).getClient());
+            assertEquals(404, events.get(0).getStatusCode());
+            assertFalse(events.get(0).isSuccess());
+            assertEquals(201, events.get(1).getStatusCode());
+            assertEquals("none", events.get(1).getProxy());
+            assertTrue(events.get(1).isSuccess());
+        }
+    }
+
+    private BoyHttpClientProperties properties() {
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList(host));
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
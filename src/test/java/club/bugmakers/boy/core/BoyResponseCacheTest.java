@@ -0,0 +1,161 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.cache.ResponseCache;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyResponseCacheTest {
+
+    private HttpServer server;
+    private final AtomicInteger fresh = new AtomicInteger();
+    private final AtomicInteger etag = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicInteger noStore = new AtomicInteger();
+    private final AtomicInteger chunked = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/fresh", exchange -> {
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+            respond(exchange, 200, "fresh-" + fresh.incrementAndGet());
+        });
+        server.createContext("/etag", exchange -> {
+            etag.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            respond(exchange, 200, "etag-body");
+        });
+        server.createContext("/nostore", exchange -> {
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            respond(exchange, 200, "nostore-" + noStore.incrementAndGet());
+        });
+        server.createContext("/chunked", exchange -> {
+            chunked.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+            // 长度为 0 时以分块编码发送，响应没有 Content-Length
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(largeBody().getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testFreshResponseServedFromCache() {
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyRestTemplate restTemplate = new BoyRestTemplate(registry, new BoyClientHttpRequestFactory())) {
+            assertEquals("fresh-1", restTemplate.getForObject("local", "/fresh", String.class));
+            assertEquals("fresh-1", restTemplate.getForObject("local", "/fresh", String.class));
+            assertEquals(1, fresh.get());
+
+            // 请求头不同的请求分别缓存，带缓存控制请求头时绕过缓存
+            assertEquals("fresh-2", restTemplate.getForObject("local", "/fresh", Collections.singletonMap("X-Tenant", "a"), String.class));
+            assertEquals("fresh-3", restTemplate.getForObject("local", "/fresh", Collections.singletonMap("Cache-Control", "no-cache"), String.class));
+            assertEquals("fresh-1", restTemplate.getForObject("local", "/fresh", String.class));
+
+            ResponseCache cache = registry.require("local").getResponseCache();
+            assertEquals(2, cache.getHitCount());
+            assertEquals(2, cache.getMissCount());
+        }
+    }
+
+    @Test
+    public void testRevalidationWithETag() {
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyRestTemplate restTemplate = new BoyRestTemplate(registry, new BoyClientHttpRequestFactory())) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals("etag-body", restTemplate.getForObject("local", "/etag", String.class));
+            }
+            // no-cache 每次都重新验证，后两次收到 304 并使用缓存的响应体；
+            // JDK HttpServer 发出 304 后会关闭长连接，下一次请求可能在失效连接上失败一次后由重试完成，不影响计数
+            assertEquals(3, etag.get());
+            assertEquals(2, notModified.get());
+            assertEquals(2, registry.require("local").getResponseCache().getRevalidationCount());
+        }
+    }
+
+    @Test
+    public void testNoStoreAndPostNotCached() {
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyRestTemplate restTemplate = new BoyRestTemplate(registry, new BoyClientHttpRequestFactory())) {
+            assertEquals("nostore-1", restTemplate.getForObject("local", "/nostore", String.class));
+            assertEquals("nostore-2", restTemplate.getForObject("local", "/nostore", String.class));
+
+            assertEquals("fresh-1", restTemplate.postForObject("local", "/fresh", "x", String.class));
+            assertEquals("fresh-2", restTemplate.postForObject("local", "/fresh", "x", String.class));
+            assertEquals(0, registry.require("local").getResponseCache().size());
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    @Test
+    public void testOversizedChunkedResponseNotCached() {
+        BoyHttpClientProperties properties = properties();
+        properties.getEndpoints().get(0).getResponseCache().setMaxEntryBytes(1024);
+        try (EndpointRegistry registry = new EndpointRegistry(properties);
+             BoyRestTemplate restTemplate = new BoyRestTemplate(registry, new BoyClientHttpRequestFactory())) {
+            // 超过单条上限的响应体不缓存，已读入的开头与剩余部分拼接后完整交给消息转换器
+            assertEquals(largeBody(), restTemplate.getForObject("local", "/chunked", String.class));
+            assertEquals(largeBody(), restTemplate.getForObject("local", "/chunked", String.class));
+            assertEquals(2, chunked.get());
+            assertEquals(0, registry.require("local").getResponseCache().size());
+        }
+    }
+
+    private static String largeBody() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            body.append(i).append(',');
+        }
+        return body.toString();
+    }
+
+    private BoyHttpClientProperties properties() {
+        BoyHttpClientProperties.ResponseCacheConfig cache = new BoyHttpClientProperties.ResponseCacheConfig();
+        cache.setEnabled(true);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setResponseCache(cache);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
@@ -0,0 +1,159 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyRestTemplatePoolingTest {
+
+    private HttpServer server;
+    private HttpServer proxyA;
+    private HttpServer proxyB;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    public void startServers() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            respond(exchange, "ok");
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "slow");
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        // 代理收到的是绝对地址请求，这里直接以代理名作为响应，用于判断请求经过了哪个代理
+        proxyA = proxy("A");
+        proxyB = proxy("B");
+    }
+
+    @AfterEach
+    public void stopServers() {
+        server.stop(0);
+        proxyA.stop(0);
+        proxyB.stop(0);
+    }
+
+    @Test
+    public void testConnectionsAreReused() {
+        try (BoyRestTemplate restTemplate = new BoyRestTemplate(properties(
+                endpoint("direct", "http://localhost:" + server.getAddress().getPort(), null)))) {
+            for (int i = 0; i < 5; i++) {
+                assertEquals("ok", restTemplate.getForObject("direct", "/api", String.class));
+            }
+            assertEquals(1, clientPorts.size());
+        }
+    }
+
+    @Test
+    public void testEndpointsUseTheirOwnProxies() throws Exception {
+        BoyHttpClientProperties properties = properties(
+                endpoint("a", "http://upstream-a.test", "localhost:" + proxyA.getAddress().getPort()),
+                endpoint("b", "http://upstream-b.test", "localhost:" + proxyB.getAddress().getPort()));
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try (BoyRestTemplate restTemplate = new BoyRestTemplate(properties, new BoyClientHttpRequestFactory())) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String endpointId = i % 2 == 0 ? "a" : "b";
+                String expected = i % 2 == 0 ? "A" : "B";
+                results.add(callers.submit(() -> expected.equals(restTemplate.getForObject(endpointId, "/api", String.class))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRequestsAcquireConnectionPoolPermits() throws Exception {
+        BoyHttpClientProperties.PoolConfig pool = new BoyHttpClientProperties.PoolConfig();
+        pool.setMaxPerRoute(1);
+        pool.setLeaseTimeoutMs(100);
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(1);
+        BoyHttpClientProperties.ServiceEndpoint endpoint = endpoint("guarded", "http://localhost:" + server.getAddress().getPort(), null);
+        endpoint.setPool(pool);
+        endpoint.setRetryPolicy(retryPolicy);
+
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try (BoyRestTemplate restTemplate = new BoyRestTemplate(properties(endpoint))) {
+            Future<String> holder = callers.submit(() -> restTemplate.getForObject("guarded", "/slow", String.class));
+            Thread.sleep(100);
+
+            // 路由上唯一的许可被占用时，在连接池的信号量上等待到租用超时，而不是进入 HttpClient 的连接等待
+            ResourceAccessException e = assertThrows(ResourceAccessException.class,
+                    () -> restTemplate.getForObject("guarded", "/api", String.class));
+            assertTrue(e.getCause() instanceof ConnectionPoolTimeoutException);
+            assertTrue(e.getCause().getMessage().endsWith("pool guarded"), e.getCause().getMessage());
+
+            // 响应关闭后许可被释放
+            assertEquals("slow", holder.get(5, TimeUnit.SECONDS));
+            assertEquals("ok", restTemplate.getForObject("guarded", "/api", String.class));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static HttpServer proxy(String name) throws IOException {
+        HttpServer proxy = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        proxy.setExecutor(Executors.newFixedThreadPool(4));
+        proxy.createContext("/", exchange -> respond(exchange, name));
+        proxy.start();
+        return proxy;
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private static BoyHttpClientProperties.ServiceEndpoint endpoint(String id, String host, String proxy) {
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId(id);
+        endpoint.setHosts(Collections.singletonList(host));
+        if (proxy != null) {
+            endpoint.setProxies(Collections.singletonList(proxy));
+        }
+        return endpoint;
+    }
+
+    private static BoyHttpClientProperties properties(BoyHttpClientProperties.ServiceEndpoint... endpoints) {
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Arrays.asList(endpoints));
+        return properties;
+    }
+}
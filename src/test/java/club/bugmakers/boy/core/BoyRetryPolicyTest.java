@@ -0,0 +1,122 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyRetryPolicyTest {
+
+    private HttpServer server;
+    private final AtomicInteger missingCalls = new AtomicInteger();
+    private final AtomicInteger throttledCalls = new AtomicInteger();
+    private final AtomicInteger unavailableCalls = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/missing", exchange -> {
+            missingCalls.incrementAndGet();
+            respond(exchange, 404, null);
+        });
+        server.createContext("/throttled", exchange -> {
+            // 第一次要求 1 秒后重试
+            if (throttledCalls.incrementAndGet() == 1) {
+                respond(exchange, 429, "1");
+            } else {
+                respond(exchange, 200, null);
+            }
+        });
+        server.createContext("/unavailable", exchange -> {
+            unavailableCalls.incrementAndGet();
+            respond(exchange, 503, null);
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testHttpClientStatusCodesAndRetryAfter() throws Exception {
+        try (BoyHttpClient client = new BoyHttpClient(properties(true))) {
+            assertThrows(HttpStatusException.class, () -> client.get("local", "/missing"));
+            assertEquals(1, missingCalls.get());
+
+            long start = System.nanoTime();
+            assertEquals("ok", client.get("local", "/throttled"));
+            assertEquals(2, throttledCalls.get());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1000);
+        }
+    }
+
+    @Test
+    public void testRestTemplateStatusCodes() {
+        try (BoyRestTemplate restTemplate = new BoyRestTemplate(properties(true))) {
+            assertThrows(HttpClientErrorException.class, () -> restTemplate.getForObject("local", "/missing", String.class));
+            assertEquals(1, missingCalls.get());
+            assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject("local", "/unavailable", String.class));
+            assertEquals(3, unavailableCalls.get());
+        }
+    }
+
+    @Test
+    public void testRetryBudgetCapsRetries() {
+        try (BoyHttpClient client = new BoyHttpClient(properties(false))) {
+            // 预算只允许每秒 1 次重试，每个请求存入的 0.01 个令牌不足以再重试
+            for (int i = 0; i < 5; i++) {
+                assertThrows(HttpStatusException.class, () -> client.get("local", "/unavailable"));
+            }
+            assertEquals(5 + 1, unavailableCalls.get());
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String retryAfter) throws IOException {
+        byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+        if (retryAfter != null) {
+            exchange.getResponseHeaders().set("Retry-After", retryAfter);
+        }
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private BoyHttpClientProperties properties(boolean generousBudget) {
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(3);
+        retryPolicy.setBackoffMs(1);
+
+        BoyHttpClientProperties.RetryBudgetConfig retryBudget = new BoyHttpClientProperties.RetryBudgetConfig();
+        if (!generousBudget) {
+            retryBudget.setBudgetPercent(1);
+            retryBudget.setMinRetriesPerSecond(1);
+        }
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setRetryPolicy(retryPolicy);
+        endpoint.setRetryBudget(retryBudget);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
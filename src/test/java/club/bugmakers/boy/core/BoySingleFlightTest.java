@@ -0,0 +1,108 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.coalesce.SingleFlight;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoySingleFlightTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/hot", exchange -> {
+            int count = requests.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = ("hot-" + count).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testConcurrentGetsCoalesced() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyHttpClient client = new BoyHttpClient(registry)) {
+            SingleFlight singleFlight = registry.require("local").getSingleFlight();
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> client.get("local", "/hot")));
+            }
+            CompletableFuture<String> async = client.getAsync("local", "/hot");
+            waitUntil(() -> singleFlight.getCoalescedCount() == 10);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("hot-1", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals("hot-1", async.get(5, TimeUnit.SECONDS));
+            assertEquals(1, requests.get());
+
+            // 请求头不同的请求不合并
+            assertEquals("hot-2", client.get("local", "/hot", Collections.singletonMap("X-Tenant", "a")));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private BoyHttpClientProperties properties() {
+        BoyHttpClientProperties.SingleFlightConfig singleFlight = new BoyHttpClientProperties.SingleFlightConfig();
+        singleFlight.setEnabled(true);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setSingleFlight(singleFlight);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
@@ -0,0 +1,172 @@
+package club.bugmakers.boy.core;
+
+import club.bugmakers.boy.breaker.CircuitBreaker;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoyWebClientTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private HttpServer server;
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+    private final AtomicInteger errorCalls = new AtomicInteger();
+    private final CountDownLatch slowCalls = new CountDownLatch(5);
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/ok", exchange -> respond(exchange, 200, "ok"));
+        server.createContext("/flaky", exchange -> {
+            // 前两次返回 503，第三次成功
+            if (flakyCalls.incrementAndGet() < 3) {
+                respond(exchange, 503, "unavailable");
+            } else {
+                respond(exchange, 200, "recovered");
+            }
+        });
+        server.createContext("/error", exchange -> {
+            errorCalls.incrementAndGet();
+            respond(exchange, 500, "error");
+        });
+        server.createContext("/slow", exchange -> {
+            slowCalls.countDown();
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "slow");
+        });
+        server.createContext("/lines", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            respond(exchange, 200, "[\"a\",\"b\",\"c\"]");
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testRequests() {
+        try (BoyWebClient client = new BoyWebClient(properties(3))) {
+            assertEquals("ok", client.get("local", "/ok", String.class).block(TIMEOUT));
+            assertEquals("ok", client.post("local", "/ok", "{}", String.class).block(TIMEOUT));
+            assertEquals("ok", client.get("local", "/ok", Collections.singletonMap("X-Test", "1"), String.class).block(TIMEOUT));
+            client.put("local", "/ok", "{}").block(TIMEOUT);
+            client.delete("local", "/ok").block(TIMEOUT);
+
+            List<String> elements = client.getFlux("local", "/lines", String.class).collectList().block(TIMEOUT);
+            assertEquals(1, elements.size());
+        }
+    }
+
+    @Test
+    public void testRetryUntilSuccess() {
+        try (BoyWebClient client = new BoyWebClient(properties(3))) {
+            assertEquals("recovered", client.get("local", "/flaky", String.class).block(TIMEOUT));
+            assertEquals(3, flakyCalls.get());
+        }
+    }
+
+    @Test
+    public void testMaxAttempts() {
+        try (BoyWebClient client = new BoyWebClient(properties(2))) {
+            Mono<String> request = client.get("local", "/error", String.class);
+            // 订阅前不会发出请求
+            assertEquals(0, errorCalls.get());
+
+            WebClientResponseException e = assertThrows(WebClientResponseException.class, () -> request.block(TIMEOUT));
+            assertEquals(500, e.getRawStatusCode());
+            assertEquals(2, errorCalls.get());
+
+            // 每次订阅独立重试
+            assertThrows(WebClientResponseException.class, () -> request.block(TIMEOUT));
+            assertEquals(4, errorCalls.get());
+        }
+    }
+
+    @Test
+    public void testCancelDoesNotCountAsHostFailure() throws Exception {
+        BoyHttpClientProperties properties = properties(1);
+        BoyHttpClientProperties.CircuitBreakerConfig circuitBreaker = new BoyHttpClientProperties.CircuitBreakerConfig();
+        circuitBreaker.setEnabled(true);
+        circuitBreaker.setWindowSize(10);
+        circuitBreaker.setMinimumCalls(4);
+        properties.getEndpoints().get(0).setCircuitBreaker(circuitBreaker);
+
+        try (EndpointRegistry registry = new EndpointRegistry(properties);
+             BoyWebClient client = new BoyWebClient(registry)) {
+            List<Disposable> requests = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                requests.add(client.get("local", "/slow", String.class).subscribe());
+            }
+            assertTrue(slowCalls.await(5, TimeUnit.SECONDS));
+            requests.forEach(Disposable::dispose);
+
+            // 取消的请求只归还许可，不计入熔断器
+            assertEquals(CircuitBreaker.State.CLOSED, registry.require("local").getCircuitBreaker().getState());
+            assertEquals("ok", client.get("local", "/ok", String.class).block(TIMEOUT));
+        }
+    }
+
+    @Test
+    public void testInvalidEndpoint() {
+        try (BoyWebClient client = new BoyWebClient(properties(3))) {
+            assertThrows(IllegalArgumentException.class, () -> client.get("non-existent", "/ok", String.class).block(TIMEOUT));
+            Flux<String> flux = client.getFlux("non-existent", "/ok", String.class);
+            assertThrows(IllegalArgumentException.class, () -> flux.blockFirst(TIMEOUT));
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private BoyHttpClientProperties properties(int maxAttempts) {
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(maxAttempts);
+        retryPolicy.setBackoffMs(10);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        endpoint.setRetryPolicy(retryPolicy);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+        return properties;
+    }
+}
@@ -0,0 +1,212 @@
+package club.bugmakers.boy.dns;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.apache.http.conn.DnsResolver;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingDnsResolverTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final DnsResolver delegate = host -> {
+        lookups.incrementAndGet();
+        if (host.startsWith("unknown")) {
+            throw new UnknownHostException(host);
+        }
+        return new InetAddress[]{InetAddress.getByAddress(host, new byte[]{127, 0, 0, 1})};
+    };
+
+    @Test
+    public void testPositiveTtl() throws Exception {
+        try (CachingDnsResolver resolver = new CachingDnsResolver(config(1000, 500, 0), delegate, now::get)) {
+            assertEquals("127.0.0.1", resolver.resolveFirst("service1").getHostAddress());
+            resolver.resolve("service1");
+            assertEquals(1, lookups.get());
+
+            // 过期后重新解析
+            now.set(1000);
+            resolver.resolve("service1");
+            assertEquals(2, lookups.get());
+        }
+    }
+
+    @Test
+    public void testNegativeTtl() {
+        try (CachingDnsResolver resolver = new CachingDnsResolver(config(1000, 500, 0), delegate, now::get)) {
+            assertThrows(UnknownHostException.class, () -> resolver.resolve("unknown-host"));
+            assertThrows(UnknownHostException.class, () -> resolver.resolve("unknown-host"));
+            assertEquals(1, lookups.get());
+
+            now.set(500);
+            assertThrows(UnknownHostException.class, () -> resolver.resolve("unknown-host"));
+            assertEquals(2, lookups.get());
+        }
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception {
+        try (CachingDnsResolver resolver = new CachingDnsResolver(config(1000, 500, 200), delegate, now::get)) {
+            resolver.resolve("service1");
+
+            // 进入提前刷新窗口后，返回缓存结果并在后台刷新
+            now.set(850);
+            assertNotNull(resolver.resolve("service1"));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (lookups.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, lookups.get());
+
+            // 刷新后的结果从刷新时刻重新计算 TTL
+            now.set(1500);
+            resolver.resolve("service1");
+            assertEquals(2, lookups.get());
+        }
+    }
+
+    @Test
+    public void testFailedRefreshIsRetried() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean();
+        DnsResolver flaky = host -> {
+            lookups.incrementAndGet();
+            if (failing.get()) {
+                throw new UnknownHostException(host);
+            }
+            return new InetAddress[]{InetAddress.getByAddress(host, new byte[]{127, 0, 0, 1})};
+        };
+        try (CachingDnsResolver resolver = new CachingDnsResolver(config(1000, 100, 200), flaky, now::get)) {
+            resolver.resolve("service1");
+
+            // 后台刷新失败时保留原有结果，negativeTtlMs 内不再刷新
+            failing.set(true);
+            now.set(850);
+            assertNotNull(resolver.resolve("service1"));
+            awaitLookups(2);
+            assertNotNull(resolver.resolve("service1"));
+            Thread.sleep(50);
+            assertEquals(2, lookups.get());
+
+            // 之后再次刷新，成功后按新结果计算 TTL
+            failing.set(false);
+            now.set(950);
+            assertNotNull(resolver.resolve("service1"));
+            awaitLookups(3);
+            now.set(1500);
+            assertNotNull(resolver.resolve("service1"));
+            assertEquals(3, lookups.get());
+        }
+    }
+
+    @Test
+    public void testConcurrentLookupsAreDeduplicated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DnsResolver slow = host -> {
+            lookups.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new InetAddress[]{InetAddress.getByAddress(host, new byte[]{127, 0, 0, 1})};
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (CachingDnsResolver resolver = new CachingDnsResolver(config(1000, 500, 0), slow, now::get)) {
+            // 没有缓存时其余线程等待同一个解析
+            List<Future<InetAddress[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> resolver.resolve("service1")));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<InetAddress[]> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS).length);
+            }
+            assertEquals(1, lookups.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStaleAddressesServedDuringLookup() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DnsResolver slow = host -> {
+            if (lookups.incrementAndGet() > 1) {
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new InetAddress[]{InetAddress.getByAddress(host, new byte[]{127, 0, 0, 1})};
+        };
+        try (CachingDnsResolver resolver = new CachingDnsResolver(config(1000, 500, 0), slow, now::get)) {
+            resolver.resolve("service1");
+
+            // 过期后第一个线程同步解析，其余线程直接使用过期的结果
+            now.set(1000);
+            Thread refresher = new Thread(() -> {
+                try {
+                    resolver.resolve("service1");
+                } catch (UnknownHostException ignored) {
+                }
+            });
+            refresher.start();
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(resolver.resolve("service1"));
+            }
+            assertEquals(2, lookups.get());
+            release.countDown();
+            refresher.join(5000);
+        }
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        BoyHttpClientProperties.DnsConfig config = config(1000, 500, 0);
+        config.setEnabled(false);
+        try (CachingDnsResolver resolver = new CachingDnsResolver(config, delegate, now::get)) {
+            resolver.resolve("service1");
+            resolver.resolve("service1");
+            assertEquals(2, lookups.get());
+        }
+    }
+
+    private void awaitLookups(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (lookups.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, lookups.get());
+    }
+
+    private BoyHttpClientProperties.DnsConfig config(long positiveTtlMs, long negativeTtlMs, long refreshAheadMs) {
+        BoyHttpClientProperties.DnsConfig config = new BoyHttpClientProperties.DnsConfig();
+        config.setPositiveTtlMs(positiveTtlMs);
+        config.setNegativeTtlMs(negativeTtlMs);
+        config.setRefreshAheadMs(refreshAheadMs);
+        return config;
+    }
+}
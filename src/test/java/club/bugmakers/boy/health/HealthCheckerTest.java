@@ -0,0 +1,139 @@
+package club.bugmakers.boy.health;
+
+import club.bugmakers.boy.core.BoyHttpClient;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HealthCheckerTest {
+
+    private final HttpServer[] servers = new HttpServer[2];
+    private final AtomicBoolean[] down = {new AtomicBoolean(), new AtomicBoolean()};
+    private final AtomicInteger[] requests = {new AtomicInteger(), new AtomicInteger()};
+
+    @BeforeEach
+    public void startServers() throws Exception {
+        for (int i = 0; i < servers.length; i++) {
+            int index = i;
+            servers[i] = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            servers[i].createContext("/health", exchange -> respond(exchange, down[index].get() ? 503 : 200, "health"));
+            servers[i].createContext("/ok", exchange -> {
+                requests[index].incrementAndGet();
+                respond(exchange, 200, "ok");
+            });
+            servers[i].start();
+        }
+    }
+
+    @AfterEach
+    public void stopServers() {
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testUnhealthyHostSkippedAndRecovered() throws Exception {
+        down[1].set(true);
+        try (EndpointRegistry registry = new EndpointRegistry(properties());
+             BoyHttpClient client = new BoyHttpClient(registry)) {
+            HealthCheckState state = registry.require("local").getHealthCheckState();
+            awaitTrue(() -> !state.isHealthy(1));
+            assertTrue(state.isHealthy(0));
+            assertEquals("HTTP status 503", state.getHost(1).getLastError());
+
+            for (int i = 0; i < 20; i++) {
+                assertEquals("ok", client.get("local", "/ok"));
+            }
+            assertEquals(20, requests[0].get());
+            assertEquals(0, requests[1].get());
+
+            down[1].set(false);
+            awaitTrue(() -> state.isHealthy(1));
+        }
+    }
+
+    @Test
+    public void testHealthIndicator() throws Exception {
+        try (EndpointRegistry registry = new EndpointRegistry(properties())) {
+            BoyHttpClientHealthIndicator indicator = new BoyHttpClientHealthIndicator(registry);
+            HealthCheckState state = registry.require("local").getHealthCheckState();
+            assertEquals(Status.UP, indicator.health().getStatus());
+
+            down[0].set(true);
+            awaitTrue(() -> !state.isHealthy(0));
+            Health health = indicator.health();
+            assertEquals(Status.UP, health.getStatus());
+            Map<?, ?> endpoint = (Map<?, ?>) health.getDetails().get("local");
+            Map<?, ?> hosts = (Map<?, ?>) endpoint.get("hosts");
+            Map<?, ?> host = (Map<?, ?>) hosts.get("http://localhost:" + servers[0].getAddress().getPort());
+            assertEquals("DOWN", host.get("status"));
+            assertEquals("HTTP status 503", host.get("lastError"));
+
+            // 所有主机都不可用时服务端点为 DOWN，默认整体仍为 UP，开启 propagateDown 后整体为 DOWN
+            down[1].set(true);
+            awaitTrue(() -> !state.isHealthy(1));
+            health = indicator.health();
+            assertEquals(Status.UP, health.getStatus());
+            assertEquals("DOWN", ((Map<?, ?>) health.getDetails().get("local")).get("status"));
+            assertEquals(Status.DOWN, new BoyHttpClientHealthIndicator(registry, true).health().getStatus());
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 5s");
+            Thread.sleep(20);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private BoyHttpClientProperties properties() {
+        BoyHttpClientProperties.HealthCheckConfig healthCheck = new BoyHttpClientProperties.HealthCheckConfig();
+        healthCheck.setEnabled(true);
+        healthCheck.setIntervalMs(50);
+        healthCheck.setUnhealthyThreshold(2);
+        healthCheck.setHealthyThreshold(2);
+
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(1);
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Arrays.asList("http://localhost:" + servers[0].getAddress().getPort(),
+                "http://localhost:" + servers[1].getAddress().getPort()));
+        endpoint.setRetryPolicy(retryPolicy);
+        endpoint.setHealthCheck(healthCheck);
+
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Arrays.asList(endpoint));
+        return properties;
+    }
+}
@@ -0,0 +1,129 @@
+package club.bugmakers.boy.hedge;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.retry.RetryEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgePolicyTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final RetryEngine timer = new RetryEngine();
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+        timer.close();
+    }
+
+    @Test
+    public void testHedgeWinsAndPrimaryAborted() throws Exception {
+        HedgePolicy policy = new HedgePolicy("test", config(20, 100));
+        AtomicReference<AttemptContext> primary = new AtomicReference<>();
+
+        String result = policy.execute(context -> {
+            if (context.isHedge()) {
+                return "hedge";
+            }
+            primary.set(context);
+            CountDownLatch aborted = new CountDownLatch(1);
+            context.onAbort(aborted::countDown);
+            assertTrue(aborted.await(5, TimeUnit.SECONDS));
+            throw new IOException("aborted");
+        }, true, executor, timer, abort -> { });
+
+        assertEquals("hedge", result);
+        assertTrue(primary.get().isAborted());
+    }
+
+    @Test
+    public void testFastPrimaryNeverHedges() throws Exception {
+        HedgePolicy policy = new HedgePolicy("test", config(200, 100));
+        AtomicInteger hedges = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            assertEquals("primary", policy.execute(context -> {
+                if (context.isHedge()) {
+                    hedges.incrementAndGet();
+                }
+                return context.isHedge() ? "hedge" : "primary";
+            }, true, executor, timer, abort -> { }));
+        }
+        Thread.sleep(300);
+        assertEquals(0, hedges.get());
+    }
+
+    @Test
+    public void testBudgetLimitsHedges() throws Exception {
+        HedgePolicy policy = new HedgePolicy("test", config(5, 10));
+        AtomicInteger hedges = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            policy.execute(context -> {
+                if (context.isHedge()) {
+                    hedges.incrementAndGet();
+                    throw new IOException("hedge failed");
+                }
+                Thread.sleep(30);
+                return "primary";
+            }, true, executor, timer, abort -> { });
+        }
+        // 每个请求存入 0.1 个令牌，20 个请求最多对冲 2 次
+        assertEquals(2, hedges.get());
+    }
+
+    @Test
+    public void testBothFailThrowsFirstError() {
+        HedgePolicy policy = new HedgePolicy("test", config(5, 100));
+        IOException e = assertThrows(IOException.class, () -> policy.execute(context -> {
+            if (context.isHedge()) {
+                throw new IOException("hedge");
+            }
+            Thread.sleep(100);
+            throw new IOException("primary");
+        }, false, executor, timer, abort -> { }));
+        assertEquals("hedge", e.getMessage());
+    }
+
+    @Test
+    public void testAdaptiveDelayNeedsSamples() throws Exception {
+        BoyHttpClientProperties.HedgingConfig config = config(0, 100);
+        config.setMinDelayMs(7);
+        HedgePolicy policy = new HedgePolicy("test", config);
+        assertEquals(-1, policy.hedgeDelayNanos());
+        for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+            policy.execute(context -> "ok", true, executor, timer, abort -> { });
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(7), policy.hedgeDelayNanos());
+    }
+
+    @Test
+    public void testLatencyPercentile() {
+        LatencyTracker tracker = new LatencyTracker(1024, 95);
+        for (int i = 1; i < LatencyTracker.MIN_SAMPLES; i++) {
+            tracker.record(i);
+        }
+        assertEquals(-1, tracker.percentileNanos());
+        // 每 64 个样本重新计算一次，128 个样本的 P95 为第 122 小的值
+        for (int i = LatencyTracker.MIN_SAMPLES; i <= 2 * LatencyTracker.REFRESH_INTERVAL; i++) {
+            tracker.record(i);
+        }
+        assertEquals(122, tracker.percentileNanos());
+    }
+
+    private static BoyHttpClientProperties.HedgingConfig config(long delayMs, double budgetPercent) {
+        BoyHttpClientProperties.HedgingConfig config = new BoyHttpClientProperties.HedgingConfig();
+        config.setEnabled(true);
+        config.setDelayMs(delayMs);
+        config.setBudgetPercent(budgetPercent);
+        return config;
+    }
+}
@@ -0,0 +1,44 @@
+package club.bugmakers.boy.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteBufferPoolTest {
+
+    @Test
+    public void testReuse() {
+        ByteBufferPool pool = new ByteBufferPool(1024, 1);
+        ByteBuffer first = pool.acquire();
+        assertEquals(1024, first.capacity());
+        first.put((byte) 1);
+        pool.release(first);
+        assertEquals(1, pool.getPooledCount());
+
+        // 复用的缓冲区已被清空
+        ByteBuffer reused = pool.acquire();
+        assertSame(first, reused);
+        assertEquals(0, reused.position());
+        assertEquals(1024, reused.limit());
+
+        // 池为空时分配新缓冲区，超出容量的缓冲区被丢弃
+        ByteBuffer other = pool.acquire();
+        assertNotSame(reused, other);
+        pool.release(reused);
+        pool.release(other);
+        assertEquals(1, pool.getPooledCount());
+
+        // 大小不符的缓冲区不入池
+        pool.acquire();
+        pool.release(ByteBuffer.allocate(16));
+        assertEquals(0, pool.getPooledCount());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(1024, 0));
+    }
+}
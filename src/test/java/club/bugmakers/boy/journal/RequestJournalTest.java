@@ -0,0 +1,157 @@
+package club.bugmakers.boy.journal;
+
+import club.bugmakers.boy.hedge.AttemptContext;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.EndpointPlan;
+import club.bugmakers.boy.registry.EndpointRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestJournalTest {
+
+    private EndpointRegistry registry;
+    private EndpointPlan a;
+    private EndpointPlan b;
+
+    @BeforeEach
+    public void setUp() {
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Arrays.asList(endpoint("a"), endpoint("b")));
+        registry = new EndpointRegistry(properties);
+        a = registry.require("a");
+        b = registry.require("b");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    public void testKeepsNewestEventsWhenFull() {
+        RequestJournal journal = new RequestJournal(config(true, 5, 0));
+        // 容量向上取整为 8
+        assertEquals(8, journal.getCapacity());
+        for (int i = 1; i <= 20; i++) {
+            journal.record("httpclient", i % 2 == 0 ? a : b, 0, RequestJournal.NO_PROXY, "GET", i, context(200), i, null);
+        }
+        assertEquals(20, journal.getRecordedCount());
+
+        List<RequestEvent> events = journal.recent(null, 100);
+        assertEquals(8, events.size());
+        assertEquals(20, events.get(0).getAttempt());
+        assertEquals(13, events.get(7).getAttempt());
+
+        List<RequestEvent> onlyA = journal.recent("a", 2);
+        assertEquals(2, onlyA.size());
+        assertEquals(20, onlyA.get(0).getAttempt());
+        assertEquals(18, onlyA.get(1).getAttempt());
+    }
+
+    @Test
+    public void testEventFields() {
+        RequestJournal journal = new RequestJournal(null);
+        journal.record("resttemplate", a, 0, "proxy1:3128", "POST", 2, context(503), TimeUnit.MILLISECONDS.toNanos(12),
+                new IOException("HTTP error: 503"));
+
+        RequestEvent event = journal.recent("a", 1).get(0);
+        assertEquals("resttemplate", event.getClient());
+        assertEquals("http://a1", event.getHost());
+        assertEquals("proxy1:3128", event.getProxy());
+        assertEquals(503, event.getStatusCode());
+        assertEquals(12, event.getLatencyMs(), 0.001);
+        assertEquals("IOException", event.getError());
+        assertFalse(event.isSuccess());
+        assertTrue(event.toString().contains("status=503"));
+    }
+
+    @Test
+    public void testSampledExport() {
+        List<RequestEvent> exported = Collections.synchronizedList(new ArrayList<>());
+        RequestJournal all = new RequestJournal(config(true, 16, 1));
+        all.setExporter(exported::add);
+        RequestJournal none = new RequestJournal(config(true, 16, 0));
+        none.setExporter(exported::add);
+        for (int i = 0; i < 10; i++) {
+            all.record("httpclient", a, 0, RequestJournal.NO_PROXY, "GET", 1, context(200), 1, null);
+            none.record("httpclient", a, 0, RequestJournal.NO_PROXY, "GET", 1, context(200), 1, null);
+        }
+        assertEquals(10, exported.size());
+    }
+
+    @Test
+    public void testDisabledJournalRecordsNothing() {
+        RequestJournal journal = new RequestJournal(config(false, 16, 1));
+        journal.setExporter(event -> fail("disabled journal must not export"));
+        journal.record("httpclient", a, 0, RequestJournal.NO_PROXY, "GET", 1, context(200), 1, null);
+        assertEquals(0, journal.getCapacity());
+        assertTrue(journal.recent(null, 10).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        RequestJournal journal = new RequestJournal(config(true, 64, 0));
+        int threads = 4;
+        int perThread = 1000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    journal.record("httpclient", b, 0, RequestJournal.NO_PROXY, "GET", 1, context(200), 1, null);
+                }
+                done.countDown();
+            }).start();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, journal.getRecordedCount());
+        List<RequestEvent> events = journal.recent(null, 100);
+        assertEquals(64, events.size());
+        for (int i = 1; i < events.size(); i++) {
+            assertEquals(events.get(i - 1).getSequence() - 1, events.get(i).getSequence());
+        }
+    }
+
+    @Test
+    public void testActuatorEndpoint() {
+        RequestJournal journal = new RequestJournal(null);
+        journal.record("httpclient", a, 0, RequestJournal.NO_PROXY, "GET", 1, context(200), 1, null);
+        journal.record("httpclient", b, 0, RequestJournal.NO_PROXY, "GET", 1, context(200), 1, null);
+
+        Map<String, Object> result = new BoyRequestJournalEndpoint(journal).events("b", null);
+        assertEquals(2L, result.get("recorded"));
+        assertEquals(1, ((List<?>) result.get("events")).size());
+    }
+
+    private static AttemptContext context(int statusCode) {
+        AttemptContext context = new AttemptContext();
+        context.setStatusCode(statusCode);
+        return context;
+    }
+
+    private static BoyHttpClientProperties.JournalConfig config(boolean enabled, int capacity, double exportSampleRate) {
+        BoyHttpClientProperties.JournalConfig config = new BoyHttpClientProperties.JournalConfig();
+        config.setEnabled(enabled);
+        config.setCapacity(capacity);
+        config.setExportSampleRate(exportSampleRate);
+        return config;
+    }
+
+    private static BoyHttpClientProperties.ServiceEndpoint endpoint(String id) {
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId(id);
+        endpoint.setHosts(Collections.singletonList("http://" + id + "1"));
+        return endpoint;
+    }
+}
@@ -0,0 +1,119 @@
+package club.bugmakers.boy.limit;
+
+import club.bugmakers.boy.balancer.HostSelection;
+import club.bugmakers.boy.balancer.RoundRobinLoadBalancer;
+import club.bugmakers.boy.breaker.CircuitBreaker;
+import club.bugmakers.boy.breaker.CircuitBreakerOpenException;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testFixedLimitShedsExcess() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", new FixedLimit(2));
+        limiter.acquire();
+        limiter.acquire();
+        ConcurrencyLimitExceededException e = assertThrows(ConcurrencyLimitExceededException.class, limiter::acquire);
+        assertEquals("test", e.getEndpointId());
+        assertEquals(2, e.getLimit());
+        assertEquals(2, limiter.getInflight());
+
+        limiter.onComplete(MS, false);
+        limiter.acquire();
+        limiter.release();
+        limiter.release();
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    public void testAimdLimit() {
+        AimdLimit limit = new AimdLimit(10, 2, 12, 0.5, 100);
+        // 并发数不到上限一半时不增长
+        limit.onSample(MS, 4, false);
+        assertEquals(10, limit.getLimit());
+        limit.onSample(MS, 10, false);
+        limit.onSample(MS, 10, false);
+        limit.onSample(MS, 10, false);
+        assertEquals(12, limit.getLimit());
+
+        limit.onSample(MS, 10, true);
+        assertEquals(6, limit.getLimit());
+        // 超时同样视为过载
+        limit.onSample(200 * MS, 1, false);
+        assertEquals(3, limit.getLimit());
+        limit.onSample(200 * MS, 1, false);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void testGradientLimit() {
+        GradientLimit limit = new GradientLimit(20, 5, 100, 1.5, 0.5);
+        // 延迟稳定时按排队余量增长
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(10 * MS, limit.getLimit(), false);
+        }
+        int grown = limit.getLimit();
+        assertTrue(grown > 20, "limit should grow: " + grown);
+
+        // 延迟翻倍后上限下降
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(40 * MS, limit.getLimit(), false);
+        }
+        assertTrue(limit.getLimit() < grown, "limit should shrink: " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 5);
+    }
+
+    @Test
+    public void testCreateFromConfig() {
+        BoyHttpClientProperties.ConcurrencyLimitConfig config = new BoyHttpClientProperties.ConcurrencyLimitConfig();
+        config.setLimit(7);
+        assertEquals(7, ConcurrencyLimiter.create("test", config).getLimit());
+
+        config.setStrategy(BoyHttpClientProperties.ConcurrencyLimitStrategy.AIMD);
+        config.setMaxLimit(5);
+        assertEquals(5, ConcurrencyLimiter.create("test", config).getLimit());
+
+        config.setStrategy(BoyHttpClientProperties.ConcurrencyLimitStrategy.GRADIENT);
+        config.setSmoothing(0);
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.create("test", config));
+    }
+
+    @Test
+    public void testHostSelectionReleasesPermits() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", new FixedLimit(1));
+        HostSelection selection = newSelection(limiter, null);
+        int host = selection.select();
+        assertThrows(ConcurrencyLimitExceededException.class, () -> newSelection(limiter, null).select());
+        selection.onStart(host);
+        selection.onComplete(host, MS, true);
+        assertEquals(0, limiter.getInflight());
+
+        selection.abort(selection.select());
+        assertEquals(0, limiter.getInflight());
+
+        host = selection.select();
+        selection.onStart(host);
+        selection.onCancel(host, MS);
+        assertEquals(0, limiter.getInflight());
+
+        // 熔断器拒绝时归还并发许可
+        BoyHttpClientProperties.CircuitBreakerConfig breakerConfig = new BoyHttpClientProperties.CircuitBreakerConfig();
+        breakerConfig.setMinimumCalls(1);
+        CircuitBreaker breaker = new CircuitBreaker("test", breakerConfig);
+        breaker.tryAcquirePermission();
+        breaker.onResult(MS, false);
+        assertThrows(CircuitBreakerOpenException.class, () -> newSelection(limiter, breaker).select());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    private static HostSelection newSelection(ConcurrencyLimiter limiter, CircuitBreaker breaker) {
+        return new HostSelection(new RoundRobinLoadBalancer(2), null, null, breaker, null, limiter, 2);
+    }
+}
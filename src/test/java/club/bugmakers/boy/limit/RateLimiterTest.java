@@ -0,0 +1,98 @@
+package club.bugmakers.boy.limit;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1000 * MS);
+
+    @Test
+    public void testBurstThenRefill() {
+        // 每秒10个，即每100ms一个令牌，允许突发3个
+        RateLimiter limiter = new RateLimiter("test", config(10, 3, 0), clock::get);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        clock.addAndGet(100 * MS);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        // 空闲期间最多积累 burst 个令牌
+        clock.addAndGet(10_000 * MS);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(7, limiter.getAcquiredCount());
+        assertEquals(3, limiter.getRejectedCount());
+        assertEquals(0, limiter.getDelayedCount());
+    }
+
+    @Test
+    public void testReserveWaitsUpToMaxWait() {
+        RateLimiter limiter = new RateLimiter("test", config(10, 1, 250), clock::get);
+        assertEquals(0, limiter.reserve());
+        assertEquals(100 * MS, limiter.reserve());
+        assertEquals(200 * MS, limiter.reserve());
+        // 第4个需要等待300ms，超过最长等待时间，且不占用令牌
+        assertEquals(-1, limiter.reserve());
+        clock.addAndGet(100 * MS);
+        assertEquals(200 * MS, limiter.reserve());
+        assertEquals(3, limiter.getDelayedCount());
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testAcquireThrowsWhenExhausted() throws Exception {
+        RateLimiter limiter = new RateLimiter("test", config(1, 1, 0), clock::get);
+        limiter.acquire();
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class, limiter::acquire);
+        assertEquals("test", e.getEndpointId());
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter("test", config(0, 1, 0)));
+    }
+
+    @Test
+    public void testConcurrentAcquireNeverExceedsBurst() throws Exception {
+        RateLimiter limiter = new RateLimiter("test", config(1, 50, 0), clock::get);
+        AtomicInteger granted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    if (limiter.tryAcquire()) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(50, granted.get());
+        assertEquals(750, limiter.getRejectedCount());
+    }
+
+    private static BoyHttpClientProperties.RateLimitConfig config(double permitsPerSecond, int burst, long maxWaitMs) {
+        BoyHttpClientProperties.RateLimitConfig config = new BoyHttpClientProperties.RateLimitConfig();
+        config.setEnabled(true);
+        config.setPermitsPerSecond(permitsPerSecond);
+        config.setBurst(burst);
+        config.setMaxWaitMs(maxWaitMs);
+        return config;
+    }
+}
@@ -0,0 +1,82 @@
+package club.bugmakers.boy.metrics;
+
+import club.bugmakers.boy.breaker.CircuitBreakerOpenException;
+import club.bugmakers.boy.limit.RateLimitExceededException;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.ProxyAddress;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointMetricsTest {
+
+    @Test
+    public void testNothingRecordedBeforeBind() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EndpointMetrics metrics = new EndpointMetrics("svc", Collections.singletonList("http://a"), Collections.emptyList(), 3, null);
+        long start = metrics.requestStarted();
+        assertEquals(1, metrics.getInflight());
+        metrics.recordAttempt(0, 0, 0, EndpointMetrics.SUCCESS, 1, 1000);
+        metrics.requestFinished(0, EndpointMetrics.SUCCESS, start);
+        assertEquals(0, metrics.getInflight());
+
+        metrics.bind(meterRegistry);
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    @Test
+    public void testAttemptTagsAndCaching() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EndpointMetrics metrics = new EndpointMetrics("svc", Arrays.asList("http://a", "http://b"),
+                Arrays.asList(ProxyAddress.parse("p1:3128"), ProxyAddress.parse("p2:3128")), 3, null);
+        metrics.bind(meterRegistry);
+
+        metrics.recordAttempt(1, 1, EndpointMetrics.method("POST"), EndpointMetrics.status(503), 2, TimeUnit.MILLISECONDS.toNanos(5));
+        metrics.recordAttempt(1, 1, EndpointMetrics.method("POST"), EndpointMetrics.status(502), 2, TimeUnit.MILLISECONDS.toNanos(7));
+        // 超过最大尝试次数的编号归入最后一档
+        metrics.recordAttempt(0, 0, EndpointMetrics.method("BREW"), EndpointMetrics.ERROR, 9, 1);
+
+        Timer timer = meterRegistry.get(EndpointMetrics.ATTEMPTS)
+                .tags("endpoint", "svc", "host", "http://b", "proxy", "p2:3128", "method", "POST", "status", "5xx", "attempt", "2")
+                .timer();
+        assertEquals(2, timer.count());
+        assertEquals(12, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, meterRegistry.get(EndpointMetrics.ATTEMPTS)
+                .tags("method", "OTHER", "status", "error", "attempt", "3", "proxy", "p1:3128").timer().count());
+        assertEquals(2, meterRegistry.getMeters().size());
+    }
+
+    @Test
+    public void testRequestTimerPercentiles() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BoyHttpClientProperties.MetricsConfig config = new BoyHttpClientProperties.MetricsConfig();
+        config.setPercentiles(Arrays.asList(0.5, 0.99));
+        EndpointMetrics metrics = new EndpointMetrics("svc", Collections.singletonList("http://a"), Collections.emptyList(), 1, config);
+        metrics.bind(meterRegistry);
+
+        metrics.requestFinished(EndpointMetrics.method("GET"), EndpointMetrics.REJECTED, metrics.requestStarted());
+        Timer timer = meterRegistry.get(EndpointMetrics.REQUESTS).tags("endpoint", "svc", "method", "GET", "status", "rejected").timer();
+        assertEquals(1, timer.count());
+        ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+        assertEquals(2, percentiles.length);
+        assertEquals(0.99, percentiles[1].percentile(), 0.0001);
+    }
+
+    @Test
+    public void testStatusClasses() {
+        assertEquals(EndpointMetrics.SUCCESS, EndpointMetrics.status(204));
+        assertEquals(3, EndpointMetrics.status(404));
+        assertEquals(EndpointMetrics.ERROR, EndpointMetrics.status(0));
+        assertEquals(EndpointMetrics.REJECTED, EndpointMetrics.failure(new CircuitBreakerOpenException("svc")));
+        assertEquals(EndpointMetrics.REJECTED, EndpointMetrics.failure(new RateLimitExceededException("svc")));
+        assertEquals(EndpointMetrics.ERROR, EndpointMetrics.failure(new IOException("reset")));
+    }
+}
@@ -0,0 +1,154 @@
+package club.bugmakers.boy.pool;
+
+import club.bugmakers.boy.core.BoyHttpClient;
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoyConnectionPoolTest {
+
+    private HttpServer server;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testConnectionReuse() throws Exception {
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId("local");
+        endpoint.setHosts(Collections.singletonList("http://localhost:" + server.getAddress().getPort()));
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Collections.singletonList(endpoint));
+
+        try (BoyHttpClient client = new BoyHttpClient(properties)) {
+            for (int i = 0; i < 5; i++) {
+                assertEquals("ok", client.get("local", "/test"));
+            }
+        }
+
+        // 连续的请求应复用同一个长连接
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void testPoolPerEndpoint() {
+        try (BoyConnectionPoolManager manager = new BoyConnectionPoolManager()) {
+            BoyHttpClientProperties.PoolConfig config = new BoyHttpClientProperties.PoolConfig();
+            config.setMaxTotal(10);
+            config.setMaxPerRoute(5);
+
+            BoyConnectionPool pool = manager.getPool("service1", config);
+            assertNotNull(pool);
+            assertSame(pool, manager.getPool("service1", config));
+            assertEquals(10, pool.getTotalStats().getMax());
+
+            // 未配置连接池时使用默认配置
+            BoyConnectionPool defaultPool = manager.getPool("service2", null);
+            assertEquals(new BoyHttpClientProperties.PoolConfig().getMaxTotal(), defaultPool.getTotalStats().getMax());
+        }
+    }
+
+    @Test
+    public void testLeaseTimeoutWhenRouteExhausted() throws Exception {
+        BoyHttpClientProperties.PoolConfig config = new BoyHttpClientProperties.PoolConfig();
+        config.setMaxPerRoute(1);
+        config.setLeaseTimeoutMs(200);
+        String url = "http://localhost:" + server.getAddress().getPort() + "/test";
+
+        try (BoyConnectionPool pool = new BoyConnectionPool("local", config, SystemDefaultDnsResolver.INSTANCE)) {
+            CountDownLatch holding = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Thread holder = new Thread(() -> {
+                try {
+                    pool.execute(new HttpGet(url), null, response -> {
+                        holding.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return EntityUtils.toString(response.getEntity());
+                    });
+                } catch (Exception ignored) {
+                }
+            });
+            holder.start();
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            // 路由上唯一的连接被占用时，在信号量上等待到租用超时
+            assertThrows(ConnectionPoolTimeoutException.class,
+                    () -> pool.execute(new HttpGet(url), null, response -> EntityUtils.toString(response.getEntity())));
+
+            release.countDown();
+            holder.join();
+            assertEquals("ok", pool.execute(new HttpGet(url), null, response -> EntityUtils.toString(response.getEntity())));
+        }
+    }
+
+    @Test
+    public void testSocketTimeout() throws Exception {
+        BoyHttpClientProperties.PoolConfig config = new BoyHttpClientProperties.PoolConfig();
+        config.setSocketTimeoutMs(200);
+        String base = "http://localhost:" + server.getAddress().getPort();
+
+        try (BoyConnectionPool pool = new BoyConnectionPool("local", config, SystemDefaultDnsResolver.INSTANCE)) {
+            // 主机停止响应时请求在读取超时后失败，不会一直占用连接
+            long start = System.nanoTime();
+            assertThrows(SocketTimeoutException.class,
+                    () -> pool.execute(new HttpGet(base + "/slow"), null, response -> EntityUtils.toString(response.getEntity())));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+            assertEquals(0, pool.getTotalStats().getLeased());
+            assertEquals("ok", pool.execute(new HttpGet(base + "/test"), null, response -> EntityUtils.toString(response.getEntity())));
+        }
+    }
+}
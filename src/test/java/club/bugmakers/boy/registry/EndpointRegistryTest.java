@@ -0,0 +1,131 @@
+package club.bugmakers.boy.registry;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointRegistryTest {
+
+    @Test
+    public void testCompileEndpoint() {
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(4);
+        retryPolicy.setBackoffMs(100);
+        retryPolicy.setMultiplier(2.0);
+        retryPolicy.setRetryableStatusCodes(Arrays.asList(502, 503));
+
+        BoyHttpClientProperties.ServiceEndpoint endpoint = endpoint("service1", "http://host1:8080/", "http://host2:8080");
+        endpoint.setProxies(Arrays.asList("proxy1:3128", "proxy2:3129"));
+        endpoint.setRetryPolicy(retryPolicy);
+
+        EndpointRegistry registry = new EndpointRegistry(properties(endpoint));
+        EndpointPlan plan = registry.require("service1");
+
+        // 主机URL去掉末尾斜杠后拼接路径
+        assertEquals("http://host1:8080/api", plan.url(0, "/api"));
+        assertEquals("http://host2:8080/api", plan.url(1, "api"));
+
+        // 代理预解析
+        assertEquals(2, plan.getProxies().size());
+        assertEquals("proxy1", plan.getProxies().get(0).getHttpHost().getHostName());
+        assertEquals(3129, plan.getProxies().get(1).getPort());
+        assertEquals("proxy2:3129", plan.getProxies().get(1).getValue());
+
+        // 重试参数与退避时间
+        RetrySettings retry = plan.getRetry();
+        assertEquals(4, retry.getMaxAttempts());
+        assertEquals(100, retry.backoffDelay(1));
+        assertEquals(200, retry.backoffDelay(2));
+        assertEquals(400, retry.backoffDelay(3));
+        assertTrue(retry.getRetryableStatusCodes().contains(503));
+    }
+
+    @Test
+    public void testDefaults() {
+        EndpointRegistry registry = new EndpointRegistry(properties(endpoint("service1", "http://host1:8080")));
+        EndpointPlan plan = registry.require("service1");
+
+        assertTrue(plan.getProxies().isEmpty());
+        assertEquals(3, plan.getRetry().getMaxAttempts());
+        assertEquals(100, plan.getRetry().backoffDelay(1));
+        assertEquals(150, plan.getRetry().backoffDelay(2));
+    }
+
+    @Test
+    public void testRetryJitterAndStatusCodes() {
+        BoyHttpClientProperties.RetryPolicy retryPolicy = new BoyHttpClientProperties.RetryPolicy();
+        retryPolicy.setMaxAttempts(10);
+        retryPolicy.setBackoffMs(100);
+        retryPolicy.setMultiplier(2.0);
+        retryPolicy.setMaxBackoffMs(1000);
+        RetrySettings retry = new RetrySettings(retryPolicy);
+
+        // 未配置状态码时只重试超时、限流和网关类错误
+        assertTrue(retry.isRetryableStatus(503));
+        assertTrue(retry.isRetryableStatus(429));
+        assertFalse(retry.isRetryableStatus(404));
+        assertFalse(retry.isRetryableStatus(501));
+
+        // 指数退避不超过上限
+        assertEquals(800, retry.backoffDelay(4));
+        assertEquals(1000, retry.backoffDelay(5));
+        assertEquals(1000, retry.backoffDelay(20));
+
+        for (int i = 0; i < 1000; i++) {
+            long full = retry.nextDelay(3, 0);
+            assertTrue(full >= 0 && full <= 400, "full jitter " + full);
+        }
+
+        retryPolicy.setJitter(BoyHttpClientProperties.RetryJitter.DECORRELATED);
+        RetrySettings decorrelated = new RetrySettings(retryPolicy);
+        long previous = 0;
+        for (int i = 0; i < 1000; i++) {
+            long delay = decorrelated.nextDelay(i + 1, previous);
+            assertTrue(delay >= 100 && delay <= Math.min(1000, Math.max(100, previous) * 3), "decorrelated jitter " + delay);
+            previous = delay;
+        }
+
+        retryPolicy.setJitter(BoyHttpClientProperties.RetryJitter.NONE);
+        assertEquals(400, new RetrySettings(retryPolicy).nextDelay(3, 0));
+
+        // 显式配置为空时与属性默认值一致
+        retryPolicy.setJitter(null);
+        assertEquals(BoyHttpClientProperties.RetryJitter.FULL, new RetrySettings(retryPolicy).getJitter());
+        assertEquals(BoyHttpClientProperties.RetryJitter.FULL, new RetrySettings(null).getJitter());
+    }
+
+    @Test
+    public void testEndpointNotFound() {
+        EndpointRegistry registry = new EndpointRegistry(new BoyHttpClientProperties());
+        assertEquals(0, registry.size());
+        assertNull(registry.find("non-existent"));
+        assertThrows(IllegalArgumentException.class, () -> registry.require("non-existent"));
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        BoyHttpClientProperties.ServiceEndpoint invalidProxy = endpoint("service1", "http://host1:8080");
+        invalidProxy.setProxies(Collections.singletonList("proxy1"));
+        assertThrows(IllegalArgumentException.class, () -> new EndpointRegistry(properties(invalidProxy)));
+
+        BoyHttpClientProperties.ServiceEndpoint noHosts = endpoint("service2");
+        assertThrows(IllegalArgumentException.class, () -> new EndpointRegistry(properties(noHosts)));
+    }
+
+    private BoyHttpClientProperties.ServiceEndpoint endpoint(String id, String... hosts) {
+        BoyHttpClientProperties.ServiceEndpoint endpoint = new BoyHttpClientProperties.ServiceEndpoint();
+        endpoint.setId(id);
+        endpoint.setHosts(Arrays.asList(hosts));
+        return endpoint;
+    }
+
+    private BoyHttpClientProperties properties(BoyHttpClientProperties.ServiceEndpoint... endpoints) {
+        BoyHttpClientProperties properties = new BoyHttpClientProperties();
+        properties.setEndpoints(Arrays.asList(endpoints));
+        return properties;
+    }
+}
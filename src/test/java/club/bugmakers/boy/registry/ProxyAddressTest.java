@@ -0,0 +1,38 @@
+package club.bugmakers.boy.registry;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProxyAddressTest {
+
+    @Test
+    public void testParse() {
+        ProxyAddress proxyAddress = ProxyAddress.parse("localhost:3128");
+        assertEquals("localhost:3128", proxyAddress.getValue());
+        assertEquals("localhost", proxyAddress.getHost());
+        assertEquals(3128, proxyAddress.getPort());
+        assertEquals("localhost", proxyAddress.getHttpHost().getHostName());
+
+        Proxy proxy = proxyAddress.getProxy();
+        assertEquals(Proxy.Type.HTTP, proxy.type());
+        InetSocketAddress address = (InetSocketAddress) proxy.address();
+        assertEquals("localhost", address.getHostName());
+        assertEquals(3128, address.getPort());
+        // 启动时不解析代理主机
+        assertTrue(address.isUnresolved());
+    }
+
+    @Test
+    public void testInvalidFormat() {
+        assertThrows(IllegalArgumentException.class, () -> ProxyAddress.parse("localhost"));
+    }
+
+    @Test
+    public void testInvalidPort() {
+        assertThrows(IllegalArgumentException.class, () -> ProxyAddress.parse("localhost:abc"));
+    }
+}
@@ -0,0 +1,65 @@
+package club.bugmakers.boy.retry;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryBudgetTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void testInitialReserveThenExhausted() {
+        RetryBudget budget = new RetryBudget(config(20, 2), now::get);
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    public void testRequestsDepositPercentage() {
+        RetryBudget budget = new RetryBudget(config(20, 0), now::get);
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+        // 100 个请求的 20%，但不超过容量
+        assertEquals(10, budget.available());
+        int retries = 0;
+        while (budget.tryAcquire()) {
+            retries++;
+        }
+        assertEquals(10, retries);
+    }
+
+    @Test
+    public void testMinRetriesPerSecondRefill() {
+        RetryBudget budget = new RetryBudget(config(0, 5), now::get);
+        while (budget.tryAcquire()) {
+            // 耗尽初始保底量
+        }
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        assertEquals(2, budget.available());
+        // 长时间空闲后不超过 10 秒的保底量
+        now.addAndGet(TimeUnit.HOURS.toNanos(1));
+        assertEquals(50, budget.available());
+    }
+
+    @Test
+    public void testRetryAfterParsing() {
+        assertEquals(-1, RetryAfter.parse(null));
+        assertEquals(-1, RetryAfter.parse("soon"));
+        assertEquals(3000, RetryAfter.parse(" 3 "));
+        assertEquals(0, RetryAfter.parse("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+
+    private static BoyHttpClientProperties.RetryBudgetConfig config(double percent, int minRetriesPerSecond) {
+        BoyHttpClientProperties.RetryBudgetConfig config = new BoyHttpClientProperties.RetryBudgetConfig();
+        config.setBudgetPercent(percent);
+        config.setMinRetriesPerSecond(minRetriesPerSecond);
+        return config;
+    }
+}
@@ -0,0 +1,122 @@
+package club.bugmakers.boy.retry;
+
+import club.bugmakers.boy.properties.BoyHttpClientProperties;
+import club.bugmakers.boy.registry.RetrySettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryEngineTest {
+
+    private final RetryEngine engine = new RetryEngine();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    public void shutdown() {
+        engine.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBlockingRetry() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Thread caller = Thread.currentThread();
+        String result = engine.execute("test", retry(3, 10), (attempt, future) -> {
+            // 所有尝试都在调用线程上执行
+            assertSame(caller, Thread.currentThread());
+            if (calls.incrementAndGet() < 3) {
+                throw new IOException("failed " + attempt);
+            }
+            return "ok";
+        }, IOException.class::isInstance);
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testBlockingMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+        IOException e = assertThrows(IOException.class, () -> engine.execute("test", retry(2, 10), (attempt, future) -> {
+            calls.incrementAndGet();
+            throw new IOException("failed " + attempt);
+        }, IOException.class::isInstance));
+
+        assertEquals("failed 2", e.getMessage());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testNotRetryable() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(IllegalStateException.class, () -> engine.execute("test", retry(3, 10), (attempt, future) -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("fatal");
+        }, IOException.class::isInstance));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testManyPendingRetries() throws Exception {
+        // 大量请求同时处于退避状态，只占用定时器队列而不占用线程
+        List<RetryFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            int index = i;
+            futures.add(engine.executeAsync("test", retry(2, 200), executor, (attempt, future) -> {
+                if (attempt == 1) {
+                    throw new IOException("first attempt");
+                }
+                return index;
+            }, IOException.class::isInstance));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testCancelPendingRetry() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        RetryFuture<String> future = engine.executeAsync("test", retry(3, 500), executor, (attempt, f) -> {
+            calls.incrementAndGet();
+            throw new IOException("failed");
+        }, IOException.class::isInstance);
+
+        Thread.sleep(100);
+        assertTrue(future.cancel(true));
+        Thread.sleep(600);
+
+        assertThrows(CancellationException.class, future::join);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testAsyncFailure() {
+        RetryFuture<String> future = engine.executeAsync("test", retry(2, 10), executor, (attempt, f) -> {
+            throw new IOException("failed " + attempt);
+        }, IOException.class::isInstance);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals("failed 2", e.getCause().getMessage());
+    }
+
+    private RetrySettings retry(int maxAttempts, long backoffMs) {
+        BoyHttpClientProperties.RetryPolicy policy = new BoyHttpClientProperties.RetryPolicy();
+        policy.setMaxAttempts(maxAttempts);
+        policy.setBackoffMs(backoffMs);
+        policy.setMultiplier(1.0);
+        policy.setJitter(BoyHttpClientProperties.RetryJitter.NONE);
+        return new RetrySettings(policy);
+    }
+}